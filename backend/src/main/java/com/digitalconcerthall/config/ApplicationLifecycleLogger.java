@@ -6,12 +6,15 @@ import org.slf4j.MDC;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.event.ApplicationStartedEvent;
 import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.core.annotation.Order;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
+import com.digitalconcerthall.config.init.DeferredInitTask;
+
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -133,33 +136,42 @@ public class ApplicationLifecycleLogger {
         @Override
         public void onApplicationEvent(@NonNull ApplicationReadyEvent event) {
             LocalDateTime now = LocalDateTime.now();
+            Duration duration = event.getTimeTaken();
 
-            // 計算總啟動時間（需要從MDC或其他方式獲取啟動時間）
-            String startupTimeStr = MDC.get("startupTime");
-            if (startupTimeStr != null) {
-                try {
-                    LocalDateTime startupTime = LocalDateTime.parse(startupTimeStr + "00",
-                            DateTimeFormatter.ofPattern("yyyyMMdd_HHmmssSSS"));
-                    Duration duration = Duration.between(startupTime, now);
-
-                    logger.info("================================================================================");
-                    logger.info("數位音樂廳後端服務完全就緒");
-                    logger.info("就緒時間: {}", now.format(FORMATTER));
-                    logger.info("總啟動時間: {} 毫秒 ({} 秒)", duration.toMillis(), duration.toMillis() / 1000.0);
-                    logger.info("================================================================================");
-                } catch (Exception e) {
-                    logger.warn("無法計算啟動時間: {}", e.getMessage());
-                }
+            logger.info("================================================================================");
+            logger.info("數位音樂廳後端服務完全就緒");
+            logger.info("就緒時間: {}", now.format(FORMATTER));
+            if (duration != null) {
+                logger.info("總啟動時間: {} 毫秒 ({} 秒)", duration.toMillis(), duration.toMillis() / 1000.0);
             }
+            logger.info("================================================================================");
+        }
+    }
+
+    /**
+     * 就緒後的啟動報告（服務地址、記憶體、標記檔案），由 DeferredInitRunner 在背景執行
+     */
+    @Component
+    @Order(100)
+    public static class ApplicationReadyReport implements DeferredInitTask {
+        private static final Logger logger = LoggerFactory.getLogger(ApplicationReadyReport.class);
 
+        @Override
+        public String getName() {
+            return "lifecycle-report";
+        }
+
+        @Override
+        public void run(ApplicationContext context) {
             // 記錄服務URL資訊
             try {
-                String port = event.getApplicationContext().getEnvironment().getProperty("server.port", "8080");
+                String port = context.getEnvironment().getProperty("server.port", "8080");
                 logger.info("服務訪問地址:");
                 logger.info("  本地訪問: http://localhost:{}", port);
                 logger.info("  API文檔: http://localhost:{}/swagger-ui.html", port);
                 logger.info("  H2控制台: http://localhost:{}/h2-console", port);
                 logger.info("  健康檢查: http://localhost:{}/actuator/health", port);
+                logger.info("  啟動分析: http://localhost:{}/actuator/startup", port);
             } catch (Exception e) {
                 logger.warn("無法獲取服務訪問資訊: {}", e.getMessage());
             }
@@ -180,6 +192,7 @@ public class ApplicationLifecycleLogger {
             try {
                 String timestamp = LocalDateTime.now().format(FILE_FORMATTER);
                 File markerFile = new File("logs/startup/startup_success_" + timestamp + ".marker");
+                markerFile.getParentFile().mkdirs();
 
                 try (FileWriter writer = new FileWriter(markerFile)) {
                     writer.write("數位音樂廳後端服務啟動成功\n");
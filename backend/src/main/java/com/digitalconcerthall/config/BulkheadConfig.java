@@ -0,0 +1,92 @@
+package com.digitalconcerthall.config;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.digitalconcerthall.datasource.BulkheadDataSource;
+import com.digitalconcerthall.datasource.Workload;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 連線隔離配置
+ * 將容器中的 DataSource 包裝為 {@link BulkheadDataSource}，下單、瀏覽與後台各自使用獨立的連線名額。
+ * 分區設定為 app.datasource.bulkhead.{checkout|browse|admin}.max-concurrent / timeout-ms
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadConfig.class);
+
+    /**
+     * 必須是 static，避免 BeanPostProcessor 提早初始化此配置類別
+     */
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !isBulkhead((DataSource) bean)) {
+                    return createBulkhead((DataSource) bean, environment);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                if (dataSource.isWrapperFor(BulkheadDataSource.class)) {
+                    dataSource.unwrap(BulkheadDataSource.class).bindTo(registry);
+                }
+            } catch (SQLException e) {
+                logger.warn("無法註冊連線分區指標: {}", e.getMessage());
+            }
+        };
+    }
+
+    private static BulkheadDataSource createBulkhead(DataSource target, Environment environment) {
+        Workload defaultWorkload = environment.getProperty(
+                "app.datasource.bulkhead.default-workload", Workload.class, Workload.BROWSE);
+        BulkheadDataSource bulkhead = new BulkheadDataSource(target, defaultWorkload);
+
+        int total = 0;
+        for (Workload workload : Workload.values()) {
+            String prefix = "app.datasource.bulkhead." + workload.name().toLowerCase();
+            Integer maxConcurrent = environment.getProperty(prefix + ".max-concurrent", Integer.class);
+            if (maxConcurrent == null) {
+                continue;
+            }
+            long timeoutMs = environment.getProperty(prefix + ".timeout-ms", Long.class, 5000L);
+            bulkhead.partition(workload, maxConcurrent, timeoutMs);
+            total += maxConcurrent;
+            logger.info("連線分區 {}: 名額 {}, 等待上限 {}ms", workload, maxConcurrent, timeoutMs);
+        }
+
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        if (total > poolSize) {
+            logger.warn("連線分區名額總和 {} 超過連接池大小 {}，分區之間無法完全隔離", total, poolSize);
+        }
+        return bulkhead;
+    }
+
+    private static boolean isBulkhead(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(BulkheadDataSource.class);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.digitalconcerthall.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.stereotype.Component;
 
 import com.digitalconcerthall.model.ERole;
@@ -14,13 +16,18 @@ public class DatabaseInitializer implements CommandLineRunner {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private ApplicationStartup applicationStartup;
+
     @Override
     public void run(String... args) throws Exception {
+        StartupStep step = applicationStartup.start("dch.init.roles");
         // Initialize default roles if they don't exist
         for (ERole role : ERole.values()) {
             if (!roleRepository.findByName(role).isPresent()) {
                 roleRepository.save(new Role(role));
             }
         }
+        step.end();
     }
 }
@@ -0,0 +1,22 @@
+package com.digitalconcerthall.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 標記只在 diagnostics profile 下註冊的診斷用元件（除錯端點、測試日誌等）
+ * test profile 透過 spring.profiles.group 自動包含 diagnostics；預設的 dev profile 不包含，需要時手動加入
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Profile(DiagnosticsOnly.PROFILE)
+public @interface DiagnosticsOnly {
+
+    String PROFILE = "diagnostics";
+}
@@ -0,0 +1,79 @@
+package com.digitalconcerthall.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.servlet.ServletContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * 啟動報告
+ * 列出 {@link DiagnosticsOnly} 元件的載入狀態，並記錄啟動時間與請求過濾器鏈長度，
+ * 方便比較有無 diagnostics profile 時的差異
+ */
+@Component
+public class DiagnosticsStartupReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiagnosticsStartupReport.class);
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        ApplicationContext context = event.getApplicationContext();
+        boolean diagnosticsActive = Arrays.asList(context.getEnvironment().getActiveProfiles())
+                .contains(DiagnosticsOnly.PROFILE);
+
+        List<String> registered = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(DiagnosticsOnly.class));
+        for (BeanDefinition candidate : scanner.findCandidateComponents("com.digitalconcerthall")) {
+            String className = candidate.getBeanClassName();
+            try {
+                Class<?> type = ClassUtils.forName(className, context.getClassLoader());
+                if (context.getBeanNamesForType(type, false, false).length > 0) {
+                    registered.add(type.getSimpleName());
+                } else {
+                    skipped.add(type.getSimpleName());
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                skipped.add(className);
+            }
+        }
+
+        int securityFilters = 0;
+        for (FilterChainProxy proxy : context.getBeansOfType(FilterChainProxy.class).values()) {
+            for (SecurityFilterChain chain : proxy.getFilterChains()) {
+                securityFilters += chain.getFilters().size();
+            }
+        }
+        int servletFilters = -1;
+        if (context instanceof WebApplicationContext) {
+            ServletContext servletContext = ((WebApplicationContext) context).getServletContext();
+            if (servletContext != null) {
+                servletFilters = servletContext.getFilterRegistrations().size();
+            }
+        }
+
+        logger.info("啟動報告: 耗時 {} ms, profiles={}, diagnostics={}",
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1,
+                Arrays.toString(context.getEnvironment().getActiveProfiles()),
+                diagnosticsActive ? "啟用" : "停用");
+        logger.info("請求過濾器鏈: Servlet 過濾器 {} 個, Spring Security 過濾器 {} 個", servletFilters, securityFilters);
+        logger.info("診斷元件已載入 {} 個: {}", registered.size(), registered);
+        logger.info("診斷元件已略過 {} 個: {}", skipped.size(), skipped);
+    }
+}
@@ -0,0 +1,32 @@
+package com.digitalconcerthall.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 資料庫遷移配置
+ * 結構變更一律由 db/migration 下的 Flyway 腳本管理，Hibernate 不再自動建表
+ */
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlywayConfig.class);
+
+    /**
+     * app.flyway.clean-before-migrate=true 時先清空再遷移，取代原本測試環境的 create-drop
+     * 需同時設定 spring.flyway.clean-disabled=false
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.flyway.clean-before-migrate", havingValue = "true")
+    public FlywayMigrationStrategy cleanMigrateStrategy() {
+        return flyway -> {
+            logger.warn("清空資料庫結構後重新遷移: {}", flyway.getConfiguration().getUrl());
+            flyway.clean();
+            flyway.migrate();
+        };
+    }
+}
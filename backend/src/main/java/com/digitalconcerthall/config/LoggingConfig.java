@@ -12,7 +12,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Profile;
 import org.springframework.web.filter.CommonsRequestLoggingFilter;
 
 import com.digitalconcerthall.logging.EnhancedLoggingFilter;
@@ -38,57 +37,6 @@ public class LoggingConfig {
     @Value("${logging.pattern.file:%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n}")
     private String filePattern;
     
-    /**
-     * 配置測試環境特定日誌
-     */
-    @PostConstruct
-    @Profile("test")
-    public void configureTestLogging() {
-        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
-        
-        // 配置測試專用日誌文件 
-        RollingFileAppender<ILoggingEvent> testFileAppender = new RollingFileAppender<>();
-        testFileAppender.setContext(loggerContext);
-        testFileAppender.setName("testFileAppender");
-        testFileAppender.setFile(logFilePath + "/test.log");
-        
-        PatternLayoutEncoder testEncoder = new PatternLayoutEncoder();
-        testEncoder.setContext(loggerContext);
-        testEncoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} [%X{testId:-NONE}] [%X{testName:-NONE}] [%thread] %-5level %logger{36} - %msg%n");
-        testEncoder.start();
-        testFileAppender.setEncoder(testEncoder);
-        
-        SizeAndTimeBasedRollingPolicy<ILoggingEvent> testRollingPolicy = new SizeAndTimeBasedRollingPolicy<>();
-        testRollingPolicy.setContext(loggerContext);
-        testRollingPolicy.setParent(testFileAppender);
-        testRollingPolicy.setFileNamePattern(logFilePath + "/test.%d{yyyy-MM-dd}.%i.log");
-        testRollingPolicy.setMaxFileSize(FileSize.valueOf("10MB"));
-        testRollingPolicy.setMaxHistory(30);
-        testRollingPolicy.start();
-        testFileAppender.setRollingPolicy(testRollingPolicy);
-        
-        testFileAppender.start();
-        
-        // 添加測試專用日誌到logback配置
-        ch.qos.logback.classic.Logger testLogger = loggerContext.getLogger("com.digitalconcerthall.test");
-        testLogger.addAppender(testFileAppender);
-        testLogger.setAdditive(false);
-    }
-    
-    /**
-     * 配置詳細的HTTP請求日誌
-     */
-    @Bean
-    public CommonsRequestLoggingFilter requestLoggingFilter() {
-        CommonsRequestLoggingFilter filter = new CommonsRequestLoggingFilter();
-        filter.setIncludeQueryString(true);
-        filter.setIncludePayload(true);
-        filter.setMaxPayloadLength(10000);
-        filter.setIncludeHeaders(true);
-        filter.setAfterMessagePrefix("REQUEST DATA: ");
-        return filter;
-    }
-    
     /**
      * 配置自定義的增強日誌過濾器
      */
@@ -168,4 +116,65 @@ public class LoggingConfig {
         perfLogger.addAppender(perfFileAppender);
         perfLogger.setAdditive(true);
     }
+
+    /**
+     * 診斷用日誌配置（測試日誌檔、完整請求內容日誌），只在 diagnostics profile 下載入
+     */
+    @Configuration
+    @DiagnosticsOnly
+    public static class DiagnosticsLoggingConfig {
+
+        @Value("${logging.file.path:logs}")
+        private String logFilePath;
+
+        /**
+         * 配置測試環境特定日誌
+         */
+        @PostConstruct
+        public void configureTestLogging() {
+            LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        
+            // 配置測試專用日誌文件 
+            RollingFileAppender<ILoggingEvent> testFileAppender = new RollingFileAppender<>();
+            testFileAppender.setContext(loggerContext);
+            testFileAppender.setName("testFileAppender");
+            testFileAppender.setFile(logFilePath + "/test.log");
+        
+            PatternLayoutEncoder testEncoder = new PatternLayoutEncoder();
+            testEncoder.setContext(loggerContext);
+            testEncoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} [%X{testId:-NONE}] [%X{testName:-NONE}] [%thread] %-5level %logger{36} - %msg%n");
+            testEncoder.start();
+            testFileAppender.setEncoder(testEncoder);
+        
+            SizeAndTimeBasedRollingPolicy<ILoggingEvent> testRollingPolicy = new SizeAndTimeBasedRollingPolicy<>();
+            testRollingPolicy.setContext(loggerContext);
+            testRollingPolicy.setParent(testFileAppender);
+            testRollingPolicy.setFileNamePattern(logFilePath + "/test.%d{yyyy-MM-dd}.%i.log");
+            testRollingPolicy.setMaxFileSize(FileSize.valueOf("10MB"));
+            testRollingPolicy.setMaxHistory(30);
+            testRollingPolicy.start();
+            testFileAppender.setRollingPolicy(testRollingPolicy);
+        
+            testFileAppender.start();
+        
+            // 添加測試專用日誌到logback配置
+            ch.qos.logback.classic.Logger testLogger = loggerContext.getLogger("com.digitalconcerthall.test");
+            testLogger.addAppender(testFileAppender);
+            testLogger.setAdditive(false);
+        }
+    
+        /**
+         * 配置詳細的HTTP請求日誌
+         */
+        @Bean
+        public CommonsRequestLoggingFilter requestLoggingFilter() {
+            CommonsRequestLoggingFilter filter = new CommonsRequestLoggingFilter();
+            filter.setIncludeQueryString(true);
+            filter.setIncludePayload(true);
+            filter.setMaxPayloadLength(10000);
+            filter.setIncludeHeaders(true);
+            filter.setAfterMessagePrefix("REQUEST DATA: ");
+            return filter;
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package com.digitalconcerthall.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.digitalconcerthall.monitoring.query.QueryBudgetMonitor;
+import com.digitalconcerthall.monitoring.query.QueryMeteringDataSource;
+
+/**
+ * SQL 計量配置
+ * 將容器中的 DataSource 包裝為 {@link QueryMeteringDataSource}，取代 show-sql 作為分析資料庫負載的方式
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMeteringConfig {
+
+    /**
+     * 必須是 static，避免 BeanPostProcessor 提早初始化此配置類別
+     */
+    @Bean
+    public static BeanPostProcessor queryMeteringDataSourcePostProcessor(
+            Environment environment, ObjectProvider<QueryBudgetMonitor> queryBudgetMonitor) {
+        long slowQueryMs = environment.getProperty("app.db.slow-query-ms", Long.class, 200L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof QueryMeteringDataSource)) {
+                    return new QueryMeteringDataSource((DataSource) bean, slowQueryMs,
+                            (sql, durationMs) -> queryBudgetMonitor.ifAvailable(
+                                    monitor -> monitor.onSlowQuery(sql, durationMs)));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.digitalconcerthall.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.digitalconcerthall.datasource.ReadFromPrimaryAspect;
+import com.digitalconcerthall.datasource.ReadWriteRoutingDataSource;
+import com.digitalconcerthall.datasource.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 讀寫分離配置
+ * app.datasource.replica.enabled=true 時以路由資料來源取代 Spring Boot 自動建立的單一連接池：
+ * 唯讀交易走從庫，寫入交易、交易外的存取與 Flyway 遷移一律走主庫。
+ * 兩個連接池都不註冊為 Bean，避免 SQL 計量重複包裝，連接池指標改由此處直接掛上 Micrometer
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(Environment environment) {
+        return new ReadYourWritesTracker(
+                environment.getProperty("app.datasource.replica.sticky-window-ms", Long.class, 5000L));
+    }
+
+    @Bean
+    public ReadFromPrimaryAspect readFromPrimaryAspect() {
+        return new ReadFromPrimaryAspect();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+            ReadYourWritesTracker readYourWritesTracker, ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        HikariDataSource replica = new HikariDataSource();
+        replica.setJdbcUrl(environment.getRequiredProperty("app.datasource.replica.url"));
+        replica.setUsername(environment.getProperty("app.datasource.replica.username", properties.getUsername()));
+        replica.setPassword(environment.getProperty("app.datasource.replica.password", properties.getPassword()));
+        replica.setDriverClassName(environment.getProperty("app.datasource.replica.driver-class-name",
+                properties.getDriverClassName()));
+        binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("replica");
+        // 從庫連線一律唯讀，即使路由判斷出錯也不會寫入從庫
+        replica.setReadOnly(true);
+
+        if (registry != null) {
+            primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+
+        pools.add(primary);
+        pools.add(replica);
+        logger.info("啟用讀寫分離 - 主庫: {}, 從庫: {}, 寫後讀主庫窗口: {}ms",
+                primary.getJdbcUrl(), replica.getJdbcUrl(), readYourWritesTracker.getWindowMs());
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, readYourWritesTracker, registry));
+    }
+
+    @PreDestroy
+    public void closePools() {
+        pools.forEach(HikariDataSource::close);
+        pools.clear();
+    }
+}
@@ -0,0 +1,15 @@
+package com.digitalconcerthall.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 排程配置
+ * 啟用 @Scheduled 任務（系統監控、執行期遙測取樣），可用 spring.task.scheduling.enabled=false 關閉
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "spring.task.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -118,12 +118,16 @@ public class SecurityConfig {
                     "/public/**",
                     "/api/debug/**",
                     "/api/concerts/**",
+                    "/api/catalog/**",
+                    "/api/search/**",
                     "/api/performances/**",
                     "/api/tickets/available",
                     "/api/direct/**",
                     "/api/setup/**"
                 ).permitAll()
                 .requestMatchers("/api/admin/**").hasAuthority("ROLE_ADMIN")
+                // 啟動步驟含每個 bean 的名稱與耗時，只開放給管理員
+                .requestMatchers("/actuator/startup", "/actuator/startup/**").hasAuthority("ROLE_ADMIN")
                 .anyRequest().authenticated()
             );
 
@@ -0,0 +1,43 @@
+package com.digitalconcerthall.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 啟動配置
+ * 可將管理後台控制器改為延遲初始化，縮短擴展新實例時的就緒時間
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+    private static final String ADMIN_CONTROLLER_PACKAGE = "com.digitalconcerthall.controller.admin.";
+
+    /**
+     * app.startup.lazy-admin-controllers=true 時，管理後台控制器在第一次請求時才建立
+     * RequestMappingHandlerMapping 只以 bean 名稱註冊處理方法，不需要提前實例化
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyAdminControllersPostProcessor(Environment environment) {
+        return beanFactory -> {
+            if (!environment.getProperty("app.startup.lazy-admin-controllers", Boolean.class, false)) {
+                return;
+            }
+            int count = 0;
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                String className = definition.getBeanClassName();
+                if (className != null && className.startsWith(ADMIN_CONTROLLER_PACKAGE)) {
+                    definition.setLazyInit(true);
+                    count++;
+                }
+            }
+            logger.info("已將 {} 個管理後台控制器設為延遲初始化", count);
+        };
+    }
+}
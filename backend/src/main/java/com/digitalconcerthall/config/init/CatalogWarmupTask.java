@@ -0,0 +1,37 @@
+package com.digitalconcerthall.config.init;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.digitalconcerthall.service.catalog.CatalogSnapshot;
+import com.digitalconcerthall.service.catalog.CatalogSnapshotService;
+
+/**
+ * 預先建立目錄快照，讓第一批瀏覽請求不必等待
+ */
+@Component
+@Order(20)
+public class CatalogWarmupTask implements DeferredInitTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogWarmupTask.class);
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Override
+    public String getName() {
+        return "catalog-warmup";
+    }
+
+    @Override
+    public void run(ApplicationContext context) throws Exception {
+        CatalogSnapshot snapshot = catalogSnapshotService.refresh().get(60, TimeUnit.SECONDS);
+        logger.info("目錄快照已預熱: ETag {}", snapshot.getETag());
+    }
+}
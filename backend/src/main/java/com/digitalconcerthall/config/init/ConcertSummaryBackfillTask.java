@@ -0,0 +1,30 @@
+package com.digitalconcerthall.config.init;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+
+/**
+ * 啟動後執行一次摘要一致性檢查，補上缺漏的音樂會摘要（例如剛建立 concert_summary 表時），
+ * 在目錄快照預熱之前完成
+ */
+@Component
+@Order(15)
+public class ConcertSummaryBackfillTask implements DeferredInitTask {
+
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Override
+    public String getName() {
+        return "concert-summary-backfill";
+    }
+
+    @Override
+    public void run(ApplicationContext context) {
+        concertSummaryService.checkConsistency(true);
+    }
+}
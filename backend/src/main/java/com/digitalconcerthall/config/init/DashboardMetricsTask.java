@@ -0,0 +1,38 @@
+package com.digitalconcerthall.config.init;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.digitalconcerthall.service.dashboard.DashboardMetricsService;
+
+/**
+ * 載入儀表板統計快照，再與基礎資料表對帳，修正上次寫入快照後未保存的異動
+ */
+@Component
+@Order(30)
+public class DashboardMetricsTask implements DeferredInitTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardMetricsTask.class);
+
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Override
+    public String getName() {
+        return "dashboard-metrics";
+    }
+
+    @Override
+    public void run(ApplicationContext context) {
+        try {
+            dashboardMetricsService.loadSnapshot();
+        } catch (RuntimeException e) {
+            logger.warn("載入儀表板統計快照失敗，改為完整重算: {}", e.getMessage());
+        }
+        dashboardMetricsService.reconcile(true);
+    }
+}
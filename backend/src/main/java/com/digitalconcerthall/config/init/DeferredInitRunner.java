@@ -0,0 +1,57 @@
+package com.digitalconcerthall.config.init;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+/**
+ * 在應用程式就緒後執行所有 {@link DeferredInitTask}
+ * 每個任務都記錄為 ApplicationStartup 的 "dch.deferred-init" 步驟，可在 /actuator/startup 查看
+ */
+@Component
+public class DeferredInitRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeferredInitRunner.class);
+
+    @Autowired
+    private ObjectProvider<DeferredInitTask> tasks;
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        ApplicationContext context = event.getApplicationContext();
+        // 單一背景線程依序執行，不註冊為 Executor bean 以免取代 Spring Boot 預設的 applicationTaskExecutor
+        Thread worker = new Thread(() -> tasks.orderedStream().forEach(task -> runTask(task, context)),
+                "startup-init");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void runTask(DeferredInitTask task, ApplicationContext context) {
+        StartupStep step = startStep(context, task.getName());
+        long start = System.currentTimeMillis();
+        try {
+            task.run(context);
+            logger.info("延後初始化任務完成: {} ({} ms)", task.getName(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            step.tag("failure", e.getClass().getSimpleName());
+            logger.error("延後初始化任務失敗: {} - {}", task.getName(), e.getMessage(), e);
+        } finally {
+            step.end();
+        }
+    }
+
+    private static StartupStep startStep(ApplicationContext context, String taskName) {
+        ApplicationStartup applicationStartup = context instanceof ConfigurableApplicationContext
+                ? ((ConfigurableApplicationContext) context).getApplicationStartup()
+                : ApplicationStartup.DEFAULT;
+        return applicationStartup.start("dch.deferred-init").tag("task", taskName);
+    }
+}
@@ -0,0 +1,17 @@
+package com.digitalconcerthall.config.init;
+
+import org.springframework.context.ApplicationContext;
+
+/**
+ * 非關鍵的啟動工作（示範資料檢查、啟動報告等）
+ * 由 DeferredInitRunner 在應用程式就緒後於背景線程依 @Order 順序執行，不會延後就緒時間
+ */
+public interface DeferredInitTask {
+
+    /**
+     * 任務名稱，用於日誌與 ApplicationStartup 記錄
+     */
+    String getName();
+
+    void run(ApplicationContext context) throws Exception;
+}
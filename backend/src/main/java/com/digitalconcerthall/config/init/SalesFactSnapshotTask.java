@@ -0,0 +1,29 @@
+package com.digitalconcerthall.config.init;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.digitalconcerthall.service.analytics.SalesFactSnapshotService;
+
+/**
+ * 載入銷售明細的記憶體快照；載入完成前彙總 API 回傳 503
+ */
+@Component
+@Order(40)
+public class SalesFactSnapshotTask implements DeferredInitTask {
+
+    @Autowired
+    private SalesFactSnapshotService salesFactSnapshotService;
+
+    @Override
+    public String getName() {
+        return "sales-fact-snapshot";
+    }
+
+    @Override
+    public void run(ApplicationContext context) {
+        salesFactSnapshotService.rebuild();
+    }
+}
@@ -0,0 +1,29 @@
+package com.digitalconcerthall.config.init;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.digitalconcerthall.service.analytics.SalesRollupService;
+
+/**
+ * 重算最近的銷售彙總，修正上次停止前尚未處理的異動；第一次部署時回填全部訂單
+ */
+@Component
+@Order(35)
+public class SalesRollupTask implements DeferredInitTask {
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Override
+    public String getName() {
+        return "sales-rollup";
+    }
+
+    @Override
+    public void run(ApplicationContext context) {
+        salesRollupService.rebuildOnStartup();
+    }
+}
@@ -0,0 +1,29 @@
+package com.digitalconcerthall.config.init;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.digitalconcerthall.service.search.ConcertSearchService;
+
+/**
+ * 建立音樂會搜尋索引；完成前搜尋 API 回傳 503
+ */
+@Component
+@Order(25)
+public class SearchIndexTask implements DeferredInitTask {
+
+    @Autowired
+    private ConcertSearchService concertSearchService;
+
+    @Override
+    public String getName() {
+        return "search-index";
+    }
+
+    @Override
+    public void run(ApplicationContext context) {
+        concertSearchService.rebuild();
+    }
+}
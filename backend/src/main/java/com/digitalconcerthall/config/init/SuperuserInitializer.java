@@ -0,0 +1,81 @@
+package com.digitalconcerthall.config.init;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.digitalconcerthall.model.AdminUser;
+import com.digitalconcerthall.model.ERole;
+import com.digitalconcerthall.model.Role;
+import com.digitalconcerthall.repository.AdminUserRepository;
+import com.digitalconcerthall.repository.RoleRepository;
+
+/**
+ * 檢查並建立預設超級使用者
+ * 在就緒前執行，新資料庫啟動完成後即可登入管理後台；耗時記錄為 "dch.init.superuser" 啟動步驟
+ */
+@Component
+public class SuperuserInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuperuserInitializer.class);
+
+    private static final String SUPER_USERNAME = "superuser";
+    private static final String SUPER_PASSWORD = "DefaultPassword123!"; // 請務必在生產環境中使用更安全的密碼或配置方式
+    private static final String SUPER_EMAIL = "superuser@example.com"; // 可以是假 Email
+
+    @Autowired
+    private AdminUserRepository adminUserRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ApplicationStartup applicationStartup;
+
+    @Override
+    public void run(String... args) {
+        StartupStep step = applicationStartup.start("dch.init.superuser");
+        try {
+            createSuperuserIfMissing();
+        } finally {
+            step.end();
+        }
+    }
+
+    private void createSuperuserIfMissing() {
+        // 檢查超級使用者是否已存在
+        if (adminUserRepository.existsByUsername(SUPER_USERNAME)) {
+            logger.info("Superuser {} already exists.", SUPER_USERNAME);
+            return;
+        }
+
+        logger.info("Creating superuser: {}", SUPER_USERNAME);
+
+        AdminUser superUser = new AdminUser();
+        superUser.setUsername(SUPER_USERNAME);
+        superUser.setEmail(SUPER_EMAIL);
+        superUser.setPassword(passwordEncoder.encode(SUPER_PASSWORD));
+
+        // 查找或創建 ROLE_ADMIN 角色
+        Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
+                .orElseGet(() -> roleRepository.save(new Role(ERole.ROLE_ADMIN)));
+
+        Set<Role> roles = new HashSet<>();
+        roles.add(adminRole);
+        superUser.setRoles(roles);
+
+        adminUserRepository.save(superUser);
+        logger.info("Superuser {} created successfully.", SUPER_USERNAME);
+    }
+}
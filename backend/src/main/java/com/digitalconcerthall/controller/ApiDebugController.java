@@ -13,10 +13,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.digitalconcerthall.config.DiagnosticsOnly;
+
 /**
  * API Debug Controller - For debugging API security and authentication issues
- * These endpoints are publicly accessible even in production
+ * Only registered under the diagnostics profile (see DiagnosticsOnly)
  */
+@DiagnosticsOnly
 @RestController
 @RequestMapping("/api/debug")
 public class ApiDebugController {
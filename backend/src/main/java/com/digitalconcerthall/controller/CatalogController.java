@@ -0,0 +1,89 @@
+package com.digitalconcerthall.controller;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.digitalconcerthall.dto.response.ApiResponse;
+import com.digitalconcerthall.service.catalog.CatalogSnapshot;
+import com.digitalconcerthall.service.catalog.CatalogSnapshotService;
+
+/**
+ * 非阻塞的公開目錄 API
+ * 與 ConcertController 回傳相同的 DTO，但直接讀取記憶體中的目錄快照，請求線程不進行 JDBC 呼叫；
+ * 快照尚未建立時以非同步回應釋放 servlet 線程。回應帶 ETag，內容沒有變動時返回 304
+ */
+@RestController
+@RequestMapping("/api/catalog")
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:3001" }, maxAge = 3600)
+public class CatalogController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogController.class);
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    /**
+     * 音樂會列表，status 為 active（預設）、upcoming 或 past
+     */
+    @GetMapping("/concerts")
+    public CompletableFuture<ResponseEntity<?>> getConcerts(@RequestParam(defaultValue = "active") String status) {
+        return respond(snapshot -> snapshot.getConcerts(status), "不支援的音樂會狀態: " + status);
+    }
+
+    /**
+     * 上架中音樂會的詳情，包含所有場次與票券
+     */
+    @GetMapping("/concerts/{id}")
+    public CompletableFuture<ResponseEntity<?>> getConcert(@PathVariable Long id) {
+        return respond(snapshot -> snapshot.getConcertDetail(id), null);
+    }
+
+    /**
+     * 場次的票種與剩餘數量
+     */
+    @GetMapping("/performances/{id}/tickets")
+    public CompletableFuture<ResponseEntity<?>> getPerformanceTickets(@PathVariable Long id) {
+        return respond(snapshot -> snapshot.getTickets(id), null);
+    }
+
+    /**
+     * @param badRequestMessage 找不到資料時改回 400 的訊息，null 時回 404
+     */
+    private CompletableFuture<ResponseEntity<?>> respond(Function<CatalogSnapshot, Object> body,
+            String badRequestMessage) {
+        return catalogSnapshotService.getSnapshot()
+                .<ResponseEntity<?>>thenApply(snapshot -> {
+                    Object content = body.apply(snapshot);
+                    if (content == null) {
+                        return badRequestMessage != null
+                                ? ResponseEntity.badRequest().body(new ApiResponse(false, badRequestMessage))
+                                : ResponseEntity.notFound().build();
+                    }
+                    return ResponseEntity.ok()
+                            .eTag(snapshot.getETag())
+                            .cacheControl(CacheControl
+                                    .maxAge(catalogSnapshotService.getMaxAgeMs(), TimeUnit.MILLISECONDS)
+                                    .cachePublic())
+                            .body(content);
+                })
+                .exceptionally(e -> {
+                    logger.error("讀取目錄快照失敗: {}", e.getMessage());
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .body(new ApiResponse(false, "目錄暫時無法使用，請稍後再試"));
+                });
+    }
+}
@@ -17,6 +17,7 @@ import com.digitalconcerthall.model.ticket.Ticket; // Add this import
 import com.digitalconcerthall.repository.concert.ConcertRepository;
 import com.digitalconcerthall.repository.concert.PerformanceRepository;
 import com.digitalconcerthall.repository.TicketRepository;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
 
 @RestController
 @RequestMapping("/api/concerts")
@@ -32,14 +33,14 @@ public class ConcertController {
 	@Autowired
 	private TicketRepository ticketRepository; // Ensure this field uses the correct import
 
-	// 獲取所有活躍的音樂會列表
+	@Autowired
+	private ConcertSummaryService concertSummaryService;
+
+	// 獲取所有活躍的音樂會列表（票價區間、場次數等取自音樂會摘要）
 	@GetMapping
 	public ResponseEntity<List<ConcertResponse>> getAllConcerts() {
 		List<Concert> concerts = concertRepository.findByStatus("active");
-		List<ConcertResponse> responses = concerts.stream()
-				.map(this::convertToResponse)
-				.collect(Collectors.toList());
-		return ResponseEntity.ok(responses);
+		return ResponseEntity.ok(concertSummaryService.toResponses(concerts));
 	}
 
 	// 獲取單個音樂會詳情
@@ -63,20 +64,14 @@ public class ConcertController {
 	public ResponseEntity<List<ConcertResponse>> getUpcomingConcerts() {
 		// 篩選狀態為 upcoming 的音樂會
 		List<Concert> concerts = concertRepository.findByStatus("upcoming");
-		List<ConcertResponse> responses = concerts.stream()
-				.map(this::convertToResponse)
-				.collect(Collectors.toList());
-		return ResponseEntity.ok(responses);
+		return ResponseEntity.ok(concertSummaryService.toResponses(concerts));
 	}
 
 	// 獲取過往音樂會
 	@GetMapping("/past")
 	public ResponseEntity<List<ConcertResponse>> getPastConcerts() {
 		List<Concert> concerts = concertRepository.findByStatus("past");
-		List<ConcertResponse> responses = concerts.stream()
-				.map(this::convertToResponse)
-				.collect(Collectors.toList());
-		return ResponseEntity.ok(responses);
+		return ResponseEntity.ok(concertSummaryService.toResponses(concerts));
 	}
 	
 	// 獲取所有音樂會的票券
@@ -92,50 +87,6 @@ public class ConcertController {
 		}
 	}
 
-	// 將 Concert 轉換為 ConcertResponse
-	private ConcertResponse convertToResponse(Concert concert) {
-		if (concert == null)
-			return null;
-
-		List<Performance> performances = performanceRepository.findByConcertId(concert.getId());
-		Performance firstPerformance = performances.isEmpty() ? null : performances.get(0);
-
-		ConcertResponse response = new ConcertResponse();
-		response.setId(concert.getId());
-		response.setTitle(concert.getTitle());
-		response.setDescription(concert.getDescription());
-		response.setPosterUrl(concert.getPosterUrl());
-		response.setStatus(concert.getStatus());
-
-		// 設置第一個場次的時間和地點 (放入列表中)
-		if (firstPerformance != null) {
-			// Assuming ConcertResponse has setStartTimes(List<LocalDateTime>) and setVenues(List<String>)
-			if (firstPerformance.getStartTime() != null) {
-				response.setStartTimes(List.of(firstPerformance.getStartTime()));
-			} else {
-				response.setStartTimes(java.util.Collections.emptyList());
-			}
-			if (firstPerformance.getVenue() != null) {
-				response.setVenues(List.of(firstPerformance.getVenue()));
-			} else {
-				response.setVenues(java.util.Collections.emptyList());
-			}
-		} else {
-			response.setStartTimes(java.util.Collections.emptyList());
-			response.setVenues(java.util.Collections.emptyList());
-		}
-
-		response.setPerformanceCount(performances.size());
-
-		// You might also need to calculate and set min/max price here
-		// similar to how it's done in ConcertService.java if this response needs it.
-		// response.setMinPrice(...);
-		// response.setMaxPrice(...);
-
-
-		return response;
-	}
-
 	// 將 Concert 和 Performances 轉換為詳細響應
 	private ConcertPerformanceResponse convertToDetailResponse(Concert concert, List<Performance> performances) {
 		if (concert == null)
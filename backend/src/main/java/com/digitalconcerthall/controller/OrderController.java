@@ -1,25 +1,16 @@
 package com.digitalconcerthall.controller;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import jakarta.servlet.http.HttpServletRequest;
-
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
-
-import com.digitalconcerthall.dto.request.CartItemRequest;
-import com.digitalconcerthall.security.services.UserDetailsImpl;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -30,12 +21,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.digitalconcerthall.dto.request.CartRequest;
+import com.digitalconcerthall.dto.request.order.BulkOrderRequest;
+import com.digitalconcerthall.dto.response.ApiResponse;
+import com.digitalconcerthall.dto.response.CursorPage;
 import com.digitalconcerthall.dto.response.order.OrderSummaryResponse;
-import com.digitalconcerthall.model.order.Order;
 import com.digitalconcerthall.repository.order.OrderRepository;
+import com.digitalconcerthall.service.order.BulkOrderService;
 import com.digitalconcerthall.service.order.OrderService;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -49,6 +44,9 @@ public class OrderController {
     
     @Autowired
     private OrderRepository orderRepository;
+
+    @Autowired
+    private BulkOrderService bulkOrderService;
     
     /**
      * 創建新訂單
@@ -80,94 +78,48 @@ public class OrderController {
     }
     
     /**
-     * 測試訂單權限 - 無需實際權限即可訪問，用於調試
+     * 團體與企業大量訂票：建立工作後立即回傳，在背景保留庫存並建立待付款訂單，以工作 ID 查詢進度；
+     * 訂單以一般付款流程付款後才發行票券，逾期未付款時釋放保留的庫存
      */
-    @GetMapping("/auth-test")
-    public ResponseEntity<Map<String, Object>> testOrderAuth() {
-        Map<String, Object> response = new HashMap<>();
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (auth != null) {
-            response.put("authenticated", auth.isAuthenticated());
-            response.put("principal_type", auth.getPrincipal().getClass().getName());
-            response.put("authorities", auth.getAuthorities());
-            response.put("can_create_order", auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
-            
-            // 詳細記錄所有認證細節
-            if (auth.getPrincipal() instanceof UserDetailsImpl) {
-                UserDetailsImpl userDetails = (UserDetailsImpl) auth.getPrincipal();
-                response.put("user_id", userDetails.getId());
-                response.put("username", userDetails.getUsername());
-                response.put("email", userDetails.getEmail());
-            }
-            
-            logger.info("Order auth test called with details: {}", response);
-        } else {
-            response.put("authenticated", false);
-            response.put("message", "No authentication found");
-            logger.warn("Order auth test: No authentication in context");
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> createBulkOrder(@RequestBody BulkOrderRequest request, Authentication authentication) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(bulkOrderService.submit(request, authentication.getName()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "建立大量訂票失敗: " + e.getMessage()));
         }
-        
-        return ResponseEntity.ok(response);
     }
-    
+
     /**
-     * 測試訂單創建 - 可用來驗證請求數據
-     * 此端點不需要認證權限，用於診斷問題
+     * 大量訂票的進度，只能查詢自己的工作
      */
-    @PostMapping("/test-create")
-    public ResponseEntity<?> testOrderCreation(@RequestBody CartRequest cartRequest) {
-        Map<String, Object> response = new HashMap<>();
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        
-        // 記錄認證信息
-        response.put("authenticated", auth != null && auth.isAuthenticated());
-        response.put("principal", auth != null ? auth.getPrincipal().toString() : "null");
-        response.put("authorities", auth != null ? auth.getAuthorities().toString() : "null");
-        
-        // 檢查請求頭
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Authorization", getHeaderValue("Authorization"));
-        response.put("headers", headers);
-        
-        // 檢查購物車數據
-        response.put("cartItems", cartRequest.getItems() != null ? cartRequest.getItems().size() : 0);
-        if (cartRequest.getItems() != null && !cartRequest.getItems().isEmpty()) {
-            List<Map<String, Object>> items = new ArrayList<>();
-            for (CartItemRequest item : cartRequest.getItems()) {
-                Map<String, Object> itemMap = new HashMap<>();
-                itemMap.put("id", item.getId());
-                itemMap.put("type", item.getType());
-                itemMap.put("quantity", item.getQuantity());
-                itemMap.put("concertId", item.getConcertId());
-                itemMap.put("price", item.getPrice());
-                items.add(itemMap);
-            }
-            response.put("items", items);
-        }
-        
-        logger.info("Test order creation: {}", response);
-        return ResponseEntity.ok(response);
+    @GetMapping("/bulk/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> getBulkOrder(@PathVariable("id") String id, Authentication authentication) {
+        return bulkOrderService.getJob(id, authentication.getName())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
-    
-    // 輔助方法，安全地取得請求頭部值
-    private String getHeaderValue(String headerName) {
+
+    /**
+     * 繼續失敗的大量訂票：尚未保留庫存時重新保留，已付款時從已發行的張數繼續
+     */
+    @PostMapping("/bulk/{id}/resume")
+    @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> resumeBulkOrder(@PathVariable("id") String id, Authentication authentication) {
         try {
-            HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
-            String headerValue = request.getHeader(headerName);
-            
-            // 象遞性地遺得令牌
-            if (headerName.equalsIgnoreCase("Authorization") && headerValue != null && headerValue.length() > 15) {
-                return headerValue.substring(0, 15) + "...";
-            }
-            
-            return headerValue;
+            return bulkOrderService.resume(id, authentication.getName())
+                    .<ResponseEntity<?>>map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse(false, e.getMessage()));
         } catch (Exception e) {
-            return "Could not retrieve header: " + e.getMessage();
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "繼續大量訂票失敗: " + e.getMessage()));
         }
     }
-    
+
     /**
      * 獲取當前登錄用戶的所有訂單
      */
@@ -179,6 +131,22 @@ public class OrderController {
         Page<OrderSummaryResponse> orders = orderService.getCurrentUserOrders(pageable);
         return ResponseEntity.ok(orders);
     }
+
+    /**
+     * 以游標分頁獲取當前登錄用戶的訂單，翻頁深度不影響查詢成本
+     */
+    @GetMapping("/me/cursor")
+    @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> getCurrentUserOrdersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+        try {
+            CursorPage<OrderSummaryResponse> orders = orderService.getCurrentUserOrders(cursor, size);
+            return ResponseEntity.ok(orders);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "獲取訂單失敗: " + e.getMessage()));
+        }
+    }
     
     /**
      * 根據訂單編號獲取訂單詳情
@@ -215,9 +183,8 @@ public class OrderController {
      */
     @GetMapping("/recent")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getRecentOrders() {
-        Pageable limit = PageRequest.of(0, 10); // 只取最近 10 筆
-        List<Order> recentOrders = orderRepository.findRecentOrders(limit);
+    public ResponseEntity<List<OrderSummaryResponse>> getRecentOrders() {
+        List<OrderSummaryResponse> recentOrders = orderService.getRecentOrders(10); // 只取最近 10 筆
         return ResponseEntity.ok(recentOrders);
     }
 }
@@ -22,9 +22,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.digitalconcerthall.datasource.UseWorkload;
+import com.digitalconcerthall.datasource.Workload;
 import com.digitalconcerthall.dto.response.ApiResponse;
 import com.digitalconcerthall.exception.ResourceNotFoundException;
 import com.digitalconcerthall.model.order.Order;
+import com.digitalconcerthall.monitoring.jfr.JfrEvents;
+import com.digitalconcerthall.monitoring.jfr.PaymentNotificationEvent;
 import com.digitalconcerthall.service.order.OrderService;
 import com.digitalconcerthall.service.payment.ECPayService;
 import com.digitalconcerthall.service.ticket.TicketService;
@@ -109,7 +113,24 @@ public class PaymentController {
      */
     @PostMapping("/ecpay/notify")
     @Transactional
+    @UseWorkload(Workload.CHECKOUT)
     public String handlePaymentNotification(@RequestParam Map<String, String> notifyParams) {
+        PaymentNotificationEvent event = new PaymentNotificationEvent();
+        event.begin();
+        String result = null;
+        try {
+            result = processPaymentNotification(notifyParams);
+            return result;
+        } finally {
+            event.orderNumber = notifyParams.get("MerchantTradeNo");
+            event.rtnCode = notifyParams.get("RtnCode");
+            event.traceId = JfrEvents.currentTraceId();
+            event.result = result != null ? result : "exception";
+            event.commit();
+        }
+    }
+
+    private String processPaymentNotification(Map<String, String> notifyParams) {
         // 判斷是否為測試模式
         boolean isTestMode = notifyParams.size() <= 2 && notifyParams.containsKey("RtnCode") && notifyParams.containsKey("MerchantTradeNo");
         
@@ -0,0 +1,69 @@
+package com.digitalconcerthall.controller;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.digitalconcerthall.dto.response.ApiResponse;
+import com.digitalconcerthall.service.search.ConcertSearchQuery;
+import com.digitalconcerthall.service.search.ConcertSearchService;
+
+/**
+ * 公開的音樂會搜尋 API
+ * 關鍵字比對標題、介紹、曲目與演出地點，可依狀態、地點、日期區間與最低票價區間篩選
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:3001" }, maxAge = 3600)
+public class SearchController {
+
+    @Autowired
+    private ConcertSearchService concertSearchService;
+
+    /**
+     * 搜尋音樂會
+     * @param sort relevance（預設）、date 或 price
+     * @param page 從 0 開始
+     */
+    @GetMapping("/concerts")
+    public ResponseEntity<?> searchConcerts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String venue,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String priceBand,
+            @RequestParam(defaultValue = "relevance") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (!concertSearchService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse(false, "搜尋索引建立中，請稍後再試"));
+        }
+        ConcertSearchQuery query = new ConcertSearchQuery();
+        try {
+            query.setSort(ConcertSearchQuery.Sort.valueOf(sort.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "不支援的排序方式: " + sort));
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "開始日期不可晚於結束日期"));
+        }
+        query.setText(q);
+        query.setStatus(status);
+        query.setVenue(venue);
+        query.setFrom(from);
+        query.setTo(to);
+        query.setPriceBand(priceBand);
+        return ResponseEntity.ok(concertSearchService.search(query, page, size));
+    }
+}
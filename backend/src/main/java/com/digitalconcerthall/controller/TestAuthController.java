@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import com.digitalconcerthall.config.DiagnosticsOnly;
 import com.digitalconcerthall.security.jwt.JwtUtils;
 import com.digitalconcerthall.security.services.UserDetailsImpl;
 
@@ -26,6 +27,7 @@ import java.util.Map;
  * 測試認證相關的控制器，用於診斷 JWT 令牌和認證問題
  */
 @CrossOrigin(origins = { "http://localhost:3000", "http://localhost:3001", "http://localhost:3002" }, maxAge = 3600)
+@DiagnosticsOnly
 @RestController
 @RequestMapping("/api/test-auth")
 public class TestAuthController {
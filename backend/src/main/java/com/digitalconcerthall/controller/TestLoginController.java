@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.digitalconcerthall.config.DiagnosticsOnly;
 import com.digitalconcerthall.dto.response.JwtResponse;
 import com.digitalconcerthall.model.ERole;
 import com.digitalconcerthall.model.Role;
@@ -32,6 +33,7 @@ import java.util.stream.Collectors;
              maxAge = 3600, 
              allowCredentials = "true",
              allowedHeaders = "*")
+@DiagnosticsOnly
 @RestController
 @RequestMapping("/api/test-login")
 public class TestLoginController {
@@ -11,12 +11,16 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.digitalconcerthall.dto.response.ApiResponse;
+import com.digitalconcerthall.dto.response.CursorPage;
 import com.digitalconcerthall.dto.response.ticket.TicketResponse;
 import com.digitalconcerthall.dto.response.ticket.UserTicketDetailResponse;
 import com.digitalconcerthall.dto.response.ticket.UserTicketSummaryResponse;
 import com.digitalconcerthall.service.ticket.TicketService;
+import com.digitalconcerthall.service.ticket.UserTicketService;
 
 import java.util.List;
 
@@ -28,6 +32,9 @@ public class TicketController {
     @Autowired
     private TicketService ticketService;
 
+    @Autowired
+    private UserTicketService userTicketService;
+
     /**
      * 獲取當前登錄用戶的所有票券
      */
@@ -36,10 +43,26 @@ public class TicketController {
     public ResponseEntity<Page<UserTicketSummaryResponse>> getCurrentUserTickets(
             @PageableDefault(size = 10) Pageable pageable) {
 
-        Page<UserTicketSummaryResponse> tickets = ticketService.getCurrentUserTickets(pageable);
+        Page<UserTicketSummaryResponse> tickets = userTicketService.getCurrentUserTickets(pageable);
         return ResponseEntity.ok(tickets);
     }
 
+    /**
+     * 以游標分頁獲取當前登錄用戶的票券，翻頁深度不影響查詢成本
+     */
+    @GetMapping("/tickets/cursor")
+    @PreAuthorize("hasRole('USER') or hasRole('MODERATOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> getCurrentUserTicketsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+        try {
+            CursorPage<UserTicketSummaryResponse> tickets = userTicketService.getCurrentUserTickets(cursor, size);
+            return ResponseEntity.ok(tickets);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "獲取票券失敗: " + e.getMessage()));
+        }
+    }
+
     /**
      * 獲取特定票券的詳細資訊（包含QR碼）
      */
@@ -48,7 +71,7 @@ public class TicketController {
     public ResponseEntity<UserTicketDetailResponse> getUserTicketDetail(
             @PathVariable Long ticketId) {
 
-        UserTicketDetailResponse ticket = ticketService.getUserTicketDetail(ticketId);
+        UserTicketDetailResponse ticket = userTicketService.getUserTicketDetail(ticketId);
         return ResponseEntity.ok(ticket);
     }
 
@@ -5,10 +5,12 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -22,6 +24,9 @@ import com.digitalconcerthall.repository.TicketRepository;
 import com.digitalconcerthall.repository.concert.ConcertRepository;
 import com.digitalconcerthall.repository.concert.PerformanceRepository;
 import com.digitalconcerthall.repository.TicketTypeRepository;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.dashboard.DashboardMetricsService;
+import com.digitalconcerthall.service.search.ConcertSearchService;
 
 import java.math.BigDecimal;
 import java.util.HashSet;
@@ -51,18 +56,35 @@ public class AdminDashboardController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private ConcertSearchService concertSearchService;
+
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
     /**
      * 獲取儀表板統計信息
+     * 統計載入完成後讀取記憶體中的計數，啟動初期才直接計數
      */
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getDashboardStats() {
         try {
             Map<String, Object> stats = new HashMap<>();
-            stats.put("totalConcerts", concertRepository.count());
-            stats.put("totalPerformances", performanceRepository.count());
-            stats.put("totalTickets", ticketRepository.count());
-            stats.put("totalUsers", userRepository.count());
+            if (dashboardMetricsService.isReady()) {
+                stats.put("totalConcerts", dashboardMetricsService.get(DashboardMetricsService.CONCERTS));
+                stats.put("totalPerformances", dashboardMetricsService.get(DashboardMetricsService.PERFORMANCES));
+                stats.put("totalTickets", dashboardMetricsService.get(DashboardMetricsService.TICKETS));
+                stats.put("totalUsers", dashboardMetricsService.get(DashboardMetricsService.USERS));
+            } else {
+                stats.put("totalConcerts", concertRepository.count());
+                stats.put("totalPerformances", performanceRepository.count());
+                stats.put("totalTickets", ticketRepository.count());
+                stats.put("totalUsers", userRepository.count());
+            }
             stats.put("timestamp", System.currentTimeMillis());
             
             return ResponseEntity.ok(stats);
@@ -70,6 +92,58 @@ public class AdminDashboardController {
             return ResponseEntity.badRequest().body(new ApiResponse(false, "獲取儀表板統計信息失敗: " + e.getMessage()));
         }
     }
+
+    /**
+     * 完整的儀表板統計：各狀態訂單數、每日營收與售出張數、銷售速度、營收最高的音樂會
+     */
+    @GetMapping("/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getDashboardMetrics() {
+        if (!dashboardMetricsService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse(false, "儀表板統計載入中，請稍後再試"));
+        }
+        return ResponseEntity.ok(dashboardMetricsService.getMetrics());
+    }
+
+    /**
+     * 單一音樂會的營收與各場次售出張數
+     */
+    @GetMapping("/metrics/concerts/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getConcertSales(@PathVariable("id") Long id) {
+        if (!dashboardMetricsService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse(false, "儀表板統計載入中，請稍後再試"));
+        }
+        return ResponseEntity.ok(dashboardMetricsService.getConcertSales(id));
+    }
+
+    /**
+     * 儀表板統計對帳（只回報，不修正）
+     */
+    @GetMapping("/metrics/reconciliation")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> checkMetrics() {
+        try {
+            return ResponseEntity.ok(dashboardMetricsService.reconcile(false));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "儀表板統計對帳失敗: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 從基礎資料表重算並修正儀表板統計
+     */
+    @PostMapping("/metrics/reconciliation")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> repairMetrics() {
+        try {
+            return ResponseEntity.ok(dashboardMetricsService.reconcile(true));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "修正儀表板統計失敗: " + e.getMessage()));
+        }
+    }
     
     /**
      * 批量創建一整套音樂會、場次、票種資料
@@ -110,6 +184,8 @@ public class AdminDashboardController {
             performance2.setVenue("數位音樂廳主廳");
             performance2.setStatus("scheduled");
             performanceRepository.save(performance2);
+            concertSummaryService.refresh(savedConcert.getId());
+            concertSearchService.reindex(savedConcert.getId());
             
             // 3. 創建票種
             // VIP票
@@ -0,0 +1,196 @@
+package com.digitalconcerthall.controller.admin;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.digitalconcerthall.dto.response.ApiResponse;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsQuery;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsQuery.Dimension;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsQuery.Granularity;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsService;
+import com.digitalconcerthall.service.analytics.SalesFactQuery;
+import com.digitalconcerthall.service.analytics.SalesFactSnapshotService;
+import com.digitalconcerthall.service.analytics.SalesRollupService;
+
+/**
+ * 銷售分析控制器
+ * 時間序列依下單日期查詢（預設最近 30 天），granularity 為 hour、day（預設）、week 或 month，
+ * groupBy 以逗號分隔 concert、performance、ticketType、status、paymentStatus。
+ * /facts 直接彙總記憶體中的訂單明細快照，可依 day、week、month、weekday、hour 與上述維度任選兩個分組
+ */
+@RestController
+@RequestMapping("/api/admin/analytics")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AnalyticsAdminController {
+
+    private static final int DEFAULT_DAYS = 30;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesFactSnapshotService salesFactSnapshotService;
+
+    // 銷售時間序列
+    @GetMapping("/sales")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String groupBy,
+            @RequestParam(required = false) Long concertId,
+            @RequestParam(required = false) Long performanceId,
+            @RequestParam(required = false) Long ticketTypeId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String paymentStatus) {
+        try {
+            SalesAnalyticsQuery query = query(from, to, granularity, concertId, performanceId, ticketTypeId);
+            query.setGroupBy(parseGroupBy(groupBy));
+            query.setOrderStatus(status);
+            query.setPaymentStatus(paymentStatus);
+            return ResponseEntity.ok(salesAnalyticsService.query(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "查詢銷售分析失敗: " + e.getMessage()));
+        }
+    }
+
+    // 訂單轉換率（建立的訂單中已付款的比例）
+    @GetMapping("/conversion")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getConversion(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) Long concertId,
+            @RequestParam(required = false) Long performanceId,
+            @RequestParam(required = false) Long ticketTypeId) {
+        try {
+            return ResponseEntity.ok(salesAnalyticsService.conversion(
+                    query(from, to, granularity, concertId, performanceId, ticketTypeId)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "查詢訂單轉換率失敗: " + e.getMessage()));
+        }
+    }
+
+    // 單一場次的售票曲線
+    @GetMapping("/performances/{id}/sell-through")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getSellThrough(@PathVariable("id") Long id) {
+        try {
+            return salesAnalyticsService.sellThrough(id)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "查詢售票曲線失敗: " + e.getMessage()));
+        }
+    }
+
+    // 彙總訂單明細快照（下單日期含兩端），最多兩個分組
+    @GetMapping("/facts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getFacts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String groupBy,
+            @RequestParam(required = false) Long concertId,
+            @RequestParam(required = false) Long performanceId,
+            @RequestParam(required = false) Long ticketTypeId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String paymentStatus) {
+        if (!salesFactSnapshotService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse(false, salesFactSnapshotService.isEnabled()
+                            ? "銷售明細快照載入中，請稍後再試" : "銷售明細快照未啟用"));
+        }
+        try {
+            SalesFactQuery query = new SalesFactQuery();
+            LocalDate end = to != null ? to : LocalDate.now();
+            query.setTo(end);
+            query.setFrom(from != null ? from : end.minusDays(DEFAULT_DAYS - 1));
+            List<SalesFactQuery.Dimension> dimensions = new ArrayList<>();
+            if (groupBy != null && !groupBy.isBlank()) {
+                for (String value : groupBy.split(",")) {
+                    dimensions.add(SalesFactQuery.Dimension.parse(value));
+                }
+            }
+            query.setGroupBy(dimensions);
+            query.setConcertId(concertId);
+            query.setPerformanceId(performanceId);
+            query.setTicketTypeId(ticketTypeId);
+            query.setStatus(status);
+            query.setPaymentStatus(paymentStatus);
+            return ResponseEntity.ok(salesFactSnapshotService.aggregate(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "彙總銷售明細失敗: " + e.getMessage()));
+        }
+    }
+
+    // 在背景重算一段日期的彙總（含兩端），例如匯入歷史訂單或直接修改資料庫之後
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "開始日期不可晚於結束日期"));
+        }
+        if (!salesRollupService.rebuildAsync(from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse(false, "銷售彙總重算正在執行中"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ApiResponse(true, "已開始重算銷售彙總"));
+    }
+
+    private static SalesAnalyticsQuery query(LocalDate from, LocalDate to, String granularity, Long concertId,
+            Long performanceId, Long ticketTypeId) {
+        SalesAnalyticsQuery query = new SalesAnalyticsQuery();
+        try {
+            query.setGranularity(Granularity.valueOf(granularity.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支援的時間粒度: " + granularity);
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        query.setTo(end);
+        query.setFrom(from != null ? from : end.minusDays(DEFAULT_DAYS - 1));
+        query.setConcertId(concertId);
+        query.setPerformanceId(performanceId);
+        query.setTicketTypeId(ticketTypeId);
+        return query;
+    }
+
+    private static Set<Dimension> parseGroupBy(String groupBy) {
+        Set<Dimension> dimensions = EnumSet.noneOf(Dimension.class);
+        if (groupBy != null && !groupBy.isBlank()) {
+            for (String value : groupBy.split(",")) {
+                dimensions.add(Dimension.parse(value));
+            }
+        }
+        return dimensions;
+    }
+}
@@ -9,9 +9,13 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.digitalconcerthall.dto.request.ConcertRequest;
+import com.digitalconcerthall.dto.request.batch.BatchStatusRequest;
 import com.digitalconcerthall.dto.response.ApiResponse;
 import com.digitalconcerthall.model.concert.Concert;
 import com.digitalconcerthall.repository.concert.ConcertRepository;
+import com.digitalconcerthall.service.batch.BatchMutationService;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.search.ConcertSearchService;
 
 @RestController
 @RequestMapping("/api/admin/concerts")
@@ -21,6 +25,15 @@ public class ConcertAdminController {
     @Autowired
     private ConcertRepository concertRepository;
 
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private ConcertSearchService concertSearchService;
+
+    @Autowired
+    private BatchMutationService batchMutationService;
+
     // 獲取所有音樂會
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -29,6 +42,28 @@ public class ConcertAdminController {
         return ResponseEntity.ok(concerts);
     }
 
+    // 音樂會摘要一致性檢查（只回報，不修正）
+    @GetMapping("/summary-consistency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> checkSummaryConsistency() {
+        try {
+            return ResponseEntity.ok(concertSummaryService.checkConsistency(false));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "檢查音樂會摘要失敗: " + e.getMessage()));
+        }
+    }
+
+    // 重算並修正有偏差的音樂會摘要
+    @PostMapping("/summary-consistency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> repairSummaries() {
+        try {
+            return ResponseEntity.ok(concertSummaryService.checkConsistency(true));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "修正音樂會摘要失敗: " + e.getMessage()));
+        }
+    }
+
     // 獲取單個音樂會
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -72,6 +107,8 @@ public class ConcertAdminController {
             }
             
             Concert savedConcert = concertRepository.save(concert);
+            concertSummaryService.refresh(savedConcert.getId());
+            concertSearchService.reindex(savedConcert.getId());
             return ResponseEntity.ok(savedConcert);
         } catch (Exception e) {
             e.printStackTrace(); // 增加詳細的堆疊跟蹤
@@ -108,6 +145,7 @@ public class ConcertAdminController {
             existingConcert.setUpdatedAt(LocalDateTime.now());
             
             Concert updatedConcert = concertRepository.save(existingConcert);
+            concertSearchService.reindex(updatedConcert.getId());
             return ResponseEntity.ok(updatedConcert);
         } catch (Exception e) {
             e.printStackTrace(); // 增加詳細的堆疊跟蹤
@@ -126,6 +164,7 @@ public class ConcertAdminController {
             }
             
             concertRepository.delete(existingConcert);
+            concertSearchService.reindex(id);
             return ResponseEntity.ok(new ApiResponse(true, "音樂會已成功刪除"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ApiResponse(false, "刪除音樂會失敗: " + e.getMessage()));
@@ -151,9 +190,21 @@ public class ConcertAdminController {
             existingConcert.setUpdatedAt(LocalDateTime.now());
             
             Concert updatedConcert = concertRepository.save(existingConcert);
+            concertSearchService.reindex(updatedConcert.getId());
             return ResponseEntity.ok(updatedConcert);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ApiResponse(false, "更新音樂會狀態失敗: " + e.getMessage()));
         }
     }
+
+    // 批次更新音樂會狀態，逐項回報結果與版本衝突
+    @PatchMapping("/batch/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> batchUpdateConcertStatus(@RequestBody BatchStatusRequest request) {
+        try {
+            return ResponseEntity.ok(batchMutationService.updateConcertStatus(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "批次更新音樂會狀態失敗: " + e.getMessage()));
+        }
+    }
 }
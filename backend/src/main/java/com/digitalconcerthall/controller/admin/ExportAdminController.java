@@ -0,0 +1,149 @@
+package com.digitalconcerthall.controller.admin;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.digitalconcerthall.dto.response.ApiResponse;
+import com.digitalconcerthall.service.export.ExportFormat;
+import com.digitalconcerthall.service.export.ExportQuery;
+import com.digitalconcerthall.service.export.ExportService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 資料匯出控制器
+ * 查詢結果直接串流到回應（CSV 或 XLSX），不先產生完整檔案；用戶端接受 gzip 時 CSV 邊寫邊壓縮。
+ * 開始寫出後無法再改回錯誤回應，中途失敗只能中斷連線
+ */
+@RestController
+@RequestMapping("/api/admin/exports")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ExportAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportAdminController.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private ExportService exportService;
+
+    /**
+     * 匯出訂單
+     */
+    @GetMapping("/orders")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportOrders(@RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            HttpServletRequest request, HttpServletResponse response) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "開始日期不能晚於結束日期"));
+        }
+        return stream(exportService.ordersQuery(from, to, status), format, request, response);
+    }
+
+    /**
+     * 匯出訂單明細（銷售明細）
+     */
+    @GetMapping("/order-items")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportOrderItems(@RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest request, HttpServletResponse response) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "開始日期不能晚於結束日期"));
+        }
+        return stream(exportService.orderItemsQuery(from, to), format, request, response);
+    }
+
+    /**
+     * 匯出場次的出席名單
+     */
+    @GetMapping("/performances/{performanceId}/attendees")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportAttendees(@PathVariable Long performanceId,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletRequest request, HttpServletResponse response) {
+        return stream(exportService.attendeesQuery(performanceId), format, request, response);
+    }
+
+    /**
+     * 匯出使用者票券
+     */
+    @GetMapping("/user-tickets")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportUserTickets(@RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest request, HttpServletResponse response) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "開始日期不能晚於結束日期"));
+        }
+        return stream(exportService.userTicketsQuery(from, to), format, request, response);
+    }
+
+    /**
+     * 直接寫入回應；成功時返回 null，表示回應已由此方法處理
+     */
+    private ResponseEntity<?> stream(ExportQuery query, String formatName, HttpServletRequest request,
+            HttpServletResponse response) {
+        ExportFormat format = ExportFormat.parse(formatName);
+        if (format == null) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "不支援的匯出格式: " + formatName));
+        }
+        if (!exportService.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(new ApiResponse(false, "目前有其他匯出正在進行，請稍後再試"));
+        }
+        try {
+            boolean gzip = format.isCompressible() && acceptsGzip(request);
+            String filename = query.getName() + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "."
+                    + format.getExtension();
+            response.setContentType(format.getContentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(filename).build().toString());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            exportService.export(query, format, response.getOutputStream(), gzip);
+            return null;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("匯出 {} 中斷: {}", query.getName(), e.getMessage());
+            if (response.isCommitted()) {
+                return null;
+            }
+            response.reset();
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "匯出失敗: " + e.getMessage()));
+        } finally {
+            exportService.release();
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+}
@@ -0,0 +1,41 @@
+package com.digitalconcerthall.controller.admin;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.digitalconcerthall.dto.response.ApiResponse;
+import com.digitalconcerthall.monitoring.FlightRecorderService;
+
+/**
+ * JFR 錄製控制器
+ * 將持續錄製中最近 N 分鐘的資料轉存為伺服器上的 .jfr 檔案
+ */
+@RestController
+@RequestMapping("/api/admin/jfr")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class FlightRecorderController {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderController.class);
+
+    @Autowired
+    private FlightRecorderService flightRecorderService;
+
+    @PostMapping("/dump")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> dump(@RequestParam(defaultValue = "5") int minutes) {
+        try {
+            return ResponseEntity.ok(flightRecorderService.dump(minutes));
+        } catch (Exception e) {
+            logger.error("轉存 JFR 錄製失敗: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "轉存 JFR 錄製失敗: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.digitalconcerthall.controller.admin;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest;
+import com.digitalconcerthall.dto.response.ApiResponse;
+import com.digitalconcerthall.dto.response.imports.ImportValidationResponse;
+import com.digitalconcerthall.service.imports.BulkImportCsvParser;
+import com.digitalconcerthall.service.imports.BulkImportService;
+import com.digitalconcerthall.service.imports.BulkImportValidationException;
+
+/**
+ * 批次匯入控制器
+ * 接受 JSON 或 CSV（欄位見 {@link BulkImportCsvParser}），dryRun=true 時只檢查不寫入；
+ * 內容合法時建立工作並回傳 202，以 GET /api/admin/imports/{id} 查詢進度
+ */
+@RestController
+@RequestMapping("/api/admin/imports")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ImportAdminController {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    // 以 JSON 匯入
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importJson(@RequestBody BulkImportRequest request,
+            @RequestParam(defaultValue = "false") boolean dryRun, Authentication authentication) {
+        return submit(request, dryRun, authentication);
+    }
+
+    // 以 CSV 匯入
+    @PostMapping(consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importCsv(@RequestBody String csv,
+            @RequestParam(defaultValue = "false") boolean dryRun, Authentication authentication) {
+        try {
+            return submit(BulkImportCsvParser.parse(new StringReader(csv)), dryRun, authentication);
+        } catch (BulkImportValidationException e) {
+            return invalid(e);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "讀取 CSV 失敗: " + e.getMessage()));
+        }
+    }
+
+    // 最近的匯入工作
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getRecentJobs() {
+        return ResponseEntity.ok(bulkImportService.getRecentJobs());
+    }
+
+    // 匯入進度
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getJob(@PathVariable("id") String id) {
+        return bulkImportService.getJob(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // 從最後一個已提交的分段繼續失敗的匯入
+    @PostMapping("/{id}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> resume(@PathVariable("id") String id) {
+        try {
+            return bulkImportService.resume(id)
+                    .<ResponseEntity<?>>map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse(false, e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "繼續匯入失敗: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> submit(BulkImportRequest request, boolean dryRun, Authentication authentication) {
+        try {
+            if (dryRun) {
+                ImportValidationResponse validation = bulkImportService.validate(request);
+                return validation.isValid()
+                        ? ResponseEntity.ok(validation)
+                        : ResponseEntity.badRequest().body(validation);
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(bulkImportService.submit(request, authentication.getName()));
+        } catch (BulkImportValidationException e) {
+            return invalid(e);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "建立匯入失敗: " + e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<?> invalid(BulkImportValidationException e) {
+        ImportValidationResponse response = new ImportValidationResponse();
+        response.setValid(false);
+        response.setErrors(e.getErrors());
+        return ResponseEntity.badRequest().body(response);
+    }
+}
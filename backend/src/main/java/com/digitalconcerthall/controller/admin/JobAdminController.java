@@ -0,0 +1,33 @@
+package com.digitalconcerthall.controller.admin;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.digitalconcerthall.dto.response.monitoring.JobStatusResponse;
+import com.digitalconcerthall.service.job.JobRegistry;
+
+/**
+ * 排程工作控制器
+ * 提供各排程的租約持有者、防護權杖、下次執行時間與最近一次執行結果
+ */
+@RestController
+@RequestMapping("/api/admin/jobs")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class JobAdminController {
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<JobStatusResponse>> getJobs() {
+        return ResponseEntity.ok(jobRegistry.getStatuses());
+    }
+}
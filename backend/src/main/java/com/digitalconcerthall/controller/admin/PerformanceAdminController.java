@@ -10,12 +10,17 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.digitalconcerthall.dto.request.PerformanceRequest;
+import com.digitalconcerthall.dto.request.batch.BatchRescheduleRequest;
+import com.digitalconcerthall.dto.request.batch.BatchStatusRequest;
 import com.digitalconcerthall.dto.response.ApiResponse;
 import com.digitalconcerthall.dto.response.PerformanceResponse;
 import com.digitalconcerthall.model.concert.Concert;
 import com.digitalconcerthall.model.concert.Performance;
 import com.digitalconcerthall.repository.concert.ConcertRepository;
 import com.digitalconcerthall.repository.concert.PerformanceRepository;
+import com.digitalconcerthall.service.batch.BatchMutationService;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.search.ConcertSearchService;
 
 @RestController
 @RequestMapping("/api/admin/performances")
@@ -28,6 +33,15 @@ public class PerformanceAdminController {
     @Autowired
     private ConcertRepository concertRepository;
 
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private ConcertSearchService concertSearchService;
+
+    @Autowired
+    private BatchMutationService batchMutationService;
+
     // 獲取所有演出場次
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -94,6 +108,8 @@ public class PerformanceAdminController {
             performance.setRecordingUrl(performanceRequest.getRecordingUrl());
             
             Performance savedPerformance = performanceRepository.save(performance);
+            concertSummaryService.refresh(concert.getId());
+            concertSearchService.reindex(concert.getId());
             PerformanceResponse response = convertToResponse(savedPerformance);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -111,6 +127,8 @@ public class PerformanceAdminController {
                 return ResponseEntity.notFound().build();
             }
             
+            Long previousConcertId = existingPerformance.getConcertId();
+
             // 如果請求中包含音樂會ID，則更新音樂會
             if (performanceRequest.getConcertId() != null) {
                 Concert concert = concertRepository.findById(performanceRequest.getConcertId()).orElse(null);
@@ -142,6 +160,9 @@ public class PerformanceAdminController {
             existingPerformance.setRecordingUrl(performanceRequest.getRecordingUrl());
             
             Performance updatedPerformance = performanceRepository.save(existingPerformance);
+            // 場次改掛到其他音樂會時，兩邊的摘要都要重算
+            concertSummaryService.refresh(previousConcertId, updatedPerformance.getConcertId());
+            concertSearchService.reindex(previousConcertId, updatedPerformance.getConcertId());
             PerformanceResponse response = convertToResponse(updatedPerformance);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -160,6 +181,8 @@ public class PerformanceAdminController {
             }
             
             performanceRepository.delete(existingPerformance);
+            concertSummaryService.refresh(existingPerformance.getConcertId());
+            concertSearchService.reindex(existingPerformance.getConcertId());
             return ResponseEntity.ok(new ApiResponse(true, "演出場次已成功刪除"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ApiResponse(false, "刪除演出場次失敗: " + e.getMessage()));
@@ -192,6 +215,28 @@ public class PerformanceAdminController {
             return ResponseEntity.badRequest().body(new ApiResponse(false, "更新演出場次狀態失敗: " + e.getMessage()));
         }
     }
+
+    // 批次更新演出場次狀態
+    @PatchMapping("/batch/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> batchUpdatePerformanceStatus(@RequestBody BatchStatusRequest request) {
+        try {
+            return ResponseEntity.ok(batchMutationService.updatePerformanceStatus(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "批次更新演出場次狀態失敗: " + e.getMessage()));
+        }
+    }
+
+    // 批次調整演出場次時間：整批平移 shiftMinutes，或逐項指定新的開始時間
+    @PatchMapping("/batch/schedule")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> batchReschedulePerformances(@RequestBody BatchRescheduleRequest request) {
+        try {
+            return ResponseEntity.ok(batchMutationService.reschedulePerformances(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "批次調整演出場次時間失敗: " + e.getMessage()));
+        }
+    }
     
     /**
      * 將 Performance 實體轉換為 PerformanceResponse DTO
@@ -0,0 +1,33 @@
+package com.digitalconcerthall.controller.admin;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.digitalconcerthall.dto.response.monitoring.RuntimeTelemetryResponse;
+import com.digitalconcerthall.monitoring.RuntimeTelemetryService;
+
+/**
+ * 執行期遙測控制器
+ * 提供最近 N 分鐘的 JVM 取樣資料（GC 暫停、配置速率、線程狀態、緩衝區、連接池）
+ */
+@RestController
+@RequestMapping("/api/admin/telemetry")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class RuntimeTelemetryController {
+
+    @Autowired
+    private RuntimeTelemetryService runtimeTelemetryService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RuntimeTelemetryResponse> getTelemetry(
+            @RequestParam(defaultValue = "5") int minutes) {
+        return ResponseEntity.ok(runtimeTelemetryService.getTelemetry(minutes));
+    }
+}
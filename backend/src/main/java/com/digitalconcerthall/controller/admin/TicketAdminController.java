@@ -9,6 +9,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.digitalconcerthall.dto.request.TicketRequest;
+import com.digitalconcerthall.dto.request.batch.BatchInventoryRequest;
 import com.digitalconcerthall.dto.response.ApiResponse;
 import com.digitalconcerthall.model.concert.Performance;
 import com.digitalconcerthall.model.ticket.Ticket;
@@ -16,6 +17,9 @@ import com.digitalconcerthall.model.ticket.TicketType;
 import com.digitalconcerthall.repository.concert.PerformanceRepository;
 import com.digitalconcerthall.repository.TicketRepository;
 import com.digitalconcerthall.repository.TicketTypeRepository;
+import com.digitalconcerthall.service.batch.BatchMutationService;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.search.ConcertSearchService;
 
 @RestController
 @RequestMapping("/api/admin/tickets")
@@ -31,6 +35,15 @@ public class TicketAdminController {
     @Autowired
     private TicketTypeRepository ticketTypeRepository;
 
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private ConcertSearchService concertSearchService;
+
+    @Autowired
+    private BatchMutationService batchMutationService;
+
     // 獲取所有票券
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -97,6 +110,8 @@ public class TicketAdminController {
             ticket.setStatus("ACTIVE");
 
             Ticket savedTicket = ticketRepository.save(ticket);
+            concertSummaryService.refresh(performance.getConcertId());
+            concertSearchService.reindex(performance.getConcertId());
             return ResponseEntity.ok(savedTicket);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ApiResponse(false, "創建票券失敗: " + e.getMessage()));
@@ -113,6 +128,8 @@ public class TicketAdminController {
                 return ResponseEntity.notFound().build();
             }
 
+            Long previousConcertId = existingTicket.getPerformance().getConcertId();
+
             // 如果請求中包含演出場次ID，則更新演出場次
             if (ticketRequest.getPerformanceId() != null) {
                 Performance performance = performanceRepository.findById(ticketRequest.getPerformanceId()).orElse(null);
@@ -155,6 +172,8 @@ public class TicketAdminController {
             }
 
             Ticket updatedTicket = ticketRepository.save(existingTicket);
+            concertSummaryService.refresh(previousConcertId, updatedTicket.getPerformance().getConcertId());
+            concertSearchService.reindex(previousConcertId, updatedTicket.getPerformance().getConcertId());
             return ResponseEntity.ok(updatedTicket);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ApiResponse(false, "更新票券失敗: " + e.getMessage()));
@@ -177,6 +196,8 @@ public class TicketAdminController {
             }
 
             ticketRepository.delete(existingTicket);
+            concertSummaryService.refresh(existingTicket.getPerformance().getConcertId());
+            concertSearchService.reindex(existingTicket.getPerformance().getConcertId());
             return ResponseEntity.ok(new ApiResponse(true, "票券已成功刪除"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ApiResponse(false, "刪除票券失敗: " + e.getMessage()));
@@ -221,9 +242,21 @@ public class TicketAdminController {
             }
 
             Ticket updatedTicket = ticketRepository.save(existingTicket);
+            concertSummaryService.refresh(updatedTicket.getPerformance().getConcertId());
             return ResponseEntity.ok(updatedTicket);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ApiResponse(false, "更新票券庫存失敗: " + e.getMessage()));
         }
     }
+
+    // 批次增減票券庫存
+    @PatchMapping("/batch/inventory")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> batchAdjustInventory(@RequestBody BatchInventoryRequest request) {
+        try {
+            return ResponseEntity.ok(batchMutationService.adjustInventory(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "批次更新票券庫存失敗: " + e.getMessage()));
+        }
+    }
 }
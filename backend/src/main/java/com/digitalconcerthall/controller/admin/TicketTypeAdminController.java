@@ -13,6 +13,8 @@ import com.digitalconcerthall.dto.request.TicketTypeRequest;
 import com.digitalconcerthall.dto.response.ApiResponse;
 import com.digitalconcerthall.model.ticket.TicketType;
 import com.digitalconcerthall.repository.TicketTypeRepository;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.search.ConcertSearchService;
 
 @RestController
 @RequestMapping("/api/admin/ticket-types")
@@ -22,6 +24,12 @@ public class TicketTypeAdminController {
     @Autowired
     private TicketTypeRepository ticketTypeRepository;
 
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private ConcertSearchService concertSearchService;
+
     // 獲取所有票種
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -96,6 +104,8 @@ public class TicketTypeAdminController {
             existingTicketType.setColorCode(ticketTypeRequest.getColorCode());
             
             TicketType updatedTicketType = ticketTypeRepository.save(existingTicketType);
+            // 票價改變會影響所有使用此票種的音樂會
+            concertSearchService.reindex(concertSummaryService.refreshForTicketType(updatedTicketType.getId()));
             return ResponseEntity.ok(updatedTicketType);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ApiResponse(false, "更新票種失敗: " + e.getMessage()));
@@ -0,0 +1,201 @@
+package com.digitalconcerthall.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 依工作負載分區限制同時持有的連線數（bulkhead）
+ * 共用同一個連接池，但每個分區以公平號誌限制名額與等待時間；各分區名額總和不超過連接池大小時，
+ * 瀏覽或報表的尖峰只會耗盡自己的分區，下單與金流回呼仍有保留的連線可用。
+ * 名額在取得實際連線前占用、在 Connection.close() 時歸還；同一線程巢狀取得連線（REQUIRES_NEW）會占用兩個名額
+ */
+public class BulkheadDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final Map<Workload, Partition> partitions = new EnumMap<>(Workload.class);
+    private final Workload defaultWorkload;
+
+    public BulkheadDataSource(DataSource target, Workload defaultWorkload) {
+        super(target);
+        this.defaultWorkload = defaultWorkload;
+    }
+
+    /**
+     * 設定分區名額與取得名額的最長等待時間；未設定的分區不受限制
+     */
+    public BulkheadDataSource partition(Workload workload, int maxConcurrent, long timeoutMs) {
+        partitions.put(workload, new Partition(workload, maxConcurrent, timeoutMs));
+        return this;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Partition partition = currentPartition();
+        if (partition == null) {
+            return super.getConnection();
+        }
+        partition.acquire();
+        try {
+            return partition.wrap(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            partition.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Partition partition = currentPartition();
+        if (partition == null) {
+            return super.getConnection(username, password);
+        }
+        partition.acquire();
+        try {
+            return partition.wrap(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            partition.release();
+            throw e;
+        }
+    }
+
+    private Partition currentPartition() {
+        Workload workload = WorkloadContext.current();
+        return partitions.get(workload != null ? workload : defaultWorkload);
+    }
+
+    public Map<Workload, Partition> getPartitions() {
+        return Collections.unmodifiableMap(partitions);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        partitions.values().forEach(partition -> partition.bindTo(registry));
+    }
+
+    /**
+     * 單一工作負載分區
+     */
+    public static final class Partition {
+        private final Workload workload;
+        private final int maxConcurrent;
+        private final long timeoutMs;
+        private final Semaphore permits;
+        private volatile Timer waitTimer;
+        private volatile Counter rejectedCounter;
+
+        private Partition(Workload workload, int maxConcurrent, long timeoutMs) {
+            this.workload = workload;
+            this.maxConcurrent = maxConcurrent;
+            this.timeoutMs = timeoutMs;
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+
+        private void acquire() throws SQLException {
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("等待 " + workload + " 分區連線時被中斷", e);
+            }
+            if (waitTimer != null) {
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (!acquired) {
+                if (rejectedCounter != null) {
+                    rejectedCounter.increment();
+                }
+                throw new BulkheadFullException(workload, timeoutMs);
+            }
+        }
+
+        private void release() {
+            permits.release();
+        }
+
+        private Connection wrap(Connection connection) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(
+                    BulkheadDataSource.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if ("unwrap".equals(name) && args != null && ((Class<?>) args[0]).isInstance(proxy)) {
+                            return proxy;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            if ("close".equals(name) && released.compareAndSet(false, true)) {
+                                release();
+                            }
+                        }
+                    });
+        }
+
+        private void bindTo(MeterRegistry registry) {
+            String tag = workload.name().toLowerCase();
+            Gauge.builder("app.datasource.bulkhead.active", this, Partition::getActive)
+                    .description("分區目前持有的連線數")
+                    .tag("workload", tag)
+                    .register(registry);
+            Gauge.builder("app.datasource.bulkhead.max", this, Partition::getMaxConcurrent)
+                    .description("分區連線名額")
+                    .tag("workload", tag)
+                    .register(registry);
+            Gauge.builder("app.datasource.bulkhead.pending", permits, Semaphore::getQueueLength)
+                    .description("等待分區名額的線程數")
+                    .tag("workload", tag)
+                    .register(registry);
+            waitTimer = Timer.builder("app.datasource.bulkhead.wait")
+                    .description("取得分區名額的等待時間")
+                    .tag("workload", tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            rejectedCounter = Counter.builder("app.datasource.bulkhead.rejected")
+                    .description("等待逾時而拒絕的連線請求")
+                    .tag("workload", tag)
+                    .register(registry);
+        }
+
+        public Workload getWorkload() {
+            return workload;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public int getActive() {
+            return maxConcurrent - permits.availablePermits();
+        }
+
+        public int getPending() {
+            return permits.getQueueLength();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.digitalconcerthall.datasource;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * 工作負載分區在等待時間內沒有可用的連線名額
+ */
+public class BulkheadFullException extends SQLTransientConnectionException {
+
+    private final Workload workload;
+
+    public BulkheadFullException(Workload workload, long timeoutMs) {
+        super(workload.name() + " 分區連線已滿，等待 " + timeoutMs + "ms 後放棄");
+        this.workload = workload;
+    }
+
+    public Workload getWorkload() {
+        return workload;
+    }
+}
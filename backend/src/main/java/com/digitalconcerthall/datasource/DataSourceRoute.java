@@ -0,0 +1,9 @@
+package com.digitalconcerthall.datasource;
+
+/**
+ * 路由目標
+ */
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,40 @@
+package com.digitalconcerthall.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * 以 ThreadLocal 記錄目前線程是否強制使用主庫，支援巢狀呼叫
+ */
+public final class DataSourceRoutingContext {
+
+    private static final ThreadLocal<Integer> PRIMARY_DEPTH = ThreadLocal.withInitial(() -> 0);
+
+    private DataSourceRoutingContext() {
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_DEPTH.get() > 0;
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        enterPrimary();
+        try {
+            return action.get();
+        } finally {
+            exitPrimary();
+        }
+    }
+
+    static void enterPrimary() {
+        PRIMARY_DEPTH.set(PRIMARY_DEPTH.get() + 1);
+    }
+
+    static void exitPrimary() {
+        int depth = PRIMARY_DEPTH.get() - 1;
+        if (depth <= 0) {
+            PRIMARY_DEPTH.remove();
+        } else {
+            PRIMARY_DEPTH.set(depth);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.digitalconcerthall.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 方法內的唯讀交易也一律使用主庫
+ * 用於沒有登入使用者、無法套用 read-your-writes 的流程，例如金流回呼查詢剛建立的訂單
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromPrimary {
+}
@@ -0,0 +1,24 @@
+package com.digitalconcerthall.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * 處理 {@link ReadFromPrimary}，在方法執行期間強制使用主庫
+ * 連線由 LazyConnectionDataSourceProxy 延遲到第一條 SQL 才取得，因此與交易切面的先後順序無關
+ */
+@Aspect
+public class ReadFromPrimaryAspect {
+
+    @Around("@annotation(com.digitalconcerthall.datasource.ReadFromPrimary) "
+            + "|| @within(com.digitalconcerthall.datasource.ReadFromPrimary)")
+    public Object routeToPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        DataSourceRoutingContext.enterPrimary();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceRoutingContext.exitPrimary();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.digitalconcerthall.datasource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 讀寫分離路由
+ * 唯讀交易（@Transactional(readOnly = true)，包含 Spring Data 內建的 findById、findAll、count 等讀取方法）走從庫，其餘走主庫。
+ * 自行宣告的查詢方法沒有預設交易，在交易外呼叫時走主庫；要讀從庫需由呼叫端開啟唯讀交易。
+ * 必須包在 LazyConnectionDataSourceProxy 內，才能在交易的唯讀屬性確定後才決定路由
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Object WRITE_TRACKING_KEY = new Object();
+
+    private final ReadYourWritesTracker tracker;
+    private final Map<DataSourceRoute, DataSource> pools = new HashMap<>();
+    private final Map<DataSourceRoute, Counter> routeCounters = new HashMap<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker tracker,
+            MeterRegistry meterRegistry) {
+        this.tracker = tracker;
+        pools.put(DataSourceRoute.PRIMARY, primary);
+        pools.put(DataSourceRoute.REPLICA, replica);
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(primary);
+        if (meterRegistry != null) {
+            for (DataSourceRoute route : DataSourceRoute.values()) {
+                routeCounters.put(route, Counter.builder("app.datasource.route")
+                        .description("依路由目標統計的連線取得次數")
+                        .tag("target", route.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+        }
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DataSourceRoute route = resolveRoute();
+        Counter counter = routeCounters.get(route);
+        if (counter != null) {
+            counter.increment();
+        }
+        return route;
+    }
+
+    private DataSourceRoute resolveRoute() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return DataSourceRoute.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWriteOnCommit();
+            return DataSourceRoute.PRIMARY;
+        }
+        if (DataSourceRoutingContext.isPrimaryForced()) {
+            return DataSourceRoute.PRIMARY;
+        }
+        String userKey = currentUserKey();
+        if (userKey != null && tracker.isSticky(userKey)) {
+            return DataSourceRoute.PRIMARY;
+        }
+        return DataSourceRoute.REPLICA;
+    }
+
+    /**
+     * 寫入交易提交後記錄使用者，讓之後短時間內的讀取維持在主庫
+     */
+    private void trackWriteOnCommit() {
+        String userKey = currentUserKey();
+        if (userKey == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_TRACKING_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKING_KEY, userKey);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tracker.recordWrite(userKey);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKING_KEY);
+            }
+        });
+    }
+
+    private static String currentUserKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * 各路由目標的實際連接池，供監控讀取
+     */
+    public Map<DataSourceRoute, DataSource> getPools() {
+        return pools;
+    }
+}
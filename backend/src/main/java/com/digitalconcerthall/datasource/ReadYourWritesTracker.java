@@ -0,0 +1,45 @@
+package com.digitalconcerthall.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 記錄使用者最近一次寫入交易的提交時間
+ * 在時間窗口內該使用者的唯讀交易仍走主庫，避免剛建立的訂單因複寫延遲而讀不到。
+ * 狀態只保存在本機記憶體，多實例部署時需搭配負載平衡的使用者黏著
+ */
+public class ReadYourWritesTracker {
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long windowMs;
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    public void recordWrite(String userKey) {
+        long now = System.currentTimeMillis();
+        lastWriteAt.put(userKey, now);
+        if (lastWriteAt.size() > CLEANUP_THRESHOLD) {
+            lastWriteAt.values().removeIf(writtenAt -> now - writtenAt > windowMs);
+        }
+    }
+
+    public boolean isSticky(String userKey) {
+        Long writtenAt = lastWriteAt.get(userKey);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - writtenAt > windowMs) {
+            lastWriteAt.remove(userKey, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    public long getWindowMs() {
+        return windowMs;
+    }
+}
@@ -0,0 +1,17 @@
+package com.digitalconcerthall.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 指定方法執行期間取得的連線計入哪個工作負載分區，優先於依請求路徑判斷的分類
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UseWorkload {
+    Workload value();
+}
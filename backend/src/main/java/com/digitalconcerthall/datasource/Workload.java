@@ -0,0 +1,13 @@
+package com.digitalconcerthall.datasource;
+
+/**
+ * 連線隔離（bulkhead）的工作負載分類
+ */
+public enum Workload {
+    /** 下單、付款與金流回呼 */
+    CHECKOUT,
+    /** 公開瀏覽與一般查詢 */
+    BROWSE,
+    /** 後台管理與報表匯出 */
+    ADMIN
+}
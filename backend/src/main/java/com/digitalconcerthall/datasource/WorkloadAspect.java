@@ -0,0 +1,44 @@
+package com.digitalconcerthall.datasource;
+
+import java.lang.reflect.Method;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 處理 {@link UseWorkload}
+ * 必須排在交易切面之前：未經 LazyConnectionDataSourceProxy 時，交易開始當下就會取得連線
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class WorkloadAspect {
+
+    @Around("@annotation(com.digitalconcerthall.datasource.UseWorkload) "
+            + "|| @within(com.digitalconcerthall.datasource.UseWorkload)")
+    public Object applyWorkload(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), targetClass);
+        UseWorkload annotation = AnnotatedElementUtils.findMergedAnnotation(method, UseWorkload.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, UseWorkload.class);
+        }
+        if (annotation == null) {
+            return joinPoint.proceed();
+        }
+        Workload previous = WorkloadContext.enter(annotation.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.digitalconcerthall.datasource;
+
+/**
+ * 以 ThreadLocal 記錄目前線程的工作負載分類，未設定時由 {@link BulkheadDataSource} 使用預設分區
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 設定目前分類並回傳先前的值，呼叫端須在 finally 以 {@link #restore(Workload)} 還原
+     */
+    public static Workload enter(Workload workload) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    public static void restore(Workload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
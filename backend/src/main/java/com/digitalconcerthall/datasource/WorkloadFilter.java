@@ -0,0 +1,78 @@
+package com.digitalconcerthall.datasource;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 依請求方法與路徑決定工作負載分類
+ * 下單路徑只有寫入請求算 CHECKOUT，訂單記錄等讀取走 BROWSE，避免大量查詢占用下單名額。
+ * 排在 Spring Security 之前，JWT 驗證時的使用者查詢也計入同一分區
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class WorkloadFilter extends OncePerRequestFilter {
+
+    @Value("${app.datasource.bulkhead.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.datasource.bulkhead.checkout.paths:/api/payment}")
+    private String[] checkoutPaths;
+
+    @Value("${app.datasource.bulkhead.checkout.write-paths:/api/orders,/api/cart}")
+    private String[] checkoutWritePaths;
+
+    @Value("${app.datasource.bulkhead.admin.paths:/api/admin}")
+    private String[] adminPaths;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Workload previous = WorkloadContext.enter(resolve(request.getMethod(), request.getRequestURI()));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    Workload resolve(String method, String uri) {
+        if (matches(uri, checkoutPaths) || (isWrite(method) && matches(uri, checkoutWritePaths))) {
+            return Workload.CHECKOUT;
+        }
+        if (matches(uri, adminPaths)) {
+            return Workload.ADMIN;
+        }
+        return Workload.BROWSE;
+    }
+
+    private static boolean isWrite(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    private static boolean matches(String uri, String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (uri.equals(prefix) || uri.startsWith(prefix + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,27 @@
+package com.digitalconcerthall.dto.request.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次調整票券庫存
+ * 以增減量表示，與同時進行的下單互不覆蓋；調整後可用數量必須介於 0 與總數量之間，總數量不能小於已售出數量
+ */
+@Data
+@NoArgsConstructor
+public class BatchInventoryRequest {
+    private boolean atomic;
+    private List<Item> items = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class Item {
+        private Long ticketId;
+        private int totalQuantityDelta;
+        /** 未提供時與 totalQuantityDelta 相同（新增的配額全部可售） */
+        private Integer availableQuantityDelta;
+    }
+}
@@ -0,0 +1,16 @@
+package com.digitalconcerthall.dto.request.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次更新的一項；提供 expectedVersion 時只有版本相符才更新，否則回報衝突
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchItem {
+    private Long id;
+    private Long expectedVersion;
+}
@@ -0,0 +1,31 @@
+package com.digitalconcerthall.dto.request.batch;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次調整演出時間
+ * 提供 shiftMinutes 時所有場次的開始與結束時間一起平移；否則使用各項的 startTime，
+ * 結束時間依序取 endTime、startTime + duration，都沒有時保留原本的演出長度
+ */
+@Data
+@NoArgsConstructor
+public class BatchRescheduleRequest {
+    private Integer shiftMinutes;
+    private boolean atomic;
+    private List<Item> items = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class Item {
+        private Long id;
+        private Long expectedVersion;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private Integer duration; // 時長（分鐘）
+    }
+}
@@ -0,0 +1,19 @@
+package com.digitalconcerthall.dto.request.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次變更音樂會或演出場次的狀態
+ */
+@Data
+@NoArgsConstructor
+public class BatchStatusRequest {
+    private String status;
+    /** true 時任何一項失敗就全部不更新 */
+    private boolean atomic;
+    private List<BatchItem> items = new ArrayList<>();
+}
@@ -0,0 +1,58 @@
+package com.digitalconcerthall.dto.request.imports;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次匯入的內容：音樂會、各自的演出場次與每個場次各票種的票券數量
+ * 欄位與預設值和單筆新增（ConcertRequest、PerformanceRequest、TicketRequest）相同
+ */
+@Data
+@NoArgsConstructor
+public class BulkImportRequest {
+
+    private List<ConcertItem> concerts = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class ConcertItem {
+        private String title;
+        private String description;
+        private String programDetails;
+        private String posterUrl;
+        private String brochureUrl;
+        private String status;  // active, inactive, upcoming, past
+        private LocalDateTime startDateTime;
+        private LocalDateTime endDateTime;
+        private List<PerformanceItem> performances = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class PerformanceItem {
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private Integer duration; // 時長（分鐘），沒有結束時間時使用
+        private String venue;
+        private String status;  // scheduled, live, completed, cancelled
+        private String livestreamUrl;
+        private String recordingUrl;
+        private List<TicketItem> tickets = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class TicketItem {
+        /** 票種 ID 或名稱擇一 */
+        private Long ticketTypeId;
+        private String ticketType;
+        private Integer totalQuantity;
+        /** 未提供時等於總數量 */
+        private Integer availableQuantity;
+        private String description;
+    }
+}
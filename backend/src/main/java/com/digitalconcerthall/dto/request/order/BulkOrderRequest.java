@@ -0,0 +1,24 @@
+package com.digitalconcerthall.dto.request.order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 團體與企業大量訂票
+ * 同一票券可出現多次，數量會合併；單價取自票種目前的價格
+ */
+@Data
+@NoArgsConstructor
+public class BulkOrderRequest {
+    private List<Item> items = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class Item {
+        private Long ticketId;
+        private int quantity;
+    }
+}
@@ -23,4 +23,6 @@ public class ConcertResponse {
     private Integer performanceCount;
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
+    private LocalDateTime nextStartTime;
+    private Integer remainingCapacity;
 }
@@ -0,0 +1,35 @@
+package com.digitalconcerthall.dto.response.analytics;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 訂單轉換率：各時段建立的訂單中，目前已付款的比例
+ */
+@Data
+@NoArgsConstructor
+public class ConversionResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private String granularity;
+    private String source;
+    private long orders;
+    private long paidOrders;
+    private double conversionRate;
+    private List<Point> points = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class Point {
+        private LocalDateTime bucketStart;
+        private long orders;
+        private long paidOrders;
+        private long pendingOrders;
+        private double conversionRate;
+    }
+}
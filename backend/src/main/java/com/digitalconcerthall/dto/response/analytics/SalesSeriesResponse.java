@@ -0,0 +1,49 @@
+package com.digitalconcerthall.dto.response.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 銷售時間序列；points 依時段排序，沒有資料的時段不列出
+ */
+@Data
+@NoArgsConstructor
+public class SalesSeriesResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private String granularity;
+    private List<String> groupBy = new ArrayList<>();
+    /** 讀取的彙總資料表 */
+    private String source;
+    private long totalOrders;
+    private long totalTickets;
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    private long durationMs;
+    private List<Point> points = new ArrayList<>();
+
+    /**
+     * 一個時段中的一組；沒有分組的欄位為 null
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Point {
+        private LocalDateTime bucketStart;
+        private Long concertId;
+        private String concertTitle;
+        private Long performanceId;
+        private Long ticketTypeId;
+        private String ticketTypeName;
+        private String orderStatus;
+        private String paymentStatus;
+        /** 依場次或票種分組時，一張訂單會計入它出現的每一組 */
+        private long orders;
+        private long tickets;
+        private BigDecimal amount = BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,32 @@
+package com.digitalconcerthall.dto.response.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 單一場次的售票曲線：每日已付款張數與累計售出比例
+ */
+@Data
+@NoArgsConstructor
+public class SellThroughResponse {
+    private Long performanceId;
+    private Long concertId;
+    /** 各票種總數量的合計 */
+    private long capacity;
+    private long ticketsSold;
+    private List<Point> points = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class Point {
+        private LocalDate date;
+        private long tickets;
+        private long cumulativeTickets;
+        /** 累計張數 / capacity，capacity 為 0 時為 0 */
+        private double sellThrough;
+    }
+}
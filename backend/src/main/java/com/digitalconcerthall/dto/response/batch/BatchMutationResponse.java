@@ -0,0 +1,44 @@
+package com.digitalconcerthall.dto.response.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次更新的結果；results 與請求的項目順序相同
+ */
+@Data
+@NoArgsConstructor
+public class BatchMutationResponse {
+
+    public static final String UPDATED = "UPDATED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    /** expectedVersion 與目前版本不同 */
+    public static final String CONFLICT = "CONFLICT";
+    /** 內容不合法，例如庫存調整後小於 0 */
+    public static final String REJECTED = "REJECTED";
+    /** atomic 批次中其他項目失敗而沒有更新 */
+    public static final String SKIPPED = "SKIPPED";
+
+    private int requested;
+    private int updated;
+    private int notFound;
+    private int conflicts;
+    private int rejected;
+    private long durationMs;
+    private List<ItemResult> results = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ItemResult {
+        private Long id;
+        private String result;
+        /** 更新後的版本；衝突時為目前版本 */
+        private Long version;
+        private String message;
+    }
+}
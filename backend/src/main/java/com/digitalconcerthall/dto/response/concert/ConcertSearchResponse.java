@@ -0,0 +1,44 @@
+package com.digitalconcerthall.dto.response.concert;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.digitalconcerthall.dto.response.ConcertResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 音樂會搜尋結果
+ * facets 依維度（status、venue、month、priceBand）列出各值的音樂會數，每個維度不套用自己的篩選
+ */
+@Data
+@NoArgsConstructor
+public class ConcertSearchResponse {
+    private String query;
+    private int page;
+    private int size;
+    private int total;
+    private long tookMs;
+    private List<Hit> hits = new ArrayList<>();
+    private Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private ConcertResponse concert;
+        private float score;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCount {
+        private String value;
+        private int count;
+    }
+}
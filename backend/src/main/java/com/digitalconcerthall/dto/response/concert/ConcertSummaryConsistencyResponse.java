@@ -0,0 +1,33 @@
+package com.digitalconcerthall.dto.response.concert;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 音樂會摘要一致性檢查結果
+ */
+@Data
+@NoArgsConstructor
+public class ConcertSummaryConsistencyResponse {
+    private LocalDateTime checkedAt;
+    private long durationMs;
+    private boolean repair;
+    private int checked;
+    /** 沒有摘要的音樂會 */
+    private int missing;
+    /** 摘要與重算結果不同的音樂會 */
+    private int drifted;
+    /** 只有下一場時間已過、尚未前移的音樂會（預期中的落後，不算偏差） */
+    private int expired;
+    private int repaired;
+    /** 各欄位出現偏差的音樂會數 */
+    private Map<String, Integer> driftByField = new TreeMap<>();
+    /** 有偏差或缺漏的音樂會 ID（最多 20 筆） */
+    private List<Long> sampleConcertIds = new ArrayList<>();
+}
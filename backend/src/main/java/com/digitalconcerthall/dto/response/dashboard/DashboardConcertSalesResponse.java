@@ -0,0 +1,20 @@
+package com.digitalconcerthall.dto.response.dashboard;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 單一音樂會的營收與各場次售出張數
+ */
+@Data
+@NoArgsConstructor
+public class DashboardConcertSalesResponse {
+    private Long concertId;
+    private BigDecimal revenue;
+    private long ticketsSold;
+    private Map<Long, Long> ticketsSoldByPerformance = new TreeMap<>();
+}
@@ -0,0 +1,49 @@
+package com.digitalconcerthall.dto.response.dashboard;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 管理員儀表板統計
+ * 營收與售出張數只計入已付款訂單，依下單日期歸日
+ */
+@Data
+@NoArgsConstructor
+public class DashboardMetricsResponse {
+    private LocalDateTime generatedAt;
+    private long totalConcerts;
+    private long totalPerformances;
+    private long totalTickets;
+    private long totalUsers;
+    private Map<String, Long> ordersByStatus = new TreeMap<>();
+    private BigDecimal totalRevenue;
+    private long totalTicketsSold;
+    /** 最近 N 天（含今天）的每日營收，沒有銷售的日子為 0 */
+    private Map<LocalDate, BigDecimal> revenueByDay = new TreeMap<>();
+    private Map<LocalDate, Long> ticketsSoldByDay = new TreeMap<>();
+    private long ticketsSoldToday;
+    private long ticketsSoldLast7Days;
+    /** 最近 7 天平均每日售出張數 */
+    private double averageDailyTicketsSold;
+    private List<ConcertSales> topConcertsByRevenue = new ArrayList<>();
+    private LocalDateTime lastSnapshotAt;
+    private LocalDateTime lastReconciledAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConcertSales {
+        private Long concertId;
+        private BigDecimal revenue;
+        private long ticketsSold;
+    }
+}
@@ -0,0 +1,28 @@
+package com.digitalconcerthall.dto.response.dashboard;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 儀表板統計對帳結果
+ */
+@Data
+@NoArgsConstructor
+public class DashboardReconciliationResponse {
+    private LocalDateTime checkedAt;
+    private long durationMs;
+    private boolean repair;
+    /** 比對的計數數量 */
+    private int checked;
+    /** 與重算結果不同的計數數量 */
+    private int drifted;
+    /** 各類計數（例如 orders.status、revenue.day）出現偏差的數量 */
+    private Map<String, Integer> driftByCategory = new TreeMap<>();
+    /** 偏差範例：計數名稱對應 [記憶體中的值, 重算的值] */
+    private Map<String, List<Long>> samples = new TreeMap<>();
+}
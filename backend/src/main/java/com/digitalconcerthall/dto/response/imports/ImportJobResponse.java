@@ -0,0 +1,29 @@
+package com.digitalconcerthall.dto.response.imports;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次匯入工作的狀態與進度
+ */
+@Data
+@NoArgsConstructor
+public class ImportJobResponse {
+    private String id;
+    private String status;
+    private int totalConcerts;
+    private int totalPerformances;
+    private int totalTickets;
+    private int importedConcerts;
+    private int importedPerformances;
+    private int importedTickets;
+    private long durationMs;
+    /** 每秒寫入的資料列（音樂會、場次與票券合計） */
+    private long rowsPerSecond;
+    private String errorMessage;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
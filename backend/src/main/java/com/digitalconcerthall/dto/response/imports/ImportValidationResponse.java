@@ -0,0 +1,21 @@
+package com.digitalconcerthall.dto.response.imports;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次匯入內容的檢查結果
+ */
+@Data
+@NoArgsConstructor
+public class ImportValidationResponse {
+    private boolean valid;
+    private int concerts;
+    private int performances;
+    private int tickets;
+    /** 錯誤位置與原因，例如 concerts[3].performances[0].tickets[1]: 找不到票種 VIP */
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package com.digitalconcerthall.dto.response.monitoring;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class JfrDumpResponse {
+    private String fileName;
+    private String path;
+    private long sizeBytes;
+    private int minutes;
+    private int requestedMinutes;
+    // false 表示無法依要求的時間窗口轉存，檔案為完整錄製，原因見 message
+    private boolean windowApplied;
+    private String message;
+}
@@ -0,0 +1,33 @@
+package com.digitalconcerthall.dto.response.monitoring;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 多節點排程工作的租約與最近一次執行結果
+ */
+@Data
+@NoArgsConstructor
+public class JobStatusResponse {
+    private String name;
+    /** 本節點是否註冊且啟用 */
+    private boolean enabled;
+    private long intervalMs;
+    /** 本節點正在執行 */
+    private boolean running;
+    /** 目前或最近一次的持有者 */
+    private String owner;
+    private LocalDateTime leaseUntil;
+    private long fencingToken;
+    private LocalDateTime nextRunAt;
+    private LocalDateTime lastStartedAt;
+    private Long lastDurationMs;
+    /** 最近一次處理的項目數 */
+    private Integer lastItems;
+    private String lastStatus;
+    private String lastError;
+    private long runCount;
+    private long failureCount;
+}
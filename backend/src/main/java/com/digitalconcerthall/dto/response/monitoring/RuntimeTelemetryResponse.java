@@ -0,0 +1,22 @@
+package com.digitalconcerthall.dto.response.monitoring;
+
+import java.util.List;
+
+import com.digitalconcerthall.monitoring.GcPauseEvent;
+import com.digitalconcerthall.monitoring.RuntimeSample;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class RuntimeTelemetryResponse {
+    private int windowMinutes;
+    private long sampleIntervalMs;
+    private int gcPauseCount;
+    private long gcPauseTotalMs;
+    private long gcPauseMaxMs;
+    private long averageAllocationRateBytesPerSec;
+    private List<RuntimeSample> samples;
+    private List<GcPauseEvent> gcEvents;
+}
@@ -0,0 +1,26 @@
+package com.digitalconcerthall.dto.response.order;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 大量訂票工作的狀態與進度
+ */
+@Data
+@NoArgsConstructor
+public class BulkOrderJobResponse {
+    private String id;
+    private String status;
+    /** 庫存保留後才有訂單編號 */
+    private String orderNumber;
+    private int totalTickets;
+    private int issuedTickets;
+    private long durationMs;
+    /** 每秒發行的票券張數 */
+    private long ticketsPerSecond;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -26,6 +26,16 @@ public class UserTicketDetailResponse {
     private String concertDescription; // 音樂會描述
     private String programDetails; // 演出曲目詳情
     
+    // 用於 UserTicketRepository 的 JPQL 投影，QR 碼由服務層另行填入
+    public UserTicketDetailResponse(Long id, String ticketCode, String concertTitle, String performanceVenue,
+                                   LocalDateTime performanceStartTime, LocalDateTime performanceEndTime,
+                                   String ticketTypeName, Boolean isUsed, String orderNumber,
+                                   LocalDateTime createdAt, String posterUrl, String concertDescription,
+                                   String programDetails) {
+        this(id, ticketCode, concertTitle, performanceVenue, performanceStartTime, performanceEndTime,
+                ticketTypeName, isUsed, orderNumber, createdAt, null, posterUrl, concertDescription, programDetails);
+    }
+
     // 簡化的建構子，用於 TicketServiceImpl
     public UserTicketDetailResponse(Long id, Long performanceId, String performanceName, 
                                    LocalDateTime performanceDate, String seatNumber, 
@@ -2,15 +2,20 @@ package com.digitalconcerthall.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
+import com.digitalconcerthall.datasource.BulkheadFullException;
 import com.digitalconcerthall.dto.response.ApiResponse;
 
 import javax.naming.AuthenticationNotSupportedException;
@@ -44,6 +49,22 @@ public class GlobalExceptionHandler {
                 .body(new ApiResponse(false, "用戶名或密碼錯誤"));
     }
     
+    /**
+     * 連線分區已滿時回傳 503，讓前端稍後重試，而不是當成伺服器錯誤
+     */
+    @ExceptionHandler({ CannotCreateTransactionException.class, DataAccessResourceFailureException.class })
+    public ResponseEntity<ApiResponse> handleConnectionFailure(RuntimeException ex, WebRequest request) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(ex);
+        if (cause instanceof BulkheadFullException) {
+            logger.warn("Connection bulkhead full: {}", cause.getMessage());
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ApiResponse(false, "系統忙碌中，請稍後再試"));
+        }
+        return handleGlobalException(ex, request);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse> handleGlobalException(Exception ex, WebRequest request) {
         logger.error("Global error: {}", ex.getMessage(), ex);
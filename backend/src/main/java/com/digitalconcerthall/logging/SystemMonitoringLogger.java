@@ -2,20 +2,32 @@ package com.digitalconcerthall.logging;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.digitalconcerthall.dto.response.monitoring.RuntimeTelemetryResponse;
+import com.digitalconcerthall.monitoring.RuntimeSample;
+import com.digitalconcerthall.monitoring.RuntimeTelemetryService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+
+import jakarta.annotation.PostConstruct;
+
 import java.io.File;
 import java.lang.management.ManagementFactory;
-import java.lang.management.MemoryMXBean;
 import java.lang.management.OperatingSystemMXBean;
 import java.lang.management.RuntimeMXBean;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
  * 系統監控組件
  * 定期記錄系統資源使用情況
+ * 細粒度的 JVM 資料（GC 暫停、配置速率、線程狀態）由 {@link RuntimeTelemetryService} 持續取樣，
+ * 此處只輸出摘要，完整資料請查詢 /api/admin/telemetry
+ * 兩份報告登記在 {@link JobRegistry}，叢集每個間隔只由一個節點輸出，標題註明節點名稱
  */
 @Component
 public class SystemMonitoringLogger {
@@ -25,15 +37,45 @@ public class SystemMonitoringLogger {
 
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    /** 報告只需數秒，租約到期前足以完成 */
+    private static final Duration REPORT_LEASE = Duration.ofMinutes(2);
+
+    @Value("${app.monitoring.system.interval:300000}")
+    private long systemInterval;
+
+    @Value("${app.monitoring.health.interval:3600000}")
+    private long healthInterval;
+
+    @Autowired
+    private RuntimeTelemetryService runtimeTelemetryService;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @PostConstruct
+    public void init() {
+        jobRegistry.register("system-resources", true, Duration.ofMillis(systemInterval), REPORT_LEASE, lease -> {
+            logSystemResources();
+            return 1;
+        });
+        jobRegistry.register("system-health", true, Duration.ofMillis(healthInterval), REPORT_LEASE, lease -> {
+            logDetailedHealthReport();
+            return 1;
+        });
+    }
+
     /**
      * 每5分鐘記錄一次系統資源使用情況
      */
-    @Scheduled(fixedRate = 300000) // 5分鐘 = 300,000 毫秒
     public void logSystemResources() {
         try {
             StringBuilder report = new StringBuilder();
             report.append("================================================================================\n");
-            report.append("系統資源監控報告 - ").append(LocalDateTime.now().format(formatter)).append("\n");
+            report.append("系統資源監控報告 - ").append(LocalDateTime.now().format(formatter))
+                    .append(" - 節點 ").append(jobLeaseService.getOwner()).append("\n");
             report.append("================================================================================\n");
 
             // JVM 記憶體資訊
@@ -58,34 +100,24 @@ public class SystemMonitoringLogger {
     }
 
     /**
-     * 記錄記憶體使用情況
+     * 記錄記憶體使用情況（取自最新的遙測取樣）
      */
     private void logMemoryInfo(StringBuilder report) {
-        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
-        Runtime runtime = Runtime.getRuntime();
-
-        // JVM 記憶體
-        long maxMemory = runtime.maxMemory();
-        long totalMemory = runtime.totalMemory();
-        long freeMemory = runtime.freeMemory();
-        long usedMemory = totalMemory - freeMemory;
+        RuntimeSample latest = runtimeTelemetryService.getLatestSample();
+        long heapMax = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax();
 
         report.append("JVM 記憶體使用情況:\n");
-        report.append(String.format("  最大記憶體: %d MB (%.1f GB)\n",
-                maxMemory / 1024 / 1024, maxMemory / 1024.0 / 1024.0 / 1024.0));
-        report.append(String.format("  總分配記憶體: %d MB\n", totalMemory / 1024 / 1024));
-        report.append(String.format("  已使用記憶體: %d MB (%.1f%%)\n",
-                usedMemory / 1024 / 1024, (usedMemory * 100.0) / maxMemory));
-        report.append(String.format("  可用記憶體: %d MB\n", freeMemory / 1024 / 1024));
-
-        // 堆記憶體詳細資訊
-        long heapUsed = memoryBean.getHeapMemoryUsage().getUsed();
-        long heapMax = memoryBean.getHeapMemoryUsage().getMax();
-        long nonHeapUsed = memoryBean.getNonHeapMemoryUsage().getUsed();
-
-        report.append(String.format("  堆記憶體使用: %d MB / %d MB (%.1f%%)\n",
-                heapUsed / 1024 / 1024, heapMax / 1024 / 1024, (heapUsed * 100.0) / heapMax));
-        report.append(String.format("  非堆記憶體使用: %d MB\n", nonHeapUsed / 1024 / 1024));
+        if (latest == null) {
+            report.append("  尚無遙測取樣\n\n");
+            return;
+        }
+        report.append(String.format("  堆記憶體使用: %d MB / %d MB (已提交 %d MB)\n",
+                latest.getHeapUsedBytes() / 1024 / 1024, heapMax / 1024 / 1024,
+                latest.getHeapCommittedBytes() / 1024 / 1024));
+        report.append(String.format("  非堆記憶體使用: %d MB\n", latest.getNonHeapUsedBytes() / 1024 / 1024));
+        report.append(String.format("  配置速率: %d MB/s\n", latest.getAllocationRateBytesPerSec() / 1024 / 1024));
+        report.append(String.format("  直接緩衝區: %d MB (%d 個)\n",
+                latest.getDirectBufferUsedBytes() / 1024 / 1024, latest.getDirectBufferCount()));
         report.append("\n");
     }
 
@@ -229,12 +261,12 @@ public class SystemMonitoringLogger {
     /**
      * 每小時記錄一次詳細的系統健康報告
      */
-    @Scheduled(fixedRate = 3600000) // 1小時 = 3,600,000 毫秒
     public void logDetailedHealthReport() {
         try {
             StringBuilder report = new StringBuilder();
             report.append("################################################################################\n");
-            report.append("數位音樂廳系統健康詳細報告 - ").append(LocalDateTime.now().format(formatter)).append("\n");
+            report.append("數位音樂廳系統健康詳細報告 - ").append(LocalDateTime.now().format(formatter))
+                    .append(" - 節點 ").append(jobLeaseService.getOwner()).append("\n");
             report.append("################################################################################\n");
 
             // 基本系統資訊
@@ -259,16 +291,17 @@ public class SystemMonitoringLogger {
     }
 
     /**
-     * 記錄垃圾回收資訊
+     * 記錄垃圾回收資訊（最近一小時的暫停統計）
      */
     private void logGarbageCollectionInfo(StringBuilder report) {
-        report.append("垃圾回收資訊:\n");
-
-        ManagementFactory.getGarbageCollectorMXBeans().forEach(gcBean -> {
-            report.append(String.format("  %s: 回收次數 %d, 總時間 %d ms\n",
-                    gcBean.getName(), gcBean.getCollectionCount(), gcBean.getCollectionTime()));
-        });
+        RuntimeTelemetryResponse telemetry = runtimeTelemetryService.getTelemetry(60);
 
+        report.append("垃圾回收資訊:\n");
+        report.append(String.format("  近 %d 分鐘暫停: %d 次, 總時間 %d ms, 最長 %d ms\n",
+                telemetry.getWindowMinutes(), telemetry.getGcPauseCount(),
+                telemetry.getGcPauseTotalMs(), telemetry.getGcPauseMaxMs()));
+        report.append(String.format("  平均配置速率: %d MB/s\n",
+                telemetry.getAverageAllocationRateBytesPerSec() / 1024 / 1024));
         report.append("\n");
     }
 
@@ -276,14 +309,18 @@ public class SystemMonitoringLogger {
      * 記錄線程資訊
      */
     private void logThreadInfo(StringBuilder report) {
-        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        RuntimeSample latest = runtimeTelemetryService.getLatestSample();
 
         report.append("線程資訊:\n");
-        report.append(String.format("  當前線程數: %d\n", threadBean.getThreadCount()));
-        report.append(String.format("  峰值線程數: %d\n", threadBean.getPeakThreadCount()));
-        report.append(String.format("  守護線程數: %d\n", threadBean.getDaemonThreadCount()));
-        report.append(String.format("  總啟動線程數: %d\n", threadBean.getTotalStartedThreadCount()));
-
+        report.append(String.format("  峰值線程數: %d\n", ManagementFactory.getThreadMXBean().getPeakThreadCount()));
+        if (latest != null) {
+            report.append(String.format("  當前線程數: %d (守護 %d)\n",
+                    latest.getThreadCount(), latest.getDaemonThreadCount()));
+            report.append("  線程狀態: ").append(latest.getThreadStates()).append("\n");
+            latest.getConnectionPools().forEach((name, pool) -> report.append(String.format(
+                    "  連接池 %s: 使用中 %d, 閒置 %d, 等待 %d\n",
+                    name, pool.getActive(), pool.getIdle(), pool.getThreadsAwaitingConnection())));
+        }
         report.append("\n");
     }
 }
@@ -5,6 +5,8 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 
+import com.digitalconcerthall.config.DiagnosticsOnly;
+
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -17,6 +19,7 @@ import java.util.concurrent.atomic.AtomicLong;
  * 為自動化測試提供增強的日誌服務
  * 記錄測試執行情況和結果
  */
+@DiagnosticsOnly
 @Service
 public class TestLoggingService {
     private static final Logger logger = LoggerFactory.getLogger(TestLoggingService.class);
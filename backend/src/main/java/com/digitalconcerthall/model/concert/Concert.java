@@ -51,6 +51,11 @@ public class Concert {
     
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
+
+    /** 樂觀鎖版本，批次更新也會遞增 */
+    @Version
+    @Column(nullable = false)
+    private Long version;
     
     @OneToMany(mappedBy = "concert", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
@@ -0,0 +1,76 @@
+package com.digitalconcerthall.model.concert;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 音樂會摘要
+ * 音樂會列表需要的彙總欄位，避免每次請求都走訪所有場次與票券
+ */
+@Entity
+@Table(name = "concert_summary")
+@Data
+@NoArgsConstructor
+public class ConcertSummary {
+
+    private static final String VENUE_SEPARATOR = "\n";
+
+    @Id
+    @Column(name = "concert_id")
+    private Long concertId;
+
+    @Column(name = "performance_count", nullable = false)
+    private int performanceCount;
+
+    @Column(name = "min_price", precision = 10, scale = 2)
+    private BigDecimal minPrice;
+
+    @Column(name = "max_price", precision = 10, scale = 2)
+    private BigDecimal maxPrice;
+
+    @Column(name = "first_start_time")
+    private LocalDateTime firstStartTime;
+
+    /**
+     * 計算當下尚未開演的最早場次，開演後由排程前移
+     */
+    @Column(name = "next_start_time")
+    private LocalDateTime nextStartTime;
+
+    /**
+     * 不重複的演出地點，以換行分隔
+     */
+    @Column(name = "venues", columnDefinition = "TEXT")
+    private String venues;
+
+    @Column(name = "total_capacity", nullable = false)
+    private int totalCapacity;
+
+    @Column(name = "remaining_capacity", nullable = false)
+    private int remainingCapacity;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ConcertSummary(Long concertId) {
+        this.concertId = concertId;
+    }
+
+    public List<String> getVenueList() {
+        if (venues == null || venues.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(venues.split(VENUE_SEPARATOR));
+    }
+
+    public void setVenueList(List<String> venueList) {
+        this.venues = venueList == null || venueList.isEmpty() ? null : String.join(VENUE_SEPARATOR, venueList);
+    }
+}
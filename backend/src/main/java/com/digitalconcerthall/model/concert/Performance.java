@@ -51,6 +51,11 @@ public class Performance {
     @Column(name = "recording_url")
     private String recordingUrl;
 
+    /** 樂觀鎖版本，批次更新也會遞增 */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "performance", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private List<Ticket> tickets = new ArrayList<>();
@@ -71,7 +76,7 @@ public class Performance {
 
     /**
      * 從關聯的 Ticket 列表中獲取所有不同的 TicketType。
-     * 這個方法是為了配合 ConcertService 中的邏輯。
+     * 注意：會載入整個 tickets 集合，列表頁的票價區間請使用 ConcertSummary。
      * @return 與此 Performance 相關的所有 TicketType 的 Set 集合。
      */
     // 注意：這個方法不會被 JPA 持久化，它只是一個便捷的 getter
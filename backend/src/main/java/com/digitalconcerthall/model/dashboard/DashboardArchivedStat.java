@@ -0,0 +1,33 @@
+package com.digitalconcerthall.model.dashboard;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 已封存訂單對一個儀表板計數的貢獻
+ */
+@Entity
+@Table(name = "dashboard_archived_stats")
+@Data
+@NoArgsConstructor
+public class DashboardArchivedStat {
+
+    @Id
+    @Column(name = "stat_key", length = 100)
+    private String statKey;
+
+    @Column(name = "stat_value", nullable = false)
+    private long statValue;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public DashboardArchivedStat(String statKey, long statValue, LocalDateTime updatedAt) {
+        this.statKey = statKey;
+        this.statValue = statValue;
+        this.updatedAt = updatedAt;
+    }
+}
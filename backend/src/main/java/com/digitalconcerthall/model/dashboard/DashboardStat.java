@@ -0,0 +1,33 @@
+package com.digitalconcerthall.model.dashboard;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 儀表板統計快照的一筆計數
+ */
+@Entity
+@Table(name = "dashboard_stat_snapshot")
+@Data
+@NoArgsConstructor
+public class DashboardStat {
+
+    @Id
+    @Column(name = "stat_key", length = 100)
+    private String statKey;
+
+    @Column(name = "stat_value", nullable = false)
+    private long statValue;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public DashboardStat(String statKey, long statValue, LocalDateTime updatedAt) {
+        this.statKey = statKey;
+        this.statValue = statValue;
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,67 @@
+package com.digitalconcerthall.model.imports;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次匯入工作與進度
+ */
+@Entity
+@Table(name = "import_jobs")
+@Data
+@NoArgsConstructor
+public class ImportJob {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    /** 待匯入的內容（JSON），完成後清除 */
+    @Column(columnDefinition = "LONGTEXT")
+    private String document;
+
+    @Column(name = "total_concerts", nullable = false)
+    private int totalConcerts;
+
+    @Column(name = "total_performances", nullable = false)
+    private int totalPerformances;
+
+    @Column(name = "total_tickets", nullable = false)
+    private int totalTickets;
+
+    @Column(name = "imported_concerts", nullable = false)
+    private int importedConcerts;
+
+    @Column(name = "imported_performances", nullable = false)
+    private int importedPerformances;
+
+    @Column(name = "imported_tickets", nullable = false)
+    private int importedTickets;
+
+    /** 實際寫入耗費的時間，不含排隊等待；繼續執行時累加 */
+    @Column(name = "duration_ms", nullable = false)
+    private long durationMs;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,67 @@
+package com.digitalconcerthall.model.order;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 大量訂票工作與進度
+ */
+@Entity
+@Table(name = "bulk_order_jobs")
+@Data
+@NoArgsConstructor
+public class BulkOrderJob {
+
+    public static final String PENDING = "PENDING";
+    /** 庫存已保留、待付款訂單已建立，付款後才發行使用者票券 */
+    public static final String AWAITING_PAYMENT = "AWAITING_PAYMENT";
+    /** 訂單已付款，正在發行使用者票券 */
+    public static final String ISSUING = "ISSUING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    /** 逾期未付款，保留的庫存已釋放 */
+    public static final String EXPIRED = "EXPIRED";
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** 庫存保留並建立訂單後才有值 */
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "order_number")
+    private String orderNumber;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    /** 合併後的訂購項目（JSON），完成後清除 */
+    @Column(columnDefinition = "LONGTEXT")
+    private String document;
+
+    @Column(name = "total_tickets", nullable = false)
+    private int totalTickets;
+
+    @Column(name = "issued_tickets", nullable = false)
+    private int issuedTickets;
+
+    /** 實際處理耗費的時間，不含排隊等待；繼續執行時累加 */
+    @Column(name = "duration_ms", nullable = false)
+    private long durationMs;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
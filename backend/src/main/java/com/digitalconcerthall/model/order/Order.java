@@ -44,7 +44,7 @@ public class Order {
     private BigDecimal totalAmount;
 
     @Column(nullable = false, length = 20)
-    private String status; // pending, paid, cancelled
+    private String status; // pending, paid, cancelled, expired
 
     @Column(name = "payment_method", length = 50)
     private String paymentMethod;
@@ -0,0 +1,163 @@
+package com.digitalconcerthall.monitoring;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.digitalconcerthall.dto.response.monitoring.JfrDumpResponse;
+import com.digitalconcerthall.monitoring.jfr.AuthenticationEvent;
+import com.digitalconcerthall.monitoring.jfr.CheckoutEvent;
+import com.digitalconcerthall.monitoring.jfr.InventoryUpdateEvent;
+import com.digitalconcerthall.monitoring.jfr.PaymentNotificationEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+/**
+ * Java Flight Recorder 持續錄製服務
+ * 以 JDK 內建的 "default" 設定（低開銷）持續錄製，並保留最近一段時間的資料，
+ * 需要時可將最近 N 分鐘轉存為 .jfr 檔案供 JDK Mission Control 分析
+ */
+@Component
+public class FlightRecorderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+    private static final String RECORDING_NAME = "digitalconcerthall-continuous";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${app.jfr.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jfr.settings:default}")
+    private String settings;
+
+    @Value("${app.jfr.max-age-minutes:30}")
+    private int maxAgeMinutes;
+
+    @Value("${app.jfr.max-size-mb:250}")
+    private long maxSizeMb;
+
+    @Value("${app.jfr.dump-dir:./logs/jfr}")
+    private String dumpDir;
+
+    private Recording recording;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("JFR 持續錄製已停用 (app.jfr.enabled=false)");
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            logger.warn("此 JVM 不支援 Java Flight Recorder，略過持續錄製");
+            return;
+        }
+        try {
+            FlightRecorder.register(CheckoutEvent.class);
+            FlightRecorder.register(PaymentNotificationEvent.class);
+            FlightRecorder.register(AuthenticationEvent.class);
+            FlightRecorder.register(InventoryUpdateEvent.class);
+
+            recording = new Recording(Configuration.getConfiguration(settings));
+            recording.setName(RECORDING_NAME);
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+            recording.setMaxSize(maxSizeMb * 1024 * 1024);
+            recording.enable(CheckoutEvent.class);
+            recording.enable(PaymentNotificationEvent.class);
+            recording.enable(AuthenticationEvent.class);
+            recording.enable(InventoryUpdateEvent.class);
+            recording.start();
+            logger.info("JFR 持續錄製已啟動: 設定 {}, 保留 {} 分鐘 / {} MB", settings, maxAgeMinutes, maxSizeMb);
+        } catch (Exception e) {
+            logger.error("啟動 JFR 持續錄製失敗: {}", e.getMessage(), e);
+            recording = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * 將最近 N 分鐘的錄製資料轉存到檔案
+     * 無法依時間窗口轉存時改為轉存完整錄製，並在回應中標示 windowApplied=false 與原因
+     */
+    public JfrDumpResponse dump(int minutes) throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("JFR 持續錄製未啟動");
+        }
+        int window = Math.max(1, Math.min(minutes, maxAgeMinutes));
+
+        Path dir = Paths.get(dumpDir).toAbsolutePath();
+        Files.createDirectories(dir);
+        Path file = dir.resolve("dch-" + LocalDateTime.now().format(FILE_TIME) + "-" + window + "m.jfr");
+
+        String fallback = null;
+        try {
+            // JFR.dump 的 begin 參數可以只輸出時間窗口內的 chunk，公開的 Recording API 只能整段轉存
+            ManagementFactory.getPlatformMBeanServer().invoke(
+                    new ObjectName("com.sun.management:type=DiagnosticCommand"),
+                    "jfrDump",
+                    new Object[] { new String[] {
+                            "name=" + recording.getId(),
+                            "filename=" + file,
+                            "begin=-" + window + "m" } },
+                    new String[] { String[].class.getName() });
+            if (!Files.exists(file)) {
+                // 時間窗口內沒有資料時 JFR.dump 不會產生檔案
+                fallback = "最近 " + window + " 分鐘內沒有錄製資料";
+            }
+        } catch (Exception e) {
+            logger.warn("JFR.dump 診斷命令失敗: {}", e.getMessage());
+            fallback = "JFR.dump 診斷命令失敗: " + e.getMessage();
+        }
+
+        JfrDumpResponse response = new JfrDumpResponse();
+        response.setRequestedMinutes(minutes);
+        if (fallback != null) {
+            recording.dump(file);
+            response.setWindowApplied(false);
+            response.setMinutes(maxAgeMinutes);
+            response.setMessage(fallback + "，已改為轉存完整錄製（最多保留 " + maxAgeMinutes + " 分鐘）");
+            logger.warn("JFR 未依 {} 分鐘窗口轉存: {}", window, response.getMessage());
+        } else {
+            response.setWindowApplied(true);
+            response.setMinutes(window);
+            if (window != minutes) {
+                response.setMessage("要求的 " + minutes + " 分鐘超出保留範圍，已調整為 " + window + " 分鐘");
+            }
+        }
+
+        long size = Files.size(file);
+        logger.info("JFR 錄製已轉存: {} ({} bytes, {} 分鐘)", file, size, response.getMinutes());
+
+        response.setFileName(file.getFileName().toString());
+        response.setPath(file.toString());
+        response.setSizeBytes(size);
+        return response;
+    }
+}
@@ -0,0 +1,18 @@
+package com.digitalconcerthall.monitoring;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 單次垃圾回收事件（由 GC 通知取得）
+ */
+@Getter
+@AllArgsConstructor
+public class GcPauseEvent {
+    private final long timestamp;
+    private final String gcName;
+    private final String gcAction;
+    private final String gcCause;
+    private final long durationMs;
+    private final long reclaimedBytes;
+}
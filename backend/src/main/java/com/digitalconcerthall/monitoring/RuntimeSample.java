@@ -0,0 +1,41 @@
+package com.digitalconcerthall.monitoring;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 單次 JVM 執行期取樣結果
+ */
+@Getter
+@AllArgsConstructor
+public class RuntimeSample {
+    private final long timestamp;
+    private final long heapUsedBytes;
+    private final long heapCommittedBytes;
+    private final long nonHeapUsedBytes;
+    /** 每秒配置的位元組數（依堆使用量變化與 GC 回收量推算） */
+    private final long allocationRateBytesPerSec;
+    private final int gcCountSinceLastSample;
+    private final long gcPauseMsSinceLastSample;
+    private final int threadCount;
+    private final int daemonThreadCount;
+    private final Map<String, Integer> threadStates;
+    private final long directBufferUsedBytes;
+    private final long directBufferCount;
+    private final long mappedBufferUsedBytes;
+    private final Map<String, ConnectionPoolStats> connectionPools;
+
+    /**
+     * 連接池狀態
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ConnectionPoolStats {
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int threadsAwaitingConnection;
+    }
+}
@@ -0,0 +1,352 @@
+package com.digitalconcerthall.monitoring;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.digitalconcerthall.datasource.ReadWriteRoutingDataSource;
+import com.digitalconcerthall.dto.response.monitoring.RuntimeTelemetryResponse;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * JVM 執行期遙測服務
+ * 持續將 GC 暫停、配置速率、線程狀態、直接緩衝區與連接池狀態取樣至固定大小的環形緩衝區，
+ * 只有在查詢（管理端點或 Micrometer 抓取）時才會彙整資料
+ */
+@Component
+public class RuntimeTelemetryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuntimeTelemetryService.class);
+
+    @Value("${app.telemetry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.telemetry.sample-interval-ms:5000}")
+    private long sampleIntervalMs;
+
+    @Value("${app.telemetry.retention-minutes:30}")
+    private int retentionMinutes;
+
+    @Value("${app.telemetry.gc-event-capacity:1024}")
+    private int gcEventCapacity;
+
+    @Autowired
+    private ObjectProvider<DataSource> dataSources;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final List<NotificationEmitter> registeredEmitters = new ArrayList<>();
+    private final NotificationListener gcListener = this::onGcNotification;
+
+    // GC 通知線程累加，取樣線程讀取後歸零
+    private final AtomicLong reclaimedSinceSample = new AtomicLong();
+    private final AtomicInteger gcCountSinceSample = new AtomicInteger();
+    private final AtomicLong gcPauseMsSinceSample = new AtomicLong();
+
+    private TelemetryRingBuffer<RuntimeSample> samples;
+    private TelemetryRingBuffer<GcPauseEvent> gcEvents;
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private long previousHeapUsed = -1;
+    private long previousSampleTime;
+
+    @PostConstruct
+    public void init() {
+        int sampleCapacity = (int) Math.max(1, retentionMinutes * 60_000L / Math.max(1, sampleIntervalMs));
+        samples = new TelemetryRingBuffer<>(sampleCapacity, RuntimeSample::getTimestamp);
+        gcEvents = new TelemetryRingBuffer<>(gcEventCapacity, GcPauseEvent::getTimestamp);
+
+        if (!enabled) {
+            logger.info("執行期遙測已停用 (app.telemetry.enabled=false)");
+            return;
+        }
+
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gcBean instanceof NotificationEmitter) {
+                NotificationEmitter emitter = (NotificationEmitter) gcBean;
+                emitter.addNotificationListener(gcListener, null, null);
+                registeredEmitters.add(emitter);
+            }
+        }
+
+        registerGauges();
+        logger.info("執行期遙測已啟動: 取樣間隔 {} ms, 保留 {} 分鐘 ({} 筆)", sampleIntervalMs, retentionMinutes,
+                sampleCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (NotificationEmitter emitter : registeredEmitters) {
+            try {
+                emitter.removeNotificationListener(gcListener);
+            } catch (Exception e) {
+                logger.debug("移除 GC 通知監聽器失敗: {}", e.getMessage());
+            }
+        }
+        registeredEmitters.clear();
+    }
+
+    /**
+     * 定期取樣，只讀取 MXBean 數值並寫入預先配置的環形緩衝區
+     */
+    @Scheduled(fixedRateString = "${app.telemetry.sample-interval-ms:5000}")
+    public void sample() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            samples.add(takeSample());
+        } catch (Exception e) {
+            logger.warn("執行期遙測取樣失敗: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 取得最近 N 分鐘的遙測資料
+     */
+    public RuntimeTelemetryResponse getTelemetry(int minutes) {
+        int window = Math.max(1, Math.min(minutes, retentionMinutes));
+        long since = System.currentTimeMillis() - window * 60_000L;
+
+        List<RuntimeSample> windowSamples = samples.since(since);
+        List<GcPauseEvent> windowGcEvents = gcEvents.since(since);
+
+        RuntimeTelemetryResponse response = new RuntimeTelemetryResponse();
+        response.setWindowMinutes(window);
+        response.setSampleIntervalMs(sampleIntervalMs);
+        response.setSamples(windowSamples);
+        response.setGcEvents(windowGcEvents);
+
+        long pauseTotal = 0;
+        long pauseMax = 0;
+        int pauseCount = 0;
+        for (GcPauseEvent event : windowGcEvents) {
+            if (isConcurrentPhase(event.getGcName(), event.getGcCause())) {
+                continue;
+            }
+            pauseCount++;
+            pauseTotal += event.getDurationMs();
+            pauseMax = Math.max(pauseMax, event.getDurationMs());
+        }
+        response.setGcPauseCount(pauseCount);
+        response.setGcPauseTotalMs(pauseTotal);
+        response.setGcPauseMaxMs(pauseMax);
+        response.setAverageAllocationRateBytesPerSec((long) windowSamples.stream()
+                .mapToLong(RuntimeSample::getAllocationRateBytesPerSec)
+                .average()
+                .orElse(0));
+        return response;
+    }
+
+    /**
+     * 最新一筆取樣，尚未取樣時返回 null
+     */
+    public RuntimeSample getLatestSample() {
+        return samples.latest();
+    }
+
+    /**
+     * 取樣會讀取連接池狀態，以 ReentrantLock 取代 synchronized，避免在虛擬線程上釘住載體線程
+     */
+    private RuntimeSample takeSample() {
+        sampleLock.lock();
+        try {
+            return sampleLocked();
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    private RuntimeSample sampleLocked() {
+        long now = System.currentTimeMillis();
+        MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+        long heapUsed = heap.getUsed();
+
+        long reclaimed = reclaimedSinceSample.getAndSet(0);
+        int gcCount = gcCountSinceSample.getAndSet(0);
+        long gcPauseMs = gcPauseMsSinceSample.getAndSet(0);
+
+        long allocationRate = 0;
+        if (previousHeapUsed >= 0 && now > previousSampleTime) {
+            long allocated = Math.max(0, heapUsed - previousHeapUsed + reclaimed);
+            allocationRate = allocated * 1000 / (now - previousSampleTime);
+        }
+        previousHeapUsed = heapUsed;
+        previousSampleTime = now;
+
+        long directUsed = 0;
+        long directCount = 0;
+        long mappedUsed = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                directUsed = pool.getMemoryUsed();
+                directCount = pool.getCount();
+            } else if ("mapped".equals(pool.getName())) {
+                mappedUsed = pool.getMemoryUsed();
+            }
+        }
+
+        return new RuntimeSample(
+                now,
+                heapUsed,
+                heap.getCommitted(),
+                memoryBean.getNonHeapMemoryUsage().getUsed(),
+                allocationRate,
+                gcCount,
+                gcPauseMs,
+                threadBean.getThreadCount(),
+                threadBean.getDaemonThreadCount(),
+                countThreadStates(),
+                directUsed,
+                directCount,
+                mappedUsed,
+                collectConnectionPoolStats());
+    }
+
+    private Map<String, Integer> countThreadStates() {
+        Map<Thread.State, Integer> counts = new EnumMap<>(Thread.State.class);
+        // maxDepth=0：不擷取堆疊，只取得線程狀態
+        for (ThreadInfo info : threadBean.getThreadInfo(threadBean.getAllThreadIds(), 0)) {
+            if (info != null) {
+                counts.merge(info.getThreadState(), 1, Integer::sum);
+            }
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Thread.State state : Thread.State.values()) {
+            result.put(state.name(), counts.getOrDefault(state, 0));
+        }
+        return result;
+    }
+
+    private Map<String, RuntimeSample.ConnectionPoolStats> collectConnectionPoolStats() {
+        Map<String, RuntimeSample.ConnectionPoolStats> pools = new LinkedHashMap<>();
+        dataSources.orderedStream().forEach(dataSource -> {
+            try {
+                // 讀寫分離時逐一讀取主庫與從庫的連接池
+                if (dataSource.isWrapperFor(ReadWriteRoutingDataSource.class)) {
+                    for (DataSource target : dataSource.unwrap(ReadWriteRoutingDataSource.class).getPools().values()) {
+                        collectHikariStats(target, pools);
+                    }
+                } else {
+                    collectHikariStats(dataSource, pools);
+                }
+            } catch (Exception e) {
+                logger.debug("無法讀取連接池狀態: {}", e.getMessage());
+            }
+        });
+        return pools;
+    }
+
+    private void collectHikariStats(DataSource dataSource, Map<String, RuntimeSample.ConnectionPoolStats> pools)
+            throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return;
+        }
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool != null) {
+            pools.put(hikari.getPoolName(), new RuntimeSample.ConnectionPoolStats(
+                    pool.getActiveConnections(),
+                    pool.getIdleConnections(),
+                    pool.getTotalConnections(),
+                    pool.getThreadsAwaitingConnection()));
+        }
+    }
+
+    private void onGcNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+
+        long before = info.getGcInfo().getMemoryUsageBeforeGc().values().stream().mapToLong(MemoryUsage::getUsed).sum();
+        long after = info.getGcInfo().getMemoryUsageAfterGc().values().stream().mapToLong(MemoryUsage::getUsed).sum();
+        long reclaimed = Math.max(0, before - after);
+        long duration = info.getGcInfo().getDuration();
+
+        reclaimedSinceSample.addAndGet(reclaimed);
+        if (!isConcurrentPhase(info.getGcName(), info.getGcCause())) {
+            gcCountSinceSample.incrementAndGet();
+            gcPauseMsSinceSample.addAndGet(duration);
+        }
+
+        gcEvents.add(new GcPauseEvent(System.currentTimeMillis(), info.getGcName(), info.getGcAction(),
+                info.getGcCause(), duration, reclaimed));
+    }
+
+    /**
+     * 並行 GC 階段（如 G1 Concurrent、ZGC Cycles）不會暫停應用線程，不計入暫停統計
+     */
+    private static boolean isConcurrentPhase(String gcName, String gcCause) {
+        return "No GC".equals(gcCause) || gcName.contains("Concurrent") || gcName.contains("Cycles");
+    }
+
+    private void registerGauges() {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        // 量測值只在被抓取時從最新取樣讀取
+        Gauge.builder("app.telemetry.allocation.rate", this,
+                        s -> latestValue(RuntimeSample::getAllocationRateBytesPerSec))
+                .baseUnit("bytes")
+                .description("JVM allocation rate per second (latest sample)")
+                .register(registry);
+        Gauge.builder("app.telemetry.gc.pause", this, s -> latestValue(RuntimeSample::getGcPauseMsSinceLastSample))
+                .baseUnit("milliseconds")
+                .description("GC pause time accumulated during the latest sample interval")
+                .register(registry);
+        for (Thread.State state : Thread.State.values()) {
+            Gauge.builder("app.telemetry.threads", this, s -> {
+                        RuntimeSample latest = samples.latest();
+                        return latest == null ? 0 : latest.getThreadStates().getOrDefault(state.name(), 0);
+                    })
+                    .tag("state", state.name().toLowerCase())
+                    .description("Live threads by state (latest sample)")
+                    .register(registry);
+        }
+    }
+
+    private double latestValue(ToLongFunction<RuntimeSample> extractor) {
+        RuntimeSample latest = samples.latest();
+        return latest == null ? 0 : extractor.applyAsLong(latest);
+    }
+}
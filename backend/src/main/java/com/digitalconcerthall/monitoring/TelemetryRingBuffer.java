@@ -0,0 +1,64 @@
+package com.digitalconcerthall.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * 固定容量的環形緩衝區
+ * 寫滿後覆蓋最舊的資料，記憶體用量在啟動時即固定，不會隨運行時間成長
+ */
+public class TelemetryRingBuffer<T> {
+
+    private final Object[] slots;
+    private final ToLongFunction<T> timestampOf;
+    private int next;
+    private int size;
+
+    public TelemetryRingBuffer(int capacity, ToLongFunction<T> timestampOf) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("容量必須大於0");
+        }
+        this.slots = new Object[capacity];
+        this.timestampOf = timestampOf;
+    }
+
+    public synchronized void add(T item) {
+        slots[next] = item;
+        next = (next + 1) % slots.length;
+        if (size < slots.length) {
+            size++;
+        }
+    }
+
+    /**
+     * 依時間順序返回指定時間點（毫秒）之後的所有項目
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> since(long sinceEpochMillis) {
+        List<T> result = new ArrayList<>(size);
+        int start = (next - size + slots.length) % slots.length;
+        for (int i = 0; i < size; i++) {
+            T item = (T) slots[(start + i) % slots.length];
+            if (timestampOf.applyAsLong(item) >= sinceEpochMillis) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 返回最新的一筆資料，緩衝區為空時返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized T latest() {
+        if (size == 0) {
+            return null;
+        }
+        return (T) slots[(next - 1 + slots.length) % slots.length];
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,30 @@
+package com.digitalconcerthall.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JWT 驗證事件（AuthTokenFilter），只在請求帶有 token 時記錄
+ */
+@Name("digitalconcerthall.Authentication")
+@Label("JWT Authentication")
+@Description("JWT validation and user lookup in AuthTokenFilter")
+@Category({ "Digital Concert Hall", "Security" })
+@StackTrace(false)
+public class AuthenticationEvent extends jdk.jfr.Event {
+
+    @Label("Trace Id")
+    public String traceId;
+
+    @Label("Request URI")
+    public String requestUri;
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Authenticated")
+    public boolean authenticated;
+}
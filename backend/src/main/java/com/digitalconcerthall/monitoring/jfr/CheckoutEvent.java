@@ -0,0 +1,30 @@
+package com.digitalconcerthall.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 訂單建立事件（OrderServiceImpl.createOrder）
+ */
+@Name("digitalconcerthall.Checkout")
+@Label("Checkout")
+@Description("Order creation from cart")
+@Category({ "Digital Concert Hall", "Order" })
+@StackTrace(false)
+public class CheckoutEvent extends jdk.jfr.Event {
+
+    @Label("Order Number")
+    public String orderNumber;
+
+    @Label("Trace Id")
+    public String traceId;
+
+    @Label("Item Count")
+    public int itemCount;
+
+    @Label("Success")
+    public boolean success;
+}
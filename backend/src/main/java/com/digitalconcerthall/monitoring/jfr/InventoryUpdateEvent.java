@@ -0,0 +1,36 @@
+package com.digitalconcerthall.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 票券庫存扣減事件（每張票券一筆）
+ */
+@Name("digitalconcerthall.InventoryUpdate")
+@Label("Inventory Update")
+@Description("Ticket inventory decrement after payment")
+@Category({ "Digital Concert Hall", "Order" })
+@StackTrace(false)
+public class InventoryUpdateEvent extends jdk.jfr.Event {
+
+    @Label("Order Number")
+    public String orderNumber;
+
+    @Label("Trace Id")
+    public String traceId;
+
+    @Label("Ticket Id")
+    public long ticketId;
+
+    @Label("Quantity")
+    public int quantity;
+
+    @Label("Remaining")
+    public int remaining;
+
+    @Label("Applied")
+    public boolean applied;
+}
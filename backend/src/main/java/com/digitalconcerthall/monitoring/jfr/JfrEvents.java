@@ -0,0 +1,20 @@
+package com.digitalconcerthall.monitoring.jfr;
+
+import org.slf4j.MDC;
+
+/**
+ * JFR 自訂事件的共用工具
+ */
+public final class JfrEvents {
+
+    private JfrEvents() {
+    }
+
+    /**
+     * 取得目前請求的追蹤ID（由 EnhancedHttpLoggingFilter 放入 MDC），用於與日誌關聯
+     */
+    public static String currentTraceId() {
+        String traceId = MDC.get("traceId");
+        return traceId != null ? traceId : "";
+    }
+}
@@ -0,0 +1,30 @@
+package com.digitalconcerthall.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 綠界支付通知處理事件（PaymentController.handlePaymentNotification）
+ */
+@Name("digitalconcerthall.PaymentNotification")
+@Label("Payment Notification")
+@Description("ECPay server-side payment notification handling")
+@Category({ "Digital Concert Hall", "Payment" })
+@StackTrace(false)
+public class PaymentNotificationEvent extends jdk.jfr.Event {
+
+    @Label("Order Number")
+    public String orderNumber;
+
+    @Label("Trace Id")
+    public String traceId;
+
+    @Label("Return Code")
+    public String rtnCode;
+
+    @Label("Result")
+    public String result;
+}
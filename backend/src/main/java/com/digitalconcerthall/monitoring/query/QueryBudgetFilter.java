@@ -0,0 +1,54 @@
+package com.digitalconcerthall.monitoring.query;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 每個請求的 SQL 統計過濾器
+ * 排在 Spring Security 之前，因此 JWT 驗證時的使用者查詢也會計入
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    @Value("${app.db.query-budget.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private QueryBudgetMonitor queryBudgetMonitor;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        QueryStatisticsHolder.start(queryBudgetMonitor.getSlowestStatements());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryStatistics statistics = QueryStatisticsHolder.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            // 沒有對應 handler（404、靜態資源）時不使用原始 URI，避免指標標籤數量失控
+            queryBudgetMonitor.onRequestCompleted(request.getMethod(),
+                    pattern != null ? pattern.toString() : "UNMAPPED", statistics);
+        }
+    }
+}
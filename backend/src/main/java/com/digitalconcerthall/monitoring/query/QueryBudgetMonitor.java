@@ -0,0 +1,148 @@
+package com.digitalconcerthall.monitoring.query;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 每個請求的 SQL 預算監控
+ * 記錄查詢次數與資料庫時間到 Micrometer，超過預算時輸出慢請求日誌並保留最近的違規紀錄
+ */
+@Component
+public class QueryBudgetMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetMonitor.class);
+    private static final Logger performanceLogger = LoggerFactory.getLogger("PERFORMANCE");
+    private static final int MAX_VIOLATIONS = 100;
+
+    @Value("${app.db.query-budget.max-queries:50}")
+    private int maxQueries;
+
+    @Value("${app.db.query-budget.max-db-time-ms:500}")
+    private long maxDbTimeMs;
+
+    @Value("${app.db.query-budget.slowest-statements:5}")
+    private int slowestStatements;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final Deque<Violation> violations = new ArrayDeque<>();
+
+    public int getSlowestStatements() {
+        return slowestStatements;
+    }
+
+    public void onSlowQuery(String sql, long durationMs) {
+        logger.warn("慢查詢 {} ms: {}", durationMs, abbreviate(sql));
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            registry.counter("app.db.slow.queries").increment();
+        }
+    }
+
+    /**
+     * 請求結束時檢查預算
+     */
+    public void onRequestCompleted(String method, String pattern, QueryStatistics statistics) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            DistributionSummary.builder("app.db.request.queries")
+                    .description("SQL statements executed per HTTP request")
+                    .tag("method", method)
+                    .tag("uri", pattern)
+                    .register(registry)
+                    .record(statistics.getQueryCount());
+            Timer.builder("app.db.request.time")
+                    .description("Database time spent per HTTP request")
+                    .tag("method", method)
+                    .tag("uri", pattern)
+                    .register(registry)
+                    .record(statistics.getTotalNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        boolean overCount = statistics.getQueryCount() > maxQueries;
+        boolean overTime = statistics.getTotalTimeMs() > maxDbTimeMs;
+        if (!overCount && !overTime) {
+            return;
+        }
+
+        String type = overCount ? (overTime ? "queries,db-time" : "queries") : "db-time";
+        if (registry != null) {
+            Counter.builder("app.db.budget.violations")
+                    .tag("type", type)
+                    .tag("uri", pattern)
+                    .register(registry)
+                    .increment();
+        }
+
+        Violation violation = new Violation(System.currentTimeMillis(), method + " " + pattern, type,
+                statistics.getQueryCount(), statistics.getTotalTimeMs(), statistics.getSlowest());
+        synchronized (violations) {
+            if (violations.size() >= MAX_VIOLATIONS) {
+                violations.removeFirst();
+            }
+            violations.addLast(violation);
+        }
+
+        performanceLogger.warn("SQL 預算超標 [{} {}]: {} 次查詢 (上限 {}), 資料庫時間 {} ms (上限 {} ms), 最慢語句:\n{}",
+                method, pattern, statistics.getQueryCount(), maxQueries, statistics.getTotalTimeMs(), maxDbTimeMs,
+                statistics.getSlowest().stream()
+                        .map(t -> "  " + t.getDurationMs() + " ms  " + abbreviate(t.getSql()))
+                        .collect(Collectors.joining("\n")));
+    }
+
+    /**
+     * 最近的預算違規紀錄（最多 100 筆）
+     */
+    public List<Violation> getViolations() {
+        synchronized (violations) {
+            return new ArrayList<>(violations);
+        }
+    }
+
+    public void clearViolations() {
+        synchronized (violations) {
+            violations.clear();
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        if (sql == null) {
+            return "(batch)";
+        }
+        String compact = sql.replaceAll("\\s+", " ").trim();
+        return compact.length() > 300 ? compact.substring(0, 300) + "..." : compact;
+    }
+
+    /**
+     * 預算違規紀錄
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Violation {
+        private final long timestamp;
+        private final String request;
+        private final String type;
+        private final int queryCount;
+        private final long dbTimeMs;
+        private final List<QueryStatistics.StatementTiming> slowest;
+    }
+}
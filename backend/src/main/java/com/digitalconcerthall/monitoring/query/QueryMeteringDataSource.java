@@ -0,0 +1,136 @@
+package com.digitalconcerthall.monitoring.query;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 計量用的 DataSource 包裝
+ * 以 JDK 動態代理包裝 Connection 與 Statement，統計每次 execute* 的耗時並寫入
+ * {@link QueryStatisticsHolder}；超過慢查詢門檻的語句會通知 {@link QueryBudgetMonitor}
+ */
+public class QueryMeteringDataSource extends DelegatingDataSource {
+
+    private final SlowQueryListener slowQueryListener;
+    private final long slowQueryNanos;
+
+    public QueryMeteringDataSource(DataSource target, long slowQueryMs, SlowQueryListener slowQueryListener) {
+        super(target);
+        this.slowQueryNanos = slowQueryMs * 1_000_000;
+        this.slowQueryListener = slowQueryListener;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                QueryMeteringDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new ConnectionHandler(connection));
+    }
+
+    private void record(String sql, long nanos) {
+        QueryStatistics statistics = QueryStatisticsHolder.current();
+        if (statistics != null) {
+            statistics.record(sql, nanos);
+        }
+        if (slowQueryListener != null && nanos >= slowQueryNanos) {
+            slowQueryListener.onSlowQuery(sql, nanos / 1_000_000);
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * 慢查詢回呼
+     */
+    @FunctionalInterface
+    public interface SlowQueryListener {
+        void onSlowQuery(String sql, long durationMs);
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("unwrap".equals(name) && args != null && ((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            }
+            Object result = invokeTarget(target, method, args);
+
+            if (result instanceof CallableStatement) {
+                return wrapStatement((Statement) result, CallableStatement.class, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement && "prepareStatement".equals(name)) {
+                return wrapStatement((Statement) result, PreparedStatement.class, (String) args[0]);
+            }
+            if (result instanceof Statement && "createStatement".equals(name)) {
+                return wrapStatement((Statement) result, Statement.class, null);
+            }
+            return result;
+        }
+
+        private Object wrapStatement(Statement statement, Class<?> type, String sql) {
+            return Proxy.newProxyInstance(
+                    QueryMeteringDataSource.class.getClassLoader(),
+                    new Class<?>[] { type },
+                    new StatementHandler(statement, sql));
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return invokeTarget(target, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String
+                    ? (String) args[0]
+                    : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                record(sql, System.nanoTime() - start);
+            }
+        }
+    }
+}
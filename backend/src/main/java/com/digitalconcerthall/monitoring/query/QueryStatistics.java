@@ -0,0 +1,75 @@
+package com.digitalconcerthall.monitoring.query;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 單一請求（或測試區塊）內的 SQL 執行統計
+ * 只在建立它的線程內累加，不需同步
+ */
+public class QueryStatistics {
+
+    private final int maxSlowest;
+    private final List<StatementTiming> slowest = new ArrayList<>();
+    private int queryCount;
+    private long totalNanos;
+
+    public QueryStatistics(int maxSlowest) {
+        this.maxSlowest = Math.max(1, maxSlowest);
+    }
+
+    void record(String sql, long nanos) {
+        queryCount++;
+        totalNanos += nanos;
+
+        // 只保留最慢的前 N 筆，避免保存所有 SQL 字串
+        if (slowest.size() < maxSlowest) {
+            slowest.add(new StatementTiming(sql, nanos / 1_000_000, nanos));
+            slowest.sort(Comparator.comparingLong(StatementTiming::getNanos).reversed());
+        } else if (nanos > slowest.get(slowest.size() - 1).getNanos()) {
+            slowest.set(slowest.size() - 1, new StatementTiming(sql, nanos / 1_000_000, nanos));
+            slowest.sort(Comparator.comparingLong(StatementTiming::getNanos).reversed());
+        }
+    }
+
+    void merge(QueryStatistics other) {
+        for (StatementTiming timing : other.slowest) {
+            record(timing.getSql(), timing.getNanos());
+        }
+        // 未保留在 slowest 中的語句只累加次數與時間
+        long remainingNanos = other.totalNanos - other.slowest.stream().mapToLong(StatementTiming::getNanos).sum();
+        queryCount += other.queryCount - other.slowest.size();
+        totalNanos += remainingNanos;
+    }
+
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    public long getTotalTimeMs() {
+        return totalNanos / 1_000_000;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public List<StatementTiming> getSlowest() {
+        return new ArrayList<>(slowest);
+    }
+
+    /**
+     * 單一 SQL 執行耗時
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class StatementTiming {
+        private final String sql;
+        private final long durationMs;
+        private final long nanos;
+    }
+}
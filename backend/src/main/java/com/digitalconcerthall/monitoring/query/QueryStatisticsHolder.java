@@ -0,0 +1,78 @@
+package com.digitalconcerthall.monitoring.query;
+
+import java.util.function.Supplier;
+
+/**
+ * 以 ThreadLocal 保存目前線程的 SQL 統計
+ * 由 QueryBudgetFilter 在每個請求開始時建立，也可在測試或批次作業中直接使用
+ */
+public final class QueryStatisticsHolder {
+
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private QueryStatisticsHolder() {
+    }
+
+    public static QueryStatistics start(int maxSlowest) {
+        QueryStatistics statistics = new QueryStatistics(maxSlowest);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static QueryStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static QueryStatistics stop() {
+        QueryStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    /**
+     * 在統計範圍內執行動作並返回統計結果，結束後併入外層已存在的統計
+     */
+    public static QueryStatistics measure(Runnable action) {
+        return measure(() -> {
+            action.run();
+            return null;
+        }).statistics;
+    }
+
+    public static <T> Measured<T> measure(Supplier<T> action) {
+        QueryStatistics outer = CURRENT.get();
+        QueryStatistics statistics = start(10);
+        try {
+            T result = action.get();
+            return new Measured<>(result, statistics);
+        } finally {
+            if (outer != null) {
+                outer.merge(statistics);
+                CURRENT.set(outer);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * 帶有 SQL 統計的執行結果
+     */
+    public static class Measured<T> {
+        private final T result;
+        private final QueryStatistics statistics;
+
+        Measured(T result, QueryStatistics statistics) {
+            this.result = result;
+            this.statistics = statistics;
+        }
+
+        public T getResult() {
+            return result;
+        }
+
+        public QueryStatistics getStatistics() {
+            return statistics;
+        }
+    }
+}
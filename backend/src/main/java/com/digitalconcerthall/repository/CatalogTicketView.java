@@ -0,0 +1,25 @@
+package com.digitalconcerthall.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * 目錄快照使用的票券與票種欄位投影，票種可能為空
+ */
+public interface CatalogTicketView {
+
+    Long getId();
+
+    Long getPerformanceId();
+
+    Long getTicketTypeId();
+
+    String getName();
+
+    String getDescription();
+
+    BigDecimal getPrice();
+
+    String getColorCode();
+
+    Integer getAvailableQuantity();
+}
@@ -5,10 +5,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import com.digitalconcerthall.model.ticket.Ticket;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +29,16 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
      */
     List<Ticket> findByPerformance_IdAndStatus(Long performanceId, String status);
 
+    /**
+     * 目錄快照：指定狀態音樂會所有場次的票券與票種
+     */
+    @Query("SELECT t.id AS id, p.id AS performanceId, tt.id AS ticketTypeId, tt.name AS name, "
+            + "tt.description AS description, tt.price AS price, tt.colorCode AS colorCode, "
+            + "t.availableQuantity AS availableQuantity "
+            + "FROM Ticket t JOIN t.performance p JOIN p.concert c LEFT JOIN t.ticketType tt "
+            + "WHERE c.status IN :statuses ORDER BY p.id, t.id")
+    List<CatalogTicketView> findCatalogViews(@Param("statuses") Collection<String> statuses);
+
     /**
      * 根據票種ID查詢票券
      */
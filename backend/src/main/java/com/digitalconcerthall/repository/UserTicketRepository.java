@@ -1,20 +1,67 @@
 package com.digitalconcerthall.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.digitalconcerthall.dto.response.ticket.UserTicketDetailResponse;
+import com.digitalconcerthall.dto.response.ticket.UserTicketSummaryResponse;
 import com.digitalconcerthall.model.User;
 import com.digitalconcerthall.model.ticket.UserTicket;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserTicketRepository extends JpaRepository<UserTicket, Long> {
     Page<UserTicket> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
+
+    /**
+     * 票券摘要投影：一次 JOIN 取得列表所需欄位，不載入 OrderItem/Ticket/Performance 實體
+     */
+    String SUMMARY_SELECT = "SELECT new com.digitalconcerthall.dto.response.ticket.UserTicketSummaryResponse("
+            + "ut.id, ut.ticketCode, c.title, p.venue, p.startTime, p.endTime, tt.name, ut.isUsed, "
+            + "o.orderNumber, ut.createdAt) ";
+
+    String SUMMARY_FROM = "FROM UserTicket ut JOIN ut.orderItem oi JOIN oi.order o JOIN oi.ticket t "
+            + "JOIN t.ticketType tt JOIN t.performance p JOIN p.concert c ";
+
+    @Query(value = SUMMARY_SELECT + SUMMARY_FROM + "WHERE ut.user = :user ORDER BY ut.createdAt DESC, ut.id DESC",
+            countQuery = "SELECT COUNT(ut) FROM UserTicket ut WHERE ut.user = :user")
+    Page<UserTicketSummaryResponse> findSummariesByUser(@Param("user") User user, Pageable pageable);
+
+    /**
+     * 鍵集分頁的第一頁，依 (created_at, id) 由新到舊，不執行 COUNT 查詢
+     */
+    @Query(SUMMARY_SELECT + SUMMARY_FROM + "WHERE ut.user = :user ORDER BY ut.createdAt DESC, ut.id DESC")
+    List<UserTicketSummaryResponse> findSummaryFirstPageByUser(@Param("user") User user, Limit limit);
+
+    /**
+     * 鍵集分頁的後續頁，從上一頁最後一筆 (createdAt, id) 之後繼續讀取
+     */
+    @Query(SUMMARY_SELECT + SUMMARY_FROM + "WHERE ut.user = :user "
+            + "AND (ut.createdAt < :createdAt OR (ut.createdAt = :createdAt AND ut.id < :id)) "
+            + "ORDER BY ut.createdAt DESC, ut.id DESC")
+    List<UserTicketSummaryResponse> findSummaryPageByUserBefore(@Param("user") User user,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * 票券詳情投影（QR 碼由服務層另行產生）
+     */
+    @Query("SELECT new com.digitalconcerthall.dto.response.ticket.UserTicketDetailResponse("
+            + "ut.id, ut.ticketCode, c.title, p.venue, p.startTime, p.endTime, tt.name, ut.isUsed, "
+            + "o.orderNumber, ut.createdAt, c.posterUrl, c.description, c.programDetails) "
+            + SUMMARY_FROM + "WHERE ut.id = :id AND ut.user = :user")
+    Optional<UserTicketDetailResponse> findDetailByIdAndUser(@Param("id") Long id, @Param("user") User user);
     
     Page<UserTicket> findByUser(User user, Pageable pageable);
+
+    long countByUser(User user);
     
     Optional<UserTicket> findByTicketCode(String ticketCode);
     
@@ -0,0 +1,21 @@
+package com.digitalconcerthall.repository.concert;
+
+import java.time.LocalDateTime;
+
+/**
+ * 目錄快照使用的演出場次欄位投影
+ */
+public interface CatalogPerformanceView {
+
+    Long getId();
+
+    Long getConcertId();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+
+    String getVenue();
+
+    String getStatus();
+}
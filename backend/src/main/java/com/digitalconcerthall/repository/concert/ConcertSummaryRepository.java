@@ -0,0 +1,89 @@
+package com.digitalconcerthall.repository.concert;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.digitalconcerthall.model.concert.ConcertSummary;
+
+@Repository
+public interface ConcertSummaryRepository extends JpaRepository<ConcertSummary, Long> {
+
+    /**
+     * 下單後的增量更新，摘要不存在時返回 0
+     */
+    @Modifying
+    @Query("UPDATE ConcertSummary s SET s.remainingCapacity = s.remainingCapacity + :delta, s.updatedAt = :now "
+            + "WHERE s.concertId = :concertId")
+    int adjustRemainingCapacity(@Param("concertId") Long concertId, @Param("delta") int delta,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * 下一場已開演、需要重算的摘要
+     */
+    @Query("SELECT s.concertId FROM ConcertSummary s WHERE s.nextStartTime < :now")
+    List<Long> findConcertIdsWithPassedNextStart(@Param("now") LocalDateTime now);
+
+    @Query("SELECT c.id FROM Concert c ORDER BY c.id")
+    List<Long> findAllConcertIds();
+
+    /**
+     * 使用指定票種的音樂會，票種改價後重算
+     */
+    @Query("SELECT DISTINCT p.concert.id FROM Ticket t JOIN t.performance p WHERE t.ticketType.id = :ticketTypeId")
+    List<Long> findConcertIdsByTicketType(@Param("ticketTypeId") Long ticketTypeId);
+
+    @Query("SELECT p.concert.id AS concertId, COUNT(p) AS performanceCount, MIN(p.startTime) AS firstStartTime, "
+            + "MIN(CASE WHEN p.startTime >= :now THEN p.startTime END) AS nextStartTime "
+            + "FROM Performance p WHERE p.concert.id IN :concertIds GROUP BY p.concert.id")
+    List<PerformanceAggregate> aggregatePerformances(@Param("concertIds") Collection<Long> concertIds,
+            @Param("now") LocalDateTime now);
+
+    @Query("SELECT p.concert.id AS concertId, MIN(tt.price) AS minPrice, MAX(tt.price) AS maxPrice, "
+            + "SUM(t.totalQuantity) AS totalCapacity, SUM(t.availableQuantity) AS remainingCapacity "
+            + "FROM Ticket t JOIN t.performance p JOIN t.ticketType tt "
+            + "WHERE p.concert.id IN :concertIds GROUP BY p.concert.id")
+    List<TicketAggregate> aggregateTickets(@Param("concertIds") Collection<Long> concertIds);
+
+    @Query("SELECT DISTINCT p.concert.id AS concertId, p.venue AS venue FROM Performance p "
+            + "WHERE p.concert.id IN :concertIds ORDER BY p.concert.id, p.venue")
+    List<VenueView> findVenues(@Param("concertIds") Collection<Long> concertIds);
+
+    interface PerformanceAggregate {
+
+        Long getConcertId();
+
+        Long getPerformanceCount();
+
+        LocalDateTime getFirstStartTime();
+
+        LocalDateTime getNextStartTime();
+    }
+
+    interface TicketAggregate {
+
+        Long getConcertId();
+
+        BigDecimal getMinPrice();
+
+        BigDecimal getMaxPrice();
+
+        Long getTotalCapacity();
+
+        Long getRemainingCapacity();
+    }
+
+    interface VenueView {
+
+        Long getConcertId();
+
+        String getVenue();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 
 import com.digitalconcerthall.model.concert.Performance;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,4 +29,20 @@ public interface PerformanceRepository extends JpaRepository<Performance, Long>
      * 根據狀態查詢演出場次
      */
     List<Performance> findByStatus(String status);
+
+    /**
+     * 目錄快照：指定狀態音樂會的所有場次，依開始時間排序
+     */
+    @Query("SELECT p.id AS id, c.id AS concertId, p.startTime AS startTime, p.endTime AS endTime, "
+            + "p.venue AS venue, p.status AS status "
+            + "FROM Performance p JOIN p.concert c WHERE c.status IN :statuses ORDER BY c.id, p.startTime, p.id")
+    List<CatalogPerformanceView> findCatalogViews(@Param("statuses") Collection<String> statuses);
+
+    /**
+     * 搜尋索引：指定音樂會的所有場次
+     */
+    @Query("SELECT p.id AS id, c.id AS concertId, p.startTime AS startTime, p.endTime AS endTime, "
+            + "p.venue AS venue, p.status AS status "
+            + "FROM Performance p JOIN p.concert c WHERE c.id IN :concertIds ORDER BY c.id, p.startTime, p.id")
+    List<CatalogPerformanceView> findSearchViews(@Param("concertIds") Collection<Long> concertIds);
 }
@@ -0,0 +1,13 @@
+package com.digitalconcerthall.repository.dashboard;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.digitalconcerthall.model.dashboard.DashboardArchivedStat;
+
+/**
+ * 已封存訂單的儀表板計數，對帳時加在基礎資料表的重算結果上
+ */
+@Repository
+public interface DashboardArchivedStatRepository extends JpaRepository<DashboardArchivedStat, String> {
+}
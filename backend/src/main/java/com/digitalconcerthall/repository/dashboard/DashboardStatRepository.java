@@ -0,0 +1,96 @@
+package com.digitalconcerthall.repository.dashboard;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.digitalconcerthall.model.dashboard.DashboardStat;
+
+/**
+ * 儀表板統計快照，以及對帳時從基礎資料表重算的彙總
+ */
+@Repository
+public interface DashboardStatRepository extends JpaRepository<DashboardStat, String> {
+
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount FROM Order o GROUP BY o.status")
+    List<StatusCount> countOrdersByStatus();
+
+    @Query("SELECT cast(o.orderDate as LocalDate) AS day, SUM(o.totalAmount) AS amount FROM Order o "
+            + "WHERE o.status = :status GROUP BY cast(o.orderDate as LocalDate)")
+    List<DailyRevenue> sumRevenueByDay(@Param("status") String status);
+
+    @Query("SELECT cast(o.orderDate as LocalDate) AS day, SUM(i.quantity) AS quantity FROM OrderItem i JOIN i.order o "
+            + "WHERE o.status = :status GROUP BY cast(o.orderDate as LocalDate)")
+    List<DailyQuantity> sumTicketsSoldByDay(@Param("status") String status);
+
+    @Query("SELECT p.concert.id AS concertId, p.id AS performanceId, SUM(i.quantity) AS quantity, "
+            + "SUM(i.subtotal) AS amount FROM OrderItem i JOIN i.order o JOIN i.ticket t JOIN t.performance p "
+            + "WHERE o.status = :status GROUP BY p.concert.id, p.id")
+    List<PerformanceSales> sumSalesByPerformance(@Param("status") String status);
+
+    /**
+     * 以下四個查詢與上面相同，只計算指定的訂單；訂單封存前用來累計它們對各計數的貢獻
+     */
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount FROM Order o WHERE o.id IN :orderIds GROUP BY o.status")
+    List<StatusCount> countOrdersByStatusIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT cast(o.orderDate as LocalDate) AS day, SUM(o.totalAmount) AS amount FROM Order o "
+            + "WHERE o.status = :status AND o.id IN :orderIds GROUP BY cast(o.orderDate as LocalDate)")
+    List<DailyRevenue> sumRevenueByDayIn(@Param("status") String status, @Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT cast(o.orderDate as LocalDate) AS day, SUM(i.quantity) AS quantity FROM OrderItem i JOIN i.order o "
+            + "WHERE o.status = :status AND o.id IN :orderIds GROUP BY cast(o.orderDate as LocalDate)")
+    List<DailyQuantity> sumTicketsSoldByDayIn(@Param("status") String status,
+            @Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT p.concert.id AS concertId, p.id AS performanceId, SUM(i.quantity) AS quantity, "
+            + "SUM(i.subtotal) AS amount FROM OrderItem i JOIN i.order o JOIN i.ticket t JOIN t.performance p "
+            + "WHERE o.status = :status AND o.id IN :orderIds GROUP BY p.concert.id, p.id")
+    List<PerformanceSales> sumSalesByPerformanceIn(@Param("status") String status,
+            @Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * 單一訂單各明細所屬的場次；付款事件發生時訂單明細尚未載入才使用
+     */
+    @Query("SELECT p.concert.id AS concertId, p.id AS performanceId, i.quantity AS quantity, i.subtotal AS amount "
+            + "FROM OrderItem i JOIN i.ticket t JOIN t.performance p WHERE i.order.id = :orderId")
+    List<PerformanceSales> findSalesByOrder(@Param("orderId") Long orderId);
+
+    interface StatusCount {
+
+        String getStatus();
+
+        Long getOrderCount();
+    }
+
+    interface DailyRevenue {
+
+        LocalDate getDay();
+
+        BigDecimal getAmount();
+    }
+
+    interface DailyQuantity {
+
+        LocalDate getDay();
+
+        Long getQuantity();
+    }
+
+    interface PerformanceSales {
+
+        Long getConcertId();
+
+        Long getPerformanceId();
+
+        Number getQuantity();
+
+        BigDecimal getAmount();
+    }
+}
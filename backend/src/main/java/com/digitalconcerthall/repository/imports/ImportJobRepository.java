@@ -0,0 +1,14 @@
+package com.digitalconcerthall.repository.imports;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.digitalconcerthall.model.imports.ImportJob;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    List<ImportJob> findTop20ByOrderByCreatedAtDesc();
+}
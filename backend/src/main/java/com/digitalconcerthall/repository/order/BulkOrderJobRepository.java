@@ -0,0 +1,16 @@
+package com.digitalconcerthall.repository.order;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.digitalconcerthall.model.order.BulkOrderJob;
+
+@Repository
+public interface BulkOrderJobRepository extends JpaRepository<BulkOrderJob, String> {
+
+    Optional<BulkOrderJob> findByIdAndUserId(String id, Long userId);
+
+    Optional<BulkOrderJob> findByOrderId(Long orderId);
+}
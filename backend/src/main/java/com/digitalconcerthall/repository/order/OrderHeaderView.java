@@ -0,0 +1,24 @@
+package com.digitalconcerthall.repository.order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 訂單列表的欄位投影，不載入 User 與訂單項目
+ */
+public interface OrderHeaderView {
+
+    Long getId();
+
+    String getOrderNumber();
+
+    LocalDateTime getOrderDate();
+
+    BigDecimal getTotalAmount();
+
+    String getStatus();
+
+    String getPaymentMethod();
+
+    String getPaymentStatus();
+}
@@ -0,0 +1,25 @@
+package com.digitalconcerthall.repository.order;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.digitalconcerthall.model.order.OrderItem;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    /**
+     * 一次取得多筆訂單的項目投影，供訂單列表組裝使用
+     */
+    @Query("SELECT oi.order.id AS orderId, oi.id AS id, t.id AS ticketId, c.title AS concertTitle, "
+            + "p.venue AS performanceVenue, p.startTime AS performanceStartTime, p.endTime AS performanceEndTime, "
+            + "tt.name AS ticketTypeName, oi.quantity AS quantity, oi.unitPrice AS unitPrice, oi.subtotal AS subtotal "
+            + "FROM OrderItem oi JOIN oi.ticket t JOIN t.ticketType tt JOIN t.performance p JOIN p.concert c "
+            + "WHERE oi.order.id IN :orderIds ORDER BY oi.order.id, oi.id")
+    List<OrderItemView> findViewsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -0,0 +1,32 @@
+package com.digitalconcerthall.repository.order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 訂單項目的欄位投影，包含票券、演出場次與音樂會名稱
+ */
+public interface OrderItemView {
+
+    Long getOrderId();
+
+    Long getId();
+
+    Long getTicketId();
+
+    String getConcertTitle();
+
+    String getPerformanceVenue();
+
+    LocalDateTime getPerformanceStartTime();
+
+    LocalDateTime getPerformanceEndTime();
+
+    String getTicketTypeName();
+
+    Integer getQuantity();
+
+    BigDecimal getUnitPrice();
+
+    BigDecimal getSubtotal();
+}
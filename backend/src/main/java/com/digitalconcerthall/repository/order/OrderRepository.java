@@ -2,6 +2,7 @@ package com.digitalconcerthall.repository.order;
 
 import com.digitalconcerthall.model.User;
 import com.digitalconcerthall.model.order.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,8 +20,42 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUser(User user);
     
     Page<Order> findByUserOrderByOrderDateDesc(User user, Pageable pageable);
+
+    long countByUser(User user);
+
+    /**
+     * 訂單列表投影：只取訂單欄位，項目由 OrderItemRepository 依訂單 id 一次批次讀取
+     */
+    String HEADER_SELECT = "SELECT o.id AS id, o.orderNumber AS orderNumber, o.orderDate AS orderDate, "
+            + "o.totalAmount AS totalAmount, o.status AS status, o.paymentMethod AS paymentMethod, "
+            + "o.paymentStatus AS paymentStatus FROM Order o ";
+
+    /**
+     * 當前用戶的訂單列表（偏移分頁）
+     */
+    @Query(value = HEADER_SELECT + "WHERE o.user = :user ORDER BY o.orderDate DESC, o.id DESC",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user = :user")
+    Page<OrderHeaderView> findHeadersByUser(@Param("user") User user, Pageable pageable);
+
+    /**
+     * 鍵集分頁的第一頁，依 (order_date, id) 由新到舊，不執行 COUNT 查詢
+     */
+    @Query(HEADER_SELECT + "WHERE o.user = :user ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderHeaderView> findFirstPageByUser(@Param("user") User user, Limit limit);
+
+    /**
+     * 鍵集分頁的後續頁，從上一頁最後一筆 (orderDate, id) 之後繼續讀取
+     */
+    @Query(HEADER_SELECT + "WHERE o.user = :user "
+            + "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) "
+            + "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderHeaderView> findPageByUserBefore(@Param("user") User user, @Param("orderDate") LocalDateTime orderDate,
+            @Param("id") Long id, Limit limit);
     
     Optional<Order> findByOrderNumber(String orderNumber);
+
+    @Query(HEADER_SELECT + "WHERE o.orderNumber = :orderNumber")
+    Optional<OrderHeaderView> findHeaderByOrderNumber(@Param("orderNumber") String orderNumber);
     
     /**
      * 檢查指定訂單號的訂單是否存在（輕量級檢查，不返回完整實體）
@@ -34,6 +70,6 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @param limit 返回數量限制
      * @return 最近創建的訂單列表
      */
-    @Query("SELECT o FROM Order o ORDER BY o.orderDate DESC")
-    List<Order> findRecentOrders(Pageable pageable);
+    @Query(HEADER_SELECT + "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderHeaderView> findRecentOrders(Limit limit);
 }
@@ -1,5 +1,7 @@
 package com.digitalconcerthall.security.jwt;
 
+import com.digitalconcerthall.monitoring.jfr.AuthenticationEvent;
+import com.digitalconcerthall.monitoring.jfr.JfrEvents;
 import com.digitalconcerthall.security.services.UserDetailsImpl;
 import com.digitalconcerthall.security.services.UserDetailsServiceImpl;
 import jakarta.servlet.FilterChain;
@@ -41,6 +43,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             @NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
+        AuthenticationEvent authEvent = null;
         try {
             // 增強日誌記錄，檢查請求頭
             logger.debug("Processing request: {} {}", request.getMethod(), request.getRequestURI());
@@ -52,6 +55,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             logger.debug("Parsed JWT from request: {}... (truncated)",
                     jwt != null ? jwt.substring(0, Math.min(10, jwt.length())) + "..." : "null");
 
+            if (jwt != null) {
+                authEvent = new AuthenticationEvent();
+                authEvent.begin();
+                authEvent.requestUri = request.getRequestURI();
+            }
+
             if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
                 logger.debug("Request URI: {}", request.getRequestURI());
 
@@ -65,6 +74,8 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                     // 新增：userId 為 null 時直接拒絕
                     if (userId == null) {
                         logger.error("JWT token does not contain a valid userId, authentication aborted.");
+                        authEvent.traceId = JfrEvents.currentTraceId();
+                        authEvent.commit();
                         filterChain.doFilter(request, response);
                         return;
                     }
@@ -97,6 +108,8 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    authEvent.userId = userId;
+                    authEvent.authenticated = true;
                 }
             }
         } catch (Exception e) {
@@ -105,6 +118,11 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             e.printStackTrace();
         }
 
+        if (authEvent != null) {
+            authEvent.traceId = JfrEvents.currentTraceId();
+            authEvent.commit();
+        }
+
         filterChain.doFilter(request, response);
     }
 
@@ -0,0 +1,115 @@
+package com.digitalconcerthall.service.analytics;
+
+import java.util.Arrays;
+
+/**
+ * 以 long 為鍵的彙總雜湊表（開放定址、線性探測），累計筆數、張數與金額
+ * 掃描時每列只做陣列存取，不建立物件；每個掃描線程一個，最後合併
+ */
+final class LongAggregateMap {
+
+    private long[] keys;
+    private boolean[] used;
+    private long[] rows;
+    private long[] tickets;
+    private long[] amounts;
+    private int size;
+    private int mask;
+
+    LongAggregateMap() {
+        allocate(16);
+    }
+
+    void add(long key, long rowCount, long ticketCount, long amountCents) {
+        int slot = slot(key);
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = key;
+            if (++size > (mask + 1) / 2) {
+                rows[slot] = rowCount;
+                tickets[slot] = ticketCount;
+                amounts[slot] = amountCents;
+                rehash();
+                return;
+            }
+        }
+        rows[slot] += rowCount;
+        tickets[slot] += ticketCount;
+        amounts[slot] += amountCents;
+    }
+
+    LongAggregateMap addAll(LongAggregateMap other) {
+        for (int slot = 0; slot < other.used.length; slot++) {
+            if (other.used[slot]) {
+                add(other.keys[slot], other.rows[slot], other.tickets[slot], other.amounts[slot]);
+            }
+        }
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 依鍵遞增排序後逐一回呼
+     */
+    void forEachSorted(Visitor visitor) {
+        long[] sorted = new long[size];
+        int count = 0;
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot]) {
+                sorted[count++] = keys[slot];
+            }
+        }
+        Arrays.sort(sorted);
+        for (long key : sorted) {
+            int slot = slot(key);
+            visitor.visit(key, rows[slot], tickets[slot], amounts[slot]);
+        }
+    }
+
+    interface Visitor {
+        void visit(long key, long rows, long tickets, long amountCents);
+    }
+
+    /**
+     * 鍵所在或應放入的位置
+     */
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        long[] oldRows = rows;
+        long[] oldTickets = tickets;
+        long[] oldAmounts = amounts;
+        allocate(oldKeys.length * 2);
+        for (int slot = 0; slot < oldUsed.length; slot++) {
+            if (oldUsed[slot]) {
+                int target = slot(oldKeys[slot]);
+                used[target] = true;
+                keys[target] = oldKeys[slot];
+                rows[target] = oldRows[slot];
+                tickets[target] = oldTickets[slot];
+                amounts[target] = oldAmounts[slot];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        rows = new long[capacity];
+        tickets = new long[capacity];
+        amounts = new long[capacity];
+        mask = capacity - 1;
+    }
+}
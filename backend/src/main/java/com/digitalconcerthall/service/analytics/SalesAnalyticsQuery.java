@@ -0,0 +1,83 @@
+package com.digitalconcerthall.service.analytics;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 銷售分析查詢條件
+ * 日期範圍為下單日期（含兩端）；篩選條件之間為 AND。
+ * 沒有依場次、票種或音樂會分組或篩選時改讀只依狀態彙總的 order_rollup_*，訂單數不會重複計算
+ */
+@Data
+@NoArgsConstructor
+public class SalesAnalyticsQuery {
+
+    public enum Granularity {
+        HOUR,
+        DAY,
+        /** 週一開始 */
+        WEEK,
+        MONTH
+    }
+
+    public enum Dimension {
+        CONCERT("concert_id", true),
+        PERFORMANCE("performance_id", true),
+        TICKET_TYPE("ticket_type_id", true),
+        ORDER_STATUS("order_status", false),
+        PAYMENT_STATUS("payment_status", false);
+
+        final String column;
+        /** 只有 sales_rollup_* 有這個欄位 */
+        final boolean itemLevel;
+
+        Dimension(String column, boolean itemLevel) {
+            this.column = column;
+            this.itemLevel = itemLevel;
+        }
+
+        /**
+         * 接受 concert、performance、ticketType、status、paymentStatus（不分大小寫，也接受底線寫法）
+         */
+        public static Dimension parse(String value) {
+            switch (value.trim().replace("_", "").toLowerCase(Locale.ROOT)) {
+                case "concert":
+                    return CONCERT;
+                case "performance":
+                    return PERFORMANCE;
+                case "tickettype":
+                    return TICKET_TYPE;
+                case "status":
+                case "orderstatus":
+                    return ORDER_STATUS;
+                case "paymentstatus":
+                    return PAYMENT_STATUS;
+                default:
+                    throw new IllegalArgumentException("不支援的分組: " + value);
+            }
+        }
+    }
+
+    private LocalDate from;
+    private LocalDate to;
+    private Granularity granularity = Granularity.DAY;
+    private Set<Dimension> groupBy = EnumSet.noneOf(Dimension.class);
+    private Long concertId;
+    private Long performanceId;
+    private Long ticketTypeId;
+    private String orderStatus;
+    private String paymentStatus;
+
+    /**
+     * 是否需要讀取依場次與票種彙總的資料表
+     */
+    boolean isItemLevel() {
+        return concertId != null || performanceId != null || ticketTypeId != null
+                || groupBy.stream().anyMatch(dimension -> dimension.itemLevel);
+    }
+}
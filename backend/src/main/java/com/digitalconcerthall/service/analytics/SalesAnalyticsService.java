@@ -0,0 +1,285 @@
+package com.digitalconcerthall.service.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.digitalconcerthall.dto.response.analytics.ConversionResponse;
+import com.digitalconcerthall.dto.response.analytics.SalesSeriesResponse;
+import com.digitalconcerthall.dto.response.analytics.SellThroughResponse;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsQuery.Dimension;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsQuery.Granularity;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 銷售分析查詢，只讀取 {@link SalesRollupService} 維護的彙總表
+ * 小時粒度讀 *_hourly，其他粒度讀 *_daily，週與月由每日資料在記憶體中合併；
+ * 一年的每日彙總依下單日期的主鍵範圍讀取，不掃描 orders 與 order_items
+ */
+@Service
+public class SalesAnalyticsService {
+
+    static final String STATUS_PAID = "paid";
+    static final String STATUS_PENDING = "pending";
+    private static final int LABEL_BATCH_SIZE = 1000;
+
+    @Value("${app.analytics.max-hourly-days:31}")
+    private int maxHourlyDays;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        // 只讀交易會導向讀取副本
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @throws IllegalArgumentException 日期範圍不合法，或小時粒度超過 app.analytics.max-hourly-days
+     */
+    public SalesSeriesResponse query(SalesAnalyticsQuery query) {
+        LocalDate from = query.getFrom();
+        LocalDate to = query.getTo();
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("開始日期不可晚於結束日期");
+        }
+        boolean hourly = query.getGranularity() == Granularity.HOUR;
+        if (hourly && from.plusDays(maxHourlyDays).isBefore(to.plusDays(1))) {
+            throw new IllegalArgumentException("小時粒度最多查詢 " + maxHourlyDays + " 天");
+        }
+        long start = System.nanoTime();
+        String table = (query.isItemLevel() ? "sales_rollup_" : "order_rollup_") + (hourly ? "hourly" : "daily");
+        String bucket = hourly ? "bucket_start" : "bucket_date";
+        List<Dimension> dimensions = new ArrayList<>(query.getGroupBy());
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(bucket);
+        dimensions.forEach(dimension -> sql.append(", ").append(dimension.column));
+        sql.append(", SUM(order_count), SUM(ticket_count), SUM(amount) FROM ").append(table).append(" WHERE ");
+        List<Object> params = new ArrayList<>();
+        if (hourly) {
+            sql.append("bucket_start >= ? AND bucket_start < ?");
+            params.add(from.atStartOfDay());
+            params.add(to.plusDays(1).atStartOfDay());
+        } else {
+            sql.append("bucket_date >= ? AND bucket_date <= ?");
+            params.add(from);
+            params.add(to);
+        }
+        appendFilter(sql, params, "concert_id", query.getConcertId());
+        appendFilter(sql, params, "performance_id", query.getPerformanceId());
+        appendFilter(sql, params, "ticket_type_id", query.getTicketTypeId());
+        appendFilter(sql, params, "order_status", query.getOrderStatus());
+        appendFilter(sql, params, "payment_status", query.getPaymentStatus());
+        sql.append(" GROUP BY ").append(bucket);
+        dimensions.forEach(dimension -> sql.append(", ").append(dimension.column));
+        sql.append(" ORDER BY ").append(bucket);
+
+        SalesSeriesResponse response = new SalesSeriesResponse();
+        Map<List<Object>, SalesSeriesResponse.Point> points = new LinkedHashMap<>();
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.query(sql.toString(), rs -> {
+                    LocalDateTime bucketStart = fold(hourly ? rs.getTimestamp(1).toLocalDateTime()
+                            : rs.getDate(1).toLocalDate().atStartOfDay(), query.getGranularity());
+                    List<Object> key = new ArrayList<>(dimensions.size() + 1);
+                    key.add(bucketStart);
+                    for (int i = 0; i < dimensions.size(); i++) {
+                        key.add(rs.getObject(i + 2));
+                    }
+                    SalesSeriesResponse.Point point = points.computeIfAbsent(key, k -> newPoint(k, dimensions));
+                    int column = dimensions.size() + 2;
+                    point.setOrders(point.getOrders() + rs.getLong(column));
+                    point.setTickets(point.getTickets() + rs.getLong(column + 1));
+                    point.setAmount(point.getAmount().add(rs.getBigDecimal(column + 2)));
+                }, params.toArray());
+                if (dimensions.contains(Dimension.CONCERT)) {
+                    Map<Long, String> titles = labels("SELECT id, title FROM concerts",
+                            points.values().stream().map(SalesSeriesResponse.Point::getConcertId).collect(Collectors.toSet()));
+                    points.values().forEach(point -> point.setConcertTitle(titles.get(point.getConcertId())));
+                }
+                if (dimensions.contains(Dimension.TICKET_TYPE)) {
+                    Map<Long, String> names = labels("SELECT id, name FROM ticket_types", points.values().stream()
+                            .map(SalesSeriesResponse.Point::getTicketTypeId).collect(Collectors.toSet()));
+                    points.values().forEach(point -> point.setTicketTypeName(names.get(point.getTicketTypeId())));
+                }
+            });
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+
+        response.setFrom(from);
+        response.setTo(to);
+        response.setGranularity(query.getGranularity().name());
+        dimensions.forEach(dimension -> response.getGroupBy().add(dimension.name()));
+        response.setSource(table);
+        for (SalesSeriesResponse.Point point : points.values()) {
+            response.setTotalOrders(response.getTotalOrders() + point.getOrders());
+            response.setTotalTickets(response.getTotalTickets() + point.getTickets());
+            response.setTotalAmount(response.getTotalAmount().add(point.getAmount()));
+        }
+        response.setPoints(new ArrayList<>(points.values()));
+        response.setDurationMs(Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return response;
+    }
+
+    /**
+     * 各時段建立的訂單與其中已付款的數量
+     * 有音樂會、場次或票種篩選時讀取 sales_rollup_*，一張訂單有多個票種時會分別計入
+     */
+    public ConversionResponse conversion(SalesAnalyticsQuery query) {
+        SalesAnalyticsQuery byStatus = new SalesAnalyticsQuery();
+        byStatus.setFrom(query.getFrom());
+        byStatus.setTo(query.getTo());
+        byStatus.setGranularity(query.getGranularity());
+        byStatus.setConcertId(query.getConcertId());
+        byStatus.setPerformanceId(query.getPerformanceId());
+        byStatus.setTicketTypeId(query.getTicketTypeId());
+        byStatus.getGroupBy().add(Dimension.ORDER_STATUS);
+        SalesSeriesResponse series = query(byStatus);
+
+        ConversionResponse response = new ConversionResponse();
+        response.setFrom(series.getFrom());
+        response.setTo(series.getTo());
+        response.setGranularity(series.getGranularity());
+        response.setSource(series.getSource());
+        Map<LocalDateTime, ConversionResponse.Point> points = new LinkedHashMap<>();
+        for (SalesSeriesResponse.Point row : series.getPoints()) {
+            ConversionResponse.Point point = points.computeIfAbsent(row.getBucketStart(), bucketStart -> {
+                ConversionResponse.Point created = new ConversionResponse.Point();
+                created.setBucketStart(bucketStart);
+                return created;
+            });
+            point.setOrders(point.getOrders() + row.getOrders());
+            if (STATUS_PAID.equals(row.getOrderStatus())) {
+                point.setPaidOrders(point.getPaidOrders() + row.getOrders());
+            } else if (STATUS_PENDING.equals(row.getOrderStatus())) {
+                point.setPendingOrders(point.getPendingOrders() + row.getOrders());
+            }
+        }
+        for (ConversionResponse.Point point : points.values()) {
+            point.setConversionRate(ratio(point.getPaidOrders(), point.getOrders()));
+            response.setOrders(response.getOrders() + point.getOrders());
+            response.setPaidOrders(response.getPaidOrders() + point.getPaidOrders());
+        }
+        response.setConversionRate(ratio(response.getPaidOrders(), response.getOrders()));
+        response.setPoints(new ArrayList<>(points.values()));
+        return response;
+    }
+
+    /**
+     * 場次的每日已付款張數與累計售出比例；場次不存在時返回 empty
+     */
+    public Optional<SellThroughResponse> sellThrough(Long performanceId) {
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try {
+            return readOnlyTransaction.execute(status -> {
+                List<Long> concertIds = jdbcTemplate.queryForList("SELECT concert_id FROM performances WHERE id = ?",
+                        Long.class, performanceId);
+                if (concertIds.isEmpty()) {
+                    return Optional.<SellThroughResponse>empty();
+                }
+                SellThroughResponse response = new SellThroughResponse();
+                response.setPerformanceId(performanceId);
+                response.setConcertId(concertIds.get(0));
+                Long capacity = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(total_quantity), 0) FROM tickets "
+                        + "WHERE performance_id = ?", Long.class, performanceId);
+                response.setCapacity(capacity != null ? capacity : 0);
+                jdbcTemplate.query("SELECT bucket_date, SUM(ticket_count) FROM sales_rollup_daily "
+                        + "WHERE performance_id = ? AND order_status = ? GROUP BY bucket_date ORDER BY bucket_date", rs -> {
+                            SellThroughResponse.Point point = new SellThroughResponse.Point();
+                            point.setDate(rs.getDate(1).toLocalDate());
+                            point.setTickets(rs.getLong(2));
+                            response.setTicketsSold(response.getTicketsSold() + point.getTickets());
+                            point.setCumulativeTickets(response.getTicketsSold());
+                            point.setSellThrough(ratio(point.getCumulativeTickets(), response.getCapacity()));
+                            response.getPoints().add(point);
+                        }, performanceId, STATUS_PAID);
+                return Optional.of(response);
+            });
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private Map<Long, String> labels(String select, Collection<Long> ids) {
+        List<Long> sorted = new ArrayList<>(new TreeSet<>(ids));
+        Map<Long, String> labels = new HashMap<>();
+        for (int from = 0; from < sorted.size(); from += LABEL_BATCH_SIZE) {
+            List<Long> batch = sorted.subList(from, Math.min(from + LABEL_BATCH_SIZE, sorted.size()));
+            jdbcTemplate.query(select + " WHERE id IN (" + String.join(", ", Collections.nCopies(batch.size(), "?"))
+                    + ")", rs -> {
+                        labels.put(rs.getLong(1), rs.getString(2));
+                    }, batch.toArray());
+        }
+        return labels;
+    }
+
+    private static void appendFilter(StringBuilder sql, List<Object> params, String column, Object value) {
+        if (value != null) {
+            sql.append(" AND ").append(column).append(" = ?");
+            params.add(value);
+        }
+    }
+
+    private static SalesSeriesResponse.Point newPoint(List<Object> key, List<Dimension> dimensions) {
+        SalesSeriesResponse.Point point = new SalesSeriesResponse.Point();
+        point.setBucketStart((LocalDateTime) key.get(0));
+        for (int i = 0; i < dimensions.size(); i++) {
+            Object value = key.get(i + 1);
+            switch (dimensions.get(i)) {
+                case CONCERT -> point.setConcertId(((Number) value).longValue());
+                case PERFORMANCE -> point.setPerformanceId(((Number) value).longValue());
+                case TICKET_TYPE -> point.setTicketTypeId(((Number) value).longValue());
+                case ORDER_STATUS -> point.setOrderStatus((String) value);
+                case PAYMENT_STATUS -> point.setPaymentStatus((String) value);
+            }
+        }
+        return point;
+    }
+
+    static LocalDateTime fold(LocalDateTime bucketStart, Granularity granularity) {
+        switch (granularity) {
+            case WEEK:
+                return bucketStart.toLocalDate().with(DayOfWeek.MONDAY).atStartOfDay();
+            case MONTH:
+                return bucketStart.toLocalDate().withDayOfMonth(1).atStartOfDay();
+            default:
+                return bucketStart;
+        }
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0 : BigDecimal.valueOf(part).divide(BigDecimal.valueOf(whole), 4, RoundingMode.HALF_UP).doubleValue();
+    }
+}
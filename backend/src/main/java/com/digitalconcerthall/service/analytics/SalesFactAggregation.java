@@ -0,0 +1,90 @@
+package com.digitalconcerthall.service.analytics;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 記憶體銷售明細快照的彙總結果
+ * 沒有分組時只有一組；金額為明細小計，單位為元
+ */
+public final class SalesFactAggregation {
+
+    private final long rows;
+    private final long tickets;
+    private final BigDecimal amount;
+    private final int partitionsScanned;
+    private final long rowsScanned;
+    private final List<Group> groups;
+
+    SalesFactAggregation(long rows, long tickets, BigDecimal amount, int partitionsScanned, long rowsScanned,
+            List<Group> groups) {
+        this.rows = rows;
+        this.tickets = tickets;
+        this.amount = amount;
+        this.partitionsScanned = partitionsScanned;
+        this.rowsScanned = rowsScanned;
+        this.groups = groups;
+    }
+
+    /**
+     * 符合條件的明細數
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public long getTickets() {
+        return tickets;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public int getPartitionsScanned() {
+        return partitionsScanned;
+    }
+
+    /**
+     * 逐列檢查的明細數；整天符合時直接使用分區合計，不計入
+     */
+    public long getRowsScanned() {
+        return rowsScanned;
+    }
+
+    public List<Group> getGroups() {
+        return groups;
+    }
+
+    public static final class Group {
+
+        private final Map<String, Object> key;
+        private final long rows;
+        private final long tickets;
+        private final BigDecimal amount;
+
+        Group(Map<String, Object> key, long rows, long tickets, BigDecimal amount) {
+            this.key = key;
+            this.rows = rows;
+            this.tickets = tickets;
+            this.amount = amount;
+        }
+
+        public Map<String, Object> getKey() {
+            return key;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getTickets() {
+            return tickets;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+    }
+}
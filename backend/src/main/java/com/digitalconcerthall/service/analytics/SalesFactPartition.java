@@ -0,0 +1,125 @@
+package com.digitalconcerthall.service.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 一天的銷售明細，每個欄位一個基本型別陣列（欄式儲存）
+ * 建立後不再修改；當天有異動時整個分區重新載入後替換
+ */
+public final class SalesFactPartition {
+
+    final int epochDay;
+    final int weekStart;
+    /** 年 * 12 + 月 - 1 */
+    final int month;
+    final int weekday;
+    final int size;
+    final int[] secondOfDay;
+    final long[] amountCents;
+    final int[] quantity;
+    final int[] concertId;
+    final int[] performanceId;
+    final int[] ticketTypeId;
+    final byte[] status;
+    final byte[] paymentStatus;
+    final long totalQuantity;
+    final long totalAmountCents;
+
+    private SalesFactPartition(Builder builder) {
+        LocalDate day = builder.day;
+        this.epochDay = (int) day.toEpochDay();
+        this.weekday = day.getDayOfWeek().getValue();
+        this.weekStart = epochDay - (weekday - 1);
+        this.month = day.getYear() * 12 + day.getMonthValue() - 1;
+        this.size = builder.size;
+        this.secondOfDay = Arrays.copyOf(builder.secondOfDay, size);
+        this.amountCents = Arrays.copyOf(builder.amountCents, size);
+        this.quantity = Arrays.copyOf(builder.quantity, size);
+        this.concertId = Arrays.copyOf(builder.concertId, size);
+        this.performanceId = Arrays.copyOf(builder.performanceId, size);
+        this.ticketTypeId = Arrays.copyOf(builder.ticketTypeId, size);
+        this.status = Arrays.copyOf(builder.status, size);
+        this.paymentStatus = Arrays.copyOf(builder.paymentStatus, size);
+        long tickets = 0;
+        long amount = 0;
+        for (int row = 0; row < size; row++) {
+            tickets += quantity[row];
+            amount += amountCents[row];
+        }
+        this.totalQuantity = tickets;
+        this.totalAmountCents = amount;
+    }
+
+    public LocalDate getDay() {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 依序加入一天的明細；由 {@link SalesFactTable#newPartition(LocalDate)} 建立，共用狀態字典
+     */
+    public static final class Builder {
+
+        private final SalesFactTable table;
+        private final LocalDate day;
+        private int size;
+        private int[] secondOfDay = new int[64];
+        private long[] amountCents = new long[64];
+        private int[] quantity = new int[64];
+        private int[] concertId = new int[64];
+        private int[] performanceId = new int[64];
+        private int[] ticketTypeId = new int[64];
+        private byte[] status = new byte[64];
+        private byte[] paymentStatus = new byte[64];
+
+        Builder(SalesFactTable table, LocalDate day) {
+            this.table = table;
+            this.day = day;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public Builder add(int secondOfDay, long amountCents, int quantity, long concertId, long performanceId,
+                long ticketTypeId, String status, String paymentStatus) {
+            if (size == this.secondOfDay.length) {
+                grow();
+            }
+            this.secondOfDay[size] = secondOfDay;
+            this.amountCents[size] = amountCents;
+            this.quantity[size] = quantity;
+            this.concertId[size] = Math.toIntExact(concertId);
+            this.performanceId[size] = Math.toIntExact(performanceId);
+            this.ticketTypeId[size] = Math.toIntExact(ticketTypeId);
+            this.status[size] = table.code(status);
+            this.paymentStatus[size] = table.code(paymentStatus);
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public SalesFactPartition build() {
+            return new SalesFactPartition(this);
+        }
+
+        private void grow() {
+            int capacity = size * 2;
+            secondOfDay = Arrays.copyOf(secondOfDay, capacity);
+            amountCents = Arrays.copyOf(amountCents, capacity);
+            quantity = Arrays.copyOf(quantity, capacity);
+            concertId = Arrays.copyOf(concertId, capacity);
+            performanceId = Arrays.copyOf(performanceId, capacity);
+            ticketTypeId = Arrays.copyOf(ticketTypeId, capacity);
+            status = Arrays.copyOf(status, capacity);
+            paymentStatus = Arrays.copyOf(paymentStatus, capacity);
+        }
+    }
+}
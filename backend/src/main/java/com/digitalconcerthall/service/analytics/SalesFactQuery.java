@@ -0,0 +1,73 @@
+package com.digitalconcerthall.service.analytics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 記憶體銷售明細快照的彙總條件
+ * 日期範圍為下單日期（含兩端），篩選條件之間為 AND，最多兩個分組
+ */
+@Data
+@NoArgsConstructor
+public class SalesFactQuery {
+
+    public enum Dimension {
+        DAY("day", true),
+        /** 週一的日期 */
+        WEEK("week", true),
+        MONTH("month", true),
+        /** 週一為 1 */
+        WEEKDAY("weekday", true),
+        HOUR("hour", false),
+        CONCERT("concertId", false),
+        PERFORMANCE("performanceId", false),
+        TICKET_TYPE("ticketTypeId", false),
+        STATUS("status", false),
+        PAYMENT_STATUS("paymentStatus", false);
+
+        private final String key;
+        /** 同一天的明細都相同，每個分區只需計算一次 */
+        final boolean perPartition;
+
+        Dimension(String key, boolean perPartition) {
+            this.key = key;
+            this.perPartition = perPartition;
+        }
+
+        /**
+         * 結果中的欄位名稱
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * 接受欄位名稱或列舉名稱，例如 day、ticketType、ticket_type、paymentStatus
+         */
+        public static Dimension parse(String value) {
+            String normalized = value.trim().replace("_", "").toLowerCase(Locale.ROOT);
+            for (Dimension dimension : values()) {
+                String key = dimension.key.toLowerCase(Locale.ROOT);
+                if (normalized.equals(key) || normalized.equals(dimension.name().replace("_", "").toLowerCase(Locale.ROOT))
+                        || (key.endsWith("id") && normalized.equals(key.substring(0, key.length() - 2)))) {
+                    return dimension;
+                }
+            }
+            throw new IllegalArgumentException("不支援的分組: " + value);
+        }
+    }
+
+    private LocalDate from;
+    private LocalDate to;
+    private List<Dimension> groupBy = new ArrayList<>();
+    private Long concertId;
+    private Long performanceId;
+    private Long ticketTypeId;
+    private String status;
+    private String paymentStatus;
+}
@@ -0,0 +1,305 @@
+package com.digitalconcerthall.service.analytics;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 最近 app.analytics.snapshot.days 天訂單明細的記憶體快照（{@link SalesFactTable}），供後台做任意篩選與分組彙總
+ * 啟動時以串流游標載入全部明細；之後 {@link SalesRollupEventListener} 在訂單異動提交後標記下單日期，
+ * 排程每 app.analytics.snapshot.refresh-ms 重新載入標記的日期並整天替換分區。
+ * 繞過 JPA 的寫入由定期重新載入最近 app.analytics.reconcile-hours 小時修正，與彙總表相同。
+ * 彙總在專用的 ForkJoinPool 上平行掃描，不佔用共用池
+ */
+@Service
+public class SalesFactSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesFactSnapshotService.class);
+
+    private static final String FACT_QUERY = "SELECT o.order_date, oi.subtotal, oi.quantity, p.concert_id, "
+            + "t.performance_id, t.ticket_type_id, o.status, o.payment_status "
+            + "FROM orders o JOIN order_items oi ON oi.order_id = o.id JOIN tickets t ON t.id = oi.ticket_id "
+            + "JOIN performances p ON p.id = t.performance_id "
+            + "WHERE o.order_date >= ? AND o.order_date < ? ORDER BY o.order_date";
+
+    @Value("${app.analytics.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.analytics.snapshot.days:365}")
+    private int days;
+
+    @Value("${app.analytics.snapshot.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.analytics.snapshot.max-groups:10000}")
+    private int maxGroups;
+
+    @Value("${app.analytics.reconcile-hours:48}")
+    private int reconcileHours;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final SalesFactTable table = new SalesFactTable();
+    /** 待重新載入的下單日期 */
+    private final Set<LocalDate> dirtyDays = ConcurrentHashMap.newKeySet();
+    /** 全部重建與逐日替換依序執行，避免舊資料蓋掉新資料 */
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile boolean ready;
+    private volatile LocalDateTime loadedAt;
+    private JdbcTemplate streamingJdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate refreshTransaction;
+    private ForkJoinPool pool;
+    private Timer queryTimer;
+
+    @PostConstruct
+    public void init() {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(datasourceUrl.startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : fetchSize);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // 剛提交的異動可能尚未複製到讀取副本，逐日重新載入留在主庫
+        refreshTransaction = new TransactionTemplate(transactionManager);
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("sales-facts-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("app.analytics.snapshot.rows", table, SalesFactTable::size)
+                    .description("銷售明細快照的列數")
+                    .register(registry);
+            Gauge.builder("app.analytics.snapshot.pending-days", dirtyDays, Set::size)
+                    .description("等待重新載入的銷售明細快照天數")
+                    .register(registry);
+            queryTimer = Timer.builder("app.analytics.snapshot.query")
+                    .description("銷售明細快照彙總耗時")
+                    .register(registry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    public long size() {
+        return table.size();
+    }
+
+    /**
+     * 標記下單日期需要重新載入；在交易提交後呼叫
+     */
+    public void markDirty(LocalDateTime orderDate) {
+        if (enabled && orderDate != null) {
+            dirtyDays.add(orderDate.toLocalDate());
+        }
+    }
+
+    /**
+     * 彙總快照中的明細；快照尚未載入完成時拋出 IllegalStateException
+     */
+    public SalesFactAggregation aggregate(SalesFactQuery query) {
+        if (!ready) {
+            throw new IllegalStateException("銷售明細快照尚未載入");
+        }
+        LocalDate oldest = LocalDate.now().minusDays(days);
+        if (query.getFrom() != null && query.getFrom().isBefore(oldest)) {
+            throw new IllegalArgumentException("快照只保留 " + oldest + " 之後的資料");
+        }
+        long start = System.nanoTime();
+        SalesFactAggregation result = table.aggregate(query, pool, maxGroups);
+        if (queryTimer != null) {
+            queryTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+        return result;
+    }
+
+    /**
+     * 從資料庫重新載入整份快照
+     * @return 載入的明細數
+     */
+    public long rebuild() {
+        if (!enabled) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        LocalDate from = LocalDate.now().minusDays(days);
+        loadLock.lock();
+        try {
+            // 載入期間提交的異動會重新標記，載入後再處理
+            dirtyDays.clear();
+            List<SalesFactPartition> partitions = load(from, LocalDate.now().plusDays(1), readOnlyTransaction);
+            table.replaceAll(partitions);
+            ready = true;
+            loadedAt = LocalDateTime.now();
+        } finally {
+            loadLock.unlock();
+        }
+        long rows = table.size();
+        logger.info("銷售明細快照已載入: {} 天、{} 列，耗時 {} ms", table.partitionCount(), rows,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return rows;
+    }
+
+    /**
+     * 重新載入所有已標記的日期
+     * @return 重新載入的天數
+     */
+    public int refresh() {
+        if (!ready || dirtyDays.isEmpty()) {
+            return 0;
+        }
+        NavigableSet<LocalDate> pending = new TreeSet<>();
+        for (Iterator<LocalDate> iterator = dirtyDays.iterator(); iterator.hasNext();) {
+            pending.add(iterator.next());
+            iterator.remove();
+        }
+        LocalDate oldest = LocalDate.now().minusDays(days);
+        loadLock.lock();
+        try {
+            for (LocalDate day : pending) {
+                if (day.isBefore(oldest)) {
+                    continue;
+                }
+                try {
+                    reload(day);
+                } catch (RuntimeException e) {
+                    dirtyDays.addAll(pending.tailSet(day, true));
+                    throw e;
+                }
+            }
+            table.removeBefore(oldest);
+            loadedAt = LocalDateTime.now();
+        } finally {
+            loadLock.unlock();
+        }
+        logger.debug("已重新載入 {} 天的銷售明細快照", pending.size());
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.snapshot.refresh-ms:10000}",
+            initialDelayString = "${app.analytics.snapshot.refresh-ms:10000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.warn("重新載入銷售明細快照失敗，下次重試: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.reconcile-interval-ms:3600000}",
+            initialDelayString = "${app.analytics.reconcile-interval-ms:3600000}")
+    public void scheduledReconcile() {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (LocalDate day = now.minusHours(reconcileHours).toLocalDate(); !day.isAfter(now.toLocalDate());
+                day = day.plusDays(1)) {
+            dirtyDays.add(day);
+        }
+        scheduledRefresh();
+    }
+
+    private void reload(LocalDate day) {
+        List<SalesFactPartition> loaded = load(day, day.plusDays(1), refreshTransaction);
+        if (loaded.isEmpty()) {
+            table.remove(day);
+        } else {
+            table.put(loaded.get(0));
+        }
+    }
+
+    /**
+     * 以串流游標讀取 [from, to) 的明細，依下單日期切成分區
+     */
+    private List<SalesFactPartition> load(LocalDate from, LocalDate to, TransactionTemplate transaction) {
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try {
+            return transaction.execute(status -> {
+                List<SalesFactPartition> partitions = new ArrayList<>();
+                SalesFactPartition.Builder[] current = new SalesFactPartition.Builder[1];
+                streamingJdbcTemplate.query(FACT_QUERY, rs -> {
+                    LocalDateTime orderDate = rs.getTimestamp(1).toLocalDateTime();
+                    LocalDate day = orderDate.toLocalDate();
+                    if (current[0] == null || !current[0].getDay().equals(day)) {
+                        if (current[0] != null) {
+                            partitions.add(current[0].build());
+                        }
+                        current[0] = table.newPartition(day);
+                    }
+                    current[0].add(orderDate.toLocalTime().toSecondOfDay(),
+                            rs.getBigDecimal(2).movePointRight(2).longValueExact(), rs.getInt(3), rs.getLong(4),
+                            rs.getLong(5), rs.getLong(6), rs.getString(7), rs.getString(8));
+                }, from.atStartOfDay(), to.atStartOfDay());
+                if (current[0] != null) {
+                    partitions.add(current[0].build());
+                }
+                return partitions;
+            });
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+}
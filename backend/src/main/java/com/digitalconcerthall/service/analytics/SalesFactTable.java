@@ -0,0 +1,298 @@
+package com.digitalconcerthall.service.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+
+import com.digitalconcerthall.service.analytics.SalesFactQuery.Dimension;
+
+/**
+ * 記憶體中的銷售明細表（每筆訂單明細一列），依下單日期分區
+ * 分區不可變，更新時整天替換，查詢期間看到的是替換前或替換後的完整分區；
+ * 彙總以平行掃描各分區的基本型別陣列完成，每個線程累計到自己的雜湊表後合併。
+ * 訂單與付款狀態以 byte 代碼儲存，字典只增不減
+ */
+public class SalesFactTable {
+
+    private volatile ConcurrentSkipListMap<Integer, SalesFactPartition> partitions = new ConcurrentSkipListMap<>();
+    private final Map<String, Byte> codes = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[0];
+
+    public SalesFactPartition.Builder newPartition(LocalDate day) {
+        return new SalesFactPartition.Builder(this, day);
+    }
+
+    /**
+     * 替換一天的資料；沒有明細的分區會移除
+     */
+    public void put(SalesFactPartition partition) {
+        if (partition.size() == 0) {
+            partitions.remove(partition.epochDay);
+        } else {
+            partitions.put(partition.epochDay, partition);
+        }
+    }
+
+    public void remove(LocalDate day) {
+        partitions.remove((int) day.toEpochDay());
+    }
+
+    /**
+     * 移除指定日期之前的分區
+     * @return 移除的分區數
+     */
+    public int removeBefore(LocalDate day) {
+        Map<Integer, SalesFactPartition> expired = partitions.headMap((int) day.toEpochDay());
+        int removed = expired.size();
+        expired.clear();
+        return removed;
+    }
+
+    public void replaceAll(Collection<SalesFactPartition> replacement) {
+        ConcurrentSkipListMap<Integer, SalesFactPartition> rebuilt = new ConcurrentSkipListMap<>();
+        for (SalesFactPartition partition : replacement) {
+            if (partition.size() > 0) {
+                rebuilt.put(partition.epochDay, partition);
+            }
+        }
+        partitions = rebuilt;
+    }
+
+    public long size() {
+        long rows = 0;
+        for (SalesFactPartition partition : partitions.values()) {
+            rows += partition.size();
+        }
+        return rows;
+    }
+
+    public int partitionCount() {
+        return partitions.size();
+    }
+
+    /**
+     * 彙總指定日期範圍內符合條件的明細
+     * @param pool 平行掃描使用的線程池
+     * @param maxGroups 分組數上限，超過時拋出 IllegalArgumentException
+     */
+    public SalesFactAggregation aggregate(SalesFactQuery query, ForkJoinPool pool, int maxGroups) {
+        List<Dimension> groupBy = query.getGroupBy() == null ? List.of() : query.getGroupBy();
+        if (groupBy.size() > 2) {
+            throw new IllegalArgumentException("最多兩個分組");
+        }
+        if (groupBy.size() == 2 && groupBy.get(0) == groupBy.get(1)) {
+            throw new IllegalArgumentException("分組不可重複: " + groupBy.get(0).getKey());
+        }
+        if (query.getFrom() != null && query.getTo() != null && query.getFrom().isAfter(query.getTo())) {
+            throw new IllegalArgumentException("開始日期不可晚於結束日期");
+        }
+        Filter filter = new Filter(query, groupBy);
+        List<SalesFactPartition> selected = new ArrayList<>(select(query.getFrom(), query.getTo()).values());
+
+        Scan scan = filter.impossible ? new Scan() : pool.submit(() -> selected.parallelStream()
+                .collect(Scan::new, (result, partition) -> result.scan(partition, filter), Scan::merge)).join();
+        if (scan.groups.size() > maxGroups) {
+            throw new IllegalArgumentException("分組數 " + scan.groups.size() + " 超過上限 " + maxGroups + "，請縮小範圍或減少分組");
+        }
+
+        String[] dictionary = names;
+        List<SalesFactAggregation.Group> groups = new ArrayList<>(scan.groups.size());
+        long[] totals = new long[3];
+        scan.groups.forEachSorted((key, rows, tickets, amountCents) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                int value = i == 0 ? (int) (key >>> 32) : (int) key;
+                values.put(groupBy.get(i).getKey(), decode(groupBy.get(i), value, dictionary));
+            }
+            groups.add(new SalesFactAggregation.Group(values, rows, tickets, BigDecimal.valueOf(amountCents, 2)));
+            totals[0] += rows;
+            totals[1] += tickets;
+            totals[2] += amountCents;
+        });
+        return new SalesFactAggregation(totals[0], totals[1], BigDecimal.valueOf(totals[2], 2), selected.size(),
+                scan.rowsScanned, groups);
+    }
+
+    private Map<Integer, SalesFactPartition> select(LocalDate from, LocalDate to) {
+        ConcurrentSkipListMap<Integer, SalesFactPartition> current = partitions;
+        if (from == null && to == null) {
+            return current;
+        }
+        if (from == null) {
+            return current.headMap((int) to.toEpochDay(), true);
+        }
+        if (to == null) {
+            return current.tailMap((int) from.toEpochDay(), true);
+        }
+        return current.subMap((int) from.toEpochDay(), true, (int) to.toEpochDay(), true);
+    }
+
+    byte code(String name) {
+        String value = Objects.requireNonNullElse(name, "");
+        Byte code = codes.get(value);
+        return code != null ? code : register(value);
+    }
+
+    private synchronized byte register(String name) {
+        Byte code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        if (names.length > Byte.MAX_VALUE) {
+            throw new IllegalStateException("狀態種類超過 " + (Byte.MAX_VALUE + 1) + " 個");
+        }
+        byte assigned = (byte) names.length;
+        String[] extended = Arrays.copyOf(names, names.length + 1);
+        extended[assigned] = name;
+        // 先發布字典再發布代碼，讀到代碼的線程一定查得到名稱
+        names = extended;
+        codes.put(name, assigned);
+        return assigned;
+    }
+
+    private static Object decode(Dimension dimension, int value, String[] dictionary) {
+        switch (dimension) {
+            case DAY:
+            case WEEK:
+                return LocalDate.ofEpochDay(value).toString();
+            case MONTH:
+                return YearMonth.of(value / 12, value % 12 + 1).toString();
+            case STATUS:
+            case PAYMENT_STATUS:
+                return dictionary[value];
+            case CONCERT:
+            case PERFORMANCE:
+            case TICKET_TYPE:
+                return (long) value;
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * 篩選條件轉成欄位中的數值；-1 表示不篩選
+     */
+    private final class Filter {
+
+        final int concertId;
+        final int performanceId;
+        final int ticketTypeId;
+        final int status;
+        final int paymentStatus;
+        final Dimension first;
+        final Dimension second;
+        /** 篩選的狀態從未出現過，不可能有結果 */
+        final boolean impossible;
+
+        Filter(SalesFactQuery query, List<Dimension> groupBy) {
+            concertId = id(query.getConcertId());
+            performanceId = id(query.getPerformanceId());
+            ticketTypeId = id(query.getTicketTypeId());
+            Byte statusCode = query.getStatus() == null ? null : codes.get(query.getStatus());
+            Byte paymentCode = query.getPaymentStatus() == null ? null : codes.get(query.getPaymentStatus());
+            status = statusCode == null ? -1 : statusCode;
+            paymentStatus = paymentCode == null ? -1 : paymentCode;
+            impossible = (query.getStatus() != null && statusCode == null)
+                    || (query.getPaymentStatus() != null && paymentCode == null)
+                    || concertId == -2 || performanceId == -2 || ticketTypeId == -2;
+            first = groupBy.isEmpty() ? null : groupBy.get(0);
+            second = groupBy.size() < 2 ? null : groupBy.get(1);
+        }
+
+        boolean hasRowFilter() {
+            return concertId >= 0 || performanceId >= 0 || ticketTypeId >= 0 || status >= 0 || paymentStatus >= 0;
+        }
+
+        boolean rowLevelGroup() {
+            return (first != null && !first.perPartition) || (second != null && !second.perPartition);
+        }
+
+        private int id(Long value) {
+            if (value == null) {
+                return -1;
+            }
+            // 超出 int 範圍的編號不會出現在表中
+            return value < 0 || value > Integer.MAX_VALUE ? -2 : value.intValue();
+        }
+    }
+
+    /**
+     * 單一線程的掃描結果
+     */
+    private static final class Scan {
+
+        final LongAggregateMap groups = new LongAggregateMap();
+        long rowsScanned;
+
+        void scan(SalesFactPartition p, Filter filter) {
+            int fixedFirst = filter.first != null && filter.first.perPartition ? value(filter.first, p, 0) : 0;
+            int fixedSecond = filter.second != null && filter.second.perPartition ? value(filter.second, p, 0) : 0;
+            if (!filter.hasRowFilter() && !filter.rowLevelGroup()) {
+                // 整天同一組，直接使用分區合計
+                groups.add(key(fixedFirst, fixedSecond), p.size, p.totalQuantity, p.totalAmountCents);
+                return;
+            }
+            rowsScanned += p.size;
+            for (int row = 0; row < p.size; row++) {
+                if ((filter.concertId >= 0 && p.concertId[row] != filter.concertId)
+                        || (filter.performanceId >= 0 && p.performanceId[row] != filter.performanceId)
+                        || (filter.ticketTypeId >= 0 && p.ticketTypeId[row] != filter.ticketTypeId)
+                        || (filter.status >= 0 && p.status[row] != filter.status)
+                        || (filter.paymentStatus >= 0 && p.paymentStatus[row] != filter.paymentStatus)) {
+                    continue;
+                }
+                int first = filter.first == null || filter.first.perPartition ? fixedFirst : value(filter.first, p, row);
+                int second = filter.second == null || filter.second.perPartition ? fixedSecond
+                        : value(filter.second, p, row);
+                groups.add(key(first, second), 1, p.quantity[row], p.amountCents[row]);
+            }
+        }
+
+        Scan merge(Scan other) {
+            groups.addAll(other.groups);
+            rowsScanned += other.rowsScanned;
+            return this;
+        }
+
+        private static long key(int first, int second) {
+            return ((long) first << 32) | (second & 0xFFFFFFFFL);
+        }
+
+        private static int value(Dimension dimension, SalesFactPartition p, int row) {
+            switch (dimension) {
+                case DAY:
+                    return p.epochDay;
+                case WEEK:
+                    return p.weekStart;
+                case MONTH:
+                    return p.month;
+                case WEEKDAY:
+                    return p.weekday;
+                case HOUR:
+                    return p.secondOfDay[row] / 3600;
+                case CONCERT:
+                    return p.concertId[row];
+                case PERFORMANCE:
+                    return p.performanceId[row];
+                case TICKET_TYPE:
+                    return p.ticketTypeId[row];
+                case STATUS:
+                    return p.status[row];
+                case PAYMENT_STATUS:
+                    return p.paymentStatus[row];
+                default:
+                    throw new IllegalArgumentException("不支援的分組: " + dimension);
+            }
+        }
+    }
+}
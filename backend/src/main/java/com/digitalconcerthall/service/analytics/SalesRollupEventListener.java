@@ -0,0 +1,107 @@
+package com.digitalconcerthall.service.analytics;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.digitalconcerthall.model.order.Order;
+import com.digitalconcerthall.model.order.OrderItem;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * 訂單與訂單明細提交後，標記下單時間所屬的小時讓 {@link SalesRollupService} 重算，
+ * 同時標記下單日期讓 {@link SalesFactSnapshotService} 重新載入
+ * 訂單狀態與付款狀態都在 orders 上，任何訂單更新都標記；更新前後的下單時間不同時兩個小時都標記
+ */
+@Component
+public class SalesRollupEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private ObjectProvider<SalesFactSnapshotService> salesFactSnapshotService;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Order.class || type == OrderItem.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        mark(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        mark(event.getEntity());
+        Object[] oldState = event.getOldState();
+        if (event.getEntity() instanceof Order && oldState != null) {
+            String[] properties = event.getPersister().getPropertyNames();
+            for (int i = 0; i < properties.length; i++) {
+                if ("orderDate".equals(properties[i])) {
+                    markDirty((LocalDateTime) oldState[i]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        mark(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void mark(Object entity) {
+        Order order = entity instanceof OrderItem ? ((OrderItem) entity).getOrder() : (Order) entity;
+        // 提交後不能再延遲載入；明細所屬訂單尚未載入時，訂單本身的事件或定期重算會涵蓋
+        if (order != null && Hibernate.isInitialized(order)) {
+            markDirty(order.getOrderDate());
+        }
+    }
+
+    private void markDirty(LocalDateTime orderDate) {
+        salesRollupService.markDirty(orderDate);
+        salesFactSnapshotService.ifAvailable(snapshot -> snapshot.markDirty(orderDate));
+    }
+}
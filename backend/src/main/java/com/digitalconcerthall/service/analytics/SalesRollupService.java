@@ -0,0 +1,397 @@
+package com.digitalconcerthall.service.analytics;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.digitalconcerthall.service.archive.ArchivePartitions;
+import com.digitalconcerthall.service.job.JobLease;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 維護銷售分析的小時與每日彙總（sales_rollup_*、order_rollup_*）
+ * {@link SalesRollupEventListener} 在訂單或明細異動提交後標記訂單下單時間所屬的小時，
+ * 排程每 app.analytics.flush-ms 從基礎資料表重算標記的小時，再由小時彙總重算當日彙總。
+ * 重算是整段刪除後重新寫入，重複執行結果相同，不需要記錄個別訂單的前後狀態；
+ * 重啟前尚未處理的標記與繞過 JPA 的寫入，由定期重算最近 app.analytics.reconcile-hours 小時修正。
+ * 已封存的訂單從該年份的封存表讀取，重算封存期間的結果與封存前相同。
+ * 定期重算登記在 {@link JobRegistry}，叢集每個間隔只由一個節點執行；各節點標記的小時由各自重算，
+ * 每個重算交易先鎖定該工作的租約列，不同節點對同一段的刪除與寫入依序進行
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+
+    private static final int INSERT_BATCH_SIZE = 500;
+    static final String JOB_NAME = "sales-rollup";
+    /** 每天一個交易，執行期間由 JobRegistry 續約 */
+    private static final Duration JOB_LEASE = Duration.ofMinutes(10);
+
+    @Value("${app.analytics.reconcile-hours:48}")
+    private int reconcileHours;
+
+    @Value("${app.analytics.reconcile-interval-ms:3600000}")
+    private long reconcileIntervalMs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private ArchivePartitions archivePartitions;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    /** 待重算的小時（整點） */
+    private final Set<LocalDateTime> dirtyHours = ConcurrentHashMap.newKeySet();
+    /** 同一節點上的重算依序執行，避免同時刪除與寫入同一段 */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile LocalDateTime lastFlushAt;
+    private TransactionTemplate transaction;
+    private ExecutorService rebuildExecutor;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sales-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("app.analytics.pending-hours", dirtyHours, Set::size)
+                    .description("等待重算的銷售彙總小時數")
+                    .register(registry);
+            flushTimer = Timer.builder("app.analytics.rollup.flush")
+                    .description("重算標記小時的銷售彙總耗時")
+                    .register(registry);
+        }
+        jobRegistry.register(JOB_NAME, true, Duration.ofMillis(reconcileIntervalMs), JOB_LEASE, this::reconcile);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * 標記下單時間所屬的小時需要重算；在交易提交後呼叫
+     */
+    public void markDirty(LocalDateTime orderDate) {
+        if (orderDate != null) {
+            dirtyHours.add(orderDate.truncatedTo(ChronoUnit.HOURS));
+        }
+    }
+
+    public int getPendingHours() {
+        return dirtyHours.size();
+    }
+
+    public LocalDateTime getLastFlushAt() {
+        return lastFlushAt;
+    }
+
+    /**
+     * 重算所有已標記的小時
+     * @return 重算的小時數
+     */
+    public int flush() {
+        if (dirtyHours.isEmpty()) {
+            return 0;
+        }
+        // 先移出再重算，重算開始後提交的異動會重新標記
+        NavigableSet<LocalDateTime> hours = new TreeSet<>();
+        for (Iterator<LocalDateTime> iterator = dirtyHours.iterator(); iterator.hasNext();) {
+            hours.add(iterator.next());
+            iterator.remove();
+        }
+        long start = System.nanoTime();
+        Map<LocalDate, List<LocalDateTime>> byDay = new TreeMap<>();
+        hours.forEach(hour -> byDay.computeIfAbsent(hour.toLocalDate(), day -> new ArrayList<>()).add(hour));
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        writeLock.lock();
+        try {
+            for (Map.Entry<LocalDate, List<LocalDateTime>> entry : byDay.entrySet()) {
+                try {
+                    transaction.executeWithoutResult(status -> {
+                        jobLeaseService.lock(JOB_NAME);
+                        for (LocalDateTime hour : entry.getValue()) {
+                            recomputeHours(hour, hour.plusHours(1));
+                        }
+                        recomputeDay(entry.getKey());
+                    });
+                } catch (RuntimeException e) {
+                    dirtyHours.addAll(hours.tailSet(entry.getValue().get(0), true));
+                    throw e;
+                }
+            }
+        } finally {
+            writeLock.unlock();
+            WorkloadContext.restore(previous);
+        }
+        if (flushTimer != null) {
+            flushTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+        lastFlushAt = LocalDateTime.now();
+        logger.debug("已重算 {} 個小時的銷售彙總", hours.size());
+        return hours.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.flush-ms:5000}", initialDelayString = "${app.analytics.flush-ms:5000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warn("重算銷售彙總失敗，下次重試: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 從基礎資料表重算一段時間的彙總，每天一個交易
+     * @param from 含，取整點
+     * @param to 不含
+     * @return 重算的天數
+     */
+    public int rebuild(LocalDateTime from, LocalDateTime to) {
+        return rebuild(from, to, null);
+    }
+
+    /**
+     * @param lease 排程執行時的租約，每天寫入前確認仍持有；手動執行時為 null，改為鎖定租約列
+     */
+    private int rebuild(LocalDateTime from, LocalDateTime to, JobLease lease) {
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        long begin = System.nanoTime();
+        int days = 0;
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        writeLock.lock();
+        try {
+            while (start.isBefore(to)) {
+                LocalDateTime dayStart = start;
+                LocalDateTime dayEnd = start.toLocalDate().plusDays(1).atStartOfDay();
+                LocalDateTime end = dayEnd.isBefore(to) ? dayEnd : to;
+                transaction.executeWithoutResult(status -> {
+                    if (lease != null) {
+                        jobLeaseService.checkFence(lease);
+                    } else {
+                        jobLeaseService.lock(JOB_NAME);
+                    }
+                    recomputeHours(dayStart, end);
+                    recomputeDay(dayStart.toLocalDate());
+                });
+                days++;
+                start = dayEnd;
+            }
+        } finally {
+            writeLock.unlock();
+            WorkloadContext.restore(previous);
+        }
+        logger.info("已重算銷售彙總 {} ~ {}: {} 天，耗時 {} ms", from, to, days,
+                Duration.ofNanos(System.nanoTime() - begin).toMillis());
+        return days;
+    }
+
+    /**
+     * 在背景重算；已有重算在執行時返回 false
+     */
+    public boolean rebuildAsync(LocalDateTime from, LocalDateTime to) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                rebuild(from, to);
+            } catch (RuntimeException e) {
+                logger.error("重算銷售彙總失敗: {}", e.getMessage(), e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 啟動時執行：彙總表是空的（第一次部署）時從最早的訂單開始回填，否則重算最近一段時間
+     */
+    public int rebuildOnStartup() {
+        LocalDateTime now = LocalDateTime.now();
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        LocalDateTime from;
+        try {
+            Integer rolledUp = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_rollup_daily", Integer.class);
+            if (rolledUp != null && rolledUp == 0) {
+                from = jdbcTemplate.queryForObject("SELECT MIN(order_date) FROM orders", LocalDateTime.class);
+                List<Integer> years = archivePartitions.years();
+                if (!years.isEmpty()) {
+                    // 年份由新到舊，最早的封存訂單在最後一個年份
+                    LocalDateTime archived = jdbcTemplate.queryForObject("SELECT MIN(order_date) FROM "
+                            + ArchivePartitions.ordersTable(years.get(years.size() - 1)), LocalDateTime.class);
+                    if (archived != null && (from == null || archived.isBefore(from))) {
+                        from = archived;
+                    }
+                }
+                if (from == null) {
+                    return 0;
+                }
+                logger.info("銷售彙總尚未建立，從 {} 開始回填", from);
+            } else {
+                from = now.minusHours(reconcileHours);
+            }
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+        return rebuild(from, now.plusHours(1));
+    }
+
+    /**
+     * 重算最近 app.analytics.reconcile-hours 小時
+     * @return 重算的天數
+     */
+    private int reconcile(JobLease lease) {
+        LocalDateTime now = LocalDateTime.now();
+        return rebuild(now.minusHours(reconcileHours), now.plusHours(1), lease);
+    }
+
+    /**
+     * 重算同一天內 [from, to) 的小時彙總
+     */
+    private void recomputeHours(LocalDateTime from, LocalDateTime to) {
+        LocalDate day = from.toLocalDate();
+        // 封存表依下單年份分表，同一天的封存訂單只可能在該年份的表內
+        int year = day.getYear();
+        boolean archived = archivePartitions.years().contains(year);
+        jdbcTemplate.update("DELETE FROM sales_rollup_hourly WHERE bucket_start >= ? AND bucket_start < ?", from, to);
+        String items = "SELECT o.order_date, o.id AS order_id, o.status, o.payment_status, p.concert_id, "
+                + "t.performance_id, t.ticket_type_id, oi.quantity, oi.subtotal "
+                + "FROM orders o JOIN order_items oi ON oi.order_id = o.id JOIN tickets t ON t.id = oi.ticket_id "
+                + "JOIN performances p ON p.id = t.performance_id WHERE o.order_date >= ? AND o.order_date < ?";
+        if (archived) {
+            // 封存明細另存了音樂會、場次與票種 id；關聯在封存前已缺漏的明細與基礎資料表一樣不計入
+            items += " UNION ALL SELECT o.order_date, o.id, o.status, o.payment_status, oi.concert_id, "
+                    + "oi.performance_id, oi.ticket_type_id, oi.quantity, oi.subtotal FROM "
+                    + ArchivePartitions.ordersTable(year) + " o JOIN " + ArchivePartitions.orderItemsTable(year)
+                    + " oi ON oi.order_id = o.id WHERE oi.performance_id IS NOT NULL AND oi.concert_id IS NOT NULL "
+                    + "AND oi.ticket_type_id IS NOT NULL AND o.order_date >= ? AND o.order_date < ?";
+        }
+        List<Object[]> sales = jdbcTemplate.query("SELECT HOUR(s.order_date), s.concert_id, s.performance_id, "
+                + "s.ticket_type_id, s.status, s.payment_status, COUNT(DISTINCT s.order_id), SUM(s.quantity), "
+                + "SUM(s.subtotal) FROM (" + items + ") s "
+                + "GROUP BY HOUR(s.order_date), s.concert_id, s.performance_id, s.ticket_type_id, s.status, "
+                + "s.payment_status",
+                (rs, rowNum) -> new Object[] { Timestamp.valueOf(day.atTime(rs.getInt(1), 0)), rs.getLong(2),
+                        rs.getLong(3), rs.getLong(4), rs.getString(5), rs.getString(6), rs.getInt(7), rs.getInt(8),
+                        rs.getBigDecimal(9) },
+                rangeArgs(from, to, archived));
+        insert("INSERT INTO sales_rollup_hourly (bucket_start, concert_id, performance_id, ticket_type_id, "
+                + "order_status, payment_status, order_count, ticket_count, amount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                sales);
+
+        // 訂單數與訂單總額取自 orders，張數由剛寫入的小時彙總加總，不再讀取明細
+        jdbcTemplate.update("DELETE FROM order_rollup_hourly WHERE bucket_start >= ? AND bucket_start < ?", from, to);
+        Map<String, Object[]> orders = new LinkedHashMap<>();
+        String headers = "SELECT order_date, status, payment_status, total_amount FROM orders "
+                + "WHERE order_date >= ? AND order_date < ?";
+        if (archived) {
+            headers += " UNION ALL SELECT order_date, status, payment_status, total_amount FROM "
+                    + ArchivePartitions.ordersTable(year) + " WHERE order_date >= ? AND order_date < ?";
+        }
+        jdbcTemplate.query("SELECT HOUR(s.order_date), s.status, s.payment_status, COUNT(*), SUM(s.total_amount) "
+                + "FROM (" + headers + ") s GROUP BY HOUR(s.order_date), s.status, s.payment_status",
+                rs -> {
+                    Timestamp bucket = Timestamp.valueOf(day.atTime(rs.getInt(1), 0));
+                    orders.put(bucket + "|" + rs.getString(2) + "|" + rs.getString(3), new Object[] { bucket,
+                            rs.getString(2), rs.getString(3), rs.getInt(4), 0, rs.getBigDecimal(5) });
+                },
+                rangeArgs(from, to, archived));
+        jdbcTemplate.query("SELECT bucket_start, order_status, payment_status, SUM(ticket_count) FROM sales_rollup_hourly "
+                + "WHERE bucket_start >= ? AND bucket_start < ? GROUP BY bucket_start, order_status, payment_status",
+                rs -> {
+                    Object[] row = orders.get(rs.getTimestamp(1) + "|" + rs.getString(2) + "|" + rs.getString(3));
+                    if (row != null) {
+                        row[4] = rs.getInt(4);
+                    }
+                },
+                from, to);
+        insert("INSERT INTO order_rollup_hourly (bucket_start, order_status, payment_status, order_count, ticket_count, "
+                + "amount) VALUES (?, ?, ?, ?, ?, ?)", new ArrayList<>(orders.values()));
+    }
+
+    /**
+     * 由當日的小時彙總重算每日彙總；每張訂單只屬於一個小時，加總後訂單數仍然正確
+     */
+    private void recomputeDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        jdbcTemplate.update("DELETE FROM sales_rollup_daily WHERE bucket_date = ?", day);
+        jdbcTemplate.update("INSERT INTO sales_rollup_daily (bucket_date, concert_id, performance_id, ticket_type_id, "
+                + "order_status, payment_status, order_count, ticket_count, amount) "
+                + "SELECT CAST(? AS DATE), concert_id, performance_id, ticket_type_id, order_status, payment_status, "
+                + "SUM(order_count), SUM(ticket_count), SUM(amount) FROM sales_rollup_hourly "
+                + "WHERE bucket_start >= ? AND bucket_start < ? "
+                + "GROUP BY concert_id, performance_id, ticket_type_id, order_status, payment_status", day, from, to);
+        jdbcTemplate.update("DELETE FROM order_rollup_daily WHERE bucket_date = ?", day);
+        jdbcTemplate.update("INSERT INTO order_rollup_daily (bucket_date, order_status, payment_status, order_count, "
+                + "ticket_count, amount) SELECT CAST(? AS DATE), order_status, payment_status, SUM(order_count), "
+                + "SUM(ticket_count), SUM(amount) FROM order_rollup_hourly WHERE bucket_start >= ? AND bucket_start < ? "
+                + "GROUP BY order_status, payment_status", day, from, to);
+    }
+
+    private static Object[] rangeArgs(LocalDateTime from, LocalDateTime to, boolean archived) {
+        return archived ? new Object[] { from, to, from, to } : new Object[] { from, to };
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.digitalconcerthall.service.archive;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 依下單年份分開的封存表
+ * 每個年份一組 orders_archive_YYYY、order_items_archive_YYYY、user_tickets_archive_YYYY，第一次封存該年份時建立，
+ * 並記錄在 archive_partitions。讀取端快取已建立的年份 app.archive.partition-cache-ms 毫秒，
+ * 新建立的年份要等超過快取時間才寫入，避免其他節點還沒看到新表就把資料搬過去，讓歷史紀錄短暫消失。
+ * 封存表不設外鍵，明細與票券另存音樂會、場次與票種名稱，過去的音樂會刪除後仍能顯示
+ */
+@Component
+public class ArchivePartitions {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivePartitions.class);
+
+    @Value("${app.archive.partition-cache-ms:30000}")
+    private long cacheMillis;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile List<Partition> cached;
+    private volatile long cachedAt;
+
+    public static String ordersTable(int year) {
+        return "orders_archive_" + year;
+    }
+
+    public static String orderItemsTable(int year) {
+        return "order_items_archive_" + year;
+    }
+
+    public static String userTicketsTable(int year) {
+        return "user_tickets_archive_" + year;
+    }
+
+    /**
+     * 已建立的年份，由新到舊
+     */
+    public List<Integer> years() {
+        List<Integer> years = new ArrayList<>();
+        for (Partition partition : partitions()) {
+            years.add(partition.year);
+        }
+        return years;
+    }
+
+    /**
+     * 指定年份已建立且所有節點的快取都已看到時才可寫入
+     */
+    public boolean isWritable(int year) {
+        LocalDateTime visibleBefore = LocalDateTime.now().minusNanos(cacheMillis * 1_000_000L);
+        for (Partition partition : partitions()) {
+            if (partition.year == year) {
+                return partition.createdAt.isBefore(visibleBefore);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 建立指定年份的封存表並登記；已存在時不做任何事
+     */
+    public void create(int year) {
+        if (years().contains(year)) {
+            return;
+        }
+        String orders = ordersTable(year);
+        String items = orderItemsTable(year);
+        String tickets = userTicketsTable(year);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + orders + " ("
+                + "id BIGINT NOT NULL PRIMARY KEY, "
+                + "order_number VARCHAR(255) NOT NULL, "
+                + "user_id BIGINT NOT NULL, "
+                + "order_date DATETIME(6) NOT NULL, "
+                + "total_amount DECIMAL(10,2) NOT NULL, "
+                + "status VARCHAR(20) NOT NULL, "
+                + "payment_method VARCHAR(50), "
+                + "payment_status VARCHAR(20) NOT NULL, "
+                + "archived_at DATETIME(6) NOT NULL, "
+                + "CONSTRAINT uk_" + orders + "_order_number UNIQUE (order_number))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + items + " ("
+                + "id BIGINT NOT NULL PRIMARY KEY, "
+                + "order_id BIGINT NOT NULL, "
+                + "ticket_id BIGINT NOT NULL, "
+                + "quantity INT NOT NULL, "
+                + "unit_price DECIMAL(10,2) NOT NULL, "
+                + "subtotal DECIMAL(10,2) NOT NULL, "
+                + "concert_id BIGINT, "
+                + "performance_id BIGINT, "
+                + "ticket_type_id BIGINT, "
+                + "concert_title VARCHAR(255), "
+                + "performance_venue VARCHAR(255), "
+                + "performance_start_time DATETIME(6), "
+                + "performance_end_time DATETIME(6), "
+                + "ticket_type_name VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + tickets + " ("
+                + "id BIGINT NOT NULL PRIMARY KEY, "
+                + "ticket_code VARCHAR(255) NOT NULL, "
+                + "user_id BIGINT NOT NULL, "
+                + "order_item_id BIGINT NOT NULL, "
+                + "order_id BIGINT NOT NULL, "
+                + "order_number VARCHAR(255) NOT NULL, "
+                + "is_used BOOLEAN NOT NULL, "
+                + "created_at DATETIME(6) NOT NULL, "
+                + "updated_at DATETIME(6) NOT NULL, "
+                + "concert_id BIGINT, "
+                + "concert_title VARCHAR(255), "
+                + "performance_venue VARCHAR(255), "
+                + "performance_start_time DATETIME(6), "
+                + "performance_end_time DATETIME(6), "
+                + "ticket_type_name VARCHAR(255))");
+        createIndex("idx_" + orders + "_user_date", orders, "user_id, order_date, id");
+        createIndex("idx_" + items + "_order", items, "order_id");
+        createIndex("idx_" + tickets + "_user_created", tickets, "user_id, created_at, id");
+        try {
+            jdbcTemplate.update("INSERT INTO archive_partitions (partition_year, created_at) VALUES (?, ?)",
+                    year, LocalDateTime.now());
+            logger.info("已建立 {} 年的封存表", year);
+        } catch (DuplicateKeyException e) {
+            logger.debug("{} 年的封存表已由其他節點登記", year);
+        }
+        cached = null;
+    }
+
+    private List<Partition> partitions() {
+        List<Partition> current = cached;
+        if (current == null || System.currentTimeMillis() - cachedAt > cacheMillis) {
+            current = Collections.unmodifiableList(jdbcTemplate.query(
+                    "SELECT partition_year, created_at FROM archive_partitions ORDER BY partition_year DESC",
+                    (rs, rowNum) -> new Partition(rs.getInt(1), rs.getTimestamp(2))));
+            cached = current;
+            cachedAt = System.currentTimeMillis();
+        }
+        return current;
+    }
+
+    private void createIndex(String name, String table, String columns) {
+        try {
+            jdbcTemplate.execute("CREATE INDEX " + name + " ON " + table + " (" + columns + ")");
+        } catch (DataAccessException e) {
+            // 上次建立到一半時索引已存在
+            logger.debug("略過建立索引 {}: {}", name, e.getMessage());
+        }
+    }
+
+    private static final class Partition {
+
+        final int year;
+        final LocalDateTime createdAt;
+
+        Partition(int year, Timestamp createdAt) {
+            this.year = year;
+            this.createdAt = createdAt.toLocalDateTime();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.digitalconcerthall.service.archive;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import com.digitalconcerthall.dto.response.ticket.UserTicketDetailResponse;
+import com.digitalconcerthall.dto.response.ticket.UserTicketSummaryResponse;
+import com.digitalconcerthall.repository.order.OrderHeaderView;
+import com.digitalconcerthall.repository.order.OrderItemView;
+import com.digitalconcerthall.util.SeekCursor;
+
+/**
+ * 讀取封存表中的訂單與票券，供使用者歷史紀錄與熱資料表的結果合併
+ * 排序與鍵集游標與熱資料表相同（訂單依 (order_date, id)、票券依 (created_at, id) 由新到舊），
+ * 封存時保留原本的 id，搬移前後的游標都有效。依年份分表，游標之後的年份不查詢
+ */
+@Service
+public class ArchivedHistoryService {
+
+    public static final Comparator<OrderHeaderView> ORDER_NEWEST_FIRST = Comparator
+            .comparing(OrderHeaderView::getOrderDate).thenComparing(OrderHeaderView::getId).reversed();
+
+    public static final Comparator<UserTicketSummaryResponse> TICKET_NEWEST_FIRST = Comparator
+            .comparing(UserTicketSummaryResponse::getCreatedAt).thenComparing(UserTicketSummaryResponse::getId)
+            .reversed();
+
+    private static final String TICKET_COLUMNS = "ut.id, ut.ticket_code, ut.concert_title, ut.performance_venue, "
+            + "ut.performance_start_time, ut.performance_end_time, ut.ticket_type_name, ut.is_used, ut.order_number, "
+            + "ut.created_at";
+
+    @Value("${app.archive.after-days:400}")
+    private int afterDays;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ArchivePartitions archivePartitions;
+
+    /**
+     * 是否有任何封存表；沒有時不需要查詢或合併
+     */
+    public boolean hasArchive() {
+        return !archivePartitions.years().isEmpty();
+    }
+
+    /**
+     * 封存的訂單都在這個時間之前下單：封存只搬移 after-days 天前的訂單，而這個界線只會往後移
+     */
+    public LocalDateTime archivedBefore() {
+        return LocalDateTime.now().minusDays(afterDays);
+    }
+
+    public long countOrders(Long userId) {
+        long total = 0;
+        for (int year : archivePartitions.years()) {
+            total += count("SELECT COUNT(*) FROM " + ArchivePartitions.ordersTable(year) + " WHERE user_id = ?", userId);
+        }
+        return total;
+    }
+
+    /**
+     * 使用者在游標之後（更舊）的封存訂單，最多 limit 筆
+     * @param after 上一頁最後一筆，null 為從最新開始
+     */
+    public List<OrderHeaderView> findOrders(Long userId, SeekCursor after, int limit) {
+        List<OrderHeaderView> rows = new ArrayList<>();
+        for (int year : archivePartitions.years()) {
+            if (after != null && year > after.getTimestamp().getYear()) {
+                continue;
+            }
+            if (rows.size() >= limit) {
+                // 年份由新到舊，較舊年份的訂單都排在已取得的之後
+                break;
+            }
+            String select = "SELECT id, order_number, order_date, total_amount, status, payment_method, payment_status "
+                    + "FROM " + ArchivePartitions.ordersTable(year) + " WHERE user_id = ? ";
+            RowMapper<OrderHeaderView> mapper = (rs, rowNum) -> toHeader(year, rs);
+            rows.addAll(after == null
+                    ? jdbcTemplate.query(select + "ORDER BY order_date DESC, id DESC LIMIT ?", mapper, userId, limit)
+                    : jdbcTemplate.query(select + "AND (order_date < ? OR (order_date = ? AND id < ?)) "
+                            + "ORDER BY order_date DESC, id DESC LIMIT ?", mapper, userId, after.getTimestamp(),
+                            after.getTimestamp(), after.getId(), limit));
+        }
+        rows.sort(ORDER_NEWEST_FIRST);
+        return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+    }
+
+    /**
+     * 依訂單編號查找封存訂單；ORD 開頭的編號含下單日期，先查該年份
+     */
+    public Optional<OrderHeaderView> findOrderByNumber(String orderNumber) {
+        List<Integer> years = new ArrayList<>(archivePartitions.years());
+        Integer numbered = yearOf(orderNumber);
+        if (numbered != null && years.remove(numbered)) {
+            years.add(0, numbered);
+        }
+        for (int year : years) {
+            List<OrderHeaderView> found = jdbcTemplate.query("SELECT id, order_number, order_date, total_amount, "
+                    + "status, payment_method, payment_status FROM " + ArchivePartitions.ordersTable(year)
+                    + " WHERE order_number = ?", (rs, rowNum) -> toHeader(year, rs), orderNumber);
+            if (!found.isEmpty()) {
+                return Optional.of(found.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 封存訂單的項目，每個年份一次 IN 查詢
+     */
+    public List<OrderItemView> findOrderItems(List<ArchivedOrderHeader> headers) {
+        Map<Integer, List<Long>> idsByYear = new TreeMap<>();
+        for (ArchivedOrderHeader header : headers) {
+            idsByYear.computeIfAbsent(header.getYear(), year -> new ArrayList<>()).add(header.getId());
+        }
+        List<OrderItemView> items = new ArrayList<>();
+        idsByYear.forEach((year, ids) -> items.addAll(jdbcTemplate.query("SELECT order_id, id, ticket_id, "
+                + "concert_title, performance_venue, performance_start_time, performance_end_time, ticket_type_name, "
+                + "quantity, unit_price, subtotal FROM " + ArchivePartitions.orderItemsTable(year) + " WHERE order_id IN ("
+                + ids.stream().map(id -> "?").collect(Collectors.joining(", ")) + ") ORDER BY order_id, id",
+                (rs, rowNum) -> new ArchivedOrderItem(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getString(4),
+                        rs.getString(5), toLocalDateTime(rs.getTimestamp(6)), toLocalDateTime(rs.getTimestamp(7)),
+                        rs.getString(8), rs.getInt(9), rs.getBigDecimal(10), rs.getBigDecimal(11)),
+                ids.toArray())));
+        return items;
+    }
+
+    public long countTickets(Long userId) {
+        long total = 0;
+        for (int year : archivePartitions.years()) {
+            total += count("SELECT COUNT(*) FROM " + ArchivePartitions.userTicketsTable(year) + " WHERE user_id = ?",
+                    userId);
+        }
+        return total;
+    }
+
+    /**
+     * 使用者在游標之後（更舊）的封存票券，最多 limit 筆
+     * 票券依訂單年份分表，建立時間可能晚於下單年份，只能略過游標之後的年份，其餘都要查詢
+     */
+    public List<UserTicketSummaryResponse> findTickets(Long userId, SeekCursor after, int limit) {
+        List<UserTicketSummaryResponse> rows = new ArrayList<>();
+        for (int year : archivePartitions.years()) {
+            if (after != null && year > after.getTimestamp().getYear()) {
+                continue;
+            }
+            String select = "SELECT " + TICKET_COLUMNS + " FROM " + ArchivePartitions.userTicketsTable(year)
+                    + " ut WHERE ut.user_id = ? ";
+            RowMapper<UserTicketSummaryResponse> mapper = (rs, rowNum) -> toTicketSummary(rs);
+            rows.addAll(after == null
+                    ? jdbcTemplate.query(select + "ORDER BY ut.created_at DESC, ut.id DESC LIMIT ?", mapper, userId, limit)
+                    : jdbcTemplate.query(select + "AND (ut.created_at < ? OR (ut.created_at = ? AND ut.id < ?)) "
+                            + "ORDER BY ut.created_at DESC, ut.id DESC LIMIT ?", mapper, userId, after.getTimestamp(),
+                            after.getTimestamp(), after.getId(), limit));
+        }
+        rows.sort(TICKET_NEWEST_FIRST);
+        return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+    }
+
+    /**
+     * 封存票券的詳情；海報、介紹與曲目取自音樂會目前的資料，音樂會已刪除時為空
+     */
+    public Optional<UserTicketDetailResponse> findTicketDetail(Long userTicketId, Long userId) {
+        for (int year : archivePartitions.years()) {
+            List<UserTicketDetailResponse> found = jdbcTemplate.query("SELECT " + TICKET_COLUMNS
+                    + ", c.poster_url, c.description, c.program_details FROM " + ArchivePartitions.userTicketsTable(year)
+                    + " ut LEFT JOIN concerts c ON c.id = ut.concert_id WHERE ut.id = ? AND ut.user_id = ?",
+                    (rs, rowNum) -> {
+                        UserTicketSummaryResponse summary = toTicketSummary(rs);
+                        return new UserTicketDetailResponse(summary.getId(), summary.getTicketCode(),
+                                summary.getConcertTitle(), summary.getPerformanceVenue(),
+                                summary.getPerformanceStartTime(), summary.getPerformanceEndTime(),
+                                summary.getTicketTypeName(), summary.getIsUsed(), summary.getOrderNumber(),
+                                summary.getCreatedAt(), rs.getString(11), rs.getString(12), rs.getString(13));
+                    }, userTicketId, userId);
+            if (!found.isEmpty()) {
+                return Optional.of(found.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private long count(String sql, Object... args) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return count != null ? count : 0L;
+    }
+
+    private static ArchivedOrderHeader toHeader(int year, ResultSet rs) throws SQLException {
+        return new ArchivedOrderHeader(year, rs.getLong(1), rs.getString(2), toLocalDateTime(rs.getTimestamp(3)),
+                rs.getBigDecimal(4), rs.getString(5), rs.getString(6), rs.getString(7));
+    }
+
+    private static UserTicketSummaryResponse toTicketSummary(ResultSet rs) throws SQLException {
+        return new UserTicketSummaryResponse(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                toLocalDateTime(rs.getTimestamp(5)), toLocalDateTime(rs.getTimestamp(6)), rs.getString(7),
+                rs.getBoolean(8), rs.getString(9), toLocalDateTime(rs.getTimestamp(10)));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    /**
+     * ORD + yyyyMMdd + 流水號格式的下單年份，其他格式為 null
+     */
+    private static Integer yearOf(String orderNumber) {
+        if (orderNumber == null || !orderNumber.startsWith("ORD") || orderNumber.length() < 7) {
+            return null;
+        }
+        String year = orderNumber.substring(3, 7);
+        return year.chars().allMatch(Character::isDigit) ? Integer.valueOf(year) : null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.digitalconcerthall.service.archive;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.digitalconcerthall.repository.order.OrderHeaderView;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 封存表中的訂單，與熱資料表的投影共用 {@link OrderHeaderView}；year 為所在的封存表年份
+ */
+@Getter
+@AllArgsConstructor
+public class ArchivedOrderHeader implements OrderHeaderView {
+
+    private final int year;
+    private final Long id;
+    private final String orderNumber;
+    private final LocalDateTime orderDate;
+    private final BigDecimal totalAmount;
+    private final String status;
+    private final String paymentMethod;
+    private final String paymentStatus;
+}
@@ -0,0 +1,29 @@
+package com.digitalconcerthall.service.archive;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.digitalconcerthall.repository.order.OrderItemView;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 封存表中的訂單項目，名稱取自封存時另存的欄位
+ */
+@Getter
+@AllArgsConstructor
+public class ArchivedOrderItem implements OrderItemView {
+
+    private final Long orderId;
+    private final Long id;
+    private final Long ticketId;
+    private final String concertTitle;
+    private final String performanceVenue;
+    private final LocalDateTime performanceStartTime;
+    private final LocalDateTime performanceEndTime;
+    private final String ticketTypeName;
+    private final Integer quantity;
+    private final BigDecimal unitPrice;
+    private final BigDecimal subtotal;
+}
@@ -0,0 +1,278 @@
+package com.digitalconcerthall.service.archive;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.digitalconcerthall.service.dashboard.DashboardMetricsService;
+import com.digitalconcerthall.service.job.JobLease;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.order.PendingOrderExpiryService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 已結束場次的訂單封存
+ * 下單超過 app.archive.after-days 天、且所有明細的場次都已在同一時間點之前結束的訂單，連同明細與使用者票券
+ * 搬到依下單年份分開的封存表（{@link ArchivePartitions}），讓使用者歷史紀錄與後台查詢的熱資料表維持在近期的大小。
+ * 依 (order_date, id) 鍵集分批，每批一個交易：鎖定訂單、複製到封存表、刪除原資料，讀取端不會看到重複或遺漏。
+ * 待付款與逾期訂單由 {@link PendingOrderExpiryService} 處理，不封存。
+ * 封存的訂單仍計入儀表板統計（{@link DashboardMetricsService#recordArchived}）；銷售彙總表保留原值不重算，
+ * 銷售明細快照的保留天數需小於 after-days
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    static final String JOB_NAME = "order-archive";
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.after-days:400}")
+    private int afterDays;
+
+    @Value("${app.archive.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.archive.lease-seconds:600}")
+    private int leaseSeconds;
+
+    @Value("${app.archive.interval-ms:3600000}")
+    private long intervalMs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private ArchivePartitions archivePartitions;
+
+    @Autowired
+    private ObjectProvider<DashboardMetricsService> dashboardMetricsService;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private TransactionTemplate transaction;
+    private Counter archivedCounter;
+    private Timer runTimer;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            archivedCounter = Counter.builder("app.archive.orders")
+                    .description("搬到封存表的訂單數")
+                    .register(registry);
+            runTimer = Timer.builder("app.archive.run")
+                    .description("訂單封存耗時")
+                    .register(registry);
+        }
+        jobRegistry.register(JOB_NAME, enabled, Duration.ofMillis(intervalMs), Duration.ofSeconds(leaseSeconds),
+                this::run);
+    }
+
+    /**
+     * 已到期且取得租約時執行一次封存；其他節點持有租約或本間隔已執行過時不執行
+     * @return 是否執行
+     */
+    public boolean runWithLease() {
+        return jobRegistry.runIfDue(JOB_NAME);
+    }
+
+    /**
+     * 持有租約時執行一次封存
+     * @return 封存的訂單數
+     */
+    private int run(JobLease lease) {
+        long start = System.nanoTime();
+        // 每次執行的時間上限，未處理的部分留給下一次
+        long deadline = start + Duration.ofSeconds(leaseSeconds).toNanos() / 2;
+        try {
+            int archived = archive(LocalDateTime.now().minusDays(afterDays), deadline, lease);
+            if (archived > 0) {
+                logger.info("訂單封存: {} 筆，耗時 {} ms", archived, Duration.ofNanos(System.nanoTime() - start).toMillis());
+            }
+            return archived;
+        } finally {
+            if (runTimer != null) {
+                runTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+    }
+
+    /**
+     * 封存 cutoff 之前下單、所有場次都在 cutoff 之前結束的訂單
+     * @return 封存的訂單數
+     */
+    public int archive(LocalDateTime cutoff) {
+        return archive(cutoff, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * @param lease 排程執行時的租約，每批確認權杖；直接呼叫時為 null
+     */
+    private int archive(LocalDateTime cutoff, long deadline, JobLease lease) {
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        int total = 0;
+        try {
+            OrderKey last = null;
+            while (System.nanoTime() < deadline && (lease == null || !lease.isLost())) {
+                List<OrderKey> batch = nextBatch(cutoff, last);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (Map.Entry<Integer, List<Long>> entry : groupByYear(batch).entrySet()) {
+                    total += archiveYear(entry.getKey(), entry.getValue(), lease);
+                }
+                last = batch.get(batch.size() - 1);
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+        return total;
+    }
+
+    private int archiveYear(int year, List<Long> orderIds, JobLease lease) {
+        if (!archivePartitions.isWritable(year)) {
+            archivePartitions.create(year);
+            if (!archivePartitions.isWritable(year)) {
+                // 新建立的年份等其他節點的快取更新後，下次再搬
+                logger.debug("{} 年的封存表剛建立，{} 筆訂單下次再封存", year, orderIds.size());
+                return 0;
+            }
+        }
+        String in = placeholders(orderIds.size());
+        Integer archived = transaction.execute(status -> {
+            if (lease != null) {
+                jobLeaseService.checkFence(lease);
+            }
+            List<Object> args = new ArrayList<>(orderIds);
+            args.add(PendingOrderExpiryService.STATUS_PENDING);
+            args.add(PendingOrderExpiryService.STATUS_EXPIRED);
+            // 鎖定並再次確認狀態，掃描之後被改回待付款的訂單不搬
+            List<Long> locked = jdbcTemplate.queryForList("SELECT id FROM orders WHERE id IN (" + in
+                    + ") AND status NOT IN (?, ?) ORDER BY id FOR UPDATE", Long.class, args.toArray());
+            if (locked.isEmpty()) {
+                return 0;
+            }
+            DashboardMetricsService dashboard = dashboardMetricsService.getIfAvailable();
+            if (dashboard != null) {
+                dashboard.recordArchived(locked);
+            }
+            String ids = placeholders(locked.size());
+            Object[] lockedArgs = locked.toArray();
+            jdbcTemplate.update("INSERT INTO " + ArchivePartitions.ordersTable(year) + " (id, order_number, user_id, "
+                    + "order_date, total_amount, status, payment_method, payment_status, archived_at) "
+                    + "SELECT id, order_number, user_id, order_date, total_amount, status, payment_method, "
+                    + "payment_status, CURRENT_TIMESTAMP(6) FROM orders WHERE id IN (" + ids + ")", lockedArgs);
+            // 明細與票券另存名稱，音樂會日後刪除也能顯示；LEFT JOIN 確保明細不會因關聯缺漏而遺失
+            jdbcTemplate.update("INSERT INTO " + ArchivePartitions.orderItemsTable(year) + " (id, order_id, ticket_id, "
+                    + "quantity, unit_price, subtotal, concert_id, performance_id, ticket_type_id, concert_title, "
+                    + "performance_venue, performance_start_time, performance_end_time, ticket_type_name) "
+                    + "SELECT oi.id, oi.order_id, oi.ticket_id, oi.quantity, oi.unit_price, oi.subtotal, c.id, p.id, "
+                    + "tt.id, c.title, p.venue, p.start_time, p.end_time, tt.name FROM order_items oi "
+                    + "LEFT JOIN tickets t ON t.id = oi.ticket_id LEFT JOIN performances p ON p.id = t.performance_id "
+                    + "LEFT JOIN concerts c ON c.id = p.concert_id LEFT JOIN ticket_types tt ON tt.id = t.ticket_type_id "
+                    + "WHERE oi.order_id IN (" + ids + ")", lockedArgs);
+            jdbcTemplate.update("INSERT INTO " + ArchivePartitions.userTicketsTable(year) + " (id, ticket_code, "
+                    + "user_id, order_item_id, order_id, order_number, is_used, created_at, updated_at, concert_id, "
+                    + "concert_title, performance_venue, performance_start_time, performance_end_time, ticket_type_name) "
+                    + "SELECT ut.id, ut.ticket_code, ut.user_id, ut.order_item_id, o.id, o.order_number, ut.is_used, "
+                    + "ut.created_at, ut.updated_at, c.id, c.title, p.venue, p.start_time, p.end_time, tt.name "
+                    + "FROM user_tickets ut JOIN order_items oi ON oi.id = ut.order_item_id "
+                    + "JOIN orders o ON o.id = oi.order_id LEFT JOIN tickets t ON t.id = oi.ticket_id "
+                    + "LEFT JOIN performances p ON p.id = t.performance_id LEFT JOIN concerts c ON c.id = p.concert_id "
+                    + "LEFT JOIN ticket_types tt ON tt.id = t.ticket_type_id WHERE oi.order_id IN (" + ids + ")",
+                    lockedArgs);
+
+            jdbcTemplate.update("DELETE FROM user_tickets WHERE order_item_id IN "
+                    + "(SELECT id FROM order_items WHERE order_id IN (" + ids + "))", lockedArgs);
+            jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (" + ids + ")", lockedArgs);
+            return jdbcTemplate.update("DELETE FROM orders WHERE id IN (" + ids + ")", lockedArgs);
+        });
+        int count = archived != null ? archived : 0;
+        if (archivedCounter != null) {
+            archivedCounter.increment(count);
+        }
+        return count;
+    }
+
+    /**
+     * 依 (order_date, id) 由舊到新讀取下一批可封存的訂單
+     */
+    private List<OrderKey> nextBatch(LocalDateTime cutoff, OrderKey after) {
+        String eligible = "SELECT o.id, o.order_date FROM orders o WHERE o.order_date < ? AND o.status NOT IN (?, ?) "
+                + "AND NOT EXISTS (SELECT 1 FROM order_items oi JOIN tickets t ON t.id = oi.ticket_id "
+                + "JOIN performances p ON p.id = t.performance_id WHERE oi.order_id = o.id AND p.end_time >= ?) ";
+        if (after == null) {
+            return jdbcTemplate.query(eligible + "ORDER BY o.order_date, o.id LIMIT ?",
+                    (rs, rowNum) -> new OrderKey(rs.getLong(1), rs.getTimestamp(2)),
+                    cutoff, PendingOrderExpiryService.STATUS_PENDING, PendingOrderExpiryService.STATUS_EXPIRED,
+                    cutoff, batchSize);
+        }
+        return jdbcTemplate.query(eligible + "AND (o.order_date > ? OR (o.order_date = ? AND o.id > ?)) "
+                + "ORDER BY o.order_date, o.id LIMIT ?",
+                (rs, rowNum) -> new OrderKey(rs.getLong(1), rs.getTimestamp(2)),
+                cutoff, PendingOrderExpiryService.STATUS_PENDING, PendingOrderExpiryService.STATUS_EXPIRED,
+                cutoff, after.orderDate, after.orderDate, after.id, batchSize);
+    }
+
+    private static Map<Integer, List<Long>> groupByYear(List<OrderKey> batch) {
+        Map<Integer, List<Long>> byYear = new TreeMap<>();
+        for (OrderKey key : batch) {
+            byYear.computeIfAbsent(key.orderDate.toLocalDateTime().getYear(), year -> new ArrayList<>()).add(key.id);
+        }
+        return byYear;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static final class OrderKey {
+
+        final long id;
+        final Timestamp orderDate;
+
+        OrderKey(long id, Timestamp orderDate) {
+            this.id = id;
+            this.orderDate = orderDate;
+        }
+    }
+}
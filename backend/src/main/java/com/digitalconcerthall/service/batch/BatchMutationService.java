@@ -0,0 +1,388 @@
+package com.digitalconcerthall.service.batch;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.dto.request.batch.BatchInventoryRequest;
+import com.digitalconcerthall.dto.request.batch.BatchItem;
+import com.digitalconcerthall.dto.request.batch.BatchRescheduleRequest;
+import com.digitalconcerthall.dto.request.batch.BatchStatusRequest;
+import com.digitalconcerthall.dto.response.batch.BatchMutationResponse;
+import com.digitalconcerthall.dto.response.batch.BatchMutationResponse.ItemResult;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.search.ConcertSearchService;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 後台批次更新：音樂會與場次狀態、場次時間、票券庫存
+ * 每個批次在一個交易中先以一次 SELECT ... FOR UPDATE 鎖定並讀取所有項目，在記憶體中逐項判斷
+ * （不存在、版本衝突、內容不合法），再以一條 UPDATE ... WHERE id IN (...) 或一次 JDBC 批次寫入可更新的項目。
+ * 音樂會與場次的 version 與 JPA @Version 是同一欄位，批次更新後以舊版本送出的單筆編輯也會被拒絕。
+ * 直接以 SQL 更新不會觸發 JPA 事件，音樂會摘要與搜尋索引在提交後另行更新
+ */
+@Service
+public class BatchMutationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchMutationService.class);
+
+    static final Set<String> CONCERT_STATUSES = Set.of("active", "inactive", "upcoming", "past");
+    static final Set<String> PERFORMANCE_STATUSES = Set.of("scheduled", "active", "live", "completed", "cancelled");
+
+    @Value("${app.admin.batch.max-items:1000}")
+    private int maxItems;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private ConcertSearchService concertSearchService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @throws IllegalArgumentException 狀態不合法或項目數量超過上限
+     */
+    public BatchMutationResponse updateConcertStatus(BatchStatusRequest request) {
+        checkStatus(request.getStatus(), CONCERT_STATUSES);
+        return run("音樂會狀態", request.getItems().size(), () -> {
+            List<Long> ids = ids(request.getItems());
+            Map<Long, Map<String, Object>> rows = lock("SELECT id, version FROM concerts", ids);
+            Batch batch = new Batch(request.getItems().size());
+            List<Long> updatable = new ArrayList<>();
+            for (BatchItem item : request.getItems()) {
+                if (batch.accept(item.getId(), item.getExpectedVersion(), rows)) {
+                    updatable.add(item.getId());
+                }
+            }
+            if (batch.commit(request.isAtomic()) && !updatable.isEmpty()) {
+                jdbcTemplate.update("UPDATE concerts SET status = ?, updated_at = ?, version = version + 1 WHERE id IN ("
+                        + placeholders(updatable.size()) + ")", prepend(updatable, request.getStatus(), LocalDateTime.now()));
+                // 狀態決定是否出現在搜尋結果與公開列表
+                concertSearchService.reindex(updatable);
+                concertSummaryService.refresh(updatable);
+            }
+            return batch.toResponse();
+        });
+    }
+
+    public BatchMutationResponse updatePerformanceStatus(BatchStatusRequest request) {
+        checkStatus(request.getStatus(), PERFORMANCE_STATUSES);
+        return run("演出場次狀態", request.getItems().size(), () -> {
+            List<Long> ids = ids(request.getItems());
+            Map<Long, Map<String, Object>> rows = lock("SELECT id, version, concert_id FROM performances", ids);
+            Batch batch = new Batch(request.getItems().size());
+            List<Long> updatable = new ArrayList<>();
+            Set<Long> concertIds = new HashSet<>();
+            for (BatchItem item : request.getItems()) {
+                if (batch.accept(item.getId(), item.getExpectedVersion(), rows)) {
+                    updatable.add(item.getId());
+                    concertIds.add(longValue(rows.get(item.getId()).get("concert_id")));
+                }
+            }
+            if (batch.commit(request.isAtomic()) && !updatable.isEmpty()) {
+                jdbcTemplate.update("UPDATE performances SET status = ?, version = version + 1 WHERE id IN ("
+                        + placeholders(updatable.size()) + ")", prepend(updatable, request.getStatus()));
+                concertSummaryService.refresh(concertIds);
+                concertSearchService.reindex(concertIds);
+            }
+            return batch.toResponse();
+        });
+    }
+
+    public BatchMutationResponse reschedulePerformances(BatchRescheduleRequest request) {
+        return run("演出場次時間", request.getItems().size(), () -> {
+            List<Long> ids = new ArrayList<>();
+            request.getItems().forEach(item -> ids.add(item.getId()));
+            Map<Long, Map<String, Object>> rows = lock(
+                    "SELECT id, version, concert_id, start_time, end_time FROM performances", ids);
+            Batch batch = new Batch(request.getItems().size());
+            List<Object[]> updates = new ArrayList<>();
+            Set<Long> concertIds = new HashSet<>();
+            for (BatchRescheduleRequest.Item item : request.getItems()) {
+                if (!batch.accept(item.getId(), item.getExpectedVersion(), rows)) {
+                    continue;
+                }
+                Map<String, Object> row = rows.get(item.getId());
+                LocalDateTime currentStart = toLocalDateTime(row.get("start_time"));
+                LocalDateTime currentEnd = toLocalDateTime(row.get("end_time"));
+                LocalDateTime startTime;
+                LocalDateTime endTime;
+                if (request.getShiftMinutes() != null) {
+                    startTime = currentStart.plusMinutes(request.getShiftMinutes());
+                    endTime = currentEnd.plusMinutes(request.getShiftMinutes());
+                } else if (item.getStartTime() == null) {
+                    batch.reject("未提供 startTime 或 shiftMinutes");
+                    continue;
+                } else {
+                    startTime = item.getStartTime();
+                    if (item.getEndTime() != null) {
+                        endTime = item.getEndTime();
+                    } else if (item.getDuration() != null) {
+                        endTime = startTime.plusMinutes(item.getDuration());
+                    } else {
+                        endTime = startTime.plus(Duration.between(currentStart, currentEnd));
+                    }
+                }
+                if (!endTime.isAfter(startTime)) {
+                    batch.reject("結束時間必須晚於開始時間");
+                    continue;
+                }
+                batch.updated(longValue(row.get("version")) + 1);
+                updates.add(new Object[] { startTime, endTime, item.getId() });
+                concertIds.add(longValue(row.get("concert_id")));
+            }
+            if (batch.commit(request.isAtomic()) && !updates.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE performances SET start_time = ?, end_time = ?, version = version + 1 "
+                        + "WHERE id = ?", updates);
+                concertSummaryService.refresh(concertIds);
+                concertSearchService.reindex(concertIds);
+            }
+            return batch.toResponse();
+        });
+    }
+
+    /**
+     * 票券沒有版本欄位（下單時會直接扣減庫存），以增減量更新；鎖定後檢查調整結果是否合法
+     */
+    public BatchMutationResponse adjustInventory(BatchInventoryRequest request) {
+        return run("票券庫存", request.getItems().size(), () -> {
+            List<Long> ids = new ArrayList<>();
+            request.getItems().forEach(item -> ids.add(item.getTicketId()));
+            Map<Long, Map<String, Object>> rows = lock(
+                    "SELECT id, performance_id, total_quantity, available_quantity FROM tickets", ids);
+            Batch batch = new Batch(request.getItems().size());
+            List<Object[]> updates = new ArrayList<>();
+            Set<Long> performanceIds = new HashSet<>();
+            for (BatchInventoryRequest.Item item : request.getItems()) {
+                if (!batch.accept(item.getTicketId(), null, rows)) {
+                    continue;
+                }
+                Map<String, Object> row = rows.get(item.getTicketId());
+                int total = ((Number) row.get("total_quantity")).intValue();
+                int available = ((Number) row.get("available_quantity")).intValue();
+                int availableDelta = item.getAvailableQuantityDelta() != null
+                        ? item.getAvailableQuantityDelta() : item.getTotalQuantityDelta();
+                int newTotal = total + item.getTotalQuantityDelta();
+                int newAvailable = available + availableDelta;
+                if (newTotal < total - available) {
+                    batch.reject("總數量不能小於已售出數量");
+                    continue;
+                }
+                if (newAvailable < 0 || newAvailable > newTotal) {
+                    batch.reject("可用數量必須介於 0 與總數量之間");
+                    continue;
+                }
+                batch.updated(null);
+                updates.add(new Object[] { item.getTotalQuantityDelta(), availableDelta, item.getTicketId() });
+                performanceIds.add(longValue(row.get("performance_id")));
+            }
+            if (batch.commit(request.isAtomic()) && !updates.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE tickets SET total_quantity = total_quantity + ?, "
+                        + "available_quantity = available_quantity + ? WHERE id = ?", updates);
+                List<Long> concertIds = jdbcTemplate.queryForList("SELECT DISTINCT concert_id FROM performances "
+                        + "WHERE id IN (" + placeholders(performanceIds.size()) + ")", Long.class,
+                        performanceIds.toArray());
+                concertSummaryService.refresh(concertIds);
+                concertSearchService.reindex(concertIds);
+            }
+            return batch.toResponse();
+        });
+    }
+
+    private BatchMutationResponse run(String name, int items, java.util.function.Supplier<BatchMutationResponse> work) {
+        if (items == 0) {
+            throw new IllegalArgumentException("沒有要更新的項目");
+        }
+        if (items > maxItems) {
+            throw new IllegalArgumentException("單一批次最多 " + maxItems + " 項");
+        }
+        long start = System.nanoTime();
+        BatchMutationResponse response = transaction.execute(status -> work.get());
+        response.setDurationMs(Duration.ofNanos(System.nanoTime() - start).toMillis());
+        logger.info("批次更新{}: {} 項，更新 {}、不存在 {}、衝突 {}、拒絕 {}，耗時 {} ms", name, response.getRequested(),
+                response.getUpdated(), response.getNotFound(), response.getConflicts(), response.getRejected(),
+                response.getDurationMs());
+        return response;
+    }
+
+    /**
+     * 鎖定並讀取指定 ID 的資料列，以 id 為鍵
+     */
+    private Map<Long, Map<String, Object>> lock(String select, List<Long> ids) {
+        List<Long> present = new ArrayList<>();
+        ids.stream().filter(id -> id != null).distinct().forEach(present::add);
+        Map<Long, Map<String, Object>> rows = new HashMap<>();
+        if (present.isEmpty()) {
+            return rows;
+        }
+        // 依 ID 順序鎖定，避免兩個重疊的批次互相等待
+        Collections.sort(present);
+        for (Map<String, Object> row : jdbcTemplate.queryForList(select + " WHERE id IN ("
+                + placeholders(present.size()) + ") ORDER BY id FOR UPDATE", present.toArray())) {
+            rows.put(longValue(row.get("id")), row);
+        }
+        return rows;
+    }
+
+    private static void checkStatus(String status, Set<String> allowed) {
+        if (status == null || !allowed.contains(status)) {
+            throw new IllegalArgumentException("無效的狀態值");
+        }
+    }
+
+    private static List<Long> ids(List<BatchItem> items) {
+        List<Long> ids = new ArrayList<>(items.size());
+        items.forEach(item -> ids.add(item.getId()));
+        return ids;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static Object[] prepend(List<Long> ids, Object... leading) {
+        Object[] args = new Object[leading.length + ids.size()];
+        System.arraycopy(leading, 0, args, 0, leading.length);
+        for (int i = 0; i < ids.size(); i++) {
+            args[leading.length + i] = ids.get(i);
+        }
+        return args;
+    }
+
+    private static long longValue(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    /**
+     * 依請求順序累積各項結果
+     */
+    private static final class Batch {
+
+        private final List<ItemResult> results;
+        private final Set<Long> seen = new HashSet<>();
+        private ItemResult current;
+        private boolean failed;
+
+        Batch(int size) {
+            this.results = new ArrayList<>(size);
+        }
+
+        /**
+         * 檢查項目是否存在、未重複且版本相符
+         * @return 可以更新時返回 true，呼叫端接著以 {@link #updated(Long)} 或 {@link #reject(String)} 決定結果
+         */
+        boolean accept(Long id, Long expectedVersion, Map<Long, Map<String, Object>> rows) {
+            current = new ItemResult(id, null, null, null);
+            results.add(current);
+            if (id == null) {
+                return fail(BatchMutationResponse.REJECTED, "缺少 id");
+            }
+            if (!seen.add(id)) {
+                return fail(BatchMutationResponse.REJECTED, "重複的項目");
+            }
+            Map<String, Object> row = rows.get(id);
+            if (row == null) {
+                return fail(BatchMutationResponse.NOT_FOUND, null);
+            }
+            if (row.containsKey("version")) {
+                long version = longValue(row.get("version"));
+                current.setVersion(version);
+                if (expectedVersion != null && expectedVersion != version) {
+                    return fail(BatchMutationResponse.CONFLICT, "目前版本為 " + version);
+                }
+                current.setVersion(version + 1);
+            }
+            current.setResult(BatchMutationResponse.UPDATED);
+            return true;
+        }
+
+        void updated(Long version) {
+            current.setResult(BatchMutationResponse.UPDATED);
+            if (version != null) {
+                current.setVersion(version);
+            }
+        }
+
+        void reject(String message) {
+            fail(BatchMutationResponse.REJECTED, message);
+            Long version = current.getVersion();
+            if (version != null) {
+                current.setVersion(version - 1);
+            }
+        }
+
+        private boolean fail(String result, String message) {
+            current.setResult(result);
+            current.setMessage(message);
+            failed = true;
+            return false;
+        }
+
+        /**
+         * @return 是否要寫入可更新的項目；atomic 批次有任何失敗時改標為 SKIPPED
+         */
+        boolean commit(boolean atomic) {
+            if (atomic && failed) {
+                for (ItemResult result : results) {
+                    if (BatchMutationResponse.UPDATED.equals(result.getResult())) {
+                        result.setResult(BatchMutationResponse.SKIPPED);
+                        if (result.getVersion() != null) {
+                            result.setVersion(result.getVersion() - 1);
+                        }
+                    }
+                }
+                return false;
+            }
+            return true;
+        }
+
+        BatchMutationResponse toResponse() {
+            BatchMutationResponse response = new BatchMutationResponse();
+            response.setRequested(results.size());
+            for (ItemResult result : results) {
+                switch (result.getResult()) {
+                    case BatchMutationResponse.UPDATED -> response.setUpdated(response.getUpdated() + 1);
+                    case BatchMutationResponse.NOT_FOUND -> response.setNotFound(response.getNotFound() + 1);
+                    case BatchMutationResponse.CONFLICT -> response.setConflicts(response.getConflicts() + 1);
+                    case BatchMutationResponse.REJECTED -> response.setRejected(response.getRejected() + 1);
+                    default -> { }
+                }
+            }
+            response.setResults(results);
+            return response;
+        }
+    }
+}
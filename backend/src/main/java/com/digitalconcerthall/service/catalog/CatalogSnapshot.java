@@ -0,0 +1,73 @@
+package com.digitalconcerthall.service.catalog;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.digitalconcerthall.dto.response.ConcertPerformanceResponse;
+import com.digitalconcerthall.dto.response.ConcertResponse;
+import com.digitalconcerthall.dto.response.ticket.TicketTypeClientResponse;
+
+/**
+ * 目錄快照
+ * 建立後不再修改，由所有請求共用；內含的 DTO 只供序列化，不可在取用後變更
+ */
+public final class CatalogSnapshot {
+
+    private final Map<String, List<ConcertResponse>> concertsByStatus;
+    private final Map<Long, ConcertPerformanceResponse> concertDetails;
+    private final Map<Long, List<TicketTypeClientResponse>> ticketsByPerformance;
+    private final long fingerprint;
+    private final long builtAt;
+
+    CatalogSnapshot(Map<String, List<ConcertResponse>> concertsByStatus,
+            Map<Long, ConcertPerformanceResponse> concertDetails,
+            Map<Long, List<TicketTypeClientResponse>> ticketsByPerformance,
+            long fingerprint, long builtAt) {
+        this.concertsByStatus = Collections.unmodifiableMap(concertsByStatus);
+        this.concertDetails = Collections.unmodifiableMap(concertDetails);
+        this.ticketsByPerformance = Collections.unmodifiableMap(ticketsByPerformance);
+        this.fingerprint = fingerprint;
+        this.builtAt = builtAt;
+    }
+
+    /**
+     * 指定狀態（active、upcoming、past）的音樂會列表，不支援的狀態返回 null
+     */
+    public List<ConcertResponse> getConcerts(String status) {
+        return concertsByStatus.get(status);
+    }
+
+    /**
+     * 上架中（active）音樂會的詳細資訊，不存在返回 null
+     */
+    public ConcertPerformanceResponse getConcertDetail(Long concertId) {
+        return concertDetails.get(concertId);
+    }
+
+    /**
+     * 場次的票券與剩餘數量，不在目錄中返回 null
+     */
+    public List<TicketTypeClientResponse> getTickets(Long performanceId) {
+        return ticketsByPerformance.get(performanceId);
+    }
+
+    /**
+     * 依內容計算的指紋，資料沒有變動時重建也不會改變，供 ETag 使用
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getETag() {
+        return "\"catalog-" + Long.toHexString(fingerprint) + "\"";
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    public long ageMs() {
+        return System.currentTimeMillis() - builtAt;
+    }
+}
@@ -0,0 +1,265 @@
+package com.digitalconcerthall.service.catalog;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.digitalconcerthall.dto.response.ConcertPerformanceResponse;
+import com.digitalconcerthall.dto.response.ConcertResponse;
+import com.digitalconcerthall.dto.response.ticket.TicketTypeClientResponse;
+import com.digitalconcerthall.model.concert.Concert;
+import com.digitalconcerthall.model.concert.ConcertSummary;
+import com.digitalconcerthall.repository.CatalogTicketView;
+import com.digitalconcerthall.repository.TicketRepository;
+import com.digitalconcerthall.repository.concert.CatalogPerformanceView;
+import com.digitalconcerthall.repository.concert.ConcertRepository;
+import com.digitalconcerthall.repository.concert.PerformanceRepository;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 目錄快照服務
+ * 在背景線程以投影查詢與音樂會摘要建立整份公開目錄（音樂會列表、詳情、各場次票券），請求直接讀取記憶體中的快照。
+ * 快照過期後仍先回傳舊資料並在背景重建（stale-while-revalidate），同一時間只會有一個重建在執行；
+ * 只有啟動後第一次建立完成前的請求需要等待，且等待期間不占用 servlet 線程。
+ * 剩餘數量最多落後 app.catalog.max-age-ms，下單時仍以資料庫庫存為準
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    static final String STATUS_ACTIVE = "active";
+    static final List<String> CATALOG_STATUSES = List.of(STATUS_ACTIVE, "upcoming", "past");
+
+    @Value("${app.catalog.max-age-ms:5000}")
+    private long maxAgeMs;
+
+    @Autowired
+    private ConcertRepository concertRepository;
+
+    @Autowired
+    private PerformanceRepository performanceRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<CatalogSnapshot>> refreshing = new AtomicReference<>();
+    private ExecutorService refreshExecutor;
+    private TransactionTemplate readOnlyTransaction;
+    private Timer refreshTimer;
+
+    @PostConstruct
+    public void init() {
+        refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            refreshTimer = Timer.builder("app.catalog.refresh")
+                    .description("目錄快照重建耗時")
+                    .register(registry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * 取得目前快照；已有快照時立即完成，過期時同時觸發背景重建
+     */
+    public CompletableFuture<CatalogSnapshot> getSnapshot() {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            return refresh();
+        }
+        if (snapshot.ageMs() > maxAgeMs) {
+            refresh();
+        }
+        return CompletableFuture.completedFuture(snapshot);
+    }
+
+    /**
+     * 觸發重建；已有重建在執行時回傳同一個 future
+     */
+    public CompletableFuture<CatalogSnapshot> refresh() {
+        while (true) {
+            CompletableFuture<CatalogSnapshot> inFlight = refreshing.get();
+            if (inFlight != null) {
+                return inFlight;
+            }
+            CompletableFuture<CatalogSnapshot> future = new CompletableFuture<>();
+            if (refreshing.compareAndSet(null, future)) {
+                refreshExecutor.execute(() -> rebuild(future));
+                return future;
+            }
+        }
+    }
+
+    public long getMaxAgeMs() {
+        return maxAgeMs;
+    }
+
+    private void rebuild(CompletableFuture<CatalogSnapshot> future) {
+        long start = System.nanoTime();
+        Workload previous = WorkloadContext.enter(Workload.BROWSE);
+        try {
+            CatalogSnapshot snapshot = readOnlyTransaction.execute(status -> build());
+            current.set(snapshot);
+            // 先清除再完成：完成之後才呼叫 refresh() 的人不會拿到這個已完成的舊 future
+            refreshing.compareAndSet(future, null);
+            future.complete(snapshot);
+            logger.debug("目錄快照已重建，耗時 {} ms", Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (RuntimeException e) {
+            logger.warn("目錄快照重建失敗，繼續使用舊快照: {}", e.getMessage());
+            refreshing.compareAndSet(future, null);
+            future.completeExceptionally(e);
+        } finally {
+            WorkloadContext.restore(previous);
+            refreshing.compareAndSet(future, null);
+            if (refreshTimer != null) {
+                refreshTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+    }
+
+    private CatalogSnapshot build() {
+        List<Concert> concerts = concertRepository.findByStatusIn(CATALOG_STATUSES);
+        List<CatalogPerformanceView> performances = performanceRepository.findCatalogViews(CATALOG_STATUSES);
+        List<CatalogTicketView> tickets = ticketRepository.findCatalogViews(CATALOG_STATUSES);
+
+        long fingerprint = 1;
+        Map<Long, List<TicketTypeClientResponse>> ticketsByPerformance = new HashMap<>();
+        for (CatalogTicketView ticket : tickets) {
+            ticketsByPerformance.computeIfAbsent(ticket.getPerformanceId(), id -> new ArrayList<>())
+                    .add(toTicketResponse(ticket));
+            fingerprint = 31 * fingerprint + Objects.hash(ticket.getId(), ticket.getPerformanceId(),
+                    ticket.getTicketTypeId(), ticket.getName(), ticket.getDescription(), ticket.getPrice(),
+                    ticket.getColorCode(), ticket.getAvailableQuantity());
+        }
+
+        Map<Long, List<CatalogPerformanceView>> performancesByConcert = new HashMap<>();
+        for (CatalogPerformanceView performance : performances) {
+            performancesByConcert.computeIfAbsent(performance.getConcertId(), id -> new ArrayList<>()).add(performance);
+            ticketsByPerformance.putIfAbsent(performance.getId(), new ArrayList<>());
+            fingerprint = 31 * fingerprint + Objects.hash(performance.getId(), performance.getConcertId(),
+                    performance.getStartTime(), performance.getEndTime(), performance.getVenue(),
+                    performance.getStatus());
+        }
+
+        Map<Long, ConcertSummary> summaries = concertSummaryService.findSummaries(
+                concerts.stream().map(Concert::getId).collect(Collectors.toList()));
+        Map<String, List<ConcertResponse>> concertsByStatus = new LinkedHashMap<>();
+        CATALOG_STATUSES.forEach(status -> concertsByStatus.put(status, new ArrayList<>()));
+        Map<Long, ConcertPerformanceResponse> concertDetails = new HashMap<>();
+        for (Concert concert : concerts) {
+            List<CatalogPerformanceView> concertPerformances =
+                    performancesByConcert.getOrDefault(concert.getId(), Collections.emptyList());
+            ConcertSummary summary = summaries.get(concert.getId());
+            concertsByStatus.get(concert.getStatus()).add(concertSummaryService.toResponse(concert, summary));
+            if (STATUS_ACTIVE.equals(concert.getStatus())) {
+                concertDetails.put(concert.getId(), toDetailResponse(concert, concertPerformances, ticketsByPerformance));
+            }
+            fingerprint = 31 * fingerprint + Objects.hash(concert.getId(), concert.getTitle(),
+                    concert.getDescription(), concert.getProgramDetails(), concert.getPosterUrl(),
+                    concert.getBrochureUrl(), concert.getStatus(), summary.getPerformanceCount(),
+                    summary.getMinPrice(), summary.getMaxPrice(), summary.getFirstStartTime(),
+                    summary.getNextStartTime(), summary.getVenues(), summary.getRemainingCapacity());
+        }
+
+        ticketsByPerformance.replaceAll((id, list) -> Collections.unmodifiableList(list));
+        concertsByStatus.replaceAll((status, list) -> Collections.unmodifiableList(list));
+        return new CatalogSnapshot(concertsByStatus, concertDetails, ticketsByPerformance, fingerprint,
+                System.currentTimeMillis());
+    }
+
+    private static ConcertPerformanceResponse toDetailResponse(Concert concert,
+            List<CatalogPerformanceView> performances, Map<Long, List<TicketTypeClientResponse>> ticketsByPerformance) {
+        ConcertPerformanceResponse response = new ConcertPerformanceResponse();
+        response.setId(concert.getId());
+        response.setTitle(concert.getTitle());
+        response.setDescription(concert.getDescription());
+        response.setPosterUrl(concert.getPosterUrl());
+        response.setStatus(concert.getStatus());
+
+        List<ConcertPerformanceResponse.PerformanceInfo> infos = new ArrayList<>(performances.size());
+        for (CatalogPerformanceView performance : performances) {
+            ConcertPerformanceResponse.PerformanceInfo info = new ConcertPerformanceResponse.PerformanceInfo();
+            info.setId(performance.getId());
+            info.setStartTime(performance.getStartTime());
+            info.setEndTime(performance.getEndTime());
+            info.setVenue(performance.getVenue());
+            info.setStatus(performance.getStatus());
+            info.setDuration(performance.getStartTime() != null && performance.getEndTime() != null
+                    ? (int) Duration.between(performance.getStartTime(), performance.getEndTime()).toMinutes()
+                    : 120);
+            info.setTickets(ticketsByPerformance.get(performance.getId()));
+            infos.add(info);
+        }
+        response.setPerformances(infos);
+        return response;
+    }
+
+    private static TicketTypeClientResponse toTicketResponse(CatalogTicketView ticket) {
+        TicketTypeClientResponse response = new TicketTypeClientResponse();
+        response.setId(ticket.getId());
+        response.setPerformanceId(ticket.getPerformanceId());
+        response.setAvailableQuantity(ticket.getAvailableQuantity());
+        if (ticket.getTicketTypeId() != null) {
+            response.setTicketTypeId(ticket.getTicketTypeId());
+            response.setName(ticket.getName());
+            response.setDescription(ticket.getDescription());
+            response.setColorCode(ticket.getColorCode());
+            response.setPrice(ticket.getPrice());
+        } else {
+            // 與 ConcertController 相同的票種缺漏預設值
+            response.setName("未知票種");
+            response.setDescription("");
+            response.setColorCode("#cccccc");
+            response.setPrice(BigDecimal.ZERO);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,459 @@
+package com.digitalconcerthall.service.concert;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.digitalconcerthall.dto.response.ConcertResponse;
+import com.digitalconcerthall.dto.response.concert.ConcertSummaryConsistencyResponse;
+import com.digitalconcerthall.model.concert.Concert;
+import com.digitalconcerthall.model.concert.ConcertSummary;
+import com.digitalconcerthall.repository.concert.ConcertSummaryRepository;
+import com.digitalconcerthall.repository.concert.ConcertSummaryRepository.PerformanceAggregate;
+import com.digitalconcerthall.repository.concert.ConcertSummaryRepository.TicketAggregate;
+import com.digitalconcerthall.repository.concert.ConcertSummaryRepository.VenueView;
+import com.digitalconcerthall.service.job.JobLease;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 音樂會摘要服務
+ * 維護 concert_summary 表，音樂會列表直接讀取摘要，不再走訪每個場次的票券：
+ * 後台編輯場次、票券、票種後重算受影響的音樂會；下單扣庫存只在交易提交後對剩餘數量做增量更新，
+ * 不在下單交易中鎖住整個音樂會的摘要列。
+ * 增量更新失敗、或與其他寫入交錯造成的偏差，由排程的一致性檢查重算全部摘要後回報並修正。
+ * 一致性檢查與下一場時間前移登記在 {@link JobRegistry}，叢集每個間隔只由一個節點執行
+ */
+@Service
+public class ConcertSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcertSummaryService.class);
+
+    private static final int CHECK_BATCH_SIZE = 500;
+    private static final int SAMPLE_LIMIT = 20;
+    private static final String PENDING_DELTAS_KEY = ConcertSummaryService.class.getName() + ".pendingDeltas";
+    static final String CHECK_JOB_NAME = "concert-summary-check";
+    static final String NEXT_START_JOB_NAME = "concert-summary-next-start";
+    /** 每批摘要在一個交易內完成，執行期間由 JobRegistry 續約 */
+    private static final Duration JOB_LEASE = Duration.ofMinutes(5);
+
+    @Value("${app.concert-summary.check-interval-ms:600000}")
+    private long checkIntervalMs;
+
+    @Value("${app.concert-summary.next-start-refresh-ms:60000}")
+    private long nextStartRefreshMs;
+
+    @Autowired
+    private ConcertSummaryRepository concertSummaryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    private TransactionTemplate writeTransaction;
+    private final AtomicInteger lastDrift = new AtomicInteger();
+    private Counter repairedCounter;
+
+    @PostConstruct
+    public void init() {
+        // 提交後的更新在呼叫端交易之外執行，需要獨立的交易
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("app.concert_summary.drift", lastDrift, AtomicInteger::get)
+                    .description("最近一次一致性檢查發現的缺漏與偏差摘要數")
+                    .register(registry);
+            repairedCounter = Counter.builder("app.concert_summary.repaired")
+                    .description("一致性檢查修正的摘要數")
+                    .register(registry);
+        }
+        jobRegistry.register(CHECK_JOB_NAME, true, Duration.ofMillis(checkIntervalMs), JOB_LEASE,
+                lease -> checkConsistency(true, lease).getChecked());
+        jobRegistry.register(NEXT_START_JOB_NAME, true, Duration.ofMillis(nextStartRefreshMs), JOB_LEASE,
+                this::refreshPassedNextStart);
+    }
+
+    /**
+     * 列表回應：一次讀取所有音樂會的摘要
+     */
+    public List<ConcertResponse> toResponses(List<Concert> concerts) {
+        if (concerts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ConcertSummary> summaries = findSummaries(
+                concerts.stream().map(Concert::getId).collect(Collectors.toList()));
+        return concerts.stream()
+                .map(concert -> toResponse(concert, summaries.get(concert.getId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 讀取摘要；尚未建立摘要的音樂會（例如剛套用遷移、還沒跑過檢查）當場計算但不寫入
+     */
+    public Map<Long, ConcertSummary> findSummaries(Collection<Long> concertIds) {
+        Map<Long, ConcertSummary> summaries = new HashMap<>();
+        concertSummaryRepository.findAllById(concertIds).forEach(s -> summaries.put(s.getConcertId(), s));
+        List<Long> missing = concertIds.stream()
+                .filter(id -> !summaries.containsKey(id))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            logger.debug("{} 個音樂會尚無摘要，改為即時計算", missing.size());
+            summaries.putAll(compute(missing, LocalDateTime.now()));
+        }
+        return summaries;
+    }
+
+    public ConcertResponse toResponse(Concert concert, ConcertSummary summary) {
+        ConcertResponse response = new ConcertResponse();
+        response.setId(concert.getId());
+        response.setTitle(concert.getTitle());
+        response.setDescription(concert.getDescription());
+        response.setPosterUrl(concert.getPosterUrl());
+        response.setStatus(concert.getStatus());
+        response.setPerformanceCount(summary.getPerformanceCount());
+        response.setStartTimes(summary.getFirstStartTime() != null
+                ? List.of(summary.getFirstStartTime()) : Collections.emptyList());
+        response.setVenues(summary.getVenueList());
+        response.setMinPrice(summary.getMinPrice());
+        response.setMaxPrice(summary.getMaxPrice());
+        response.setRemainingCapacity(summary.getRemainingCapacity());
+        // 下一場開演後到排程前移之前，不回傳已過去的時間
+        LocalDateTime next = summary.getNextStartTime();
+        response.setNextStartTime(next != null && !next.isBefore(LocalDateTime.now()) ? next : null);
+        return response;
+    }
+
+    /**
+     * 後台編輯後重算指定音樂會；在交易中呼叫時於提交後執行
+     */
+    public void refresh(Long... concertIds) {
+        refresh(List.of(concertIds));
+    }
+
+    public void refresh(Collection<Long> concertIds) {
+        List<Long> ids = concertIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return;
+        }
+        runAfterCommit(() -> {
+            try {
+                writeTransaction.executeWithoutResult(status ->
+                        concertSummaryRepository.saveAll(compute(ids, LocalDateTime.now()).values()));
+            } catch (RuntimeException e) {
+                logger.warn("重算音樂會摘要失敗 {}，等待一致性檢查修正: {}", ids, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 票種改價後重算所有使用該票種的音樂會
+     * @return 受影響的音樂會 ID
+     */
+    public List<Long> refreshForTicketType(Long ticketTypeId) {
+        List<Long> concertIds = concertSummaryRepository.findConcertIdsByTicketType(ticketTypeId);
+        refresh(concertIds);
+        return concertIds;
+    }
+
+    /**
+     * 記錄庫存變動；同一交易內的變動合併後於提交後套用，交易回滾則不套用
+     */
+    public void recordInventoryChange(Long concertId, int delta) {
+        if (concertId == null || delta == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyDeltas(Map.of(concertId, delta));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Integer> pending = (Map<Long, Integer>) TransactionSynchronizationManager.getResource(PENDING_DELTAS_KEY);
+        if (pending == null) {
+            Map<Long, Integer> deltas = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_DELTAS_KEY, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyDeltas(deltas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_DELTAS_KEY);
+                }
+            });
+            pending = deltas;
+        }
+        pending.merge(concertId, delta, Integer::sum);
+    }
+
+    /**
+     * 重算全部摘要並與現有內容比對
+     * @param repair 是否以重算結果覆寫缺漏與偏差的摘要
+     */
+    public ConcertSummaryConsistencyResponse checkConsistency(boolean repair) {
+        return checkConsistency(repair, null);
+    }
+
+    /**
+     * @param lease 排程執行時的租約，每批寫入前確認仍持有；手動執行時為 null
+     */
+    private ConcertSummaryConsistencyResponse checkConsistency(boolean repair, JobLease lease) {
+        long start = System.nanoTime();
+        ConcertSummaryConsistencyResponse report = new ConcertSummaryConsistencyResponse();
+        report.setCheckedAt(LocalDateTime.now());
+        report.setRepair(repair);
+
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try {
+            List<Long> concertIds = concertSummaryRepository.findAllConcertIds();
+            for (int from = 0; from < concertIds.size(); from += CHECK_BATCH_SIZE) {
+                List<Long> batch = concertIds.subList(from, Math.min(from + CHECK_BATCH_SIZE, concertIds.size()));
+                writeTransaction.executeWithoutResult(status -> {
+                    if (lease != null) {
+                        jobLeaseService.checkFence(lease);
+                    }
+                    checkBatch(batch, repair, report);
+                });
+            }
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+
+        report.setDurationMs(Duration.ofNanos(System.nanoTime() - start).toMillis());
+        lastDrift.set(report.getMissing() + report.getDrifted());
+        if (repairedCounter != null) {
+            repairedCounter.increment(report.getRepaired());
+        }
+        if (report.getMissing() > 0 || report.getDrifted() > 0) {
+            logger.warn("音樂會摘要一致性檢查: 共 {} 筆，缺漏 {}，偏差 {} {}，已修正 {}，例如 {}",
+                    report.getChecked(), report.getMissing(), report.getDrifted(), report.getDriftByField(),
+                    report.getRepaired(), report.getSampleConcertIds());
+        } else {
+            logger.info("音樂會摘要一致性檢查: 共 {} 筆，無偏差，耗時 {} ms", report.getChecked(), report.getDurationMs());
+        }
+        return report;
+    }
+
+    /**
+     * 下一場已開演的摘要重算，讓 nextStartTime 前移到之後的場次
+     * @return 重算的音樂會數
+     */
+    private int refreshPassedNextStart(JobLease lease) {
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try {
+            List<Long> concertIds = concertSummaryRepository.findConcertIdsWithPassedNextStart(LocalDateTime.now());
+            if (concertIds.isEmpty()) {
+                return 0;
+            }
+            writeTransaction.executeWithoutResult(status -> {
+                jobLeaseService.checkFence(lease);
+                concertSummaryRepository.saveAll(compute(concertIds, LocalDateTime.now()).values());
+            });
+            return concertIds.size();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private void applyDeltas(Map<Long, Integer> deltas) {
+        try {
+            List<Long> missing = writeTransaction.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> notFound = new ArrayList<>();
+                deltas.forEach((concertId, delta) -> {
+                    if (delta != 0 && concertSummaryRepository.adjustRemainingCapacity(concertId, delta, now) == 0) {
+                        notFound.add(concertId);
+                    }
+                });
+                return notFound;
+            });
+            if (missing != null && !missing.isEmpty()) {
+                refresh(missing);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("音樂會摘要增量更新失敗 {}，等待一致性檢查修正: {}", deltas, e.getMessage());
+        }
+    }
+
+    private void checkBatch(List<Long> batch, boolean repair, ConcertSummaryConsistencyResponse report) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ConcertSummary> expected = compute(batch, now);
+        Map<Long, ConcertSummary> stored = new HashMap<>();
+        concertSummaryRepository.findAllById(batch).forEach(s -> stored.put(s.getConcertId(), s));
+
+        for (ConcertSummary recomputed : expected.values()) {
+            Long concertId = recomputed.getConcertId();
+            report.setChecked(report.getChecked() + 1);
+            ConcertSummary current = stored.get(concertId);
+            if (current == null) {
+                report.setMissing(report.getMissing() + 1);
+                addSample(report, concertId);
+                if (repair) {
+                    concertSummaryRepository.save(recomputed);
+                    report.setRepaired(report.getRepaired() + 1);
+                }
+                continue;
+            }
+
+            List<String> fields = diff(current, recomputed);
+            if (fields.isEmpty()) {
+                continue;
+            }
+            if (fields.equals(List.of("nextStartTime")) && current.getNextStartTime() != null
+                    && current.getNextStartTime().isBefore(now)) {
+                report.setExpired(report.getExpired() + 1);
+            } else {
+                report.setDrifted(report.getDrifted() + 1);
+                fields.forEach(field -> report.getDriftByField().merge(field, 1, Integer::sum));
+                addSample(report, concertId);
+            }
+            if (repair) {
+                copyAggregates(recomputed, current);
+                report.setRepaired(report.getRepaired() + 1);
+            }
+        }
+    }
+
+    /**
+     * 以三條彙總查詢計算指定音樂會的摘要；沒有場次或票券的音樂會得到空摘要
+     */
+    private Map<Long, ConcertSummary> compute(Collection<Long> concertIds, LocalDateTime now) {
+        Map<Long, ConcertSummary> summaries = new LinkedHashMap<>();
+        for (Long concertId : concertIds) {
+            ConcertSummary summary = new ConcertSummary(concertId);
+            summary.setUpdatedAt(now);
+            summaries.put(concertId, summary);
+        }
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+
+        for (PerformanceAggregate aggregate : concertSummaryRepository.aggregatePerformances(summaries.keySet(), now)) {
+            ConcertSummary summary = summaries.get(aggregate.getConcertId());
+            summary.setPerformanceCount(aggregate.getPerformanceCount().intValue());
+            summary.setFirstStartTime(aggregate.getFirstStartTime());
+            summary.setNextStartTime(aggregate.getNextStartTime());
+        }
+        for (TicketAggregate aggregate : concertSummaryRepository.aggregateTickets(summaries.keySet())) {
+            ConcertSummary summary = summaries.get(aggregate.getConcertId());
+            summary.setMinPrice(aggregate.getMinPrice());
+            summary.setMaxPrice(aggregate.getMaxPrice());
+            summary.setTotalCapacity(toInt(aggregate.getTotalCapacity()));
+            summary.setRemainingCapacity(toInt(aggregate.getRemainingCapacity()));
+        }
+        Map<Long, List<String>> venues = new HashMap<>();
+        for (VenueView venue : concertSummaryRepository.findVenues(summaries.keySet())) {
+            venues.computeIfAbsent(venue.getConcertId(), id -> new ArrayList<>()).add(venue.getVenue());
+        }
+        venues.forEach((concertId, list) -> summaries.get(concertId).setVenueList(list));
+        return summaries;
+    }
+
+    private static List<String> diff(ConcertSummary stored, ConcertSummary expected) {
+        List<String> fields = new ArrayList<>();
+        if (stored.getPerformanceCount() != expected.getPerformanceCount()) {
+            fields.add("performanceCount");
+        }
+        if (!samePrice(stored.getMinPrice(), expected.getMinPrice())) {
+            fields.add("minPrice");
+        }
+        if (!samePrice(stored.getMaxPrice(), expected.getMaxPrice())) {
+            fields.add("maxPrice");
+        }
+        if (!Objects.equals(stored.getFirstStartTime(), expected.getFirstStartTime())) {
+            fields.add("firstStartTime");
+        }
+        if (!Objects.equals(stored.getNextStartTime(), expected.getNextStartTime())) {
+            fields.add("nextStartTime");
+        }
+        if (!Objects.equals(stored.getVenues(), expected.getVenues())) {
+            fields.add("venues");
+        }
+        if (stored.getTotalCapacity() != expected.getTotalCapacity()) {
+            fields.add("totalCapacity");
+        }
+        if (stored.getRemainingCapacity() != expected.getRemainingCapacity()) {
+            fields.add("remainingCapacity");
+        }
+        return fields;
+    }
+
+    private static void copyAggregates(ConcertSummary from, ConcertSummary to) {
+        to.setPerformanceCount(from.getPerformanceCount());
+        to.setMinPrice(from.getMinPrice());
+        to.setMaxPrice(from.getMaxPrice());
+        to.setFirstStartTime(from.getFirstStartTime());
+        to.setNextStartTime(from.getNextStartTime());
+        to.setVenues(from.getVenues());
+        to.setTotalCapacity(from.getTotalCapacity());
+        to.setRemainingCapacity(from.getRemainingCapacity());
+        to.setUpdatedAt(from.getUpdatedAt());
+    }
+
+    private static boolean samePrice(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private static int toInt(Long value) {
+        return value != null ? value.intValue() : 0;
+    }
+
+    private static void addSample(ConcertSummaryConsistencyResponse report, Long concertId) {
+        if (report.getSampleConcertIds().size() < SAMPLE_LIMIT) {
+            report.getSampleConcertIds().add(concertId);
+        }
+    }
+
+    private static void runAfterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
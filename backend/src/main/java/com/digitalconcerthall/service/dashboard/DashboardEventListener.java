@@ -0,0 +1,123 @@
+package com.digitalconcerthall.service.dashboard;
+
+import java.util.Set;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.digitalconcerthall.model.User;
+import com.digitalconcerthall.model.concert.Concert;
+import com.digitalconcerthall.model.concert.Performance;
+import com.digitalconcerthall.model.order.Order;
+import com.digitalconcerthall.model.ticket.Ticket;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * 把 Hibernate 的提交後事件轉給 {@link DashboardMetricsService}
+ * 只在交易成功提交後觸發，回滾的異動不會計入；涵蓋所有經由 JPA 的寫入（含串聯刪除），不需要在各個寫入點呼叫
+ */
+@Component
+public class DashboardEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardEventListener.class);
+
+    private static final Set<Class<?>> TRACKED = Set.of(Concert.class, Performance.class, Ticket.class, User.class,
+            Order.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return TRACKED.contains(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        try {
+            dashboardMetricsService.onInserted(event.getEntity());
+        } catch (RuntimeException e) {
+            logger.warn("更新儀表板統計失敗: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Order)) {
+            return;
+        }
+        try {
+            String previousStatus = previousStatus(event);
+            if (previousStatus == null) {
+                // 以 merge 更新的分離物件沒有舊值，由對帳修正
+                logger.debug("訂單沒有更新前的狀態，略過儀表板統計");
+                return;
+            }
+            dashboardMetricsService.onOrderStatusChanged((Order) event.getEntity(), previousStatus);
+        } catch (RuntimeException e) {
+            logger.warn("更新儀表板統計失敗: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        try {
+            dashboardMetricsService.onDeleted(event.getEntity());
+        } catch (RuntimeException e) {
+            logger.warn("更新儀表板統計失敗: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private static String previousStatus(PostUpdateEvent event) {
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            return null;
+        }
+        String[] properties = event.getPersister().getPropertyNames();
+        for (int i = 0; i < properties.length; i++) {
+            if ("status".equals(properties[i])) {
+                return (String) oldState[i];
+            }
+        }
+        return null;
+    }
+}
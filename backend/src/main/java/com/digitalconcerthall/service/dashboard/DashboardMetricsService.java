@@ -0,0 +1,736 @@
+package com.digitalconcerthall.service.dashboard;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.digitalconcerthall.dto.response.dashboard.DashboardConcertSalesResponse;
+import com.digitalconcerthall.dto.response.dashboard.DashboardMetricsResponse;
+import com.digitalconcerthall.dto.response.dashboard.DashboardReconciliationResponse;
+import com.digitalconcerthall.model.User;
+import com.digitalconcerthall.model.concert.Concert;
+import com.digitalconcerthall.model.concert.Performance;
+import com.digitalconcerthall.model.dashboard.DashboardArchivedStat;
+import com.digitalconcerthall.model.dashboard.DashboardStat;
+import com.digitalconcerthall.model.order.Order;
+import com.digitalconcerthall.model.order.OrderItem;
+import com.digitalconcerthall.model.ticket.Ticket;
+import com.digitalconcerthall.repository.TicketRepository;
+import com.digitalconcerthall.repository.UserRepository;
+import com.digitalconcerthall.repository.concert.ConcertRepository;
+import com.digitalconcerthall.repository.concert.PerformanceRepository;
+import com.digitalconcerthall.repository.dashboard.DashboardArchivedStatRepository;
+import com.digitalconcerthall.repository.dashboard.DashboardStatRepository;
+import com.digitalconcerthall.repository.dashboard.DashboardStatRepository.DailyQuantity;
+import com.digitalconcerthall.repository.dashboard.DashboardStatRepository.DailyRevenue;
+import com.digitalconcerthall.repository.dashboard.DashboardStatRepository.PerformanceSales;
+import com.digitalconcerthall.repository.dashboard.DashboardStatRepository.StatusCount;
+import com.digitalconcerthall.service.job.JobLease;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 管理員儀表板統計
+ * 計數（音樂會、場次、票券、使用者、各狀態訂單數、每日與各音樂會營收、每日與各場次售出張數）保存在記憶體中，
+ * 由 {@link DashboardEventListener} 在交易提交後依實體的新增、刪除與訂單狀態變更增減，讀取時不查詢資料庫。
+ * 有變動的計數定期寫入 dashboard_stat_snapshot，重啟後先載入快照再與基礎資料表對帳修正；
+ * 繞過 JPA 的寫入（JDBC、批次 JPQL）與其他節點的異動都由排程對帳修正。金額以分為單位累計。
+ * 定期寫入快照登記在 {@link JobRegistry}，叢集每個間隔只由一個節點寫入，其他節點的變動留到取得租約時寫入。
+ * 搬到封存表的訂單不再出現在基礎資料表，它們的貢獻記錄在 dashboard_archived_stats，對帳時加回
+ */
+@Service
+public class DashboardMetricsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardMetricsService.class);
+
+    public static final String CONCERTS = "concerts";
+    public static final String PERFORMANCES = "performances";
+    public static final String TICKETS = "tickets";
+    public static final String USERS = "users";
+    public static final String ORDER_STATUS_PREFIX = "orders.status:";
+    public static final String REVENUE_DAY_PREFIX = "revenue.day:";
+    public static final String REVENUE_CONCERT_PREFIX = "revenue.concert:";
+    public static final String SOLD_DAY_PREFIX = "sold.day:";
+    public static final String SOLD_PERFORMANCE_PREFIX = "sold.performance:";
+
+    static final String STATUS_PAID = "paid";
+    private static final int SNAPSHOT_BATCH_SIZE = 500;
+    private static final int SAMPLE_LIMIT = 20;
+    private static final int TOP_CONCERTS = 10;
+    private static final int VELOCITY_DAYS = 7;
+    static final String SNAPSHOT_JOB_NAME = "dashboard-snapshot";
+    /** 快照只寫入有變動的計數，數秒內完成 */
+    private static final Duration SNAPSHOT_LEASE = Duration.ofMinutes(2);
+
+    @Value("${app.dashboard.revenue-days:30}")
+    private int revenueDays;
+
+    @Value("${app.dashboard.refresh-ms:1000}")
+    private long refreshMs;
+
+    @Value("${app.dashboard.snapshot-interval-ms:60000}")
+    private long snapshotIntervalMs;
+
+    @Autowired
+    private ConcertRepository concertRepository;
+
+    @Autowired
+    private PerformanceRepository performanceRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DashboardStatRepository dashboardStatRepository;
+
+    @Autowired
+    private DashboardArchivedStatRepository dashboardArchivedStatRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    /** 尚未寫入快照的計數 */
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+    /** 音樂會對應有售出紀錄的場次，供單一音樂會查詢 */
+    private final Map<Long, Set<Long>> performancesByConcert = new ConcurrentHashMap<>();
+    /** 異動取讀鎖，對帳修正取寫鎖，修正時不會漏掉同時提交的異動 */
+    private final ReentrantReadWriteLock repairLock = new ReentrantReadWriteLock();
+    /** 對帳期間提交的異動，重算結果不包含這些異動 */
+    private final AtomicReference<Map<String, Long>> reconciling = new AtomicReference<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicInteger lastDrift = new AtomicInteger();
+    private volatile boolean ready;
+    private volatile CachedMetrics cached;
+    private volatile LocalDateTime lastSnapshotAt;
+    private volatile LocalDateTime lastReconciledAt;
+    private TransactionTemplate transaction;
+    private ExecutorService lookupExecutor;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        lookupExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Gauge.builder("app.dashboard.drift", lastDrift, AtomicInteger::get)
+                    .description("最近一次儀表板統計對帳發現的偏差計數數量")
+                    .register(registry);
+        }
+        jobRegistry.register(SNAPSHOT_JOB_NAME, true, Duration.ofMillis(snapshotIntervalMs), SNAPSHOT_LEASE,
+                this::snapshot);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lookupExecutor.shutdownNow();
+        try {
+            snapshot();
+        } catch (Exception e) {
+            logger.warn("關閉前寫入儀表板統計快照失敗: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 快照已載入或已對帳過，計數可以直接使用
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long get(String key) {
+        LongAdder counter = counters.get(key);
+        return counter != null ? counter.sum() : 0L;
+    }
+
+    /**
+     * 儀表板統計；同一份結果最多重用 app.dashboard.refresh-ms，期間沒有異動時一直重用
+     */
+    public DashboardMetricsResponse getMetrics() {
+        CachedMetrics current = cached;
+        long currentVersion = version.get();
+        if (current != null && (current.version == currentVersion
+                || System.currentTimeMillis() - current.builtAt < refreshMs)) {
+            return current.response;
+        }
+        DashboardMetricsResponse response = buildMetrics();
+        cached = new CachedMetrics(currentVersion, System.currentTimeMillis(), response);
+        return response;
+    }
+
+    public DashboardConcertSalesResponse getConcertSales(Long concertId) {
+        DashboardConcertSalesResponse response = new DashboardConcertSalesResponse();
+        response.setConcertId(concertId);
+        response.setRevenue(fromCents(get(REVENUE_CONCERT_PREFIX + concertId)));
+        long sold = 0;
+        for (Long performanceId : performancesByConcert.getOrDefault(concertId, Set.of())) {
+            long quantity = get(soldPerformanceKey(concertId, performanceId));
+            if (quantity != 0) {
+                response.getTicketsSoldByPerformance().put(performanceId, quantity);
+                sold += quantity;
+            }
+        }
+        response.setTicketsSold(sold);
+        return response;
+    }
+
+    /**
+     * 繞過 JPA 的批次新增（例如批次匯入）在提交後呼叫；不呼叫時要等下一次對帳才會修正
+     */
+    public void recordBulkInsert(String key, long count) {
+        add(key, count);
+    }
+
+    /**
+     * 繞過 JPA 的批次更新或刪除（例如逾期訂單清理）在提交後呼叫，delta 為負表示減少
+     */
+    public void recordBulkChange(String key, long delta) {
+        add(key, delta);
+    }
+
+    /**
+     * 訂單搬到封存表之前，在同一個交易中呼叫，累計這些訂單對各計數的貢獻；記憶體中的計數不變
+     */
+    public void recordArchived(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        Map<String, Long> values = new HashMap<>();
+        collectOrderStats(values, dashboardStatRepository.countOrdersByStatusIn(orderIds),
+                dashboardStatRepository.sumRevenueByDayIn(STATUS_PAID, orderIds),
+                dashboardStatRepository.sumTicketsSoldByDayIn(STATUS_PAID, orderIds),
+                dashboardStatRepository.sumSalesByPerformanceIn(STATUS_PAID, orderIds));
+        values.values().removeIf(value -> value == null || value == 0L);
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, DashboardArchivedStat> existing = dashboardArchivedStatRepository.findAllById(values.keySet())
+                .stream().collect(Collectors.toMap(DashboardArchivedStat::getStatKey, Function.identity()));
+        List<DashboardArchivedStat> changed = new ArrayList<>();
+        values.forEach((key, value) -> {
+            DashboardArchivedStat stat = existing.get(key);
+            if (stat == null) {
+                changed.add(new DashboardArchivedStat(key, value, now));
+            } else {
+                stat.setStatValue(stat.getStatValue() + value);
+                stat.setUpdatedAt(now);
+                changed.add(stat);
+            }
+        });
+        dashboardArchivedStatRepository.saveAll(changed);
+    }
+
+    void onInserted(Object entity) {
+        if (entity instanceof Order) {
+            Order order = (Order) entity;
+            add(ORDER_STATUS_PREFIX + order.getStatus(), 1);
+            if (STATUS_PAID.equals(order.getStatus())) {
+                applySales(order, 1, true);
+            }
+        } else {
+            String key = entityKey(entity);
+            if (key != null) {
+                add(key, 1);
+            }
+        }
+    }
+
+    void onDeleted(Object entity) {
+        if (entity instanceof Order) {
+            Order order = (Order) entity;
+            add(ORDER_STATUS_PREFIX + order.getStatus(), -1);
+            if (STATUS_PAID.equals(order.getStatus())) {
+                // 明細已一併刪除，無法再查詢；沒有載入明細時由對帳修正
+                applySales(order, -1, false);
+            }
+        } else {
+            String key = entityKey(entity);
+            if (key != null) {
+                add(key, -1);
+            }
+        }
+    }
+
+    void onOrderStatusChanged(Order order, String previousStatus) {
+        String status = order.getStatus();
+        if (status == null || status.equals(previousStatus)) {
+            return;
+        }
+        add(ORDER_STATUS_PREFIX + previousStatus, -1);
+        add(ORDER_STATUS_PREFIX + status, 1);
+        if (STATUS_PAID.equals(status)) {
+            applySales(order, 1, true);
+        } else if (STATUS_PAID.equals(previousStatus)) {
+            applySales(order, -1, true);
+        }
+    }
+
+    /**
+     * 從快照載入計數，加在啟動後已累計的異動上
+     */
+    public int loadSnapshot() {
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try {
+            List<DashboardStat> stats = transaction.execute(status -> dashboardStatRepository.findAll());
+            repairLock.writeLock().lock();
+            try {
+                for (DashboardStat stat : stats) {
+                    counters.computeIfAbsent(stat.getStatKey(), key -> new LongAdder()).add(stat.getStatValue());
+                    indexPerformance(stat.getStatKey());
+                }
+                version.incrementAndGet();
+            } finally {
+                repairLock.writeLock().unlock();
+            }
+            ready = true;
+            logger.info("已載入儀表板統計快照: {} 筆", stats.size());
+            return stats.size();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    /**
+     * 把有變動的計數寫入快照；載入快照前不寫入，避免以不完整的計數覆寫
+     * @return 寫入的計數數量
+     */
+    public int snapshot() {
+        return snapshot(null);
+    }
+
+    /**
+     * @param lease 排程執行時的租約，每批寫入前確認仍持有；關閉前寫入時為 null
+     */
+    private int snapshot(JobLease lease) {
+        if (!ready || dirtyKeys.isEmpty()) {
+            return 0;
+        }
+        List<String> keys = new ArrayList<>();
+        // 先移出再讀值，讀值之後的異動會重新標記
+        for (Iterator<String> iterator = dirtyKeys.iterator(); iterator.hasNext();) {
+            keys.add(iterator.next());
+            iterator.remove();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try {
+            for (int from = 0; from < keys.size(); from += SNAPSHOT_BATCH_SIZE) {
+                List<String> batch = keys.subList(from, Math.min(from + SNAPSHOT_BATCH_SIZE, keys.size()));
+                try {
+                    transaction.executeWithoutResult(status -> {
+                        if (lease != null) {
+                            jobLeaseService.checkFence(lease);
+                        }
+                        writeSnapshot(batch, now);
+                    });
+                } catch (RuntimeException e) {
+                    dirtyKeys.addAll(keys.subList(from, keys.size()));
+                    throw e;
+                }
+            }
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+        lastSnapshotAt = now;
+        logger.debug("已寫入 {} 筆儀表板統計快照", keys.size());
+        return keys.size();
+    }
+
+    /**
+     * 從基礎資料表重算所有計數並與記憶體中的計數比對
+     * 重算期間提交的異動另外記錄，比對與修正時加回重算結果
+     * @param repair 是否以重算結果取代偏差的計數
+     */
+    public DashboardReconciliationResponse reconcile(boolean repair) {
+        long start = System.nanoTime();
+        Map<String, Long> concurrent = new ConcurrentHashMap<>();
+        if (!reconciling.compareAndSet(null, concurrent)) {
+            throw new IllegalStateException("儀表板統計對帳正在執行中");
+        }
+        DashboardReconciliationResponse report = new DashboardReconciliationResponse();
+        report.setCheckedAt(LocalDateTime.now());
+        report.setRepair(repair);
+
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try {
+            Map<String, Long> expected = transaction.execute(status -> computeFromBaseTables());
+            repairLock.writeLock().lock();
+            try {
+                Set<String> keys = new TreeSet<>(expected.keySet());
+                keys.addAll(counters.keySet());
+                for (String key : keys) {
+                    long actual = get(key);
+                    long recomputed = expected.getOrDefault(key, 0L) + concurrent.getOrDefault(key, 0L);
+                    if (actual == recomputed) {
+                        continue;
+                    }
+                    report.setDrifted(report.getDrifted() + 1);
+                    report.getDriftByCategory().merge(category(key), 1, Integer::sum);
+                    if (report.getSamples().size() < SAMPLE_LIMIT) {
+                        report.getSamples().put(key, Arrays.asList(actual, recomputed));
+                    }
+                    if (repair) {
+                        LongAdder counter = counters.computeIfAbsent(key, k -> new LongAdder());
+                        counter.reset();
+                        counter.add(recomputed);
+                        indexPerformance(key);
+                        dirtyKeys.add(key);
+                    }
+                }
+                report.setChecked(keys.size());
+                if (repair) {
+                    version.incrementAndGet();
+                    lastReconciledAt = report.getCheckedAt();
+                    ready = true;
+                }
+            } finally {
+                repairLock.writeLock().unlock();
+            }
+        } finally {
+            reconciling.set(null);
+            WorkloadContext.restore(previous);
+        }
+
+        report.setDurationMs(Duration.ofNanos(System.nanoTime() - start).toMillis());
+        lastDrift.set(report.getDrifted());
+        if (report.getDrifted() > 0) {
+            logger.warn("儀表板統計對帳: 共 {} 個計數，偏差 {} {}，{}，例如 {}", report.getChecked(), report.getDrifted(),
+                    report.getDriftByCategory(), repair ? "已修正" : "未修正", report.getSamples());
+        } else {
+            logger.info("儀表板統計對帳: 共 {} 個計數，無偏差，耗時 {} ms", report.getChecked(), report.getDurationMs());
+        }
+        return report;
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-interval-ms:900000}",
+            initialDelayString = "${app.dashboard.reconcile-interval-ms:900000}")
+    public void scheduledReconcile() {
+        if (!ready) {
+            return;
+        }
+        try {
+            reconcile(true);
+        } catch (Exception e) {
+            logger.error("儀表板統計對帳失敗: {}", e.getMessage());
+        }
+    }
+
+    private void add(String key, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        repairLock.readLock().lock();
+        try {
+            counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+            Map<String, Long> concurrent = reconciling.get();
+            if (concurrent != null) {
+                concurrent.merge(key, delta, Long::sum);
+            }
+            dirtyKeys.add(key);
+            version.incrementAndGet();
+        } finally {
+            repairLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param allowLookup 訂單明細未載入時是否改為查詢資料庫
+     */
+    private void applySales(Order order, int sign, boolean allowLookup) {
+        LocalDate day = order.getOrderDate() != null ? order.getOrderDate().toLocalDate() : LocalDate.now();
+        add(REVENUE_DAY_PREFIX + day, sign * toCents(order.getTotalAmount()));
+        List<Sale> sales = loadedSales(order);
+        if (sales != null) {
+            recordSales(day, sales, sign);
+        } else if (allowLookup && order.getId() != null) {
+            Long orderId = order.getId();
+            lookupExecutor.execute(() -> {
+                Workload previous = WorkloadContext.enter(Workload.ADMIN);
+                try {
+                    List<Sale> found = transaction.execute(status -> dashboardStatRepository.findSalesByOrder(orderId)
+                            .stream()
+                            .map(row -> new Sale(row.getConcertId(), row.getPerformanceId(),
+                                    row.getQuantity().longValue(), toCents(row.getAmount())))
+                            .collect(Collectors.toList()));
+                    recordSales(day, found, sign);
+                } catch (RuntimeException e) {
+                    logger.warn("查詢訂單 {} 的明細失敗，等待對帳修正: {}", orderId, e.getMessage());
+                } finally {
+                    WorkloadContext.restore(previous);
+                }
+            });
+        } else {
+            logger.debug("訂單 {} 的明細未載入，售出張數等待對帳修正", order.getOrderNumber());
+        }
+    }
+
+    /**
+     * 交易中已載入的訂單明細；任何一層尚未載入時返回 null（提交後不能再延遲載入）
+     */
+    private static List<Sale> loadedSales(Order order) {
+        if (!Hibernate.isInitialized(order.getOrderItems())) {
+            return null;
+        }
+        List<Sale> sales = new ArrayList<>();
+        for (OrderItem item : order.getOrderItems()) {
+            Ticket ticket = item.getTicket();
+            if (ticket == null || !Hibernate.isInitialized(ticket)
+                    || ticket.getPerformance() == null || !Hibernate.isInitialized(ticket.getPerformance())) {
+                return null;
+            }
+            Performance performance = ticket.getPerformance();
+            sales.add(new Sale(performance.getConcertId(), performance.getId(),
+                    item.getQuantity() != null ? item.getQuantity() : 0, toCents(item.getSubtotal())));
+        }
+        return sales;
+    }
+
+    private void recordSales(LocalDate day, List<Sale> sales, int sign) {
+        for (Sale sale : sales) {
+            add(SOLD_DAY_PREFIX + day, sign * sale.quantity);
+            add(REVENUE_CONCERT_PREFIX + sale.concertId, sign * sale.amountCents);
+            String key = soldPerformanceKey(sale.concertId, sale.performanceId);
+            add(key, sign * sale.quantity);
+            indexPerformance(key);
+        }
+    }
+
+    private void writeSnapshot(List<String> keys, LocalDateTime now) {
+        Map<String, DashboardStat> existing = dashboardStatRepository.findAllById(keys).stream()
+                .collect(Collectors.toMap(DashboardStat::getStatKey, Function.identity()));
+        List<DashboardStat> created = new ArrayList<>();
+        List<DashboardStat> removed = new ArrayList<>();
+        for (String key : keys) {
+            long value = get(key);
+            DashboardStat stat = existing.get(key);
+            if (value == 0) {
+                if (stat != null) {
+                    removed.add(stat);
+                }
+            } else if (stat == null) {
+                created.add(new DashboardStat(key, value, now));
+            } else if (stat.getStatValue() != value) {
+                stat.setStatValue(value);
+                stat.setUpdatedAt(now);
+            }
+        }
+        dashboardStatRepository.deleteAllInBatch(removed);
+        dashboardStatRepository.saveAll(created);
+    }
+
+    private Map<String, Long> computeFromBaseTables() {
+        Map<String, Long> values = new HashMap<>();
+        values.put(CONCERTS, concertRepository.count());
+        values.put(PERFORMANCES, performanceRepository.count());
+        values.put(TICKETS, ticketRepository.count());
+        values.put(USERS, userRepository.count());
+        collectOrderStats(values, dashboardStatRepository.countOrdersByStatus(),
+                dashboardStatRepository.sumRevenueByDay(STATUS_PAID),
+                dashboardStatRepository.sumTicketsSoldByDay(STATUS_PAID),
+                dashboardStatRepository.sumSalesByPerformance(STATUS_PAID));
+        dashboardArchivedStatRepository.findAll().forEach(stat ->
+                values.merge(stat.getStatKey(), stat.getStatValue(), Long::sum));
+        values.values().removeIf(value -> value == null || value == 0L);
+        return values;
+    }
+
+    private static void collectOrderStats(Map<String, Long> values, List<StatusCount> statusCounts,
+            List<DailyRevenue> revenue, List<DailyQuantity> sold, List<PerformanceSales> sales) {
+        statusCounts.forEach(row -> values.merge(ORDER_STATUS_PREFIX + row.getStatus(), row.getOrderCount(), Long::sum));
+        revenue.forEach(row -> values.merge(REVENUE_DAY_PREFIX + row.getDay(), toCents(row.getAmount()), Long::sum));
+        sold.forEach(row -> values.merge(SOLD_DAY_PREFIX + row.getDay(), row.getQuantity(), Long::sum));
+        sales.forEach(row -> {
+            values.merge(soldPerformanceKey(row.getConcertId(), row.getPerformanceId()), row.getQuantity().longValue(),
+                    Long::sum);
+            values.merge(REVENUE_CONCERT_PREFIX + row.getConcertId(), toCents(row.getAmount()), Long::sum);
+        });
+    }
+
+    private DashboardMetricsResponse buildMetrics() {
+        DashboardMetricsResponse response = new DashboardMetricsResponse();
+        response.setGeneratedAt(LocalDateTime.now());
+        response.setTotalConcerts(get(CONCERTS));
+        response.setTotalPerformances(get(PERFORMANCES));
+        response.setTotalTickets(get(TICKETS));
+        response.setTotalUsers(get(USERS));
+
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = today.minusDays(revenueDays - 1L);
+        for (LocalDate day = firstDay; !day.isAfter(today); day = day.plusDays(1)) {
+            response.getRevenueByDay().put(day, BigDecimal.ZERO.setScale(2));
+            response.getTicketsSoldByDay().put(day, 0L);
+        }
+
+        long revenueCents = 0;
+        long sold = 0;
+        long soldRecent = 0;
+        Map<Long, Long> revenueByConcert = new HashMap<>();
+        Map<Long, Long> soldByConcert = new HashMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            String key = entry.getKey();
+            long value = entry.getValue().sum();
+            if (value == 0) {
+                continue;
+            }
+            if (key.startsWith(ORDER_STATUS_PREFIX)) {
+                response.getOrdersByStatus().put(key.substring(ORDER_STATUS_PREFIX.length()), value);
+            } else if (key.startsWith(REVENUE_DAY_PREFIX)) {
+                revenueCents += value;
+                LocalDate day = LocalDate.parse(key.substring(REVENUE_DAY_PREFIX.length()));
+                if (!day.isBefore(firstDay) && !day.isAfter(today)) {
+                    response.getRevenueByDay().put(day, fromCents(value));
+                }
+            } else if (key.startsWith(SOLD_DAY_PREFIX)) {
+                sold += value;
+                LocalDate day = LocalDate.parse(key.substring(SOLD_DAY_PREFIX.length()));
+                if (!day.isBefore(firstDay) && !day.isAfter(today)) {
+                    response.getTicketsSoldByDay().put(day, value);
+                }
+                if (!day.isBefore(today.minusDays(VELOCITY_DAYS - 1L)) && !day.isAfter(today)) {
+                    soldRecent += value;
+                }
+                if (day.equals(today)) {
+                    response.setTicketsSoldToday(value);
+                }
+            } else if (key.startsWith(REVENUE_CONCERT_PREFIX)) {
+                revenueByConcert.put(Long.valueOf(key.substring(REVENUE_CONCERT_PREFIX.length())), value);
+            } else if (key.startsWith(SOLD_PERFORMANCE_PREFIX)) {
+                String[] ids = key.substring(SOLD_PERFORMANCE_PREFIX.length()).split(":");
+                soldByConcert.merge(Long.valueOf(ids[0]), value, Long::sum);
+            }
+        }
+        response.setTotalRevenue(fromCents(revenueCents));
+        response.setTotalTicketsSold(sold);
+        response.setTicketsSoldLast7Days(soldRecent);
+        response.setAverageDailyTicketsSold(soldRecent / (double) VELOCITY_DAYS);
+        revenueByConcert.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_CONCERTS)
+                .forEach(entry -> response.getTopConcertsByRevenue().add(new DashboardMetricsResponse.ConcertSales(
+                        entry.getKey(), fromCents(entry.getValue()), soldByConcert.getOrDefault(entry.getKey(), 0L))));
+        response.setLastSnapshotAt(lastSnapshotAt);
+        response.setLastReconciledAt(lastReconciledAt);
+        return response;
+    }
+
+    private void indexPerformance(String key) {
+        if (key.startsWith(SOLD_PERFORMANCE_PREFIX)) {
+            String[] ids = key.substring(SOLD_PERFORMANCE_PREFIX.length()).split(":");
+            performancesByConcert.computeIfAbsent(Long.valueOf(ids[0]), id -> ConcurrentHashMap.newKeySet())
+                    .add(Long.valueOf(ids[1]));
+        }
+    }
+
+    private static String entityKey(Object entity) {
+        if (entity instanceof Concert) {
+            return CONCERTS;
+        } else if (entity instanceof Performance) {
+            return PERFORMANCES;
+        } else if (entity instanceof Ticket) {
+            return TICKETS;
+        } else if (entity instanceof User) {
+            return USERS;
+        }
+        return null;
+    }
+
+    static String soldPerformanceKey(Long concertId, Long performanceId) {
+        return SOLD_PERFORMANCE_PREFIX + concertId + ":" + performanceId;
+    }
+
+    private static String category(String key) {
+        int separator = key.indexOf(':');
+        return separator >= 0 ? key.substring(0, separator) : key;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0L;
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static final class Sale {
+
+        private final Long concertId;
+        private final Long performanceId;
+        private final long quantity;
+        private final long amountCents;
+
+        Sale(Long concertId, Long performanceId, long quantity, long amountCents) {
+            this.concertId = concertId;
+            this.performanceId = performanceId;
+            this.quantity = quantity;
+            this.amountCents = amountCents;
+        }
+    }
+
+    private static final class CachedMetrics {
+
+        private final long version;
+        private final long builtAt;
+        private final DashboardMetricsResponse response;
+
+        CachedMetrics(long version, long builtAt, DashboardMetricsResponse response) {
+            this.version = version;
+            this.builtAt = builtAt;
+            this.response = response;
+        }
+    }
+}
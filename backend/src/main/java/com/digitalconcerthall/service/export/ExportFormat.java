@@ -0,0 +1,56 @@
+package com.digitalconcerthall.service.export;
+
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * 匯出格式
+ */
+public enum ExportFormat {
+
+    CSV("text/csv; charset=UTF-8", "csv", true),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx", false);
+
+    private final String contentType;
+    private final String extension;
+    private final boolean compressible;
+
+    ExportFormat(String contentType, String extension, boolean compressible) {
+        this.contentType = contentType;
+        this.extension = extension;
+        this.compressible = compressible;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * XLSX 本身是 zip，再壓縮沒有效果
+     */
+    public boolean isCompressible() {
+        return compressible;
+    }
+
+    public RowWriter open(OutputStream out) {
+        return this == XLSX ? new XlsxRowWriter(out) : new CsvRowWriter(out);
+    }
+
+    /**
+     * @return 不支援的格式返回 null
+     */
+    public static ExportFormat parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
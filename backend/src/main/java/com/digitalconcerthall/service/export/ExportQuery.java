@@ -0,0 +1,37 @@
+package com.digitalconcerthall.service.export;
+
+import java.util.List;
+
+/**
+ * 一份匯出：檔名前綴、欄位標題與依序對應的 SQL
+ */
+public final class ExportQuery {
+
+    private final String name;
+    private final List<String> columns;
+    private final String sql;
+    private final Object[] params;
+
+    public ExportQuery(String name, List<String> columns, String sql, Object... params) {
+        this.name = name;
+        this.columns = List.copyOf(columns);
+        this.sql = sql;
+        this.params = params.clone();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public Object[] getParams() {
+        return params.clone();
+    }
+}
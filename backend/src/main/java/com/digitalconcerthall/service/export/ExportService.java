@@ -0,0 +1,267 @@
+package com.digitalconcerthall.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 訂單、訂單明細、場次出席名單與使用者票券的匯出
+ * 以只進不退的游標逐列讀取、逐列寫到輸出串流，不在記憶體中累積結果，記憶體用量與匯出列數無關。
+ * MySQL 驅動只有在 fetch size 為 Integer.MIN_VALUE 時才會逐列串流，其他資料庫使用 app.export.fetch-size。
+ * 匯出期間會佔用一條後台分區的連線，同時進行的匯出數以 app.export.max-concurrent 限制
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    static final List<String> ORDER_COLUMNS = List.of("訂單編號", "下單時間", "帳號", "Email", "總金額", "訂單狀態",
+            "付款方式", "付款狀態");
+    static final List<String> ORDER_ITEM_COLUMNS = List.of("訂單編號", "下單時間", "訂單狀態", "音樂會", "演出時間",
+            "場地", "票種", "數量", "單價", "小計");
+    static final List<String> ATTENDEE_COLUMNS = List.of("票券代碼", "帳號", "姓", "名", "Email", "票種", "訂單編號",
+            "已使用");
+    static final List<String> USER_TICKET_COLUMNS = List.of("票券代碼", "發券時間", "帳號", "Email", "音樂會", "演出時間",
+            "場地", "票種", "訂單編號", "已使用");
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.export.max-concurrent:1}")
+    private int maxConcurrent;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private JdbcTemplate streamingJdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private Semaphore permits;
+    private Counter rowCounter;
+
+    @PostConstruct
+    public void init() {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        streamingJdbcTemplate.setFetchSize(datasourceUrl.startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : fetchSize);
+        // 只讀交易會導向讀取副本；PostgreSQL 也需要在交易中（非 autocommit）才會依 fetch size 分批讀取
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        permits = new Semaphore(Math.max(1, maxConcurrent));
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            rowCounter = Counter.builder("app.export.rows")
+                    .description("匯出的資料列數")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 取得匯出名額；成功時必須在匯出結束後呼叫 {@link #release()}
+     */
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * 執行查詢並把結果逐列寫入 out；不關閉 out
+     * @return 匯出的資料列數
+     */
+    public long export(ExportQuery query, ExportFormat format, OutputStream out, boolean gzip) throws IOException {
+        long start = System.nanoTime();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+        RowWriter writer = format.open(compressed != null ? compressed : out);
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        long rows;
+        try {
+            writer.writeHeader(query.getColumns());
+            rows = readOnlyTransaction.execute(status -> {
+                RowStreamer streamer = new RowStreamer(writer, query.getColumns().size());
+                streamingJdbcTemplate.query(query.getSql(), streamer, query.getParams());
+                return streamer.rows;
+            });
+            writer.finish();
+            if (compressed != null) {
+                compressed.finish();
+            }
+            out.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+        if (rowCounter != null) {
+            rowCounter.increment(rows);
+        }
+        logger.info("匯出 {} ({}): {} 列，耗時 {} ms", query.getName(), format, rows,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return rows;
+    }
+
+    /**
+     * 訂單；依下單時間排序，走 idx_orders_order_date
+     */
+    public ExportQuery ordersQuery(LocalDate from, LocalDate to, String status) {
+        StringBuilder sql = new StringBuilder("SELECT o.order_number, o.order_date, u.username, u.email, "
+                + "o.total_amount, o.status, o.payment_method, o.payment_status "
+                + "FROM orders o JOIN users u ON u.id = o.user_id WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        appendDateRange(sql, params, "o.order_date", from, to);
+        if (status != null && !status.isBlank()) {
+            sql.append(" AND o.status = ?");
+            params.add(status.trim());
+        }
+        sql.append(" ORDER BY o.order_date, o.id");
+        return new ExportQuery("orders", ORDER_COLUMNS, sql.toString(), params.toArray());
+    }
+
+    /**
+     * 訂單明細（銷售明細）；依訂單的下單時間篩選與排序
+     */
+    public ExportQuery orderItemsQuery(LocalDate from, LocalDate to) {
+        StringBuilder sql = new StringBuilder("SELECT o.order_number, o.order_date, o.status, c.title, p.start_time, "
+                + "p.venue, tt.name, oi.quantity, oi.unit_price, oi.subtotal "
+                + "FROM order_items oi JOIN orders o ON o.id = oi.order_id JOIN tickets t ON t.id = oi.ticket_id "
+                + "JOIN performances p ON p.id = t.performance_id JOIN concerts c ON c.id = p.concert_id "
+                + "JOIN ticket_types tt ON tt.id = t.ticket_type_id WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        appendDateRange(sql, params, "o.order_date", from, to);
+        sql.append(" ORDER BY o.order_date, o.id, oi.id");
+        return new ExportQuery("order-items", ORDER_ITEM_COLUMNS, sql.toString(), params.toArray());
+    }
+
+    /**
+     * 單一場次的出席名單（已付款訂單發出的票券）
+     */
+    public ExportQuery attendeesQuery(Long performanceId) {
+        String sql = "SELECT ut.ticket_code, u.username, u.last_name, u.first_name, u.email, tt.name, "
+                + "o.order_number, ut.is_used "
+                + "FROM user_tickets ut JOIN order_items oi ON oi.id = ut.order_item_id "
+                + "JOIN tickets t ON t.id = oi.ticket_id JOIN ticket_types tt ON tt.id = t.ticket_type_id "
+                + "JOIN orders o ON o.id = oi.order_id JOIN users u ON u.id = ut.user_id "
+                + "WHERE t.performance_id = ? AND o.status = 'paid' ORDER BY ut.id";
+        return new ExportQuery("attendees-" + performanceId, ATTENDEE_COLUMNS, sql, performanceId);
+    }
+
+    /**
+     * 使用者票券；依發券時間篩選與排序，走 idx_user_tickets_created
+     */
+    public ExportQuery userTicketsQuery(LocalDate from, LocalDate to) {
+        StringBuilder sql = new StringBuilder("SELECT ut.ticket_code, ut.created_at, u.username, u.email, c.title, "
+                + "p.start_time, p.venue, tt.name, o.order_number, ut.is_used "
+                + "FROM user_tickets ut JOIN users u ON u.id = ut.user_id "
+                + "JOIN order_items oi ON oi.id = ut.order_item_id JOIN orders o ON o.id = oi.order_id "
+                + "JOIN tickets t ON t.id = oi.ticket_id JOIN performances p ON p.id = t.performance_id "
+                + "JOIN concerts c ON c.id = p.concert_id JOIN ticket_types tt ON tt.id = t.ticket_type_id WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        appendDateRange(sql, params, "ut.created_at", from, to);
+        sql.append(" ORDER BY ut.created_at, ut.id");
+        return new ExportQuery("user-tickets", USER_TICKET_COLUMNS, sql.toString(), params.toArray());
+    }
+
+    /**
+     * 日期區間包含 to 當天
+     */
+    private static void appendDateRange(StringBuilder sql, List<Object> params, String column, LocalDate from,
+            LocalDate to) {
+        if (from != null) {
+            sql.append(" AND ").append(column).append(" >= ?");
+            params.add(from.atStartOfDay());
+        }
+        if (to != null) {
+            sql.append(" AND ").append(column).append(" < ?");
+            params.add(to.plusDays(1).atStartOfDay());
+        }
+    }
+
+    /**
+     * 把目前這一列轉成寫入器接受的值後立即寫出
+     */
+    private static final class RowStreamer implements RowCallbackHandler {
+
+        private final RowWriter writer;
+        private final Object[] values;
+        private int[] types;
+        private long rows;
+
+        RowStreamer(RowWriter writer, int columns) {
+            this.writer = writer;
+            this.values = new Object[columns];
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (types == null) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                types = new int[values.length];
+                for (int i = 0; i < types.length; i++) {
+                    types[i] = metaData.getColumnType(i + 1);
+                }
+            }
+            for (int i = 0; i < values.length; i++) {
+                values[i] = toValue(rs.getObject(i + 1), types[i]);
+            }
+            try {
+                writer.writeRow(values);
+            } catch (IOException e) {
+                // 用戶端中斷下載，停止讀取並讓交易回滾
+                throw new UncheckedIOException(e);
+            }
+            rows++;
+        }
+
+        private static Object toValue(Object value, int sqlType) {
+            if (value instanceof Timestamp) {
+                return ((Timestamp) value).toLocalDateTime();
+            }
+            if (value instanceof java.sql.Date) {
+                return ((java.sql.Date) value).toLocalDate().toString();
+            }
+            if (sqlType == java.sql.Types.BIT && value instanceof Number) {
+                return ((Number) value).intValue() != 0;
+            }
+            return value;
+        }
+    }
+}
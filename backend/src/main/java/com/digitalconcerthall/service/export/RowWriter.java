@@ -0,0 +1,22 @@
+package com.digitalconcerthall.service.export;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 逐列寫出匯出資料，不保留已寫出的列
+ */
+public interface RowWriter {
+
+    void writeHeader(List<String> columns) throws IOException;
+
+    /**
+     * @param values 與標題相同順序的欄位值，可為 null、字串、數字、布林值或 LocalDateTime
+     */
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * 寫出結尾並清空緩衝，不關閉底層串流
+     */
+    void finish() throws IOException;
+}
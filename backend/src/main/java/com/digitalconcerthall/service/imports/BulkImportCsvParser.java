@@ -0,0 +1,277 @@
+package com.digitalconcerthall.service.imports;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest;
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest.ConcertItem;
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest.PerformanceItem;
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest.TicketItem;
+
+/**
+ * 把 CSV 轉成 {@link BulkImportRequest}
+ * 每列是一個場次的一個票種；相同 concert_ref（未提供時使用 concert_title）的列屬於同一音樂會，
+ * 音樂會內相同 performance_start 與 venue 的列屬於同一場次，音樂會與場次的其他欄位取第一列的值。
+ * 以標題列對應欄位，順序不拘；時間格式為 yyyy-MM-dd HH:mm[:ss] 或 ISO-8601
+ */
+public final class BulkImportCsvParser {
+
+    static final List<String> COLUMNS = List.of("concert_ref", "concert_title", "concert_status", "concert_start",
+            "concert_end", "concert_description", "program_details", "poster_url", "brochure_url",
+            "performance_start", "performance_end", "duration", "venue", "performance_status", "livestream_url",
+            "recording_url", "ticket_type", "total_quantity", "available_quantity", "ticket_description");
+
+    private static final int MAX_ERRORS = 100;
+
+    private BulkImportCsvParser() {
+    }
+
+    /**
+     * @throws BulkImportValidationException 格式錯誤時，錯誤訊息帶有行號
+     */
+    public static BulkImportRequest parse(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new BulkImportValidationException(List.of("CSV 沒有內容"));
+        }
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (i == 0 && name.startsWith("﻿")) {
+                name = name.substring(1);
+            }
+            index.put(name, i);
+        }
+        List<String> errors = new ArrayList<>();
+        for (String required : List.of("concert_title", "performance_start", "venue")) {
+            if (!index.containsKey(required)) {
+                errors.add("缺少欄位 " + required);
+            }
+        }
+        for (String name : index.keySet()) {
+            if (!COLUMNS.contains(name)) {
+                errors.add("未知的欄位 " + name);
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new BulkImportValidationException(errors);
+        }
+
+        BulkImportRequest request = new BulkImportRequest();
+        Map<String, ConcertItem> concerts = new LinkedHashMap<>();
+        Map<String, PerformanceItem> performances = new HashMap<>();
+        for (List<String> values = csv.next(); values != null; values = csv.next()) {
+            Row row = new Row(values, index, csv.getLine(), errors);
+            if (row.isBlank()) {
+                continue;
+            }
+            String title = row.text("concert_title");
+            String ref = row.text("concert_ref");
+            String concertKey = ref != null ? ref : title;
+            ConcertItem concert = concerts.get(concertKey);
+            if (concert == null) {
+                concert = new ConcertItem();
+                concert.setTitle(title);
+                concert.setStatus(row.text("concert_status"));
+                concert.setStartDateTime(row.dateTime("concert_start"));
+                concert.setEndDateTime(row.dateTime("concert_end"));
+                concert.setDescription(row.text("concert_description"));
+                concert.setProgramDetails(row.text("program_details"));
+                concert.setPosterUrl(row.text("poster_url"));
+                concert.setBrochureUrl(row.text("brochure_url"));
+                concerts.put(concertKey, concert);
+                request.getConcerts().add(concert);
+            }
+
+            String performanceKey = concertKey + '\u0000' + row.text("performance_start") + '\u0000' + row.text("venue");
+            PerformanceItem performance = performances.get(performanceKey);
+            if (performance == null) {
+                performance = new PerformanceItem();
+                performance.setStartTime(row.dateTime("performance_start"));
+                performance.setEndTime(row.dateTime("performance_end"));
+                performance.setDuration(row.integer("duration"));
+                performance.setVenue(row.text("venue"));
+                performance.setStatus(row.text("performance_status"));
+                performance.setLivestreamUrl(row.text("livestream_url"));
+                performance.setRecordingUrl(row.text("recording_url"));
+                performances.put(performanceKey, performance);
+                concert.getPerformances().add(performance);
+            }
+
+            // 沒有票種的列只建立場次
+            String ticketType = row.text("ticket_type");
+            if (ticketType != null) {
+                TicketItem ticket = new TicketItem();
+                ticket.setTicketType(ticketType);
+                ticket.setTotalQuantity(row.integer("total_quantity"));
+                ticket.setAvailableQuantity(row.integer("available_quantity"));
+                ticket.setDescription(row.text("ticket_description"));
+                performance.getTickets().add(ticket);
+            }
+            if (errors.size() >= MAX_ERRORS) {
+                break;
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new BulkImportValidationException(errors);
+        }
+        return request;
+    }
+
+    /**
+     * 單一資料列，依欄位名稱取值；格式錯誤記錄到 errors 並回傳 null
+     */
+    private static final class Row {
+
+        private final List<String> values;
+        private final Map<String, Integer> index;
+        private final int line;
+        private final List<String> errors;
+
+        Row(List<String> values, Map<String, Integer> index, int line, List<String> errors) {
+            this.values = values;
+            this.index = index;
+            this.line = line;
+            this.errors = errors;
+        }
+
+        boolean isBlank() {
+            return values.stream().allMatch(String::isBlank);
+        }
+
+        String text(String column) {
+            Integer i = index.get(column);
+            if (i == null || i >= values.size()) {
+                return null;
+            }
+            String value = values.get(i).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        Integer integer(String column) {
+            String value = text(column);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Integer.valueOf(value);
+            } catch (NumberFormatException e) {
+                errors.add("第 " + line + " 行 " + column + ": 不是整數 " + value);
+                return null;
+            }
+        }
+
+        LocalDateTime dateTime(String column) {
+            String value = text(column);
+            if (value == null) {
+                return null;
+            }
+            String iso = value.replace(' ', 'T');
+            if (iso.length() == 16) {
+                iso += ":00";
+            }
+            try {
+                return LocalDateTime.parse(iso);
+            } catch (DateTimeParseException e) {
+                errors.add("第 " + line + " 行 " + column + ": 無法解析時間 " + value);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * RFC 4180：逗號分隔、雙引號包住的欄位可含逗號與換行，"" 代表一個雙引號
+     */
+    static final class CsvReader {
+
+        private final Reader reader;
+        private int line;
+        private int nextLine = 1;
+        private int peeked = -2;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * 目前這筆記錄開始的行號（從 1 起算）
+         */
+        int getLine() {
+            return line;
+        }
+
+        /**
+         * @return 下一筆記錄的欄位，沒有更多記錄時返回 null
+         */
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            line = nextLine;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new BulkImportValidationException(List.of("第 " + line + " 行: 引號沒有結束"));
+                    }
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            nextLine++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            peeked = following;
+                        }
+                    }
+                    if (c != -1) {
+                        nextLine++;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+}
@@ -0,0 +1,607 @@
+package com.digitalconcerthall.service.imports;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest;
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest.ConcertItem;
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest.PerformanceItem;
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest.TicketItem;
+import com.digitalconcerthall.dto.response.imports.ImportJobResponse;
+import com.digitalconcerthall.dto.response.imports.ImportValidationResponse;
+import com.digitalconcerthall.model.imports.ImportJob;
+import com.digitalconcerthall.model.ticket.TicketType;
+import com.digitalconcerthall.repository.TicketTypeRepository;
+import com.digitalconcerthall.repository.imports.ImportJobRepository;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.dashboard.DashboardMetricsService;
+import com.digitalconcerthall.service.search.ConcertSearchService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 批次匯入音樂會、演出場次與票券
+ * 先在記憶體中檢查整份內容（票種只查詢一次），全部合法才建立工作；工作在背景依序寫入，
+ * 每個分段（累積到 app.import.chunk-size 個場次的若干音樂會）以 JDBC 批次新增並與進度在同一交易提交。
+ * 失敗時已提交的分段保留，修正原因後可從下一個分段繼續，不會重複新增。
+ * 實體使用 IDENTITY 主鍵，Hibernate 無法批次新增，因此直接以 JdbcTemplate 批次寫入並取回自增 ID；
+ * 繞過 JPA 事件的部分（音樂會摘要、搜尋索引、儀表板計數）在每個分段提交後另行更新
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    static final Set<String> CONCERT_STATUSES = Set.of("active", "inactive", "upcoming", "past");
+    static final Set<String> PERFORMANCE_STATUSES = Set.of("scheduled", "live", "completed", "cancelled");
+    private static final int MAX_ERRORS = 100;
+
+    private static final String INSERT_CONCERT = "INSERT INTO concerts (title, description, program_details, "
+            + "poster_url, brochure_url, status, start_date_time, end_date_time, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PERFORMANCE = "INSERT INTO performances (concert_id, start_time, end_time, "
+            + "venue, status, livestream_url, recording_url) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TICKET = "INSERT INTO tickets (performance_id, ticket_type_id, "
+            + "total_quantity, available_quantity, description, status, username, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.max-performances:100000}")
+    private int maxPerformances;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TicketTypeRepository ticketTypeRepository;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private ConcertSearchService concertSearchService;
+
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    /** 目前在此節點執行或排隊中的工作 */
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+    private TransactionTemplate transaction;
+    private ExecutorService importExecutor;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        importExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bulk-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 中斷後停在最後一個已提交的分段，重啟後可繼續
+        importExecutor.shutdownNow();
+    }
+
+    /**
+     * 只檢查內容，不寫入
+     */
+    public ImportValidationResponse validate(BulkImportRequest request) {
+        ImportValidationResponse response = new ImportValidationResponse();
+        response.setErrors(validate(request, loadTicketTypes()));
+        response.setValid(response.getErrors().isEmpty());
+        response.setConcerts(request.getConcerts().size());
+        response.setPerformances(countPerformances(request));
+        response.setTickets(countTickets(request));
+        return response;
+    }
+
+    /**
+     * 檢查內容並建立工作，在背景開始匯入
+     * @throws BulkImportValidationException 內容不合法時，不建立工作
+     */
+    public ImportJobResponse submit(BulkImportRequest request, String username) {
+        List<String> errors = validate(request, loadTicketTypes());
+        if (!errors.isEmpty()) {
+            throw new BulkImportValidationException(errors);
+        }
+        ImportJob job = new ImportJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setStatus(ImportJob.PENDING);
+        job.setDocument(writeDocument(request));
+        job.setTotalConcerts(request.getConcerts().size());
+        job.setTotalPerformances(countPerformances(request));
+        job.setTotalTickets(countTickets(request));
+        job.setCreatedBy(username);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        importJobRepository.save(job);
+        logger.info("建立批次匯入 {}: {} 個音樂會、{} 個場次、{} 筆票券", job.getId(), job.getTotalConcerts(),
+                job.getTotalPerformances(), job.getTotalTickets());
+        schedule(job.getId());
+        return toResponse(job);
+    }
+
+    /**
+     * 從最後一個已提交的分段繼續執行失敗或中斷的工作
+     * @throws IllegalStateException 工作已完成或正在執行
+     */
+    public Optional<ImportJobResponse> resume(String jobId) {
+        Optional<ImportJob> found = importJobRepository.findById(jobId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        ImportJob job = found.get();
+        if (ImportJob.COMPLETED.equals(job.getStatus())) {
+            throw new IllegalStateException("匯入已完成");
+        }
+        if (active.contains(jobId)) {
+            throw new IllegalStateException("匯入正在執行");
+        }
+        // 先改回待執行並清除上次的錯誤，背景開始之前查詢進度不會看到舊的失敗
+        job.setStatus(ImportJob.PENDING);
+        job.setErrorMessage(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        ImportJob saved = importJobRepository.save(job);
+        schedule(jobId);
+        return Optional.of(toResponse(saved));
+    }
+
+    public Optional<ImportJobResponse> getJob(String jobId) {
+        return importJobRepository.findById(jobId).map(this::toResponse);
+    }
+
+    public List<ImportJobResponse> getRecentJobs() {
+        return importJobRepository.findTop20ByOrderByCreatedAtDesc().stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    private void schedule(String jobId) {
+        if (!active.add(jobId)) {
+            throw new IllegalStateException("匯入正在執行");
+        }
+        try {
+            importExecutor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    active.remove(jobId);
+                }
+            });
+        } catch (RuntimeException e) {
+            active.remove(jobId);
+            throw e;
+        }
+    }
+
+    private void run(String jobId) {
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        long start = System.nanoTime();
+        long durationBefore = 0;
+        try {
+            ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+            durationBefore = job.getDurationMs();
+            BulkImportRequest request = readDocument(job.getDocument());
+            Map<String, TicketType> ticketTypes = loadTicketTypes();
+            // 票種可能在排隊或失敗後被修改
+            List<String> errors = validate(request, ticketTypes);
+            if (!errors.isEmpty()) {
+                throw new BulkImportValidationException(errors);
+            }
+            updateJob(jobId, ImportJob.RUNNING, null, durationBefore);
+
+            List<ConcertItem> concerts = request.getConcerts();
+            int next = job.getImportedConcerts();
+            if (next > 0) {
+                logger.info("繼續批次匯入 {}，從第 {} 個音樂會開始", jobId, next + 1);
+            }
+            while (next < concerts.size()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("匯入被中斷");
+                }
+                int end = chunkEnd(concerts, next);
+                List<ConcertItem> chunk = concerts.subList(next, end);
+                long elapsed = durationBefore + Duration.ofNanos(System.nanoTime() - start).toMillis();
+                int[] written = transaction.execute(status -> writeChunk(jobId, chunk, end, ticketTypes,
+                        job.getCreatedBy(), elapsed));
+                dashboardMetricsService.recordBulkInsert(DashboardMetricsService.CONCERTS, written[0]);
+                dashboardMetricsService.recordBulkInsert(DashboardMetricsService.PERFORMANCES, written[1]);
+                dashboardMetricsService.recordBulkInsert(DashboardMetricsService.TICKETS, written[2]);
+                next = end;
+            }
+
+            long durationMs = durationBefore + Duration.ofNanos(System.nanoTime() - start).toMillis();
+            ImportJob finished = transaction.execute(status -> {
+                ImportJob current = importJobRepository.findById(jobId).orElseThrow();
+                current.setStatus(ImportJob.COMPLETED);
+                current.setDocument(null);
+                current.setErrorMessage(null);
+                current.setDurationMs(durationMs);
+                current.setUpdatedAt(LocalDateTime.now());
+                return current;
+            });
+            logger.info("批次匯入 {} 完成: {} 個音樂會、{} 個場次、{} 筆票券，耗時 {} ms（每秒 {} 列）", jobId,
+                    finished.getImportedConcerts(), finished.getImportedPerformances(), finished.getImportedTickets(),
+                    durationMs, rowsPerSecond(finished));
+        } catch (RuntimeException e) {
+            String message = e instanceof BulkImportValidationException
+                    ? e.getMessage() + ": " + String.join("; ", ((BulkImportValidationException) e).getErrors())
+                    : e.getMessage();
+            logger.warn("批次匯入 {} 失敗: {}", jobId, message);
+            try {
+                updateJob(jobId, ImportJob.FAILED, message,
+                        durationBefore + Duration.ofNanos(System.nanoTime() - start).toMillis());
+            } catch (RuntimeException updateFailure) {
+                logger.warn("無法記錄批次匯入 {} 的失敗: {}", jobId, updateFailure.getMessage());
+            }
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    /**
+     * 在目前交易中寫入一個分段並更新進度
+     * @return 新增的音樂會、場次與票券數
+     */
+    private int[] writeChunk(String jobId, List<ConcertItem> chunk, int importedConcerts,
+            Map<String, TicketType> ticketTypes, String username, long durationMs) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> concertRows = new ArrayList<>(chunk.size());
+        for (ConcertItem concert : chunk) {
+            LocalDateTime startDateTime = concert.getStartDateTime() != null ? concert.getStartDateTime() : now;
+            LocalDateTime endDateTime = concert.getEndDateTime() != null
+                    ? concert.getEndDateTime() : startDateTime.plusHours(2);
+            concertRows.add(new Object[] { concert.getTitle(), concert.getDescription(), concert.getProgramDetails(),
+                    concert.getPosterUrl(), concert.getBrochureUrl(), concert.getStatus(), startDateTime, endDateTime,
+                    now, now });
+        }
+        List<Long> concertIds = insertReturningIds(INSERT_CONCERT, concertRows);
+
+        List<Object[]> performanceRows = new ArrayList<>();
+        List<PerformanceItem> performances = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            for (PerformanceItem performance : chunk.get(i).getPerformances()) {
+                performanceRows.add(new Object[] { concertIds.get(i), performance.getStartTime(), endTime(performance),
+                        performance.getVenue(), performance.getStatus(), performance.getLivestreamUrl(),
+                        performance.getRecordingUrl() });
+                performances.add(performance);
+            }
+        }
+        List<Long> performanceIds = insertReturningIds(INSERT_PERFORMANCE, performanceRows);
+
+        List<Object[]> ticketRows = new ArrayList<>();
+        for (int i = 0; i < performances.size(); i++) {
+            for (TicketItem ticket : performances.get(i).getTickets()) {
+                int available = ticket.getAvailableQuantity() != null
+                        ? ticket.getAvailableQuantity() : ticket.getTotalQuantity();
+                ticketRows.add(new Object[] { performanceIds.get(i), resolve(ticket, ticketTypes).getId(),
+                        ticket.getTotalQuantity(), available, ticket.getDescription(), "ACTIVE", username, now });
+            }
+        }
+        if (!ticketRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TICKET, ticketRows);
+        }
+
+        ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+        job.setImportedConcerts(importedConcerts);
+        job.setImportedPerformances(job.getImportedPerformances() + performanceRows.size());
+        job.setImportedTickets(job.getImportedTickets() + ticketRows.size());
+        job.setDurationMs(durationMs);
+        job.setUpdatedAt(LocalDateTime.now());
+
+        // 在交易中呼叫，提交後才執行
+        concertSummaryService.refresh(concertIds);
+        concertSearchService.reindex(concertIds);
+        return new int[] { concertRows.size(), performanceRows.size(), ticketRows.size() };
+    }
+
+    /**
+     * 批次新增並依序取回自增 ID；MySQL 需要 rewriteBatchedStatements=true 才會合併成多列 INSERT
+     */
+    private List<Long> insertReturningIds(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        new ArgumentPreparedStatementSetter(rows.get(i)).setValues(ps);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != rows.size()) {
+            throw new IllegalStateException("取回的 ID 數量 " + keys.size() + " 與新增筆數 " + rows.size() + " 不符");
+        }
+        List<Long> ids = new ArrayList<>(keys.size());
+        for (Map<String, Object> key : keys) {
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * 分段結尾（不含）；分段以音樂會為單位，累積到 chunkSize 個場次為止
+     */
+    private int chunkEnd(List<ConcertItem> concerts, int from) {
+        int performances = 0;
+        int end = from;
+        while (end < concerts.size() && (end == from || performances < chunkSize)) {
+            performances += concerts.get(end).getPerformances().size();
+            end++;
+        }
+        return end;
+    }
+
+    private void updateJob(String jobId, String status, String errorMessage, long durationMs) {
+        transaction.executeWithoutResult(tx -> importJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setErrorMessage(errorMessage != null && errorMessage.length() > 1000
+                    ? errorMessage.substring(0, 1000) : errorMessage);
+            job.setDurationMs(durationMs);
+            job.setUpdatedAt(LocalDateTime.now());
+        }));
+    }
+
+    /**
+     * 找出所有錯誤，最多 {@value #MAX_ERRORS} 個
+     */
+    List<String> validate(BulkImportRequest request, Map<String, TicketType> ticketTypes) {
+        List<String> errors = new ArrayList<>();
+        if (request == null || request.getConcerts() == null || request.getConcerts().isEmpty()) {
+            errors.add("沒有要匯入的音樂會");
+            return errors;
+        }
+        int performances = countPerformances(request);
+        if (performances > maxPerformances) {
+            errors.add("場次數 " + performances + " 超過單次匯入上限 " + maxPerformances);
+            return errors;
+        }
+        List<ConcertItem> concerts = request.getConcerts();
+        for (int c = 0; c < concerts.size() && errors.size() < MAX_ERRORS; c++) {
+            ConcertItem concert = concerts.get(c);
+            String path = "concerts[" + c + "]";
+            if (concert == null) {
+                errors.add(path + ": 內容為空");
+                continue;
+            }
+            checkText(errors, path + ".title", concert.getTitle(), 200, true);
+            checkStatus(errors, path + ".status", concert.getStatus(), CONCERT_STATUSES);
+            checkText(errors, path + ".posterUrl", concert.getPosterUrl(), 255, false);
+            checkText(errors, path + ".brochureUrl", concert.getBrochureUrl(), 255, false);
+            if (concert.getStartDateTime() != null && concert.getEndDateTime() != null
+                    && concert.getEndDateTime().isBefore(concert.getStartDateTime())) {
+                errors.add(path + ": 結束時間早於開始時間");
+            }
+            if (concert.getPerformances() == null) {
+                concert.setPerformances(new ArrayList<>());
+            }
+            Set<String> seenPerformances = new HashSet<>();
+            for (int p = 0; p < concert.getPerformances().size(); p++) {
+                validatePerformance(errors, path + ".performances[" + p + "]", concert.getPerformances().get(p),
+                        seenPerformances, ticketTypes);
+            }
+        }
+        if (errors.size() > MAX_ERRORS) {
+            errors.subList(MAX_ERRORS, errors.size()).clear();
+        }
+        return errors;
+    }
+
+    private void validatePerformance(List<String> errors, String path, PerformanceItem performance,
+            Set<String> seenPerformances, Map<String, TicketType> ticketTypes) {
+        if (performance == null) {
+            errors.add(path + ": 內容為空");
+            return;
+        }
+        if (performance.getStartTime() == null) {
+            errors.add(path + ".startTime: 必須提供");
+        }
+        checkText(errors, path + ".venue", performance.getVenue(), 100, true);
+        checkStatus(errors, path + ".status", performance.getStatus(), PERFORMANCE_STATUSES);
+        checkText(errors, path + ".livestreamUrl", performance.getLivestreamUrl(), 255, false);
+        checkText(errors, path + ".recordingUrl", performance.getRecordingUrl(), 255, false);
+        if (performance.getDuration() != null && performance.getDuration() <= 0) {
+            errors.add(path + ".duration: 必須大於 0");
+        }
+        LocalDateTime endTime = endTime(performance);
+        if (performance.getStartTime() != null && endTime != null && endTime.isBefore(performance.getStartTime())) {
+            errors.add(path + ": 結束時間早於開始時間");
+        }
+        if (performance.getStartTime() != null && performance.getVenue() != null
+                && !seenPerformances.add(performance.getStartTime() + "@" + performance.getVenue())) {
+            errors.add(path + ": 同一音樂會中重複的場次（相同開始時間與場地）");
+        }
+        if (performance.getTickets() == null) {
+            performance.setTickets(new ArrayList<>());
+        }
+        Set<Long> seenTypes = new HashSet<>();
+        for (int t = 0; t < performance.getTickets().size(); t++) {
+            TicketItem ticket = performance.getTickets().get(t);
+            String ticketPath = path + ".tickets[" + t + "]";
+            if (ticket == null) {
+                errors.add(ticketPath + ": 內容為空");
+                continue;
+            }
+            TicketType type = resolve(ticket, ticketTypes);
+            if (type == null) {
+                errors.add(ticketPath + ": 找不到票種 "
+                        + (ticket.getTicketTypeId() != null ? ticket.getTicketTypeId() : ticket.getTicketType()));
+            } else if (!seenTypes.add(type.getId())) {
+                errors.add(ticketPath + ": 同一場次重複的票種 " + type.getName());
+            }
+            Integer total = ticket.getTotalQuantity();
+            Integer available = ticket.getAvailableQuantity();
+            if (total == null || total < 0) {
+                errors.add(ticketPath + ".totalQuantity: 必須提供且不能小於 0");
+            } else if (available != null && (available < 0 || available > total)) {
+                errors.add(ticketPath + ".availableQuantity: 必須介於 0 與總數量之間");
+            }
+            checkText(errors, ticketPath + ".description", ticket.getDescription(), 255, false);
+        }
+    }
+
+    private static void checkText(List<String> errors, String path, String value, int maxLength, boolean required) {
+        if (value == null || value.isBlank()) {
+            if (required) {
+                errors.add(path + ": 必須提供");
+            }
+        } else if (value.length() > maxLength) {
+            errors.add(path + ": 長度超過 " + maxLength);
+        }
+    }
+
+    private static void checkStatus(List<String> errors, String path, String value, Set<String> allowed) {
+        if (value == null || value.isBlank()) {
+            errors.add(path + ": 必須提供");
+        } else if (!allowed.contains(value)) {
+            errors.add(path + ": 不支援的狀態 " + value);
+        }
+    }
+
+    /**
+     * 與單筆新增場次相同：有時長時以時長計算，沒有結束時間時預設兩小時
+     */
+    private static LocalDateTime endTime(PerformanceItem performance) {
+        if (performance.getStartTime() == null) {
+            return performance.getEndTime();
+        }
+        if (performance.getDuration() != null) {
+            return performance.getStartTime().plusMinutes(performance.getDuration());
+        }
+        if (performance.getEndTime() == null) {
+            return performance.getStartTime().plusMinutes(120);
+        }
+        return performance.getEndTime();
+    }
+
+    private static TicketType resolve(TicketItem ticket, Map<String, TicketType> ticketTypes) {
+        if (ticket.getTicketTypeId() != null) {
+            return ticketTypes.get("#" + ticket.getTicketTypeId());
+        }
+        return ticket.getTicketType() != null ? ticketTypes.get(ticket.getTicketType().trim()) : null;
+    }
+
+    /**
+     * 以 "#id" 與名稱兩種鍵查詢
+     */
+    private Map<String, TicketType> loadTicketTypes() {
+        Map<String, TicketType> types = new HashMap<>();
+        for (TicketType type : ticketTypeRepository.findAll()) {
+            types.put("#" + type.getId(), type);
+            types.putIfAbsent(type.getName(), type);
+        }
+        return types;
+    }
+
+    private static int countPerformances(BulkImportRequest request) {
+        return request.getConcerts().stream()
+                .filter(concert -> concert != null && concert.getPerformances() != null)
+                .mapToInt(concert -> concert.getPerformances().size())
+                .sum();
+    }
+
+    private static int countTickets(BulkImportRequest request) {
+        return request.getConcerts().stream()
+                .filter(concert -> concert != null && concert.getPerformances() != null)
+                .flatMap(concert -> concert.getPerformances().stream())
+                .filter(performance -> performance != null && performance.getTickets() != null)
+                .mapToInt(performance -> performance.getTickets().size())
+                .sum();
+    }
+
+    private String writeDocument(BulkImportRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("無法保存匯入內容: " + e.getMessage(), e);
+        }
+    }
+
+    private BulkImportRequest readDocument(String document) {
+        if (document == null) {
+            throw new IllegalStateException("匯入內容已清除");
+        }
+        try {
+            return objectMapper.readValue(document, BulkImportRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("無法讀取匯入內容: " + e.getMessage(), e);
+        }
+    }
+
+    private static long rowsPerSecond(ImportJob job) {
+        long rows = (long) job.getImportedConcerts() + job.getImportedPerformances() + job.getImportedTickets();
+        return job.getDurationMs() > 0 ? rows * 1000 / job.getDurationMs() : rows;
+    }
+
+    private ImportJobResponse toResponse(ImportJob job) {
+        ImportJobResponse response = new ImportJobResponse();
+        response.setId(job.getId());
+        response.setStatus(job.getStatus());
+        response.setTotalConcerts(job.getTotalConcerts());
+        response.setTotalPerformances(job.getTotalPerformances());
+        response.setTotalTickets(job.getTotalTickets());
+        response.setImportedConcerts(job.getImportedConcerts());
+        response.setImportedPerformances(job.getImportedPerformances());
+        response.setImportedTickets(job.getImportedTickets());
+        response.setDurationMs(job.getDurationMs());
+        response.setRowsPerSecond(rowsPerSecond(job));
+        response.setErrorMessage(job.getErrorMessage());
+        response.setCreatedBy(job.getCreatedBy());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setUpdatedAt(job.getUpdatedAt());
+        return response;
+    }
+}
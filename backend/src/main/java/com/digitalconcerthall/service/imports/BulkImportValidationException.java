@@ -0,0 +1,20 @@
+package com.digitalconcerthall.service.imports;
+
+import java.util.List;
+
+/**
+ * 匯入內容不合法；帶有所有找到的錯誤，而不只第一個
+ */
+public class BulkImportValidationException extends RuntimeException {
+
+    private final List<String> errors;
+
+    public BulkImportValidationException(List<String> errors) {
+        super("匯入內容有 " + errors.size() + " 個錯誤");
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,42 @@
+package com.digitalconcerthall.service.job;
+
+/**
+ * 本節點取得的一次租約
+ * 防護權杖在租約換手時遞增；持有者在寫入的交易中以 {@link JobLeaseService#checkFence(JobLease)} 確認權杖未變
+ */
+public final class JobLease {
+
+    private final String jobName;
+    private final String owner;
+    private final long fencingToken;
+    private volatile boolean lost;
+
+    JobLease(String jobName, String owner, long fencingToken) {
+        this.jobName = jobName;
+        this.owner = owner;
+        this.fencingToken = fencingToken;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    /**
+     * 續約失敗（已被其他節點接手）後為 true，工作應儘快停止
+     */
+    public boolean isLost() {
+        return lost;
+    }
+
+    void markLost() {
+        lost = true;
+    }
+}
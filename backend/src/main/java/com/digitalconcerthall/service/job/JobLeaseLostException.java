@@ -0,0 +1,11 @@
+package com.digitalconcerthall.service.job;
+
+/**
+ * 租約已由其他節點接手，本節點不能再寫入
+ */
+public class JobLeaseLostException extends IllegalStateException {
+
+    public JobLeaseLostException(String jobName, long fencingToken) {
+        super("排程租約 " + jobName + " 已由其他節點接手（權杖 " + fencingToken + " 已失效）");
+    }
+}
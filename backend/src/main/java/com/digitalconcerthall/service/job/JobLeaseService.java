@@ -0,0 +1,202 @@
+package com.digitalconcerthall.service.job;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.dto.response.monitoring.JobStatusResponse;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 以 job_leases 資料表實作的排程租約，讓多個節點上的同一個排程只有一個實際執行
+ * 取得租約是單一資料列的條件更新（租約與下次執行時間都已到期），沒有資料列時新增，主鍵衝突表示其他節點先取得。
+ * 租約換手時防護權杖加一：持有者在寫入的交易中鎖定租約列並確認權杖未變，暫停過久、租約已被接手的舊持有者
+ * 無法再寫入，接手的節點也要等舊持有者進行中的交易結束才能取得。
+ * 到期時間以各節點的時鐘計算，租約長度需遠大於節點間的時鐘誤差
+ */
+@Service
+public class JobLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobLeaseService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String owner;
+    private TransactionTemplate leaseTransaction;
+
+    @PostConstruct
+    public void init() {
+        owner = hostName() + "/" + ManagementFactory.getRuntimeMXBean().getPid() + "/"
+                + UUID.randomUUID().toString().substring(0, 8);
+        // 租約要立即對其他節點可見，不能併入呼叫端的交易
+        leaseTransaction = new TransactionTemplate(transactionManager);
+        leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 本節點的持有者名稱
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * 工作已到期執行且沒有其他節點持有租約時取得新的租約，同時把下次執行時間設為 now + interval
+     * 下次執行時間在開始時就寫入，執行中斷或失敗也不會讓其他節點在同一個間隔內重跑
+     * @return 取得的租約（含新的防護權杖）；尚未到期或其他節點持有時為空
+     */
+    public Optional<JobLease> acquireIfDue(String jobName, Duration duration, Duration interval) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(duration);
+        LocalDateTime nextRunAt = now.plus(interval);
+        Long token = leaseTransaction.execute(status -> {
+            int updated = jdbcTemplate.update("UPDATE job_leases SET fencing_token = fencing_token + 1, owner = ?, "
+                    + "lease_until = ?, acquired_at = ?, next_run_at = ? WHERE job_name = ? AND lease_until < ? "
+                    + "AND (next_run_at IS NULL OR next_run_at <= ?)", owner, until, now, nextRunAt, jobName, now, now);
+            if (updated > 0) {
+                return jdbcTemplate.queryForObject("SELECT fencing_token FROM job_leases WHERE job_name = ?",
+                        Long.class, jobName);
+            }
+            Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_leases WHERE job_name = ?",
+                    Integer.class, jobName);
+            if (existing != null && existing > 0) {
+                return null;
+            }
+            try {
+                jdbcTemplate.update("INSERT INTO job_leases (job_name, owner, lease_until, acquired_at, fencing_token, "
+                        + "next_run_at) VALUES (?, ?, ?, ?, 1, ?)", jobName, owner, until, now, nextRunAt);
+                return 1L;
+            } catch (DuplicateKeyException e) {
+                return null;
+            }
+        });
+        if (token == null) {
+            return Optional.empty();
+        }
+        logger.debug("取得排程租約 {}（權杖 {}）至 {}，下次執行 {}", jobName, token, until, nextRunAt);
+        return Optional.of(new JobLease(jobName, owner, token));
+    }
+
+    /**
+     * 延長租約；權杖已改變（被其他節點接手）時標記租約遺失
+     * @return 是否仍持有租約
+     */
+    public boolean renew(JobLease lease, Duration duration) {
+        Integer updated = leaseTransaction.execute(status -> jdbcTemplate.update(
+                "UPDATE job_leases SET lease_until = ? WHERE job_name = ? AND owner = ? AND fencing_token = ?",
+                LocalDateTime.now().plus(duration), lease.getJobName(), lease.getOwner(), lease.getFencingToken()));
+        if (updated == null || updated == 0) {
+            lease.markLost();
+            logger.warn("排程租約 {}（權杖 {}）已由其他節點接手", lease.getJobName(), lease.getFencingToken());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 在呼叫端的交易中鎖定租約列並確認權杖未變，交易提交前其他節點無法接手
+     * @throws JobLeaseLostException 租約已被接手，呼叫端的交易應回滾
+     */
+    public void checkFence(JobLease lease) {
+        List<Long> tokens = jdbcTemplate.queryForList("SELECT fencing_token FROM job_leases WHERE job_name = ? "
+                + "FOR UPDATE", Long.class, lease.getJobName());
+        if (tokens.isEmpty() || tokens.get(0) != lease.getFencingToken()) {
+            lease.markLost();
+            throw new JobLeaseLostException(lease.getJobName(), lease.getFencingToken());
+        }
+    }
+
+    /**
+     * 在呼叫端的交易中鎖定租約列但不檢查持有者，讓各節點不經租約的寫入與租約持有者的寫入依序進行
+     * 租約列尚不存在時以已到期的租約建立，之後仍可照常取得租約
+     */
+    public void lock(String jobName) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_leases WHERE job_name = ?",
+                Integer.class, jobName);
+        if (existing == null || existing == 0) {
+            // 在獨立交易中建立：呼叫端交易內鎖定不存在的資料列會取得間隙鎖，同時建立的節點互相死結
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                leaseTransaction.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO job_leases "
+                        + "(job_name, owner, lease_until, acquired_at, fencing_token) VALUES (?, ?, ?, ?, 0)",
+                        jobName, owner, now, now));
+            } catch (DuplicateKeyException e) {
+                // 其他節點先建立
+            }
+        }
+        jdbcTemplate.queryForList("SELECT fencing_token FROM job_leases WHERE job_name = ? FOR UPDATE", Long.class,
+                jobName);
+    }
+
+    /**
+     * 記錄執行結果並釋放租約；權杖已改變時不覆寫新持有者的資料
+     * @param error 失敗原因，成功時為 null
+     */
+    public void complete(JobLease lease, LocalDateTime startedAt, long durationMs, int items, String error) {
+        String status = error == null ? "SUCCEEDED" : "FAILED";
+        String message = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        try {
+            leaseTransaction.executeWithoutResult(tx -> jdbcTemplate.update("UPDATE job_leases SET lease_until = ?, "
+                    + "last_started_at = ?, last_duration_ms = ?, last_items = ?, last_status = ?, last_error = ?, "
+                    + "run_count = run_count + 1, failure_count = failure_count + ? "
+                    + "WHERE job_name = ? AND owner = ? AND fencing_token = ?", LocalDateTime.now(), startedAt,
+                    durationMs, items, status, message, error == null ? 0 : 1, lease.getJobName(), lease.getOwner(),
+                    lease.getFencingToken()));
+        } catch (RuntimeException e) {
+            // 記錄失敗時租約仍會到期
+            logger.warn("記錄排程 {} 的執行結果失敗: {}", lease.getJobName(), e.getMessage());
+        }
+    }
+
+    /**
+     * 所有工作的租約與最近一次執行結果，依名稱排序
+     */
+    public List<JobStatusResponse> findStatuses() {
+        return jdbcTemplate.query("SELECT job_name, owner, lease_until, fencing_token, next_run_at, last_started_at, "
+                + "last_duration_ms, last_items, last_status, last_error, run_count, failure_count FROM job_leases "
+                + "ORDER BY job_name", (rs, rowNum) -> {
+                    JobStatusResponse response = new JobStatusResponse();
+                    response.setName(rs.getString(1));
+                    response.setOwner(rs.getString(2));
+                    response.setLeaseUntil(rs.getTimestamp(3).toLocalDateTime());
+                    response.setFencingToken(rs.getLong(4));
+                    response.setNextRunAt(rs.getTimestamp(5) != null ? rs.getTimestamp(5).toLocalDateTime() : null);
+                    response.setLastStartedAt(rs.getTimestamp(6) != null ? rs.getTimestamp(6).toLocalDateTime() : null);
+                    response.setLastDurationMs(rs.getObject(7) != null ? rs.getLong(7) : null);
+                    response.setLastItems(rs.getObject(8) != null ? rs.getInt(8) : null);
+                    response.setLastStatus(rs.getString(9));
+                    response.setLastError(rs.getString(10));
+                    response.setRunCount(rs.getLong(11));
+                    response.setFailureCount(rs.getLong(12));
+                    return response;
+                });
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
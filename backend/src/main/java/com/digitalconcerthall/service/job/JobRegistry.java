@@ -0,0 +1,272 @@
+package com.digitalconcerthall.service.job;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.digitalconcerthall.dto.response.monitoring.JobStatusResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 多節點排程工作的登記與執行
+ * 各服務在啟動時登記工作名稱、間隔與租約長度；每個節點每 app.jobs.poll-ms 檢查一次，
+ * 只有工作已到期（job_leases.next_run_at）且取得租約的節點執行，所有節點合計每個間隔執行一次。
+ * 執行期間每三分之一租約長度續約一次，續約失敗時標記租約遺失；執行結果（開始時間、耗時、處理項目數、錯誤）
+ * 由持有者寫回租約列，並記錄 app.jobs.* 指標
+ */
+@Service
+public class JobRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRegistry.class);
+
+    @Value("${app.jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jobs.threads:2}")
+    private int threads;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final Map<String, Registration> jobs = new ConcurrentSkipListMap<>();
+    private ExecutorService jobExecutor;
+    private ScheduledExecutorService renewalExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        jobExecutor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "cluster-job-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewalExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-lease-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 中斷執行中的工作；未續約的租約到期後由其他節點接手
+        jobExecutor.shutdownNow();
+        renewalExecutor.shutdownNow();
+    }
+
+    /**
+     * 登記工作
+     * @param enabled 停用時不會排程執行，仍可用 {@link #runIfDue(String)} 手動執行
+     * @throws IllegalStateException 名稱已登記
+     */
+    public void register(String name, boolean enabled, Duration interval, Duration leaseDuration, JobTask task) {
+        if (interval.isNegative() || interval.isZero() || leaseDuration.isNegative() || leaseDuration.isZero()) {
+            throw new IllegalArgumentException("排程 " + name + " 的間隔與租約長度必須大於 0");
+        }
+        Registration registration = new Registration(name, enabled, interval, leaseDuration, task);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            registration.runTimer = Timer.builder("app.jobs.run")
+                    .description("排程工作執行耗時")
+                    .tag("job", name)
+                    .register(registry);
+            registration.itemsCounter = Counter.builder("app.jobs.items")
+                    .description("排程工作處理的項目數")
+                    .tag("job", name)
+                    .register(registry);
+            registration.failureCounter = Counter.builder("app.jobs.failures")
+                    .description("排程工作失敗次數")
+                    .tag("job", name)
+                    .register(registry);
+        }
+        if (jobs.putIfAbsent(name, registration) != null) {
+            throw new IllegalStateException("排程 " + name + " 已登記");
+        }
+        logger.info("登記排程 {}: 間隔 {} 秒，租約 {} 秒{}", name, interval.toSeconds(), leaseDuration.toSeconds(),
+                enabled ? "" : "（停用）");
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.poll-ms:5000}", initialDelayString = "${app.jobs.poll-ms:5000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        for (Registration registration : jobs.values()) {
+            if (!registration.enabled || !registration.running.compareAndSet(false, true)) {
+                continue;
+            }
+            try {
+                jobExecutor.execute(() -> {
+                    try {
+                        execute(registration);
+                    } finally {
+                        registration.running.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                registration.running.set(false);
+            }
+        }
+    }
+
+    /**
+     * 在呼叫端的線程執行一次：工作已到期且取得租約時才執行
+     * @return 是否執行；本節點正在執行、尚未到期或其他節點持有租約時為 false
+     */
+    public boolean runIfDue(String name) {
+        Registration registration = jobs.get(name);
+        if (registration == null) {
+            throw new IllegalArgumentException("排程 " + name + " 未登記");
+        }
+        if (!registration.running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            return execute(registration);
+        } finally {
+            registration.running.set(false);
+        }
+    }
+
+    /**
+     * 所有工作的租約與最近一次執行結果，含本節點的登記狀態
+     */
+    public List<JobStatusResponse> getStatuses() {
+        Map<String, JobStatusResponse> statuses = new ConcurrentSkipListMap<>();
+        for (JobStatusResponse status : jobLeaseService.findStatuses()) {
+            statuses.put(status.getName(), status);
+        }
+        for (Registration registration : jobs.values()) {
+            JobStatusResponse status = statuses.computeIfAbsent(registration.name, name -> {
+                JobStatusResponse created = new JobStatusResponse();
+                created.setName(name);
+                return created;
+            });
+            status.setEnabled(registration.enabled);
+            status.setIntervalMs(registration.interval.toMillis());
+            status.setRunning(registration.running.get());
+        }
+        return new ArrayList<>(statuses.values());
+    }
+
+    private boolean execute(Registration registration) {
+        Optional<JobLease> acquired;
+        // 租約的讀寫在排程線程上執行，沒有請求分類，使用後台分區
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try {
+            acquired = jobLeaseService.acquireIfDue(registration.name, registration.leaseDuration,
+                    registration.interval);
+        } catch (RuntimeException e) {
+            logger.warn("取得排程租約 {} 失敗: {}", registration.name, e.getMessage());
+            return false;
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+        if (acquired.isEmpty()) {
+            return false;
+        }
+        JobLease lease = acquired.get();
+        long renewMillis = Math.max(1, registration.leaseDuration.toMillis() / 3);
+        ScheduledFuture<?> renewal = renewalExecutor.scheduleAtFixedRate(() -> renew(lease, registration),
+                renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        int items = 0;
+        String error = null;
+        try {
+            items = registration.task.run(lease);
+        } catch (RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            logger.warn("排程 {} 執行失敗，下個間隔重試: {}", registration.name, error);
+        } finally {
+            renewal.cancel(false);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            Workload previousWorkload = WorkloadContext.enter(Workload.ADMIN);
+            try {
+                jobLeaseService.complete(lease, startedAt, elapsed.toMillis(), items, error);
+            } finally {
+                WorkloadContext.restore(previousWorkload);
+            }
+            if (registration.runTimer != null) {
+                registration.runTimer.record(elapsed);
+                registration.itemsCounter.increment(items);
+                if (error != null) {
+                    registration.failureCounter.increment();
+                }
+            }
+        }
+        logger.debug("排程 {} 執行完成（權杖 {}）: {} 項，耗時 {} ms", registration.name, lease.getFencingToken(), items,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return true;
+    }
+
+    private void renew(JobLease lease, Registration registration) {
+        boolean held;
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try {
+            held = jobLeaseService.renew(lease, registration.leaseDuration);
+        } catch (RuntimeException e) {
+            // 暫時無法續約時租約仍有效到原本的期限，下次再試
+            logger.warn("續約排程租約 {} 失敗: {}", registration.name, e.getMessage());
+            return;
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+        if (!held) {
+            // 拋出例外停止之後的續約
+            throw new JobLeaseLostException(lease.getJobName(), lease.getFencingToken());
+        }
+    }
+
+    private static final class Registration {
+
+        final String name;
+        final boolean enabled;
+        final Duration interval;
+        final Duration leaseDuration;
+        final JobTask task;
+        /** 本節點執行中或已排入執行 */
+        final AtomicBoolean running = new AtomicBoolean();
+        Timer runTimer;
+        Counter itemsCounter;
+        Counter failureCounter;
+
+        Registration(String name, boolean enabled, Duration interval, Duration leaseDuration, JobTask task) {
+            this.name = name;
+            this.enabled = enabled;
+            this.interval = interval;
+            this.leaseDuration = leaseDuration;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.digitalconcerthall.service.job;
+
+/**
+ * 由 {@link JobRegistry} 在取得租約後執行的工作
+ */
+@FunctionalInterface
+public interface JobTask {
+
+    /**
+     * 執行一次；寫入資料庫的交易應呼叫 {@link JobLeaseService#checkFence(JobLease)}，
+     * 長時間執行時應定期檢查 {@link JobLease#isLost()}
+     * @return 處理的項目數
+     */
+    int run(JobLease lease);
+}
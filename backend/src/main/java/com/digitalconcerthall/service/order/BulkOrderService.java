@@ -0,0 +1,521 @@
+package com.digitalconcerthall.service.order;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.digitalconcerthall.dto.request.order.BulkOrderRequest;
+import com.digitalconcerthall.dto.response.order.BulkOrderJobResponse;
+import com.digitalconcerthall.exception.ResourceNotFoundException;
+import com.digitalconcerthall.model.User;
+import com.digitalconcerthall.model.order.BulkOrderJob;
+import com.digitalconcerthall.model.order.Order;
+import com.digitalconcerthall.model.order.OrderItem;
+import com.digitalconcerthall.model.ticket.Ticket;
+import com.digitalconcerthall.repository.TicketRepository;
+import com.digitalconcerthall.repository.UserRepository;
+import com.digitalconcerthall.repository.order.BulkOrderJobRepository;
+import com.digitalconcerthall.repository.order.OrderRepository;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 團體與企業大量訂票
+ * 送出時只檢查內容並建立工作，在背景分兩個階段處理：
+ * 1. 保留庫存：依票券 ID 順序對每個票券列執行一次條件扣減（可用數量足夠才扣），任一列不足即整個交易回滾；
+ *    扣減成功後在同一交易以 JPA 建立待付款訂單與明細，儀表板與銷售彙總由提交後事件更新，工作等待付款
+ * 2. 發行票券：訂單付款後（{@link #markPaid}）才開始，以 JDBC 批次新增使用者票券，
+ *    每 app.orders.bulk.chunk-size 張與進度在同一交易提交，失敗後可從已發行的張數繼續，不會重複發行
+ * 與一般訂單不同，待付款的大量訂單佔用庫存：付款時不再扣減，
+ * 逾期未付款時由 {@link PendingOrderExpiryService} 在改為 expired 的同一交易釋放（{@link #releaseExpired}）
+ */
+@Service
+public class BulkOrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOrderService.class);
+
+    static final String STATUS_PAID = "paid";
+    static final String PAYMENT_METHOD = "invoice";
+
+    private static final String RESERVE = "UPDATE tickets SET available_quantity = available_quantity - ? "
+            + "WHERE id = ? AND available_quantity >= ?";
+    private static final String RELEASE = "UPDATE tickets SET available_quantity = available_quantity + ? WHERE id = ?";
+    private static final String INSERT_USER_TICKET = "INSERT INTO user_tickets (ticket_code, user_id, order_item_id, "
+            + "is_used, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Value("${app.orders.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.orders.bulk.max-tickets:10000}")
+    private int maxTickets;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BulkOrderJobRepository bulkOrderJobRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    /** 目前在此節點執行或排隊中的工作 */
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+    private TransactionTemplate transaction;
+    private ExecutorService orderExecutor;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        orderExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bulk-order");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 中斷後停在最後一個已提交的分段，重啟後可繼續
+        orderExecutor.shutdownNow();
+    }
+
+    /**
+     * 檢查內容並建立工作，在背景保留庫存並發行票券
+     * @throws IllegalArgumentException 內容不合法或庫存明顯不足時，不建立工作
+     */
+    public BulkOrderJobResponse submit(BulkOrderRequest request, String username) {
+        User user = findUser(username);
+        Map<Long, Integer> quantities = merge(request);
+        List<Ticket> tickets = ticketRepository.findAllById(quantities.keySet());
+        if (tickets.size() != quantities.size()) {
+            List<Long> missing = new ArrayList<>(quantities.keySet());
+            tickets.forEach(ticket -> missing.remove(ticket.getId()));
+            throw new IllegalArgumentException("找不到票券 " + missing);
+        }
+        for (Ticket ticket : tickets) {
+            // 只是提早拒絕，實際以保留時的條件扣減為準
+            if (ticket.getAvailableQuantity() < quantities.get(ticket.getId())) {
+                throw new IllegalArgumentException("票券 " + ticket.getId() + " 庫存不足，剩餘 "
+                        + ticket.getAvailableQuantity() + " 張");
+            }
+        }
+
+        BulkOrderJob job = new BulkOrderJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setUserId(user.getId());
+        job.setStatus(BulkOrderJob.PENDING);
+        job.setDocument(writeDocument(quantities));
+        job.setTotalTickets(quantities.values().stream().mapToInt(Integer::intValue).sum());
+        job.setCreatedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        bulkOrderJobRepository.save(job);
+        logger.info("建立大量訂票 {}: 使用者 {}，{} 種票券共 {} 張", job.getId(), username, quantities.size(),
+                job.getTotalTickets());
+        schedule(job.getId());
+        return toResponse(job);
+    }
+
+    /**
+     * 繼續執行失敗或中斷的工作：尚未保留庫存時重新保留，已付款時從已發行的張數繼續
+     * @throws IllegalStateException 工作已完成、等待付款、已逾期或正在執行
+     */
+    public Optional<BulkOrderJobResponse> resume(String jobId, String username) {
+        Optional<BulkOrderJob> found = bulkOrderJobRepository.findByIdAndUserId(jobId, findUser(username).getId());
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        BulkOrderJob job = found.get();
+        if (BulkOrderJob.COMPLETED.equals(job.getStatus())) {
+            throw new IllegalStateException("訂票已完成");
+        }
+        if (BulkOrderJob.AWAITING_PAYMENT.equals(job.getStatus())) {
+            throw new IllegalStateException("訂單尚未付款");
+        }
+        if (BulkOrderJob.EXPIRED.equals(job.getStatus())) {
+            throw new IllegalStateException("訂單逾期未付款，保留的庫存已釋放");
+        }
+        if (active.contains(jobId)) {
+            throw new IllegalStateException("訂票正在處理");
+        }
+        // 先改回處理中並清除上次的錯誤，背景開始之前查詢進度不會看到舊的失敗
+        job.setStatus(job.getOrderId() != null ? BulkOrderJob.ISSUING : BulkOrderJob.PENDING);
+        job.setErrorMessage(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        BulkOrderJob saved = bulkOrderJobRepository.save(job);
+        schedule(jobId);
+        return Optional.of(toResponse(saved));
+    }
+
+    /**
+     * 只回傳該使用者自己的工作
+     */
+    public Optional<BulkOrderJobResponse> getJob(String jobId, String username) {
+        return bulkOrderJobRepository.findByIdAndUserId(jobId, findUser(username).getId()).map(this::toResponse);
+    }
+
+    /**
+     * 訂單改為已付款時在同一交易中呼叫；大量訂單在提交後開始發行票券
+     * 先鎖定訂單列，與逾期清理依相同順序鎖定：清理先提交時這裡看到的是已釋放庫存的工作
+     * @return 庫存是否已由大量訂票保留；false 時由呼叫端照一般訂單扣減
+     */
+    public boolean markPaid(Long orderId) {
+        jdbcTemplate.queryForList("SELECT id FROM orders WHERE id = ? FOR UPDATE", Long.class, orderId);
+        Optional<BulkOrderJob> found = bulkOrderJobRepository.findByOrderId(orderId);
+        if (found.isEmpty()) {
+            return false;
+        }
+        BulkOrderJob job = found.get();
+        boolean reserved = BulkOrderJob.AWAITING_PAYMENT.equals(job.getStatus());
+        if (!reserved && !BulkOrderJob.EXPIRED.equals(job.getStatus())) {
+            // 重複的付款通知：已在發行或已完成
+            return true;
+        }
+        job.setStatus(BulkOrderJob.ISSUING);
+        job.setErrorMessage(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        bulkOrderJobRepository.save(job);
+        if (reserved) {
+            logger.info("大量訂票 {} 的訂單 {} 已付款，開始發行票券", job.getId(), job.getOrderNumber());
+        } else {
+            logger.warn("大量訂票 {} 的訂單 {} 在逾期釋放庫存後付款，依一般訂單扣減庫存並發行票券", job.getId(),
+                    job.getOrderNumber());
+        }
+        String jobId = job.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(jobId);
+                }
+            });
+        } else {
+            schedule(jobId);
+        }
+        return reserved;
+    }
+
+    /**
+     * 在逾期清理的交易中呼叫，訂單已在同一交易改為 expired：釋放其中大量訂單保留的庫存
+     * 依票券 ID 順序加回，與保留時的鎖定順序相同
+     * @return 釋放庫存的訂單數
+     */
+    public int releaseExpired(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        String in = String.join(", ", Collections.nCopies(orderIds.size(), "?"));
+        List<Object> args = new ArrayList<>(orderIds);
+        args.add(PendingOrderExpiryService.STATUS_EXPIRED);
+        args.add(BulkOrderJob.AWAITING_PAYMENT);
+        List<Long> reserved = jdbcTemplate.queryForList("SELECT j.order_id FROM bulk_order_jobs j "
+                + "JOIN orders o ON o.id = j.order_id WHERE j.order_id IN (" + in + ") AND o.status = ? "
+                + "AND j.status = ? ORDER BY j.order_id FOR UPDATE", Long.class, args.toArray());
+        if (reserved.isEmpty()) {
+            return 0;
+        }
+        String reservedIn = String.join(", ", Collections.nCopies(reserved.size(), "?"));
+        List<Object[]> releases = new ArrayList<>();
+        jdbcTemplate.query("SELECT oi.ticket_id, p.concert_id, SUM(oi.quantity) FROM order_items oi "
+                + "JOIN tickets t ON t.id = oi.ticket_id JOIN performances p ON p.id = t.performance_id "
+                + "WHERE oi.order_id IN (" + reservedIn + ") GROUP BY oi.ticket_id, p.concert_id ORDER BY oi.ticket_id",
+                rs -> {
+                    releases.add(new Object[] { rs.getInt(3), rs.getLong(1) });
+                    concertSummaryService.recordInventoryChange(rs.getLong(2), rs.getInt(3));
+                },
+                reserved.toArray());
+        jdbcTemplate.batchUpdate(RELEASE, releases);
+
+        List<Object> jobArgs = new ArrayList<>(List.of(BulkOrderJob.EXPIRED, LocalDateTime.now()));
+        jobArgs.addAll(reserved);
+        jdbcTemplate.update("UPDATE bulk_order_jobs SET status = ?, updated_at = ? WHERE order_id IN (" + reservedIn
+                + ")", jobArgs.toArray());
+        logger.info("大量訂票逾期未付款，釋放 {} 筆訂單保留的庫存", reserved.size());
+        return reserved.size();
+    }
+
+    private void schedule(String jobId) {
+        if (!active.add(jobId)) {
+            throw new IllegalStateException("訂票正在處理");
+        }
+        try {
+            orderExecutor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    active.remove(jobId);
+                }
+            });
+        } catch (RuntimeException e) {
+            active.remove(jobId);
+            throw e;
+        }
+    }
+
+    private void run(String jobId) {
+        Workload previous = WorkloadContext.enter(Workload.CHECKOUT);
+        long start = System.nanoTime();
+        long durationBefore = 0;
+        try {
+            BulkOrderJob job = bulkOrderJobRepository.findById(jobId).orElseThrow();
+            durationBefore = job.getDurationMs();
+            Long orderId = job.getOrderId();
+            if (orderId == null) {
+                Map<Long, Integer> quantities = readDocument(job.getDocument());
+                long elapsed = durationBefore;
+                transaction.execute(status -> reserve(jobId, job.getUserId(), quantities, elapsed));
+                // 付款後由 markPaid 再次排入
+                return;
+            }
+            String orderStatus = jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class,
+                    orderId);
+            if (!STATUS_PAID.equals(orderStatus)) {
+                throw new IllegalStateException("訂單 " + job.getOrderNumber() + " 尚未付款");
+            }
+            issue(jobId, job.getUserId(), orderId, durationBefore, start);
+
+            long durationMs = durationBefore + Duration.ofNanos(System.nanoTime() - start).toMillis();
+            BulkOrderJob finished = transaction.execute(status -> {
+                BulkOrderJob current = bulkOrderJobRepository.findById(jobId).orElseThrow();
+                current.setStatus(BulkOrderJob.COMPLETED);
+                current.setDocument(null);
+                current.setErrorMessage(null);
+                current.setDurationMs(durationMs);
+                current.setUpdatedAt(LocalDateTime.now());
+                return current;
+            });
+            logger.info("大量訂票 {} 完成: 訂單 {} 共 {} 張，耗時 {} ms（每秒 {} 張）", jobId, finished.getOrderNumber(),
+                    finished.getIssuedTickets(), durationMs, ticketsPerSecond(finished));
+        } catch (RuntimeException e) {
+            logger.warn("大量訂票 {} 失敗: {}", jobId, e.getMessage());
+            try {
+                updateJob(jobId, BulkOrderJob.FAILED, e.getMessage(),
+                        durationBefore + Duration.ofNanos(System.nanoTime() - start).toMillis());
+            } catch (RuntimeException updateFailure) {
+                logger.warn("無法記錄大量訂票 {} 的失敗: {}", jobId, updateFailure.getMessage());
+            }
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    /**
+     * 在目前交易中保留庫存並建立待付款訂單；依票券 ID 順序扣減，與其他大量訂票不會互相死結
+     * @return 訂單 ID
+     */
+    private Long reserve(String jobId, Long userId, Map<Long, Integer> quantities, long durationMs) {
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (jdbcTemplate.update(RESERVE, entry.getValue(), entry.getKey(), entry.getValue()) == 0) {
+                throw new IllegalStateException("票券 " + entry.getKey() + " 庫存不足 " + entry.getValue() + " 張");
+            }
+        }
+
+        // 扣減後才載入，取得的票券是更新後的狀態
+        Map<Long, Ticket> tickets = new TreeMap<>();
+        ticketRepository.findAllById(quantities.keySet()).forEach(ticket -> tickets.put(ticket.getId(), ticket));
+        Order order = new Order();
+        order.setOrderNumber(OrderServiceImpl.generateOrderNumber());
+        order.setUser(userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId)));
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus(PendingOrderExpiryService.STATUS_PENDING);
+        order.setPaymentMethod(PAYMENT_METHOD);
+        order.setPaymentStatus(PendingOrderExpiryService.STATUS_PENDING);
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Ticket ticket = tickets.get(entry.getKey());
+            if (ticket == null) {
+                throw new IllegalStateException("找不到票券 " + entry.getKey());
+            }
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setTicket(ticket);
+            item.setQuantity(entry.getValue());
+            item.setUnitPrice(ticket.getTicketType().getPrice());
+            item.setSubtotal(item.getUnitPrice().multiply(BigDecimal.valueOf(entry.getValue())));
+            order.getOrderItems().add(item);
+            totalAmount = totalAmount.add(item.getSubtotal());
+            concertSummaryService.recordInventoryChange(ticket.getPerformance().getConcertId(), -entry.getValue());
+        }
+        order.setTotalAmount(totalAmount);
+        orderRepository.save(order);
+
+        BulkOrderJob job = bulkOrderJobRepository.findById(jobId).orElseThrow();
+        job.setOrderId(order.getId());
+        job.setOrderNumber(order.getOrderNumber());
+        job.setStatus(BulkOrderJob.AWAITING_PAYMENT);
+        job.setErrorMessage(null);
+        job.setDurationMs(durationMs);
+        job.setUpdatedAt(LocalDateTime.now());
+        logger.info("大量訂票 {} 已保留庫存並建立待付款訂單 {}，金額 {}", jobId, order.getOrderNumber(), totalAmount);
+        return order.getId();
+    }
+
+    /**
+     * 發行尚未發行的使用者票券；已發行的張數以資料庫為準，繼續執行時不會重複
+     */
+    private void issue(String jobId, Long userId, Long orderId, long durationBefore, long start) {
+        List<Long> pending = new ArrayList<>();
+        int issued = 0;
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT oi.id, oi.quantity, "
+                + "(SELECT COUNT(*) FROM user_tickets ut WHERE ut.order_item_id = oi.id) AS issued "
+                + "FROM order_items oi WHERE oi.order_id = ? ORDER BY oi.id", orderId)) {
+            long itemId = ((Number) row.get("id")).longValue();
+            int alreadyIssued = ((Number) row.get("issued")).intValue();
+            issued += alreadyIssued;
+            for (int i = alreadyIssued; i < ((Number) row.get("quantity")).intValue(); i++) {
+                pending.add(itemId);
+            }
+        }
+        if (issued > 0) {
+            logger.info("繼續大量訂票 {}，已發行 {} 張，尚餘 {} 張", jobId, issued, pending.size());
+        }
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("訂票被中斷");
+            }
+            List<Long> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            int issuedAfter = issued + from + chunk.size();
+            long elapsed = durationBefore + Duration.ofNanos(System.nanoTime() - start).toMillis();
+            transaction.executeWithoutResult(status -> issueChunk(jobId, userId, chunk, issuedAfter, elapsed));
+        }
+    }
+
+    /**
+     * 在目前交易中批次新增一個分段的票券並更新進度
+     */
+    private void issueChunk(String jobId, Long userId, List<Long> orderItemIds, int issuedTickets, long durationMs) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(orderItemIds.size());
+        for (Long orderItemId : orderItemIds) {
+            rows.add(new Object[] { UUID.randomUUID().toString(), userId, orderItemId, false, now, now });
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_TICKET, rows);
+
+        BulkOrderJob job = bulkOrderJobRepository.findById(jobId).orElseThrow();
+        job.setIssuedTickets(issuedTickets);
+        job.setDurationMs(durationMs);
+        job.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void updateJob(String jobId, String status, String errorMessage, long durationMs) {
+        transaction.executeWithoutResult(tx -> bulkOrderJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setErrorMessage(errorMessage != null && errorMessage.length() > 1000
+                    ? errorMessage.substring(0, 1000) : errorMessage);
+            job.setDurationMs(durationMs);
+            job.setUpdatedAt(LocalDateTime.now());
+        }));
+    }
+
+    /**
+     * 合併同一票券的數量，依票券 ID 排序
+     */
+    Map<Long, Integer> merge(BulkOrderRequest request) {
+        if (request == null || request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalArgumentException("訂購項目不能為空");
+        }
+        Map<Long, Integer> quantities = new TreeMap<>();
+        long total = 0;
+        for (int i = 0; i < request.getItems().size(); i++) {
+            BulkOrderRequest.Item item = request.getItems().get(i);
+            if (item == null || item.getTicketId() == null) {
+                throw new IllegalArgumentException("票券ID不能為空 (項目 #" + (i + 1) + ")");
+            }
+            if (item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("票券數量必須大於0 (項目 #" + (i + 1) + ")");
+            }
+            total += item.getQuantity();
+            if (total > maxTickets) {
+                throw new IllegalArgumentException("單筆大量訂票最多 " + maxTickets + " 張");
+            }
+            quantities.merge(item.getTicketId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+    }
+
+    private String writeDocument(Map<Long, Integer> quantities) {
+        try {
+            return objectMapper.writeValueAsString(quantities);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("無法保存訂購項目: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<Long, Integer> readDocument(String document) {
+        if (document == null) {
+            throw new IllegalStateException("訂購項目已清除");
+        }
+        try {
+            return new TreeMap<>(objectMapper.readValue(document, new TypeReference<Map<Long, Integer>>() {
+            }));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("無法讀取訂購項目: " + e.getMessage(), e);
+        }
+    }
+
+    private static long ticketsPerSecond(BulkOrderJob job) {
+        return job.getDurationMs() > 0 ? job.getIssuedTickets() * 1000L / job.getDurationMs() : job.getIssuedTickets();
+    }
+
+    private BulkOrderJobResponse toResponse(BulkOrderJob job) {
+        BulkOrderJobResponse response = new BulkOrderJobResponse();
+        response.setId(job.getId());
+        response.setStatus(job.getStatus());
+        response.setOrderNumber(job.getOrderNumber());
+        response.setTotalTickets(job.getTotalTickets());
+        response.setIssuedTickets(job.getIssuedTickets());
+        response.setDurationMs(job.getDurationMs());
+        response.setTicketsPerSecond(ticketsPerSecond(job));
+        response.setErrorMessage(job.getErrorMessage());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setUpdatedAt(job.getUpdatedAt());
+        return response;
+    }
+}
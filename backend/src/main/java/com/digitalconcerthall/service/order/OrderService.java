@@ -1,8 +1,11 @@
 package com.digitalconcerthall.service.order;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.digitalconcerthall.dto.response.CursorPage;
 import com.digitalconcerthall.dto.response.order.OrderSummaryResponse;
 import com.digitalconcerthall.dto.request.CartRequest;
 import com.digitalconcerthall.model.order.Order;
@@ -22,6 +25,15 @@ public interface OrderService {
      * @return 訂單列表（分頁）
      */
     Page<OrderSummaryResponse> getCurrentUserOrders(Pageable pageable);
+
+    /**
+     * 以鍵集分頁獲取當前登錄用戶的訂單，不計算總筆數
+     * @param cursor 上一頁返回的 nextCursor，第一頁傳 null
+     * @param size 每頁筆數
+     * @return 訂單列表與下一頁游標
+     * @throws IllegalArgumentException 游標格式錯誤
+     */
+    CursorPage<OrderSummaryResponse> getCurrentUserOrders(String cursor, int size);
     
     /**
      * 根據訂單編號獲取訂單詳情
@@ -30,6 +42,13 @@ public interface OrderService {
      */
     OrderSummaryResponse getOrderByOrderNumber(String orderNumber);
     
+    /**
+     * 獲取最近創建的訂單（管理員診斷用）
+     * @param limit 返回數量
+     * @return 訂單摘要列表，由新到舊
+     */
+    List<OrderSummaryResponse> getRecentOrders(int limit);
+
     /**
      * 根據訂單編號獲取訂單實體
      * @param orderNumber 訂單編號
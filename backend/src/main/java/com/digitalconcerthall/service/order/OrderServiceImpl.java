@@ -5,21 +5,31 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.digitalconcerthall.datasource.ReadFromPrimary;
+import com.digitalconcerthall.datasource.UseWorkload;
+import com.digitalconcerthall.datasource.Workload;
 import com.digitalconcerthall.dto.request.CartItemRequest;
 import com.digitalconcerthall.dto.request.CartRequest;
+import com.digitalconcerthall.dto.response.CursorPage;
 import com.digitalconcerthall.dto.response.order.OrderItemResponse;
 import com.digitalconcerthall.dto.response.order.OrderSummaryResponse;
 import com.digitalconcerthall.exception.AuthenticationFailedException;
@@ -28,10 +38,20 @@ import com.digitalconcerthall.model.User;
 import com.digitalconcerthall.model.order.Order;
 import com.digitalconcerthall.model.order.OrderItem;
 import com.digitalconcerthall.model.ticket.Ticket;
+import com.digitalconcerthall.monitoring.jfr.CheckoutEvent;
+import com.digitalconcerthall.monitoring.jfr.InventoryUpdateEvent;
+import com.digitalconcerthall.monitoring.jfr.JfrEvents;
 import com.digitalconcerthall.repository.UserRepository;
+import com.digitalconcerthall.repository.order.OrderHeaderView;
+import com.digitalconcerthall.repository.order.OrderItemRepository;
+import com.digitalconcerthall.repository.order.OrderItemView;
 import com.digitalconcerthall.repository.order.OrderRepository;
 import com.digitalconcerthall.repository.TicketRepository;
 import com.digitalconcerthall.security.services.UserDetailsImpl;
+import com.digitalconcerthall.service.archive.ArchivedHistoryService;
+import com.digitalconcerthall.service.archive.ArchivedOrderHeader;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.util.SeekCursor;
 
 @Service
 public class OrderServiceImpl implements OrderService {
@@ -40,15 +60,44 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private TicketRepository ticketRepository;
 
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private ObjectProvider<ArchivedHistoryService> archivedHistoryService;
+
+    @Autowired
+    private ObjectProvider<BulkOrderService> bulkOrderService;
+
     @Override
     @Transactional
+    @UseWorkload(Workload.CHECKOUT)
     public OrderSummaryResponse createOrder(CartRequest cartRequest) {
+        CheckoutEvent event = new CheckoutEvent();
+        event.begin();
+        OrderSummaryResponse summary = null;
+        try {
+            summary = doCreateOrder(cartRequest);
+            return summary;
+        } finally {
+            event.orderNumber = summary != null ? summary.getOrderNumber() : null;
+            event.itemCount = cartRequest != null && cartRequest.getItems() != null ? cartRequest.getItems().size() : 0;
+            event.traceId = JfrEvents.currentTraceId();
+            event.success = summary != null;
+            event.commit();
+        }
+    }
+
+    private OrderSummaryResponse doCreateOrder(CartRequest cartRequest) {
         // 詳細記錄訂單創建請求
         try {
             logger.info("Starting order creation with detailed request: {}", cartRequest);
@@ -254,9 +303,66 @@ public class OrderServiceImpl implements OrderService {
     }
 
     /**
-     * 生成唯一的訂單編號
+     * 由訂單投影組裝 OrderSummaryResponse
+     * 不論訂單筆數多少，訂單項目只以一次 IN 查詢取得，避免逐筆延遲載入票券與演出場次；封存訂單的項目另從封存表讀取
+     */
+    private List<OrderSummaryResponse> toOrderSummaries(List<OrderHeaderView> headers) {
+        if (headers.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> orderIds = new ArrayList<>();
+        List<ArchivedOrderHeader> archivedHeaders = new ArrayList<>();
+        for (OrderHeaderView header : headers) {
+            if (header instanceof ArchivedOrderHeader) {
+                archivedHeaders.add((ArchivedOrderHeader) header);
+            } else {
+                orderIds.add(header.getId());
+            }
+        }
+        List<OrderItemView> items = new ArrayList<>();
+        if (!orderIds.isEmpty()) {
+            items.addAll(orderItemRepository.findViewsByOrderIds(orderIds));
+        }
+        if (!archivedHeaders.isEmpty()) {
+            items.addAll(archivedHistoryService.getObject().findOrderItems(archivedHeaders));
+        }
+        Map<Long, List<OrderItemResponse>> itemsByOrder = items.stream()
+                .collect(Collectors.groupingBy(OrderItemView::getOrderId,
+                        Collectors.mapping(this::toOrderItemResponse, Collectors.toList())));
+
+        return headers.stream().map(header -> {
+            OrderSummaryResponse summaryResponse = new OrderSummaryResponse();
+            summaryResponse.setOrderNumber(header.getOrderNumber());
+            summaryResponse.setOrderDate(header.getOrderDate());
+            summaryResponse.setTotalAmount(header.getTotalAmount());
+            summaryResponse.setStatus(header.getStatus());
+            summaryResponse.setPaymentStatus(header.getPaymentStatus());
+            summaryResponse.setItems(itemsByOrder.getOrDefault(header.getId(), new ArrayList<>()));
+            return summaryResponse;
+        }).collect(Collectors.toList());
+    }
+
+    private OrderItemResponse toOrderItemResponse(OrderItemView item) {
+        OrderItemResponse itemResponse = new OrderItemResponse();
+
+        itemResponse.setId(item.getTicketId());
+        itemResponse.setTicketId(item.getTicketId());
+        itemResponse.setConcertTitle(item.getConcertTitle());
+        itemResponse.setPerformanceVenue(item.getPerformanceVenue());
+        itemResponse.setPerformanceStartTime(item.getPerformanceStartTime());
+        itemResponse.setPerformanceEndTime(item.getPerformanceEndTime());
+        itemResponse.setTicketTypeName(item.getTicketTypeName());
+        itemResponse.setQuantity(item.getQuantity());
+        itemResponse.setUnitPrice(item.getUnitPrice());
+        itemResponse.setSubtotal(item.getSubtotal());
+
+        return itemResponse;
+    }
+
+    /**
+     * 生成唯一的訂單編號；大量訂票也使用相同格式
      */
-    private String generateOrderNumber() {
+    static String generateOrderNumber() {
         // 生成一個訂單編號，格式：年月日+6位隨機數字
         LocalDateTime now = LocalDateTime.now();
         String dateStr = now.format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
@@ -295,46 +401,115 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<OrderSummaryResponse> getCurrentUserOrders(Pageable pageable) {
         User currentUser = getCurrentUser();
-        // Changed from findByUserOrderByCreatedAtDesc to findByUserOrderByOrderDateDesc
-        Page<Order> orders = orderRepository.findByUserOrderByOrderDateDesc(currentUser, pageable);
-        return orders.map(this::convertToOrderSummary);
+        ArchivedHistoryService archive = archiveIfPresent();
+        long archived = archive != null ? archive.countOrders(currentUser.getId()) : 0;
+        if (archived == 0) {
+            Page<OrderHeaderView> headers = orderRepository.findHeadersByUser(currentUser, pageable);
+            return new PageImpl<>(toOrderSummaries(headers.getContent()), pageable, headers.getTotalElements());
+        }
+
+        // 有封存訂單：兩邊各取到本頁結尾再合併，偏移量越大讀取越多，深分頁應改用游標
+        int end = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        List<OrderHeaderView> merged = new ArrayList<>(orderRepository.findFirstPageByUser(currentUser, Limit.of(end)));
+        merged.addAll(archive.findOrders(currentUser.getId(), null, end));
+        merged.sort(ArchivedHistoryService.ORDER_NEWEST_FIRST);
+        List<OrderHeaderView> page = merged.subList((int) Math.min(pageable.getOffset(), merged.size()),
+                Math.min(end, merged.size()));
+        long total = orderRepository.countByUser(currentUser) + archived;
+        return new PageImpl<>(toOrderSummaries(page), pageable, total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummaryResponse> getCurrentUserOrders(String cursor, int size) {
+        SeekCursor after = SeekCursor.decode(cursor);
+        int pageSize = CursorPage.normalizeSize(size);
+        User currentUser = getCurrentUser();
+
+        // 多取一筆判斷是否還有下一頁
+        Limit limit = Limit.of(pageSize + 1);
+        List<OrderHeaderView> headers = after == null
+                ? orderRepository.findFirstPageByUser(currentUser, limit)
+                : orderRepository.findPageByUserBefore(currentUser, after.getTimestamp(), after.getId(), limit);
+        ArchivedHistoryService archive = archiveIfPresent();
+        // 熱資料表已取滿且最後一筆晚於封存界線時，封存訂單都排在本頁之後，不必查詢
+        if (archive != null && (headers.size() <= pageSize
+                || headers.get(headers.size() - 1).getOrderDate().isBefore(archive.archivedBefore()))) {
+            List<OrderHeaderView> merged = new ArrayList<>(headers);
+            merged.addAll(archive.findOrders(currentUser.getId(), after, pageSize + 1));
+            merged.sort(ArchivedHistoryService.ORDER_NEWEST_FIRST);
+            headers = merged.size() > pageSize + 1 ? merged.subList(0, pageSize + 1) : merged;
+        }
+        CursorPage<OrderHeaderView> page = CursorPage.of(headers, pageSize,
+                header -> SeekCursor.of(header.getOrderDate(), header.getId()).encode(),
+                Function.identity());
+        return new CursorPage<>(toOrderSummaries(page.getContent()), page.getNextCursor(), page.isHasNext(),
+                page.getSize());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderSummaryResponse getOrderByOrderNumber(String orderNumber) {
         logger.info("Getting order details for orderNumber: {}", orderNumber);
 
-        // 獲取訂單前進行短暫延遲，避免即時查詢導致的隔離問題
-        if (orderNumber.startsWith("ORD") && orderNumber.substring(3)
-                .startsWith(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")))) {
-            logger.debug("Order is created today, adding small delay to ensure database consistency");
-            try {
-                Thread.sleep(300); // 300毫秒延遲，足夠讓大多數數據庫事務完成提交
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
+        // 唯讀交易走從庫；建立訂單的交易在回應前已提交，讀寫分離時由 read-your-writes 讓建立者讀主庫
+        OrderHeaderView header = findByOrderNumber(orderNumber, number -> orderRepository
+                .findHeaderByOrderNumber(number).or(() -> findArchivedOrder(number)));
+        logger.info("Successfully retrieved order: {}, status: {}", header.getOrderNumber(), header.getStatus());
+        return toOrderSummaries(List.of(header)).get(0);
+    }
 
-        Order order = getOrderEntityByOrderNumber(orderNumber);
-        logger.info("Successfully retrieved order: {}, status: {}", order.getOrderNumber(), order.getStatus());
-        return convertToOrderSummary(order);
+    private Optional<OrderHeaderView> findArchivedOrder(String orderNumber) {
+        ArchivedHistoryService archive = archiveIfPresent();
+        return archive != null ? archive.findOrderByNumber(orderNumber) : Optional.empty();
     }
 
+    /**
+     * 有封存表時返回封存查詢服務，否則為 null
+     */
+    private ArchivedHistoryService archiveIfPresent() {
+        ArchivedHistoryService archive = archivedHistoryService.getIfAvailable();
+        return archive != null && archive.hasArchive() ? archive : null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderSummaryResponse> getRecentOrders(int limit) {
+        return toOrderSummaries(orderRepository.findRecentOrders(Limit.of(limit)));
+    }
+
+    /**
+     * 支付流程在建立訂單後立即讀取，必須讀主庫避免複寫延遲
+     */
     @Override
+    @ReadFromPrimary
     public Order getOrderEntityByOrderNumber(String orderNumber) {
+        return findByOrderNumber(orderNumber, orderRepository::findByOrderNumber);
+    }
+
+    /**
+     * 依訂單編號查找，處理 ORD 格式的重試與舊 DCH 格式的轉換
+     * @param finder 實際執行查詢的方法（實體或投影）
+     */
+    private <T> T findByOrderNumber(String orderNumber, Function<String, Optional<T>> finder) {
         logger.debug("Finding order with number: {}", orderNumber);
 
         // 主要查找 ORD 格式
         if (orderNumber.startsWith("ORD")) {
             for (int attempt = 0; attempt < 3; attempt++) {
                 // 增加重試機制，處理可能的數據庫同步延遲
-                Optional<Order> orderOpt = orderRepository.findByOrderNumber(orderNumber);
+                Optional<T> orderOpt = finder.apply(orderNumber);
                 if (orderOpt.isPresent()) {
                     return orderOpt.get();
                 }
 
+                // 交易內重查只會讀到同一份快照，且等待期間會占住連線，直接放棄重試
+                if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                    break;
+                }
                 logger.debug("Order not found on attempt {}, waiting briefly before retry", attempt + 1);
                 if (attempt < 2) { // 最後一次嘗試不需要等待
                     try {
@@ -351,7 +526,7 @@ public class OrderServiceImpl implements OrderService {
         // 向後兼容 - 上面找不到且是 DCH 格式，嘗試轉換為 ORD 格式
         else if (orderNumber.startsWith("DCH-")) {
             // 首先嘗試直接掛 DCH 格式查找（歸頻案例）
-            Optional<Order> orderOpt = orderRepository.findByOrderNumber(orderNumber);
+            Optional<T> orderOpt = finder.apply(orderNumber);
             if (orderOpt.isPresent()) {
                 return orderOpt.get();
             }
@@ -369,7 +544,7 @@ public class OrderServiceImpl implements OrderService {
                     String possibleOrderNumber = "ORD" + dateStr + dchPart;
 
                     logger.debug("Trying possible ORD format: {}", possibleOrderNumber);
-                    Optional<Order> possibleOrder = orderRepository.findByOrderNumber(possibleOrderNumber);
+                    Optional<T> possibleOrder = finder.apply(possibleOrderNumber);
                     if (possibleOrder.isPresent()) {
                         logger.info("Found matching ORD number for DCH-{}: {}", dchPart, possibleOrderNumber);
                         return possibleOrder.get();
@@ -384,7 +559,7 @@ public class OrderServiceImpl implements OrderService {
         // 不知道格式，直接查找
         else {
             logger.warn("Unknown order number format: {}", orderNumber);
-            return orderRepository.findByOrderNumber(orderNumber)
+            return finder.apply(orderNumber)
                     .orElseThrow(() -> new ResourceNotFoundException("Order not found with number: " + orderNumber +
                             " (Order numbers should start with 'ORD')"));
         }
@@ -404,8 +579,11 @@ public class OrderServiceImpl implements OrderService {
             order.setPaymentStatus("paid");
             logger.info("Also updating payment status to 'paid'");
 
-            // 如果訂單已付款，減少相應的票券庫存
-            updateInventory(order);
+            // 如果訂單已付款，減少相應的票券庫存；大量訂單建立時已保留庫存，不再扣減
+            BulkOrderService bulkOrders = bulkOrderService.getIfAvailable();
+            if (bulkOrders == null || !bulkOrders.markPaid(order.getId())) {
+                updateInventory(order);
+            }
         } else if ("pending".equals(status)) {
             order.setPaymentStatus("pending");
             logger.info("Also updating payment status to 'pending'");
@@ -433,10 +611,14 @@ public class OrderServiceImpl implements OrderService {
                 int currentInventory = ticket.getAvailableQuantity();
                 int orderQuantity = item.getQuantity();
 
+                InventoryUpdateEvent event = new InventoryUpdateEvent();
+                event.begin();
                 if (currentInventory >= orderQuantity) {
                     // 減少庫存
                     ticket.setAvailableQuantity(currentInventory - orderQuantity);
                     ticketRepository.save(ticket);
+                    concertSummaryService.recordInventoryChange(ticket.getPerformance().getConcertId(), -orderQuantity);
+                    event.applied = true;
                     logger.info("Updated inventory for ticket ID: {}, new quantity: {}",
                             ticket.getId(), ticket.getAvailableQuantity());
                 } else {
@@ -444,6 +626,12 @@ public class OrderServiceImpl implements OrderService {
                     logger.warn("Insufficient inventory for ticket ID: {}, needed: {}, available: {}",
                             ticket.getId(), orderQuantity, currentInventory);
                 }
+                event.orderNumber = order.getOrderNumber();
+                event.traceId = JfrEvents.currentTraceId();
+                event.ticketId = ticket.getId();
+                event.quantity = orderQuantity;
+                event.remaining = ticket.getAvailableQuantity();
+                event.commit();
             }
         } catch (Exception e) {
             logger.error("Error updating inventory: {}", e.getMessage(), e);
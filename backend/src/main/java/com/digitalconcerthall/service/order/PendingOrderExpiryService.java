@@ -0,0 +1,313 @@
+package com.digitalconcerthall.service.order;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.digitalconcerthall.service.analytics.SalesFactSnapshotService;
+import com.digitalconcerthall.service.analytics.SalesRollupService;
+import com.digitalconcerthall.service.dashboard.DashboardMetricsService;
+import com.digitalconcerthall.service.job.JobLease;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 逾期未付款訂單的清理
+ * 建立超過 app.orders.expiry.pending-minutes 仍為 pending 的訂單改為 expired，
+ * expired 超過 app.orders.expiry.purge-after-days 天後連同明細刪除。
+ * 依 (order_date, id) 鍵集分批，每批一個小交易，只鎖定本批的資料列；改狀態時再次檢查仍為 pending，
+ * 與付款同時發生時以付款為準。一般訂單的庫存在付款時才扣除、票券在付款後才產生，沒有佔用需要釋放的庫存；
+ * 大量訂單建立時即保留庫存，在改為 expired 的同一交易由 {@link BulkOrderService#releaseExpired} 釋放。
+ * 登記在 {@link JobRegistry}，所有節點合計每個間隔執行一次；每批的交易確認租約的防護權杖，被接手後不再寫入。
+ * 以 SQL 批次更新不會觸發 JPA 事件，提交後直接通知儀表板統計、銷售彙總與銷售明細快照
+ */
+@Service
+public class PendingOrderExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingOrderExpiryService.class);
+
+    static final String JOB_NAME = "pending-order-expiry";
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_EXPIRED = "expired";
+
+    @Value("${app.orders.expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.orders.expiry.pending-minutes:60}")
+    private int pendingMinutes;
+
+    @Value("${app.orders.expiry.purge-after-days:30}")
+    private int purgeAfterDays;
+
+    @Value("${app.orders.expiry.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.orders.expiry.lease-seconds:300}")
+    private int leaseSeconds;
+
+    @Value("${app.orders.expiry.interval-ms:60000}")
+    private long intervalMs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private ObjectProvider<BulkOrderService> bulkOrderService;
+
+    @Autowired
+    private ObjectProvider<DashboardMetricsService> dashboardMetricsService;
+
+    @Autowired
+    private ObjectProvider<SalesRollupService> salesRollupService;
+
+    @Autowired
+    private ObjectProvider<SalesFactSnapshotService> salesFactSnapshotService;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private TransactionTemplate transaction;
+    private Counter expiredCounter;
+    private Counter purgedCounter;
+    private Timer runTimer;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            expiredCounter = Counter.builder("app.orders.expired")
+                    .description("逾期改為 expired 的訂單數")
+                    .register(registry);
+            purgedCounter = Counter.builder("app.orders.purged")
+                    .description("刪除的逾期訂單數")
+                    .register(registry);
+            runTimer = Timer.builder("app.orders.expiry.run")
+                    .description("逾期訂單清理耗時")
+                    .register(registry);
+        }
+        jobRegistry.register(JOB_NAME, enabled, Duration.ofMillis(intervalMs), Duration.ofSeconds(leaseSeconds),
+                this::run);
+    }
+
+    /**
+     * 已到期且取得租約時執行一次清理；其他節點持有租約或本間隔已執行過時不執行
+     * @return 是否執行
+     */
+    public boolean runWithLease() {
+        return jobRegistry.runIfDue(JOB_NAME);
+    }
+
+    /**
+     * 持有租約時執行一次清理
+     * @return 改為 expired 與刪除的訂單數
+     */
+    private int run(JobLease lease) {
+        long start = System.nanoTime();
+        // 每次執行的時間上限，未處理的部分留給下一次
+        long deadline = start + Duration.ofSeconds(leaseSeconds).toNanos() / 2;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int expired = expire(now.minusMinutes(pendingMinutes), deadline, lease);
+            int purged = purgeAfterDays > 0 ? purge(now.minusDays(purgeAfterDays), deadline, lease) : 0;
+            if (expired > 0 || purged > 0) {
+                logger.info("逾期訂單清理: {} 筆改為 expired，刪除 {} 筆，耗時 {} ms", expired, purged,
+                        Duration.ofNanos(System.nanoTime() - start).toMillis());
+            }
+            return expired + purged;
+        } finally {
+            if (runTimer != null) {
+                runTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+    }
+
+    /**
+     * 把 cutoff 之前建立、仍為 pending 的訂單改為 expired
+     * @return 改為 expired 的訂單數
+     */
+    public int expire(LocalDateTime cutoff) {
+        return expire(cutoff, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * 刪除 cutoff 之前建立的 expired 訂單與明細
+     * @return 刪除的訂單數
+     */
+    public int purge(LocalDateTime cutoff) {
+        return purge(cutoff, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * @param lease 排程執行時的租約，每批確認權杖；直接呼叫時為 null
+     */
+    private int expire(LocalDateTime cutoff, long deadline, JobLease lease) {
+        return scan(STATUS_PENDING, cutoff, deadline, lease, batch -> {
+            List<Long> ids = batch.stream().map(key -> key.id).collect(Collectors.toList());
+            List<Object> args = new ArrayList<>(List.of(STATUS_EXPIRED, STATUS_EXPIRED));
+            args.addAll(ids);
+            args.add(STATUS_PENDING);
+            Integer updated = transaction.execute(status -> {
+                checkFence(lease);
+                int count = jdbcTemplate.update("UPDATE orders SET status = ?, payment_status = ? WHERE id IN ("
+                        + placeholders(ids.size()) + ") AND status = ?", args.toArray());
+                BulkOrderService bulkOrders = bulkOrderService.getIfAvailable();
+                if (bulkOrders != null && count > 0) {
+                    bulkOrders.releaseExpired(ids);
+                }
+                return count;
+            });
+            int count = updated != null ? updated : 0;
+            DashboardMetricsService dashboard = dashboardMetricsService.getIfAvailable();
+            if (dashboard != null && count > 0) {
+                dashboard.recordBulkChange(DashboardMetricsService.ORDER_STATUS_PREFIX + STATUS_PENDING, -count);
+                dashboard.recordBulkChange(DashboardMetricsService.ORDER_STATUS_PREFIX + STATUS_EXPIRED, count);
+            }
+            if (expiredCounter != null) {
+                expiredCounter.increment(count);
+            }
+            return count;
+        });
+    }
+
+    private int purge(LocalDateTime cutoff, long deadline, JobLease lease) {
+        return scan(STATUS_EXPIRED, cutoff, deadline, lease, batch -> {
+            List<Object> args = batch.stream().map(key -> key.id).collect(Collectors.toList());
+            args.add(STATUS_EXPIRED);
+            Integer deleted = transaction.execute(status -> {
+                checkFence(lease);
+                // 鎖定並再次確認狀態，期間被付款的訂單不刪除
+                List<Object> locked = new ArrayList<>(jdbcTemplate.queryForList("SELECT id FROM orders WHERE id IN ("
+                        + placeholders(batch.size()) + ") AND status = ? ORDER BY id FOR UPDATE", Long.class,
+                        args.toArray()));
+                if (locked.isEmpty()) {
+                    return 0;
+                }
+                jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (" + placeholders(locked.size()) + ")",
+                        locked.toArray());
+                return jdbcTemplate.update("DELETE FROM orders WHERE id IN (" + placeholders(locked.size()) + ")",
+                        locked.toArray());
+            });
+            int count = deleted != null ? deleted : 0;
+            DashboardMetricsService dashboard = dashboardMetricsService.getIfAvailable();
+            if (dashboard != null && count > 0) {
+                dashboard.recordBulkChange(DashboardMetricsService.ORDER_STATUS_PREFIX + STATUS_EXPIRED, -count);
+            }
+            if (purgedCounter != null) {
+                purgedCounter.increment(count);
+            }
+            return count;
+        });
+    }
+
+    /**
+     * 依 (order_date, id) 由舊到新分批讀取指定狀態、cutoff 之前建立的訂單，逐批處理
+     * @return 各批處理結果的總和
+     */
+    private int scan(String status, LocalDateTime cutoff, long deadline, JobLease lease, BatchHandler handler) {
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        int total = 0;
+        try {
+            OrderKey last = null;
+            while (System.nanoTime() < deadline && (lease == null || !lease.isLost())) {
+                List<OrderKey> batch = nextBatch(status, cutoff, last);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                total += handler.handle(batch);
+                markDirty(batch);
+                last = batch.get(batch.size() - 1);
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+        return total;
+    }
+
+    private List<OrderKey> nextBatch(String status, LocalDateTime cutoff, OrderKey after) {
+        if (after == null) {
+            return jdbcTemplate.query("SELECT id, order_date FROM orders WHERE status = ? AND order_date < ? "
+                    + "ORDER BY order_date, id LIMIT ?", (rs, rowNum) -> new OrderKey(rs.getLong(1), rs.getTimestamp(2)),
+                    status, cutoff, batchSize);
+        }
+        return jdbcTemplate.query("SELECT id, order_date FROM orders WHERE status = ? AND order_date < ? "
+                + "AND (order_date > ? OR (order_date = ? AND id > ?)) ORDER BY order_date, id LIMIT ?",
+                (rs, rowNum) -> new OrderKey(rs.getLong(1), rs.getTimestamp(2)),
+                status, cutoff, after.orderDate, after.orderDate, after.id, batchSize);
+    }
+
+    /**
+     * 狀態改變或刪除的訂單要重算所屬時段的彙總；重算是冪等的，本批中未改變的訂單一併標記也無妨
+     */
+    private void markDirty(List<OrderKey> batch) {
+        SalesRollupService rollups = salesRollupService.getIfAvailable();
+        SalesFactSnapshotService snapshot = salesFactSnapshotService.getIfAvailable();
+        for (OrderKey key : batch) {
+            LocalDateTime orderDate = key.orderDate.toLocalDateTime();
+            if (rollups != null) {
+                rollups.markDirty(orderDate);
+            }
+            if (snapshot != null) {
+                snapshot.markDirty(orderDate);
+            }
+        }
+    }
+
+    private void checkFence(JobLease lease) {
+        if (lease != null) {
+            jobLeaseService.checkFence(lease);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private interface BatchHandler {
+        int handle(List<OrderKey> batch);
+    }
+
+    private static final class OrderKey {
+
+        final long id;
+        final Timestamp orderDate;
+
+        OrderKey(long id, Timestamp orderDate) {
+            this.id = id;
+            this.orderDate = orderDate;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.digitalconcerthall.service.search;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.digitalconcerthall.dto.response.ConcertResponse;
+
+/**
+ * 搜尋索引中的一筆音樂會
+ * 建立後不再修改；response 是建立索引時的列表回應，搜尋結果直接回傳，不再查詢資料庫
+ */
+public final class ConcertDocument {
+
+    private final long concertId;
+    private final String status;
+    private final String title;
+    private final String description;
+    private final String programDetails;
+    private final List<String> venues;
+    private final List<LocalDateTime> startTimes;
+    private final BigDecimal minPrice;
+    private final ConcertResponse response;
+
+    public ConcertDocument(long concertId, String status, String title, String description, String programDetails,
+            List<String> venues, List<LocalDateTime> startTimes, BigDecimal minPrice, ConcertResponse response) {
+        this.concertId = concertId;
+        this.status = status;
+        this.title = title;
+        this.description = description;
+        this.programDetails = programDetails;
+        this.venues = venues != null ? List.copyOf(venues) : Collections.emptyList();
+        List<LocalDateTime> sorted = new ArrayList<>(startTimes != null ? startTimes : Collections.emptyList());
+        Collections.sort(sorted);
+        this.startTimes = Collections.unmodifiableList(sorted);
+        this.minPrice = minPrice;
+        this.response = response;
+    }
+
+    public long getConcertId() {
+        return concertId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getProgramDetails() {
+        return programDetails;
+    }
+
+    public List<String> getVenues() {
+        return venues;
+    }
+
+    /**
+     * 所有場次的開始時間，由早到晚
+     */
+    public List<LocalDateTime> getStartTimes() {
+        return startTimes;
+    }
+
+    public LocalDateTime getFirstStartTime() {
+        return startTimes.isEmpty() ? null : startTimes.get(0);
+    }
+
+    /**
+     * 最低票價，用於價格區間
+     */
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public ConcertResponse getResponse() {
+        return response;
+    }
+}
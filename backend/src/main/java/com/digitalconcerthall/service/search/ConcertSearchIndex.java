@@ -0,0 +1,498 @@
+package com.digitalconcerthall.service.search;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 音樂會全文索引（記憶體內的倒排索引）
+ * 每個詞對應一串依文件序號遞增的 posting，記錄該文件在標題、地點、介紹中的加權詞頻；
+ * 查詢時從最短的 posting 開始取交集，以 BM25 形式的 idf × 飽和詞頻計分。
+ * 更新音樂會時把舊文件標記刪除並在尾端加入新文件，刪除的文件累積過多時重建整個索引。
+ * 讀寫以讀寫鎖保護，寫入只發生在後台編輯與啟動重建，不影響大量的並行搜尋
+ */
+public class ConcertSearchIndex {
+
+    public static final String FACET_STATUS = "status";
+    public static final String FACET_VENUE = "venue";
+    public static final String FACET_MONTH = "month";
+    public static final String FACET_PRICE_BAND = "priceBand";
+    public static final String UNPRICED_BAND = "unpriced";
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float VENUE_WEIGHT = 2f;
+    private static final float TEXT_WEIGHT = 1f;
+    private static final float TF_SATURATION = 1.2f;
+    private static final int MIN_DELETED_FOR_COMPACTION = 1000;
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final List<BigDecimal> priceBounds;
+    private final List<String> priceBandLabels;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+
+    /**
+     * @param priceBounds 價格區間的分界，例如 1000、2000、3000 得到 0-1000、1000-2000、2000-3000、3000+
+     */
+    public ConcertSearchIndex(List<BigDecimal> priceBounds) {
+        List<BigDecimal> bounds = new ArrayList<>(priceBounds);
+        Collections.sort(bounds);
+        this.priceBounds = List.copyOf(bounds);
+        List<String> labels = new ArrayList<>();
+        BigDecimal lower = BigDecimal.ZERO;
+        for (BigDecimal bound : this.priceBounds) {
+            labels.add(plain(lower) + "-" + plain(bound));
+            lower = bound;
+        }
+        labels.add(plain(lower) + "+");
+        this.priceBandLabels = List.copyOf(labels);
+    }
+
+    /**
+     * 以新的文件集合取代整個索引；建立期間不擋住搜尋
+     */
+    public void replaceAll(Collection<ConcertDocument> documents) {
+        Segment rebuilt = new Segment();
+        documents.forEach(rebuilt::add);
+        lock.writeLock().lock();
+        try {
+            segment = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 新增或取代同一音樂會的文件
+     */
+    public void upsert(ConcertDocument document) {
+        lock.writeLock().lock();
+        try {
+            segment.add(document);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long concertId) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = segment.remove(concertId);
+            compactIfNeeded();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> getPriceBandLabels() {
+        return priceBandLabels;
+    }
+
+    public ConcertSearchResult search(ConcertSearchQuery query, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return segment.search(query, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (segment.deleted >= MIN_DELETED_FOR_COMPACTION && segment.deleted > segment.liveCount() / 4) {
+            Segment compacted = new Segment();
+            for (ConcertDocument document : segment.documents) {
+                if (document != null) {
+                    compacted.add(document);
+                }
+            }
+            segment = compacted;
+        }
+    }
+
+    String priceBand(BigDecimal price) {
+        if (price == null) {
+            return UNPRICED_BAND;
+        }
+        for (int i = 0; i < priceBounds.size(); i++) {
+            if (price.compareTo(priceBounds.get(i)) < 0) {
+                return priceBandLabels.get(i);
+            }
+        }
+        return priceBandLabels.get(priceBandLabels.size() - 1);
+    }
+
+    private static String plain(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * 一份完整的索引資料；文件序號即 documents 的位置，刪除的文件位置為 null
+     */
+    private final class Segment {
+
+        private final List<ConcertDocument> documents = new ArrayList<>();
+        private final List<FacetValues> facetValues = new ArrayList<>();
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private int deleted;
+
+        int liveCount() {
+            return documents.size() - deleted;
+        }
+
+        void add(ConcertDocument document) {
+            int ordinal = documents.size();
+            documents.add(document);
+            facetValues.add(new FacetValues(document, priceBand(document.getMinPrice())));
+            Integer previous = ordinals.put(document.getConcertId(), ordinal);
+            if (previous != null) {
+                documents.set(previous, null);
+                facetValues.set(previous, null);
+                deleted++;
+            }
+
+            Map<String, Float> weights = new HashMap<>();
+            addField(weights, document.getTitle(), true, TITLE_WEIGHT);
+            for (String venue : document.getVenues()) {
+                addField(weights, venue, true, VENUE_WEIGHT);
+            }
+            addField(weights, document.getDescription(), false, TEXT_WEIGHT);
+            addField(weights, document.getProgramDetails(), false, TEXT_WEIGHT);
+            weights.forEach((token, weight) ->
+                    postings.computeIfAbsent(token, t -> new PostingList()).add(ordinal, weight));
+        }
+
+        boolean remove(long concertId) {
+            Integer ordinal = ordinals.remove(concertId);
+            if (ordinal == null) {
+                return false;
+            }
+            documents.set(ordinal, null);
+            facetValues.set(ordinal, null);
+            deleted++;
+            return true;
+        }
+
+        ConcertSearchResult search(ConcertSearchQuery query, int offset, int limit) {
+            Filters filters = new Filters(query);
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(FACET_STATUS, new HashMap<>());
+            facets.put(FACET_VENUE, new HashMap<>());
+            facets.put(FACET_MONTH, new TreeMap<>());
+            facets.put(FACET_PRICE_BAND, new HashMap<>());
+
+            Comparator<ScoredHit> order = comparator(query.getSort());
+            int keep = offset + limit;
+            PriorityQueue<ScoredHit> top = new PriorityQueue<>(Math.max(1, keep), order.reversed());
+            int total = 0;
+
+            Set<String> tokens = SearchTokenizer.queryTokens(query.getText());
+            Matcher matcher = tokens.isEmpty() ? null : matcher(tokens);
+            if (matcher == null && !tokens.isEmpty()) {
+                return new ConcertSearchResult(0, Collections.emptyList(), sortFacets(facets));
+            }
+
+            int candidates = matcher != null ? matcher.lead.size : documents.size();
+            for (int i = 0; i < candidates; i++) {
+                int ordinal = matcher != null ? matcher.lead.ordinals[i] : i;
+                ConcertDocument document = documents.get(ordinal);
+                if (document == null) {
+                    continue;
+                }
+                float score = 0f;
+                if (matcher != null) {
+                    score = matcher.score(i, ordinal);
+                    if (Float.isNaN(score)) {
+                        continue;
+                    }
+                }
+                if (filters.collect(document, facetValues.get(ordinal), facets)) {
+                    total++;
+                    if (keep > 0) {
+                        ScoredHit hit = new ScoredHit(document, score);
+                        if (top.size() < keep) {
+                            top.offer(hit);
+                        } else if (order.compare(hit, top.peek()) < 0) {
+                            top.poll();
+                            top.offer(hit);
+                        }
+                    }
+                }
+            }
+
+            List<ScoredHit> ranked = new ArrayList<>(top);
+            ranked.sort(order);
+            List<ConcertSearchResult.Hit> hits = new ArrayList<>();
+            for (int i = offset; i < ranked.size(); i++) {
+                hits.add(new ConcertSearchResult.Hit(ranked.get(i).document, ranked.get(i).score));
+            }
+            return new ConcertSearchResult(total, hits, sortFacets(facets));
+        }
+
+        /**
+         * 任何一個詞不在索引中就不可能有結果，返回 null
+         */
+        private Matcher matcher(Set<String> tokens) {
+            List<PostingList> lists = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                PostingList list = postings.get(token);
+                if (list == null) {
+                    return null;
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            return new Matcher(lists, Math.max(1, liveCount()));
+        }
+    }
+
+    /**
+     * 以最短的 posting 帶頭，其餘 posting 依序以二分搜尋確認是否包含同一文件
+     */
+    private static final class Matcher {
+
+        private final PostingList lead;
+        private final PostingList[] others;
+        private final int[] cursors;
+        private final float[] idf;
+
+        Matcher(List<PostingList> lists, int documentCount) {
+            this.lead = lists.get(0);
+            this.others = lists.subList(1, lists.size()).toArray(new PostingList[0]);
+            this.cursors = new int[others.length];
+            this.idf = new float[lists.size()];
+            for (int i = 0; i < lists.size(); i++) {
+                int df = Math.min(lists.get(i).size, documentCount);
+                idf[i] = (float) Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+            }
+        }
+
+        /**
+         * @return 分數，不符合時為 NaN
+         */
+        float score(int leadIndex, int ordinal) {
+            float score = idf[0] * saturate(lead.weights[leadIndex]);
+            for (int j = 0; j < others.length; j++) {
+                PostingList list = others[j];
+                int found = Arrays.binarySearch(list.ordinals, cursors[j], list.size, ordinal);
+                if (found < 0) {
+                    // lead 的序號遞增，下一次從插入點往後找
+                    cursors[j] = -found - 1;
+                    return Float.NaN;
+                }
+                cursors[j] = found + 1;
+                score += idf[j + 1] * saturate(list.weights[found]);
+            }
+            return score;
+        }
+
+        private static float saturate(float weight) {
+            return weight * (TF_SATURATION + 1) / (weight + TF_SATURATION);
+        }
+    }
+
+    /**
+     * 篩選並累計 facet；每個 facet 維度只套用其他維度的篩選
+     */
+    private final class Filters {
+
+        private final String status;
+        private final String venue;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final String priceBand;
+
+        Filters(ConcertSearchQuery query) {
+            this.status = blankToNull(query.getStatus());
+            this.venue = blankToNull(query.getVenue());
+            LocalDate fromDate = query.getFrom();
+            LocalDate toDate = query.getTo();
+            this.from = fromDate != null ? fromDate.atStartOfDay() : null;
+            this.to = toDate != null ? toDate.plusDays(1).atStartOfDay() : null;
+            this.priceBand = blankToNull(query.getPriceBand());
+        }
+
+        /**
+         * @return 是否通過所有篩選
+         */
+        boolean collect(ConcertDocument document, FacetValues values, Map<String, Map<String, Integer>> facets) {
+            String band = values.priceBand;
+            boolean statusOk = status == null || status.equals(document.getStatus());
+            boolean venueOk = venue == null || values.hasVenue(venue);
+            boolean dateOk = (from == null && to == null) || hasPerformanceBetween(document.getStartTimes());
+            boolean bandOk = priceBand == null || priceBand.equals(band);
+
+            if (venueOk && dateOk && bandOk) {
+                facets.get(FACET_STATUS).merge(document.getStatus(), 1, Integer::sum);
+            }
+            if (statusOk && dateOk && bandOk) {
+                for (String value : values.venues) {
+                    facets.get(FACET_VENUE).merge(value, 1, Integer::sum);
+                }
+            }
+            if (statusOk && venueOk && bandOk) {
+                for (String month : values.months) {
+                    facets.get(FACET_MONTH).merge(month, 1, Integer::sum);
+                }
+            }
+            if (statusOk && venueOk && dateOk) {
+                facets.get(FACET_PRICE_BAND).merge(band, 1, Integer::sum);
+            }
+            return statusOk && venueOk && dateOk && bandOk;
+        }
+
+        private boolean hasPerformanceBetween(List<LocalDateTime> startTimes) {
+            // 開始時間已排序，找出第一個不早於 from 的場次
+            int low = 0;
+            int high = startTimes.size();
+            while (from != null && low < high) {
+                int mid = (low + high) >>> 1;
+                if (startTimes.get(mid).isBefore(from)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low < startTimes.size() && (to == null || startTimes.get(low).isBefore(to));
+        }
+    }
+
+    private Map<String, Map<String, Integer>> sortFacets(Map<String, Map<String, Integer>> facets) {
+        Map<String, Map<String, Integer>> sorted = new LinkedHashMap<>();
+        sorted.put(FACET_STATUS, byCount(facets.get(FACET_STATUS)));
+        sorted.put(FACET_VENUE, byCount(facets.get(FACET_VENUE)));
+        sorted.put(FACET_MONTH, new LinkedHashMap<>(facets.get(FACET_MONTH)));
+        Map<String, Integer> bands = new LinkedHashMap<>();
+        for (String label : priceBandLabels) {
+            Integer count = facets.get(FACET_PRICE_BAND).get(label);
+            if (count != null) {
+                bands.put(label, count);
+            }
+        }
+        Integer unpriced = facets.get(FACET_PRICE_BAND).get(UNPRICED_BAND);
+        if (unpriced != null) {
+            bands.put(UNPRICED_BAND, unpriced);
+        }
+        sorted.put(FACET_PRICE_BAND, bands);
+        return sorted;
+    }
+
+    private static Map<String, Integer> byCount(Map<String, Integer> counts) {
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    private static Comparator<ScoredHit> comparator(ConcertSearchQuery.Sort sort) {
+        Comparator<ScoredHit> byDate = Comparator.comparing((ScoredHit hit) -> hit.document.getFirstStartTime(),
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        Comparator<ScoredHit> byId = Comparator.comparingLong(hit -> hit.document.getConcertId());
+        switch (sort != null ? sort : ConcertSearchQuery.Sort.RELEVANCE) {
+            case DATE:
+                return byDate.thenComparing(byId);
+            case PRICE:
+                return Comparator.comparing((ScoredHit hit) -> hit.document.getMinPrice(),
+                        Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(byDate).thenComparing(byId);
+            default:
+                return Comparator.comparingDouble((ScoredHit hit) -> -hit.score).thenComparing(byDate).thenComparing(byId);
+        }
+    }
+
+    private static void addField(Map<String, Float> weights, String text, boolean unigrams, float weight) {
+        for (String token : SearchTokenizer.indexTokens(text, unigrams)) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * 建立索引時先算好的 facet 值（已去除重複），搜尋時不再格式化日期或比較價格
+     */
+    private static final class FacetValues {
+
+        private final String priceBand;
+        private final String[] venues;
+        private final String[] months;
+
+        FacetValues(ConcertDocument document, String priceBand) {
+            this.priceBand = priceBand;
+            this.venues = new LinkedHashSet<>(document.getVenues()).toArray(new String[0]);
+            Set<String> distinctMonths = new LinkedHashSet<>();
+            for (LocalDateTime start : document.getStartTimes()) {
+                distinctMonths.add(start.format(MONTH_FORMAT));
+            }
+            this.months = distinctMonths.toArray(new String[0]);
+        }
+
+        boolean hasVenue(String venue) {
+            for (String value : venues) {
+                if (value.equals(venue)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class ScoredHit {
+
+        private final ConcertDocument document;
+        private final float score;
+
+        ScoredHit(ConcertDocument document, float score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+
+    /**
+     * 依文件序號遞增的 posting，文件只會加在尾端，因此不需要排序
+     */
+    private static final class PostingList {
+
+        private int[] ordinals = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int ordinal, float weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+        }
+    }
+}
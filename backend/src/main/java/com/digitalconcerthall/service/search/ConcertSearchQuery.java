@@ -0,0 +1,35 @@
+package com.digitalconcerthall.service.search;
+
+import java.time.LocalDate;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 搜尋條件
+ * 所有篩選條件之間為 AND；關鍵字為空時列出符合篩選的全部音樂會
+ */
+@Data
+@NoArgsConstructor
+public class ConcertSearchQuery {
+
+    public enum Sort {
+        /** 相關度，相同時依最早場次 */
+        RELEVANCE,
+        /** 最早場次 */
+        DATE,
+        /** 最低票價 */
+        PRICE
+    }
+
+    private String text;
+    private String status;
+    private String venue;
+    /** 任一場次在此日期（含）之後 */
+    private LocalDate from;
+    /** 任一場次在此日期（含）之前 */
+    private LocalDate to;
+    /** 最低票價所在的價格區間，例如 1000-2000、3000+ */
+    private String priceBand;
+    private Sort sort = Sort.RELEVANCE;
+}
@@ -0,0 +1,52 @@
+package com.digitalconcerthall.service.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 索引搜尋結果
+ * facets 的每個維度不套用自己的篩選（drill sideways），選了某個地點後仍能看到其他地點的數量
+ */
+public final class ConcertSearchResult {
+
+    private final int total;
+    private final List<Hit> hits;
+    private final Map<String, Map<String, Integer>> facets;
+
+    ConcertSearchResult(int total, List<Hit> hits, Map<String, Map<String, Integer>> facets) {
+        this.total = total;
+        this.hits = hits;
+        this.facets = facets;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public List<Hit> getHits() {
+        return hits;
+    }
+
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+
+    public static final class Hit {
+
+        private final ConcertDocument document;
+        private final float score;
+
+        Hit(ConcertDocument document, float score) {
+            this.document = document;
+            this.score = score;
+        }
+
+        public ConcertDocument getDocument() {
+            return document;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.digitalconcerthall.service.search;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.digitalconcerthall.dto.response.ConcertResponse;
+import com.digitalconcerthall.dto.response.concert.ConcertSearchResponse;
+import com.digitalconcerthall.model.concert.Concert;
+import com.digitalconcerthall.model.concert.ConcertSummary;
+import com.digitalconcerthall.repository.concert.CatalogPerformanceView;
+import com.digitalconcerthall.repository.concert.ConcertRepository;
+import com.digitalconcerthall.repository.concert.PerformanceRepository;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 音樂會搜尋服務
+ * 啟動時從資料庫建立整份索引，之後由後台的音樂會、場次、票價編輯在提交後逐筆更新。
+ * 只索引公開的音樂會（active、upcoming、past）；搜尋結果中的音樂會不含剩餘數量等會隨下單變動的欄位，
+ * 需要即時數量時請讀取目錄 API
+ */
+@Service
+public class ConcertSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcertSearchService.class);
+
+    static final List<String> SEARCHABLE_STATUSES = List.of("active", "upcoming", "past");
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Value("${app.search.price-bands:1000,2000,3000}")
+    private List<BigDecimal> priceBands;
+
+    @Autowired
+    private ConcertRepository concertRepository;
+
+    @Autowired
+    private PerformanceRepository performanceRepository;
+
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private ConcertSearchIndex index;
+    private volatile boolean ready;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate reindexTransaction;
+    private Timer queryTimer;
+
+    @PostConstruct
+    public void init() {
+        index = new ConcertSearchIndex(priceBands);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // 提交後才讀取剛寫入的資料，需要獨立交易並留在主庫
+        reindexTransaction = new TransactionTemplate(transactionManager);
+        reindexTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            queryTimer = Timer.builder("app.search.query")
+                    .description("音樂會搜尋耗時")
+                    .register(registry);
+            registry.gauge("app.search.documents", this, service -> service.index.size());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 從資料庫重建整份索引
+     * @return 索引的音樂會數
+     */
+    public int rebuild() {
+        long start = System.nanoTime();
+        Workload previous = WorkloadContext.enter(Workload.ADMIN);
+        try {
+            List<ConcertDocument> documents = readOnlyTransaction.execute(status -> {
+                List<Concert> concerts = concertRepository.findByStatusIn(SEARCHABLE_STATUSES);
+                return toDocuments(concerts, performanceRepository.findCatalogViews(SEARCHABLE_STATUSES));
+            });
+            index.replaceAll(documents);
+            ready = true;
+            logger.info("搜尋索引已重建: {} 個音樂會，耗時 {} ms", documents.size(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+            return documents.size();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    /**
+     * 後台編輯後更新指定音樂會；在交易中呼叫時於提交後執行，不再公開或已刪除的音樂會從索引移除
+     */
+    public void reindex(Long... concertIds) {
+        reindex(List.of(concertIds));
+    }
+
+    public void reindex(Collection<Long> concertIds) {
+        List<Long> ids = concertIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return;
+        }
+        runAfterCommit(() -> {
+            try {
+                List<ConcertDocument> documents = reindexTransaction.execute(status -> {
+                    List<Concert> concerts = concertRepository.findAllById(ids).stream()
+                            .filter(concert -> SEARCHABLE_STATUSES.contains(concert.getStatus()))
+                            .collect(Collectors.toList());
+                    if (concerts.isEmpty()) {
+                        return new ArrayList<ConcertDocument>();
+                    }
+                    return toDocuments(concerts, performanceRepository.findSearchViews(
+                            concerts.stream().map(Concert::getId).collect(Collectors.toList())));
+                });
+                Set<Long> indexed = new LinkedHashSet<>();
+                for (ConcertDocument document : documents) {
+                    index.upsert(document);
+                    indexed.add(document.getConcertId());
+                }
+                ids.stream().filter(id -> !indexed.contains(id)).forEach(index::remove);
+            } catch (RuntimeException e) {
+                logger.warn("更新搜尋索引失敗 {}，下次重建時修正: {}", ids, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * @param page 從 0 開始
+     */
+    public ConcertSearchResponse search(ConcertSearchQuery query, int page, int size) {
+        long start = System.nanoTime();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageIndex = Math.max(0, page);
+        ConcertSearchResult result = index.search(query, pageIndex * pageSize, pageSize);
+
+        ConcertSearchResponse response = new ConcertSearchResponse();
+        response.setQuery(query.getText());
+        response.setPage(pageIndex);
+        response.setSize(pageSize);
+        response.setTotal(result.getTotal());
+        for (ConcertSearchResult.Hit hit : result.getHits()) {
+            response.getHits().add(new ConcertSearchResponse.Hit(hit.getDocument().getResponse(), hit.getScore()));
+        }
+        result.getFacets().forEach((facet, counts) -> response.getFacets().put(facet,
+                counts.entrySet().stream()
+                        .map(entry -> new ConcertSearchResponse.FacetCount(entry.getKey(), entry.getValue()))
+                        .collect(Collectors.toList())));
+        Duration took = Duration.ofNanos(System.nanoTime() - start);
+        response.setTookMs(took.toMillis());
+        if (queryTimer != null) {
+            queryTimer.record(took);
+        }
+        return response;
+    }
+
+    public List<String> getPriceBandLabels() {
+        return index.getPriceBandLabels();
+    }
+
+    private List<ConcertDocument> toDocuments(List<Concert> concerts, List<CatalogPerformanceView> performances) {
+        Map<Long, List<CatalogPerformanceView>> performancesByConcert = new HashMap<>();
+        for (CatalogPerformanceView performance : performances) {
+            performancesByConcert.computeIfAbsent(performance.getConcertId(), id -> new ArrayList<>()).add(performance);
+        }
+        Map<Long, ConcertSummary> summaries = concertSummaryService.findSummaries(
+                concerts.stream().map(Concert::getId).collect(Collectors.toList()));
+
+        List<ConcertDocument> documents = new ArrayList<>(concerts.size());
+        for (Concert concert : concerts) {
+            List<CatalogPerformanceView> concertPerformances =
+                    performancesByConcert.getOrDefault(concert.getId(), List.of());
+            ConcertSummary summary = summaries.get(concert.getId());
+            ConcertResponse response = concertSummaryService.toResponse(concert, summary);
+            // 索引不隨下單與時間更新，不回傳會過期的欄位
+            response.setRemainingCapacity(null);
+            response.setNextStartTime(null);
+            documents.add(new ConcertDocument(concert.getId(), concert.getStatus(), concert.getTitle(),
+                    concert.getDescription(), concert.getProgramDetails(),
+                    concertPerformances.stream().map(CatalogPerformanceView::getVenue)
+                            .filter(Objects::nonNull).distinct().collect(Collectors.toList()),
+                    concertPerformances.stream().map(CatalogPerformanceView::getStartTime)
+                            .filter(Objects::nonNull).collect(Collectors.toList()),
+                    summary.getMinPrice(), response));
+        }
+        return documents;
+    }
+
+    private static void runAfterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.digitalconcerthall.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 搜尋斷詞
+ * 英數字以連續字元為一個詞；中日韓文字沒有空白分詞，以相鄰兩字（bigram）為詞，查詢兩字以上時只用 bigram 比對。
+ * 單字查詢需要單字詞，只對標題、地點等短欄位另外索引單字，避免長篇介紹的索引膨脹。
+ * 文字先做 NFKC 正規化（全形轉半形）並轉小寫
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 索引用的詞，保留重複以計算詞頻
+     * @param unigrams 是否同時產生中日韓單字詞
+     */
+    public static List<String> indexTokens(String text, boolean unigrams) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(text, unigrams, tokens);
+        return tokens;
+    }
+
+    /**
+     * 查詢用的詞，已去除重複
+     */
+    public static Set<String> queryTokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(text, false, tokens);
+        return new LinkedHashSet<>(tokens);
+    }
+
+    private static void tokenize(String text, boolean unigrams, List<String> tokens) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        List<String> cjkRun = new ArrayList<>();
+        int i = 0;
+        while (i < normalized.length()) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                cjkRun.add(new String(Character.toChars(codePoint)));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushCjk(cjkRun, unigrams, tokens);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjkRun, unigrams, tokens);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjkRun, unigrams, tokens);
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(List<String> run, boolean unigrams, List<String> tokens) {
+        if (run.isEmpty()) {
+            return;
+        }
+        // 單獨一個字時沒有 bigram，索引與查詢都以單字為詞
+        if (unigrams || run.size() == 1) {
+            tokens.addAll(run);
+        }
+        for (int i = 0; i + 1 < run.size(); i++) {
+            tokens.add(run.get(i) + run.get(i + 1));
+        }
+        run.clear();
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -1,5 +1,6 @@
 package com.digitalconcerthall.service.ticket;
 
+import com.digitalconcerthall.dto.response.CursorPage;
 import com.digitalconcerthall.dto.response.ticket.UserTicketDetailResponse;
 import com.digitalconcerthall.dto.response.ticket.UserTicketSummaryResponse;
 import org.springframework.data.domain.Page;
@@ -20,6 +21,15 @@ public interface UserTicketService {
      */
     Page<UserTicketSummaryResponse> getCurrentUserTickets(Pageable pageable);
 
+    /**
+     * 以鍵集分頁獲取當前登入用戶的票券摘要，不計算總筆數。
+     * @param cursor 上一頁返回的 nextCursor，第一頁傳 null
+     * @param size 每頁筆數
+     * @return 票券摘要與下一頁游標
+     * @throws IllegalArgumentException 游標格式錯誤
+     */
+    CursorPage<UserTicketSummaryResponse> getCurrentUserTickets(String cursor, int size);
+
     /**
      * 根據 UserTicket ID 獲取票券詳細信息。
      * @param userTicketId UserTicket 的 ID
@@ -1,5 +1,6 @@
 package com.digitalconcerthall.service.ticket;
 
+import com.digitalconcerthall.dto.response.CursorPage;
 import com.digitalconcerthall.dto.response.ticket.UserTicketDetailResponse;
 import com.digitalconcerthall.dto.response.ticket.UserTicketSummaryResponse;
 import com.digitalconcerthall.model.User;
@@ -8,11 +9,16 @@ import com.digitalconcerthall.model.order.OrderItem;
 import com.digitalconcerthall.model.ticket.UserTicket;
 import com.digitalconcerthall.repository.UserRepository;
 import com.digitalconcerthall.repository.UserTicketRepository;
+import com.digitalconcerthall.service.archive.ArchivedHistoryService;
 import com.digitalconcerthall.service.order.OrderService;
+import com.digitalconcerthall.util.SeekCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,6 +28,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Function;
 
 // Import necessary classes for other methods if implementing them here
 // import org.springframework.security.core.context.SecurityContextHolder;
@@ -41,6 +49,9 @@ public class UserTicketServiceImpl implements UserTicketService {
     @Autowired
     private OrderService orderService; // Assuming OrderService can provide Order details
 
+    @Autowired
+    private ObjectProvider<ArchivedHistoryService> archivedHistoryService;
+
     @Override
     @Transactional // Add Transactional annotation for database operations
     public void generateAndSaveUserTicketsForOrder(String orderNumber) {
@@ -109,6 +120,7 @@ public class UserTicketServiceImpl implements UserTicketService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<UserTicketSummaryResponse> getCurrentUserTickets(Pageable pageable) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
@@ -116,11 +128,55 @@ public class UserTicketServiceImpl implements UserTicketService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
 
-        Page<UserTicket> userTicketsPage = userTicketRepository.findByUserOrderByCreatedAtDesc(user, pageable);
-        return userTicketsPage.map(this::mapToUserTicketSummaryResponse);
+        ArchivedHistoryService archive = archiveIfPresent();
+        long archived = archive != null ? archive.countTickets(user.getId()) : 0;
+        if (archived == 0) {
+            // 投影查詢一次取得整頁欄位，避免逐筆延遲載入票券、場次與訂單
+            return userTicketRepository.findSummariesByUser(user, pageable);
+        }
+
+        // 有封存票券：兩邊各取到本頁結尾再合併，偏移量越大讀取越多，深分頁應改用游標
+        int end = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        List<UserTicketSummaryResponse> merged = new ArrayList<>(
+                userTicketRepository.findSummaryFirstPageByUser(user, Limit.of(end)));
+        merged.addAll(archive.findTickets(user.getId(), null, end));
+        merged.sort(ArchivedHistoryService.TICKET_NEWEST_FIRST);
+        List<UserTicketSummaryResponse> page = merged.subList((int) Math.min(pageable.getOffset(), merged.size()),
+                Math.min(end, merged.size()));
+        return new PageImpl<>(new ArrayList<>(page), pageable, userTicketRepository.countByUser(user) + archived);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserTicketSummaryResponse> getCurrentUserTickets(String cursor, int size) {
+        SeekCursor after = SeekCursor.decode(cursor);
+        int pageSize = CursorPage.normalizeSize(size);
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth.getName();
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new NoSuchElementException("User not found"));
+
+        // 多取一筆判斷是否還有下一頁
+        Limit limit = Limit.of(pageSize + 1);
+        List<UserTicketSummaryResponse> userTickets = after == null
+                ? userTicketRepository.findSummaryFirstPageByUser(user, limit)
+                : userTicketRepository.findSummaryPageByUserBefore(user, after.getTimestamp(), after.getId(), limit);
+        ArchivedHistoryService archive = archiveIfPresent();
+        if (archive != null) {
+            // 封存票券依訂單年份分表，建立時間沒有固定界線，每頁都與熱資料表合併
+            List<UserTicketSummaryResponse> merged = new ArrayList<>(userTickets);
+            merged.addAll(archive.findTickets(user.getId(), after, pageSize + 1));
+            merged.sort(ArchivedHistoryService.TICKET_NEWEST_FIRST);
+            userTickets = merged.size() > pageSize + 1 ? merged.subList(0, pageSize + 1) : merged;
+        }
+        return CursorPage.of(userTickets, pageSize,
+                summary -> SeekCursor.of(summary.getCreatedAt(), summary.getId()).encode(),
+                Function.identity());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserTicketDetailResponse getUserTicketDetail(Long userTicketId) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
@@ -128,10 +184,20 @@ public class UserTicketServiceImpl implements UserTicketService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
 
-        UserTicket userTicket = userTicketRepository.findByIdAndUser(userTicketId, user)
+        return userTicketRepository.findDetailByIdAndUser(userTicketId, user)
+                .or(() -> {
+                    ArchivedHistoryService archive = archiveIfPresent();
+                    return archive != null ? archive.findTicketDetail(userTicketId, user.getId()) : Optional.empty();
+                })
                 .orElseThrow(() -> new NoSuchElementException("Ticket not found or not owned by user"));
+    }
 
-        return mapToUserTicketDetailResponse(userTicket);
+    /**
+     * 有封存表時返回封存查詢服務，否則為 null
+     */
+    private ArchivedHistoryService archiveIfPresent() {
+        ArchivedHistoryService archive = archivedHistoryService.getIfAvailable();
+        return archive != null && archive.hasArchive() ? archive : null;
     }
 
     @Override
@@ -154,39 +220,4 @@ public class UserTicketServiceImpl implements UserTicketService {
         userTicketRepository.save(userTicket);
         logger.info("Ticket {} cancelled successfully", userTicketId);
     }
-
-    private UserTicketSummaryResponse mapToUserTicketSummaryResponse(UserTicket userTicket) {
-        OrderItem orderItem = userTicket.getOrderItem();
-        return new UserTicketSummaryResponse(
-                userTicket.getId(),
-                userTicket.getTicketCode(),
-                orderItem.getTicket().getPerformanceName(),
-                orderItem.getTicket().getPerformance().getVenue(),
-                orderItem.getTicket().getPerformanceDate(),
-                orderItem.getTicket().getPerformance().getEndTime(),
-                orderItem.getTicket().getTicketTypeName(),
-                userTicket.getIsUsed(),
-                orderItem.getOrder().getOrderNumber(),
-                userTicket.getCreatedAt());
-    }
-
-    private UserTicketDetailResponse mapToUserTicketDetailResponse(UserTicket userTicket) {
-        OrderItem orderItem = userTicket.getOrderItem();
-        return new UserTicketDetailResponse(
-                userTicket.getId(),
-                userTicket.getTicketCode(),
-                orderItem.getTicket().getPerformanceName(),
-                orderItem.getTicket().getPerformance().getVenue(),
-                orderItem.getTicket().getPerformanceDate(),
-                orderItem.getTicket().getPerformance().getEndTime(),
-                orderItem.getTicket().getTicketTypeName(),
-                userTicket.getIsUsed(),
-                orderItem.getOrder().getOrderNumber(),
-                userTicket.getCreatedAt(),
-                null, // qrCodeBase64
-                null, // posterUrl
-                null, // concertDescription
-                null // programDetails
-        );
-    }
 }
\ No newline at end of file
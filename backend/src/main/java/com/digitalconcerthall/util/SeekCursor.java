@@ -0,0 +1,65 @@
+package com.digitalconcerthall.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 鍵集分頁（seek pagination）的游標
+ * 以 (時間, id) 記錄上一頁最後一筆的位置，對外編碼為不透明的 URL 安全字串
+ */
+public final class SeekCursor {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    private SeekCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public static SeekCursor of(LocalDateTime timestamp, Long id) {
+        if (timestamp == null || id == null) {
+            throw new IllegalArgumentException("游標的時間與 id 不可為空");
+        }
+        return new SeekCursor(timestamp, id);
+    }
+
+    /**
+     * 解析游標字串，空白代表第一頁並返回 null
+     * @throws IllegalArgumentException 游標格式錯誤
+     */
+    public static SeekCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("無效的分頁游標");
+            }
+            return of(LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException 與 Base64 解碼錯誤都是 IllegalArgumentException
+            throw new IllegalArgumentException("無效的分頁游標", e);
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + SEPARATOR + timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
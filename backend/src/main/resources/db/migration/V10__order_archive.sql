@@ -0,0 +1,16 @@
+-- 已結束場次的訂單封存
+-- OrderArchiveService 把所有場次都已結束一段時間的訂單，連同明細與使用者票券搬到依下單年份分開的封存表
+-- （orders_archive_YYYY、order_items_archive_YYYY、user_tickets_archive_YYYY），封存表在第一次使用該年份時建立。
+-- 此表記錄已建立的年份，讀取歷史紀錄時據此決定要查詢哪些封存表
+CREATE TABLE archive_partitions (
+    partition_year INT NOT NULL PRIMARY KEY,
+    created_at DATETIME(6) NOT NULL
+);
+
+-- 已封存訂單對儀表板計數的貢獻，鍵與 dashboard_stat_snapshot 相同；對帳時加回，封存不改變儀表板統計。
+-- 金額以分（0.01）為單位存放
+CREATE TABLE dashboard_archived_stats (
+    stat_key VARCHAR(100) PRIMARY KEY,
+    stat_value BIGINT NOT NULL,
+    updated_at DATETIME(6) NOT NULL
+);
@@ -0,0 +1,19 @@
+-- 團體與企業大量訂票工作
+-- 保留庫存與建立訂單在同一交易提交（order_id 有值即已保留），之後分段發行使用者票券，
+-- 每個分段與 issued_tickets 在同一交易提交，失敗後可從已發行的張數繼續；document 保存訂購項目，完成後清除
+CREATE TABLE bulk_order_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    order_id BIGINT,
+    order_number VARCHAR(255),
+    status VARCHAR(20) NOT NULL,
+    document LONGTEXT,
+    total_tickets INT NOT NULL,
+    issued_tickets INT NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    error_message VARCHAR(1000),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_bulk_order_jobs_user_created ON bulk_order_jobs (user_id, created_at);
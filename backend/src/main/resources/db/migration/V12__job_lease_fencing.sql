@@ -0,0 +1,13 @@
+-- 排程租約的防護權杖與執行紀錄
+-- fencing_token 在租約換手時加一，持有者的寫入在同一交易中確認權杖未變，逾期後被接手的舊持有者無法再寫入；
+-- next_run_at 讓同一個工作在所有節點合計每個間隔只執行一次（NULL 表示立即可執行）；
+-- last_* 為最近一次執行的結果，由當時的持有者寫入
+ALTER TABLE job_leases ADD COLUMN fencing_token BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE job_leases ADD COLUMN next_run_at DATETIME(6);
+ALTER TABLE job_leases ADD COLUMN last_started_at DATETIME(6);
+ALTER TABLE job_leases ADD COLUMN last_duration_ms BIGINT;
+ALTER TABLE job_leases ADD COLUMN last_items INT;
+ALTER TABLE job_leases ADD COLUMN last_status VARCHAR(20);
+ALTER TABLE job_leases ADD COLUMN last_error VARCHAR(1000);
+ALTER TABLE job_leases ADD COLUMN run_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE job_leases ADD COLUMN failure_count BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,138 @@
+-- 數位音樂廳基礎資料表結構
+-- 與 JPA 實體對應；已由 ddl-auto=update 建立的資料庫會以 baseline-on-migrate 略過此版本
+
+CREATE TABLE roles (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(20)
+);
+
+CREATE TABLE users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(50) NOT NULL,
+    password VARCHAR(120) NOT NULL,
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    reset_password_token VARCHAR(255),
+    reset_password_token_expiry DATETIME(6),
+    enabled BOOLEAN NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE admin_users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(50) NOT NULL,
+    password VARCHAR(120) NOT NULL,
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    CONSTRAINT uk_admin_users_username UNIQUE (username),
+    CONSTRAINT uk_admin_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id INT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
+
+CREATE TABLE admin_user_roles (
+    admin_user_id BIGINT NOT NULL,
+    role_id INT NOT NULL,
+    PRIMARY KEY (admin_user_id, role_id),
+    CONSTRAINT fk_admin_user_roles_admin FOREIGN KEY (admin_user_id) REFERENCES admin_users (id),
+    CONSTRAINT fk_admin_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
+
+CREATE TABLE concerts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(200) NOT NULL,
+    description TEXT,
+    program_details TEXT,
+    poster_url VARCHAR(255),
+    brochure_url VARCHAR(255),
+    status VARCHAR(20) NOT NULL,
+    start_date_time DATETIME(6) NOT NULL,
+    end_date_time DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL
+);
+
+CREATE TABLE performances (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    concert_id BIGINT NOT NULL,
+    start_time DATETIME(6) NOT NULL,
+    end_time DATETIME(6) NOT NULL,
+    venue VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    livestream_url VARCHAR(255),
+    recording_url VARCHAR(255),
+    CONSTRAINT fk_performances_concert FOREIGN KEY (concert_id) REFERENCES concerts (id)
+);
+
+CREATE TABLE ticket_types (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    description VARCHAR(255),
+    color_code VARCHAR(20),
+    created_at DATETIME(6) NOT NULL
+);
+
+CREATE TABLE tickets (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    performance_id BIGINT NOT NULL,
+    ticket_type_id BIGINT NOT NULL,
+    total_quantity INT NOT NULL,
+    available_quantity INT NOT NULL,
+    description VARCHAR(255),
+    status VARCHAR(255),
+    username VARCHAR(255),
+    created_at DATETIME(6) NOT NULL,
+    CONSTRAINT fk_tickets_performance FOREIGN KEY (performance_id) REFERENCES performances (id),
+    CONSTRAINT fk_tickets_ticket_type FOREIGN KEY (ticket_type_id) REFERENCES ticket_types (id)
+);
+
+CREATE TABLE orders (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_number VARCHAR(255) NOT NULL,
+    user_id BIGINT NOT NULL,
+    order_date DATETIME(6) NOT NULL,
+    total_amount DECIMAL(10,2) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(50),
+    payment_status VARCHAR(20) NOT NULL,
+    CONSTRAINT uk_orders_order_number UNIQUE (order_number),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE order_items (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    ticket_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    unit_price DECIMAL(10,2) NOT NULL,
+    subtotal DECIMAL(10,2) NOT NULL,
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_ticket FOREIGN KEY (ticket_id) REFERENCES tickets (id)
+);
+
+CREATE TABLE user_tickets (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    ticket_code VARCHAR(255) NOT NULL,
+    user_id BIGINT NOT NULL,
+    order_item_id BIGINT NOT NULL,
+    is_used BOOLEAN NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    CONSTRAINT uk_user_tickets_ticket_code UNIQUE (ticket_code),
+    CONSTRAINT fk_user_tickets_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_tickets_order_item FOREIGN KEY (order_item_id) REFERENCES order_items (id)
+);
@@ -0,0 +1,27 @@
+-- 熱門查詢的複合索引
+-- InnoDB 次要索引本身包含主鍵，因此 WHERE + ORDER BY 欄位都在索引內時不需要 filesort，
+-- 且 COUNT 分頁查詢可只掃描索引
+
+-- TicketRepository.findByPerformance_IdAndStatus（同時涵蓋 findByPerformance_Id 前綴）
+CREATE INDEX idx_tickets_performance_status ON tickets (performance_id, status);
+
+-- TicketRepository.findByPerformance_IdAndTicketType_Id
+CREATE INDEX idx_tickets_performance_ticket_type ON tickets (performance_id, ticket_type_id);
+
+-- TicketRepository.findByUsername / existsByIdAndUsername
+CREATE INDEX idx_tickets_username ON tickets (username);
+
+-- OrderRepository.findByUserOrderByOrderDateDesc
+CREATE INDEX idx_orders_user_order_date ON orders (user_id, order_date);
+
+-- OrderRepository.findRecentOrders
+CREATE INDEX idx_orders_order_date ON orders (order_date);
+
+-- ConcertRepository.findByStatus（依開始時間排序列出）
+CREATE INDEX idx_concerts_status_start ON concerts (status, start_date_time);
+
+-- 音樂會的演出場次依時間排序
+CREATE INDEX idx_performances_concert_start ON performances (concert_id, start_time);
+
+-- UserTicketRepository.findByUserOrderByCreatedAtDesc
+CREATE INDEX idx_user_tickets_user_created ON user_tickets (user_id, created_at);
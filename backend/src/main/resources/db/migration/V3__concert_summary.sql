@@ -0,0 +1,19 @@
+-- 音樂會摘要（列表用的票價區間、場次數、可售數量等彙總）
+-- 由 ConcertSummaryService 在後台編輯與下單後增量維護，排程檢查會重算並修正偏差；
+-- 建表後的第一次檢查會為既有音樂會補上摘要
+CREATE TABLE concert_summary (
+    concert_id BIGINT PRIMARY KEY,
+    performance_count INT NOT NULL,
+    min_price DECIMAL(10,2),
+    max_price DECIMAL(10,2),
+    first_start_time DATETIME(6),
+    next_start_time DATETIME(6),
+    venues TEXT,
+    total_capacity INT NOT NULL,
+    remaining_capacity INT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    CONSTRAINT fk_concert_summary_concert FOREIGN KEY (concert_id) REFERENCES concerts (id) ON DELETE CASCADE
+);
+
+-- 找出下一場已開演、需要前移 next_start_time 的摘要
+CREATE INDEX idx_concert_summary_next_start ON concert_summary (next_start_time);
@@ -0,0 +1,8 @@
+-- 管理員儀表板統計的快照
+-- DashboardMetricsService 在記憶體中依提交後的資料異動維護計數，定期把有變動的計數寫入此表，
+-- 重啟後先載入快照再以基礎資料表重算修正。金額以分（0.01）為單位存放
+CREATE TABLE dashboard_stat_snapshot (
+    stat_key VARCHAR(100) PRIMARY KEY,
+    stat_value BIGINT NOT NULL,
+    updated_at DATETIME(6) NOT NULL
+);
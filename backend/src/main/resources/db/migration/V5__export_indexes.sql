@@ -0,0 +1,3 @@
+-- 匯出查詢的索引
+-- ExportService.userTicketsQuery 依發券時間篩選並排序；既有的 idx_user_tickets_user_created 以 user_id 開頭無法使用
+CREATE INDEX idx_user_tickets_created ON user_tickets (created_at);
@@ -0,0 +1,19 @@
+-- 批次匯入工作
+-- 每個分段（若干音樂會及其場次、票券）與進度在同一交易提交，失敗後可從 imported_concerts 繼續；
+-- document 保存待匯入的內容，完成後清除
+CREATE TABLE import_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    document LONGTEXT,
+    total_concerts INT NOT NULL,
+    total_performances INT NOT NULL,
+    total_tickets INT NOT NULL,
+    imported_concerts INT NOT NULL,
+    imported_performances INT NOT NULL,
+    imported_tickets INT NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    error_message VARCHAR(1000),
+    created_by VARCHAR(100),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL
+);
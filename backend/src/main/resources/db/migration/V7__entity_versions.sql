@@ -0,0 +1,5 @@
+-- 音樂會與演出場次的樂觀鎖版本
+-- 單筆編輯（JPA @Version）與批次更新（BatchMutationService）每次寫入都遞增，
+-- 以舊版本提交的修改會被視為衝突而不是直接覆蓋
+ALTER TABLE concerts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE performances ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
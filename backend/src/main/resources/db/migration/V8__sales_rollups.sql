@@ -0,0 +1,57 @@
+-- 銷售分析的預先彙總
+-- SalesRollupService 在訂單與付款狀態異動提交後，重算該訂單下單時間所屬小時的彙總，再由小時彙總重算當日彙總；
+-- 查詢只讀取這些資料表，不掃描 order_items。下單時間相同的訂單歸入同一時段，狀態為目前的訂單狀態
+--
+-- sales_rollup_*：依場次、票種與訂單／付款狀態分組；order_count 為組內的訂單數，
+-- 一張訂單有多個場次或票種時會分別計入各組
+CREATE TABLE sales_rollup_hourly (
+    bucket_start DATETIME NOT NULL,
+    concert_id BIGINT NOT NULL,
+    performance_id BIGINT NOT NULL,
+    ticket_type_id BIGINT NOT NULL,
+    order_status VARCHAR(20) NOT NULL,
+    payment_status VARCHAR(20) NOT NULL,
+    order_count INT NOT NULL,
+    ticket_count INT NOT NULL,
+    amount DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (bucket_start, performance_id, ticket_type_id, order_status, payment_status)
+);
+
+CREATE INDEX idx_sales_rollup_hourly_concert ON sales_rollup_hourly (concert_id, bucket_start);
+
+CREATE TABLE sales_rollup_daily (
+    bucket_date DATE NOT NULL,
+    concert_id BIGINT NOT NULL,
+    performance_id BIGINT NOT NULL,
+    ticket_type_id BIGINT NOT NULL,
+    order_status VARCHAR(20) NOT NULL,
+    payment_status VARCHAR(20) NOT NULL,
+    order_count INT NOT NULL,
+    ticket_count INT NOT NULL,
+    amount DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (bucket_date, performance_id, ticket_type_id, order_status, payment_status)
+);
+
+CREATE INDEX idx_sales_rollup_daily_concert ON sales_rollup_daily (concert_id, bucket_date);
+CREATE INDEX idx_sales_rollup_daily_performance ON sales_rollup_daily (performance_id, bucket_date);
+
+-- order_rollup_*：只依訂單／付款狀態分組，訂單數不重複計算，金額為訂單總額
+CREATE TABLE order_rollup_hourly (
+    bucket_start DATETIME NOT NULL,
+    order_status VARCHAR(20) NOT NULL,
+    payment_status VARCHAR(20) NOT NULL,
+    order_count INT NOT NULL,
+    ticket_count INT NOT NULL,
+    amount DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (bucket_start, order_status, payment_status)
+);
+
+CREATE TABLE order_rollup_daily (
+    bucket_date DATE NOT NULL,
+    order_status VARCHAR(20) NOT NULL,
+    payment_status VARCHAR(20) NOT NULL,
+    order_count INT NOT NULL,
+    ticket_count INT NOT NULL,
+    amount DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (bucket_date, order_status, payment_status)
+);
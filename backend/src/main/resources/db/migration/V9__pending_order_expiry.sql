@@ -0,0 +1,11 @@
+-- 逾期未付款訂單的清理
+-- PendingOrderExpiryService 依 (order_date, id) 由舊到新掃描指定狀態的訂單，每批只鎖定本批的資料列
+CREATE INDEX idx_orders_status_order_date ON orders (status, order_date);
+
+-- 多節點之間的排程租約：同一個工作同時只有一個節點持有，持有者停止後租約到期即可由其他節點接手
+CREATE TABLE job_leases (
+    job_name VARCHAR(100) NOT NULL PRIMARY KEY,
+    owner VARCHAR(200) NOT NULL,
+    lease_until DATETIME(6) NOT NULL,
+    acquired_at DATETIME(6) NOT NULL
+);
@@ -0,0 +1,147 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.dto.request.batch.BatchInventoryRequest;
+import com.digitalconcerthall.dto.request.batch.BatchItem;
+import com.digitalconcerthall.dto.request.batch.BatchStatusRequest;
+import com.digitalconcerthall.model.concert.Concert;
+import com.digitalconcerthall.repository.concert.ConcertRepository;
+import com.digitalconcerthall.service.batch.BatchMutationService;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.search.ConcertSearchService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批次更新與逐筆更新的比較
+ * 1,000 個音樂會的狀態：一次批次請求，對照 1,000 次「讀取、修改、儲存、更新搜尋索引」
+ * （與單筆狀態 API 相同的工作，各自一個交易），以及 1,000 筆票券的庫存調整。
+ * 兩種方式各先執行一輪暖機，不計入結果。
+ * 只在 -Dbenchmark=true 時執行：mvn test -Dtest=BatchMutationBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ BatchMutationService.class, ConcertSummaryService.class, ConcertSearchService.class, JobLeaseService.class,
+        JobRegistry.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BatchMutationBenchmark {
+
+    private static final long FIRST_ID = 2_000_000;
+    private static final int ITEMS = 1_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BatchMutationService batchMutationService;
+
+    @Autowired
+    private ConcertRepository concertRepository;
+
+    @Autowired
+    private ConcertSearchService concertSearchService;
+
+    @Test
+    public void batchOf1000ComparedWithSingleUpdates() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        LocalDateTime start = LocalDateTime.now().plusDays(90);
+        List<Object[]> concerts = new ArrayList<>();
+        List<Object[]> performances = new ArrayList<>();
+        List<Object[]> tickets = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            long id = FIRST_ID + i;
+            concerts.add(new Object[] { id, "批次效能測試 " + i, "upcoming", start, start.plusHours(2), start, start });
+            performances.add(new Object[] { id, id, start, start.plusHours(2), "Main Hall", "scheduled" });
+            tickets.add(new Object[] { id, id, 1, 100, 80, "ACTIVE", start });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO concerts (id, title, status, start_date_time, end_date_time, created_at, "
+                + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", concerts);
+        jdbcTemplate.batchUpdate("INSERT INTO performances (id, concert_id, start_time, end_time, venue, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", performances);
+        jdbcTemplate.batchUpdate("INSERT INTO tickets (id, performance_id, ticket_type_id, total_quantity, "
+                + "available_quantity, status, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", tickets);
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < ITEMS; i++) {
+                ids.add(FIRST_ID + i);
+            }
+
+            long batchNanos = 0;
+            for (int round = -1; round < ROUNDS; round++) {
+                BatchStatusRequest request = new BatchStatusRequest();
+                request.setStatus(round % 2 == 0 ? "active" : "upcoming");
+                ids.forEach(id -> request.getItems().add(new BatchItem(id, null)));
+                long begin = System.nanoTime();
+                assertEquals(ITEMS, batchMutationService.updateConcertStatus(request).getUpdated());
+                if (round >= 0) {
+                    batchNanos += System.nanoTime() - begin;
+                }
+            }
+
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            long singleNanos = 0;
+            for (int round = -1; round < ROUNDS; round++) {
+                String status = round % 2 == 0 ? "inactive" : "upcoming";
+                long begin = System.nanoTime();
+                for (Long id : ids) {
+                    transaction.executeWithoutResult(tx -> {
+                        Concert concert = concertRepository.findById(id).orElseThrow();
+                        concert.setStatus(status);
+                        concert.setUpdatedAt(LocalDateTime.now());
+                        concertRepository.save(concert);
+                        concertSearchService.reindex(id);
+                    });
+                }
+                if (round >= 0) {
+                    singleNanos += System.nanoTime() - begin;
+                }
+            }
+
+            long inventoryNanos = 0;
+            for (int round = -1; round < ROUNDS; round++) {
+                BatchInventoryRequest request = new BatchInventoryRequest();
+                int delta = round % 2 == 0 ? 10 : -10;
+                ids.forEach(id -> request.getItems().add(BatchMutationTest.inventoryItem(id, delta, null)));
+                long begin = System.nanoTime();
+                assertEquals(ITEMS, batchMutationService.adjustInventory(request).getUpdated());
+                if (round >= 0) {
+                    inventoryNanos += System.nanoTime() - begin;
+                }
+            }
+
+            double batchMs = batchNanos / 1e6 / ROUNDS;
+            double singleMs = singleNanos / 1e6 / ROUNDS;
+            System.out.printf("concert status, batch of %d: %.1f ms%n", ITEMS, batchMs);
+            System.out.printf("concert status, %d single updates: %.1f ms (%.1fx)%n", ITEMS, singleMs, singleMs / batchMs);
+            System.out.printf("ticket inventory, batch of %d: %.1f ms%n", ITEMS, inventoryNanos / 1e6 / ROUNDS);
+        } finally {
+            jdbcTemplate.update("DELETE FROM tickets WHERE id >= ?", FIRST_ID);
+            jdbcTemplate.update("DELETE FROM performances WHERE id >= ?", FIRST_ID);
+            jdbcTemplate.update("DELETE FROM concerts WHERE id >= ?", FIRST_ID);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalconcerthall.dto.request.batch.BatchInventoryRequest;
+import com.digitalconcerthall.dto.request.batch.BatchItem;
+import com.digitalconcerthall.dto.request.batch.BatchRescheduleRequest;
+import com.digitalconcerthall.dto.request.batch.BatchStatusRequest;
+import com.digitalconcerthall.dto.response.batch.BatchMutationResponse;
+import com.digitalconcerthall.dto.response.batch.BatchMutationResponse.ItemResult;
+import com.digitalconcerthall.model.concert.Concert;
+import com.digitalconcerthall.repository.concert.ConcertRepository;
+import com.digitalconcerthall.service.batch.BatchMutationService;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.search.ConcertSearchService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 後台批次更新測試
+ * 逐項回報更新、不存在、版本衝突與重複項目，atomic 批次有失敗時完全不寫入，
+ * 場次時間與庫存調整的檢查，以及批次更新後以舊版本儲存的實體會被樂觀鎖拒絕。
+ * 每個測試結束時把改動過的資料恢復成原本的值
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ BatchMutationService.class, ConcertSummaryService.class, ConcertSearchService.class, JobLeaseService.class,
+        JobRegistry.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BatchMutationTest {
+
+    private static final long MISSING_ID = 9_999_999L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BatchMutationService batchMutationService;
+
+    @Autowired
+    private ConcertRepository concertRepository;
+
+    @BeforeEach
+    public void setUp() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    public void concertStatusReportsEachItem() {
+        List<Map<String, Object>> original = jdbcTemplate.queryForList(
+                "SELECT id, status FROM concerts WHERE id IN (1, 2, 3)");
+        long version1 = version("concerts", 1);
+        long version2 = version("concerts", 2);
+        try {
+            BatchStatusRequest request = new BatchStatusRequest();
+            request.setStatus("inactive");
+            request.setItems(List.of(new BatchItem(1L, version1), new BatchItem(2L, version2 + 5),
+                    new BatchItem(3L, null), new BatchItem(MISSING_ID, null), new BatchItem(1L, version1)));
+
+            BatchMutationResponse response = batchMutationService.updateConcertStatus(request);
+            List<ItemResult> results = response.getResults();
+            assertEquals(5, response.getRequested());
+            assertEquals(2, response.getUpdated());
+            assertEquals(1, response.getConflicts());
+            assertEquals(1, response.getNotFound());
+            assertEquals(1, response.getRejected());
+
+            assertEquals(BatchMutationResponse.UPDATED, results.get(0).getResult());
+            assertEquals(version1 + 1, results.get(0).getVersion());
+            assertEquals(BatchMutationResponse.CONFLICT, results.get(1).getResult());
+            assertEquals(version2, results.get(1).getVersion(), "衝突時回傳目前版本");
+            assertEquals(BatchMutationResponse.UPDATED, results.get(2).getResult());
+            assertEquals(BatchMutationResponse.NOT_FOUND, results.get(3).getResult());
+            assertEquals(BatchMutationResponse.REJECTED, results.get(4).getResult(), "重複的 id 只處理第一次");
+
+            assertEquals("inactive", status("concerts", 1));
+            assertEquals("inactive", status("concerts", 3));
+            assertNotEquals("inactive", status("concerts", 2));
+            assertEquals(version1 + 1, version("concerts", 1));
+            assertEquals(version2, version("concerts", 2));
+        } finally {
+            restoreStatus("concerts", original);
+        }
+    }
+
+    @Test
+    public void atomicBatchWritesNothingWhenAnItemFails() {
+        long version = version("performances", 1);
+        BatchStatusRequest request = new BatchStatusRequest();
+        request.setStatus("cancelled");
+        request.setAtomic(true);
+        request.setItems(List.of(new BatchItem(1L, version), new BatchItem(2L, null), new BatchItem(MISSING_ID, null)));
+
+        BatchMutationResponse response = batchMutationService.updatePerformanceStatus(request);
+        assertEquals(0, response.getUpdated());
+        assertEquals(1, response.getNotFound());
+        assertEquals(BatchMutationResponse.SKIPPED, response.getResults().get(0).getResult());
+        assertEquals(version, response.getResults().get(0).getVersion());
+        assertEquals(BatchMutationResponse.SKIPPED, response.getResults().get(1).getResult());
+        assertEquals("SCHEDULED", status("performances", 1));
+        assertEquals("SCHEDULED", status("performances", 2));
+        assertEquals(version, version("performances", 1));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            request.setStatus("postponed");
+            batchMutationService.updatePerformanceStatus(request);
+        });
+    }
+
+    @Test
+    public void rescheduleShiftsOrKeepsDuration() {
+        List<Map<String, Object>> original = jdbcTemplate.queryForList(
+                "SELECT id, start_time, end_time FROM performances WHERE id IN (4, 5, 6)");
+        LocalDateTime start4 = startTime(4);
+        LocalDateTime start5 = startTime(5);
+        try {
+            BatchRescheduleRequest shift = new BatchRescheduleRequest();
+            shift.setShiftMinutes(90);
+            shift.setItems(List.of(rescheduleItem(4L, null, null), rescheduleItem(5L, null, null)));
+            assertEquals(2, batchMutationService.reschedulePerformances(shift).getUpdated());
+            assertEquals(start4.plusMinutes(90), startTime(4));
+            assertEquals(start5.plusMinutes(90), startTime(5));
+
+            LocalDateTime newStart = LocalDateTime.of(2030, 5, 1, 19, 30);
+            BatchRescheduleRequest move = new BatchRescheduleRequest();
+            move.setItems(List.of(rescheduleItem(4L, newStart, null),
+                    rescheduleItem(6L, newStart, newStart.minusHours(1))));
+            BatchMutationResponse response = batchMutationService.reschedulePerformances(move);
+            assertEquals(BatchMutationResponse.UPDATED, response.getResults().get(0).getResult());
+            assertEquals(BatchMutationResponse.REJECTED, response.getResults().get(1).getResult());
+            assertEquals(newStart, startTime(4));
+            // 沒有指定結束時間時維持原本的演出長度
+            assertEquals(newStart.plusHours(2), jdbcTemplate.queryForObject(
+                    "SELECT end_time FROM performances WHERE id = 4", LocalDateTime.class));
+            assertNotEquals(newStart, startTime(6));
+        } finally {
+            for (Map<String, Object> row : original) {
+                jdbcTemplate.update("UPDATE performances SET start_time = ?, end_time = ? WHERE id = ?",
+                        row.get("start_time"), row.get("end_time"), row.get("id"));
+            }
+        }
+    }
+
+    @Test
+    public void inventoryAdjustmentKeepsSoldTickets() {
+        BatchInventoryRequest request = new BatchInventoryRequest();
+        request.setItems(List.of(inventoryItem(1L, 10, null), inventoryItem(2L, -85, null),
+                inventoryItem(3L, 0, 30)));
+        try {
+            BatchMutationResponse response = batchMutationService.adjustInventory(request);
+            assertEquals(BatchMutationResponse.UPDATED, response.getResults().get(0).getResult());
+            assertEquals(BatchMutationResponse.REJECTED, response.getResults().get(1).getResult(), "不能低於已售出 20 張");
+            assertEquals(BatchMutationResponse.REJECTED, response.getResults().get(2).getResult(), "可用數量不能超過總數量");
+
+            assertEquals(110, quantity("total_quantity", 1));
+            assertEquals(90, quantity("available_quantity", 1));
+            assertEquals(100, quantity("total_quantity", 2));
+            assertEquals(80, quantity("available_quantity", 3));
+        } finally {
+            jdbcTemplate.update("UPDATE tickets SET total_quantity = 100, available_quantity = 80 WHERE id IN (1, 2, 3)");
+        }
+    }
+
+    @Test
+    public void staleEntityIsRejectedAfterBatchUpdate() {
+        Concert stale = concertRepository.findById(4L).orElseThrow();
+        String status = stale.getStatus();
+        try {
+            BatchStatusRequest request = new BatchStatusRequest();
+            request.setStatus("past");
+            request.setItems(List.of(new BatchItem(4L, stale.getVersion())));
+            assertEquals(1, batchMutationService.updateConcertStatus(request).getUpdated());
+
+            stale.setTitle("以舊版本覆寫");
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> concertRepository.save(stale));
+            assertEquals("past", status("concerts", 4));
+        } finally {
+            jdbcTemplate.update("UPDATE concerts SET status = ? WHERE id = 4", status);
+        }
+    }
+
+    private long version(String table, long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM " + table + " WHERE id = ?", Long.class, id);
+    }
+
+    private String status(String table, long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM " + table + " WHERE id = ?", String.class, id);
+    }
+
+    private LocalDateTime startTime(long id) {
+        return jdbcTemplate.queryForObject("SELECT start_time FROM performances WHERE id = ?", LocalDateTime.class, id);
+    }
+
+    private int quantity(String column, long id) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM tickets WHERE id = ?", Integer.class, id);
+    }
+
+    private void restoreStatus(String table, List<Map<String, Object>> rows) {
+        for (Map<String, Object> row : rows) {
+            jdbcTemplate.update("UPDATE " + table + " SET status = ? WHERE id = ?", row.get("status"), row.get("id"));
+        }
+    }
+
+    private static BatchRescheduleRequest.Item rescheduleItem(Long id, LocalDateTime startTime, LocalDateTime endTime) {
+        BatchRescheduleRequest.Item item = new BatchRescheduleRequest.Item();
+        item.setId(id);
+        item.setStartTime(startTime);
+        item.setEndTime(endTime);
+        return item;
+    }
+
+    static BatchInventoryRequest.Item inventoryItem(Long ticketId, int totalDelta, Integer availableDelta) {
+        BatchInventoryRequest.Item item = new BatchInventoryRequest.Item();
+        item.setTicketId(ticketId);
+        item.setTotalQuantityDelta(totalDelta);
+        item.setAvailableQuantityDelta(availableDelta);
+        return item;
+    }
+}
@@ -0,0 +1,85 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest;
+import com.digitalconcerthall.dto.response.imports.ImportJobResponse;
+import com.digitalconcerthall.model.imports.ImportJob;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.dashboard.DashboardMetricsService;
+import com.digitalconcerthall.service.imports.BulkImportService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.search.ConcertSearchService;
+
+/**
+ * 批次匯入的寫入速度
+ * 匯入 5,000 個音樂會、每個 10 個場次、每個場次 4 種票（共 50,000 個場次、200,000 筆票券），
+ * 記錄檢查與寫入各自的耗時以及每秒寫入的資料列數。
+ * 執行時間較長，只在 -Dbenchmark=true 時執行：mvn test -Dtest=BulkImportBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ BulkImportService.class, ConcertSummaryService.class, ConcertSearchService.class,
+        DashboardMetricsService.class, JobLeaseService.class, JobRegistry.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BulkImportBenchmark {
+
+    private static final int CONCERTS = 5_000;
+    private static final int PERFORMANCES_PER_CONCERT = 10;
+    private static final int TICKET_TYPES = 4;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Test
+    public void import50kPerformances() throws InterruptedException {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        for (String table : new String[] { "concerts", "performances", "tickets" }) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH 1000000");
+        }
+        BulkImportRequest request = new BulkImportRequest();
+        for (int i = 0; i < CONCERTS; i++) {
+            request.getConcerts().add(BulkImportTest.concert("效能測試音樂會 " + i, PERFORMANCES_PER_CONCERT,
+                    TICKET_TYPES));
+        }
+
+        long start = System.nanoTime();
+        assertTrue(bulkImportService.validate(request).isValid());
+        System.out.printf("validate: %d performances in %.0f ms%n", CONCERTS * PERFORMANCES_PER_CONCERT,
+                (System.nanoTime() - start) / 1e6);
+
+        String jobId = bulkImportService.submit(request, "benchmark").getId();
+        ImportJobResponse job;
+        do {
+            Thread.sleep(100);
+            job = bulkImportService.getJob(jobId).orElseThrow();
+        } while (!ImportJob.COMPLETED.equals(job.getStatus()) && !ImportJob.FAILED.equals(job.getStatus()));
+
+        assertEquals(ImportJob.COMPLETED, job.getStatus(), job.getErrorMessage());
+        long rows = (long) job.getImportedConcerts() + job.getImportedPerformances() + job.getImportedTickets();
+        System.out.printf("import: %d concerts, %d performances, %d tickets (%d rows) in %d ms, %d rows/s%n",
+                job.getImportedConcerts(), job.getImportedPerformances(), job.getImportedTickets(), rows,
+                job.getDurationMs(), job.getRowsPerSecond());
+    }
+}
@@ -0,0 +1,220 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest;
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest.ConcertItem;
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest.PerformanceItem;
+import com.digitalconcerthall.dto.request.imports.BulkImportRequest.TicketItem;
+import com.digitalconcerthall.dto.response.imports.ImportJobResponse;
+import com.digitalconcerthall.model.imports.ImportJob;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.dashboard.DashboardMetricsService;
+import com.digitalconcerthall.service.imports.BulkImportCsvParser;
+import com.digitalconcerthall.service.imports.BulkImportService;
+import com.digitalconcerthall.service.imports.BulkImportValidationException;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.search.ConcertSearchService;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批次匯入測試
+ * 不合法的內容一次回報所有錯誤且不建立工作、CSV 依 concert_ref 與場次分組後寫入並更新摘要，
+ * 以及某個分段失敗後已提交的分段保留、繼續執行不會重複新增
+ */
+@DataJpaTest(properties = "app.import.chunk-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ BulkImportService.class, ConcertSummaryService.class, ConcertSearchService.class,
+        DashboardMetricsService.class, JobLeaseService.class, JobRegistry.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BulkImportTest {
+
+    /** 匯入的資料從這個 ID 開始，測試結束後刪除 */
+    private static final long FIRST_ID = 200_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
+    @BeforeEach
+    public void setUp() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        // 測試資料以明確 id 寫入，先把自增起點移到後面
+        for (String table : List.of("concerts", "performances", "tickets")) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + FIRST_ID);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM tickets WHERE id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM performances WHERE id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM concerts WHERE id >= ?", FIRST_ID);
+    }
+
+    @Test
+    public void invalidDocumentReportsEveryErrorWithoutCreatingJob() {
+        BulkImportRequest request = new BulkImportRequest();
+        ConcertItem concert = concert("錯誤示範", 1, 1);
+        concert.setStatus("draft");
+        PerformanceItem performance = concert.getPerformances().get(0);
+        performance.setVenue(null);
+        performance.getTickets().get(0).setTicketType("不存在的票種");
+        TicketItem oversold = ticket("Type 2", 10);
+        oversold.setAvailableQuantity(11);
+        performance.getTickets().add(oversold);
+        request.getConcerts().add(concert);
+        long jobs = count("SELECT COUNT(*) FROM import_jobs");
+
+        BulkImportValidationException e = assertThrows(BulkImportValidationException.class,
+                () -> bulkImportService.submit(request, "admin"));
+        assertEquals(4, e.getErrors().size(), e.getErrors().toString());
+        assertTrue(e.getErrors().contains("concerts[0].status: 不支援的狀態 draft"));
+        assertTrue(e.getErrors().contains("concerts[0].performances[0].tickets[0]: 找不到票種 不存在的票種"));
+        assertEquals(jobs, count("SELECT COUNT(*) FROM import_jobs"));
+    }
+
+    @Test
+    public void csvImportGroupsRowsAndWritesEverything() throws Exception {
+        String csv = "concert_ref,concert_title,concert_status,performance_start,venue,performance_status,"
+                + "ticket_type,total_quantity\r\n"
+                + "A,CSV 匯入 A,upcoming,2027-03-01 19:30,國家音樂廳,scheduled,Type 1,100\r\n"
+                + "A,CSV 匯入 A,upcoming,2027-03-01 19:30,國家音樂廳,scheduled,Type 2,50\r\n"
+                + "A,CSV 匯入 A,upcoming,2027-03-02 19:30,國家音樂廳,scheduled,Type 1,100\r\n"
+                + "B,\"CSV 匯入 B, 加場\",upcoming,2027-04-01 14:30,衛武營音樂廳,scheduled,,\r\n";
+        BulkImportRequest request = BulkImportCsvParser.parse(new StringReader(csv));
+        assertEquals(2, request.getConcerts().size());
+        assertEquals("CSV 匯入 B, 加場", request.getConcerts().get(1).getTitle());
+        long concertsBefore = dashboardMetricsService.get(DashboardMetricsService.CONCERTS);
+
+        ImportJobResponse job = await(bulkImportService.submit(request, "admin").getId());
+        assertEquals(ImportJob.COMPLETED, job.getStatus(), job.getErrorMessage());
+        assertEquals(2, job.getImportedConcerts());
+        assertEquals(3, job.getImportedPerformances());
+        assertEquals(3, job.getImportedTickets());
+
+        assertEquals(2, count("SELECT COUNT(*) FROM concerts WHERE id >= " + FIRST_ID));
+        assertEquals(250, count("SELECT SUM(t.total_quantity) FROM tickets t JOIN performances p "
+                + "ON p.id = t.performance_id WHERE p.id >= " + FIRST_ID));
+        assertEquals(250, count("SELECT SUM(t.available_quantity) FROM tickets t WHERE t.id >= " + FIRST_ID));
+        assertEquals(2, count("SELECT performance_count FROM concert_summary s JOIN concerts c "
+                + "ON c.id = s.concert_id WHERE c.title = 'CSV 匯入 A'"));
+        assertEquals(concertsBefore + 2, dashboardMetricsService.get(DashboardMetricsService.CONCERTS));
+        assertNull(jdbcTemplate.queryForObject("SELECT document FROM import_jobs WHERE id = ?", String.class,
+                job.getId()), "完成後應清除匯入內容");
+    }
+
+    @Test
+    public void csvFormatErrorsCarryLineNumbers() {
+        String csv = "concert_title,concert_status,performance_start,venue,ticket_type,total_quantity\n"
+                + "音樂會,upcoming,2027-03-01 19:30,國家音樂廳,Type 1,100\n"
+                + "音樂會,upcoming,明天晚上,國家音樂廳,Type 1,很多\n";
+        BulkImportValidationException e = assertThrows(BulkImportValidationException.class,
+                () -> BulkImportCsvParser.parse(new StringReader(csv)));
+        assertEquals(List.of("第 3 行 performance_start: 無法解析時間 明天晚上",
+                "第 3 行 total_quantity: 不是整數 很多"), e.getErrors());
+    }
+
+    @Test
+    public void failedChunkKeepsCommittedChunksAndResumes() throws Exception {
+        BulkImportRequest request = new BulkImportRequest();
+        for (int i = 0; i < 5; i++) {
+            request.getConcerts().add(concert("分段匯入 " + i, 2, 2));
+        }
+        // 第三個音樂會違反資料庫限制；chunk-size=2 時每個音樂會（2 個場次）是一個分段
+        request.getConcerts().get(2).getPerformances().get(1).getTickets().get(0).setTotalQuantity(4242);
+        jdbcTemplate.execute("ALTER TABLE tickets ADD CONSTRAINT chk_bulk_import_test CHECK (total_quantity <> 4242)");
+        ImportJobResponse failed;
+        try {
+            failed = await(bulkImportService.submit(request, "admin").getId());
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE tickets DROP CONSTRAINT chk_bulk_import_test");
+        }
+        assertEquals(ImportJob.FAILED, failed.getStatus());
+        assertEquals(2, failed.getImportedConcerts());
+        assertEquals(4, failed.getImportedPerformances());
+        assertEquals(2, count("SELECT COUNT(*) FROM concerts WHERE title LIKE '分段匯入 %'"));
+        assertEquals(4, count("SELECT COUNT(*) FROM performances WHERE id >= " + FIRST_ID), "失敗的分段應整個回滾");
+
+        bulkImportService.resume(failed.getId());
+        ImportJobResponse completed = await(failed.getId());
+        assertEquals(ImportJob.COMPLETED, completed.getStatus(), completed.getErrorMessage());
+        assertEquals(5, completed.getImportedConcerts());
+        assertEquals(10, completed.getImportedPerformances());
+        assertEquals(20, completed.getImportedTickets());
+        assertEquals(5, count("SELECT COUNT(DISTINCT title) FROM concerts WHERE title LIKE '分段匯入 %'"));
+        assertEquals(5, count("SELECT COUNT(*) FROM concerts WHERE title LIKE '分段匯入 %'"));
+        assertEquals(20, count("SELECT COUNT(*) FROM tickets WHERE id >= " + FIRST_ID));
+        assertThrows(IllegalStateException.class, () -> bulkImportService.resume(failed.getId()));
+    }
+
+    private ImportJobResponse await(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            ImportJobResponse job = bulkImportService.getJob(jobId).orElseThrow();
+            if (ImportJob.COMPLETED.equals(job.getStatus()) || ImportJob.FAILED.equals(job.getStatus())) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        fail("匯入逾時");
+        return null;
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    static ConcertItem concert(String title, int performances, int ticketTypes) {
+        ConcertItem concert = new ConcertItem();
+        concert.setTitle(title);
+        concert.setStatus("upcoming");
+        LocalDateTime start = LocalDateTime.of(2027, 3, 1, 19, 30);
+        for (int p = 0; p < performances; p++) {
+            PerformanceItem performance = new PerformanceItem();
+            performance.setStartTime(start.plusDays(p));
+            performance.setDuration(120);
+            performance.setVenue("國家音樂廳");
+            performance.setStatus("scheduled");
+            for (int t = 1; t <= ticketTypes; t++) {
+                performance.getTickets().add(ticket("Type " + t, 100));
+            }
+            concert.getPerformances().add(performance);
+        }
+        return concert;
+    }
+
+    private static TicketItem ticket(String type, int quantity) {
+        TicketItem ticket = new TicketItem();
+        ticket.setTicketType(type);
+        ticket.setTotalQuantity(quantity);
+        return ticket;
+    }
+}
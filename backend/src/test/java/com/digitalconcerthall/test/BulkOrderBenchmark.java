@@ -0,0 +1,151 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalconcerthall.dto.request.CartItemRequest;
+import com.digitalconcerthall.dto.request.CartRequest;
+import com.digitalconcerthall.dto.request.order.BulkOrderRequest;
+import com.digitalconcerthall.dto.response.order.BulkOrderJobResponse;
+import com.digitalconcerthall.model.order.BulkOrderJob;
+import com.digitalconcerthall.repository.UserRepository;
+import com.digitalconcerthall.security.services.UserDetailsImpl;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.order.BulkOrderService;
+import com.digitalconcerthall.service.order.OrderService;
+import com.digitalconcerthall.service.order.OrderServiceImpl;
+import com.digitalconcerthall.service.ticket.UserTicketService;
+import com.digitalconcerthall.service.ticket.UserTicketServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * 5,000 張票的企業訂單
+ * 同一筆訂單分 5 種票券各 1,000 張，先走一般結帳（逐項檢查建立訂單，再逐筆以實體新增使用者票券），
+ * 再以大量訂票重複三次：保留庫存後立即以付款流程改為已付款，印出從送出到全部票券發行的耗時與每秒發行張數。
+ * 執行時間較長，只在 -Dbenchmark=true 時執行：mvn test -Dtest=BulkOrderBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ BulkOrderService.class, OrderServiceImpl.class, UserTicketServiceImpl.class, ConcertSummaryService.class,
+        JobLeaseService.class, JobRegistry.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BulkOrderBenchmark {
+
+    private static final long FIRST_ID = 20_000_000L;
+    private static final int TICKET_ROWS = 5;
+    private static final int PER_ROW = 1_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserTicketService userTicketService;
+
+    @Test
+    public void order5000Tickets() throws InterruptedException {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        for (String table : new String[] { "orders", "order_items", "user_tickets" }) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + FIRST_ID);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < TICKET_ROWS; i++) {
+            jdbcTemplate.update("INSERT INTO tickets (id, performance_id, ticket_type_id, total_quantity, "
+                    + "available_quantity, status, username, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    FIRST_ID + i, 1L, (long) i % 4 + 1, PER_ROW * (ROUNDS + 1), PER_ROW * (ROUNDS + 1), "ACTIVE",
+                    "user1", now);
+        }
+        UserDetailsImpl principal = UserDetailsImpl.build(userRepository.findById(7L).orElseThrow());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        try {
+            CartRequest cart = new CartRequest();
+            cart.setItems(new ArrayList<>());
+            for (int i = 0; i < TICKET_ROWS; i++) {
+                CartItemRequest item = new CartItemRequest();
+                item.setId(String.valueOf(FIRST_ID + i));
+                item.setQuantity(PER_ROW);
+                cart.getItems().add(item);
+            }
+            long start = System.nanoTime();
+            String orderNumber = orderService.createOrder(cart).getOrderNumber();
+            userTicketService.generateAndSaveUserTicketsForOrder(orderNumber);
+            System.out.printf("checkout + per-entity tickets: %d tickets in %.0f ms%n", TICKET_ROWS * PER_ROW,
+                    (System.nanoTime() - start) / 1e6);
+
+            BulkOrderRequest request = new BulkOrderRequest();
+            for (int i = 0; i < TICKET_ROWS; i++) {
+                BulkOrderRequest.Item item = new BulkOrderRequest.Item();
+                item.setTicketId(FIRST_ID + i);
+                item.setQuantity(PER_ROW);
+                request.getItems().add(item);
+            }
+            for (int round = 1; round <= ROUNDS; round++) {
+                start = System.nanoTime();
+                String jobId = bulkOrderService.submit(request, principal.getUsername()).getId();
+                BulkOrderJobResponse job = await(jobId, principal.getUsername());
+                assertEquals(BulkOrderJob.AWAITING_PAYMENT, job.getStatus(), job.getErrorMessage());
+                orderService.updateOrderStatus(job.getOrderNumber(), "paid");
+                job = await(jobId, principal.getUsername());
+                double elapsed = (System.nanoTime() - start) / 1e6;
+                assertEquals(BulkOrderJob.COMPLETED, job.getStatus(), job.getErrorMessage());
+                assertEquals(TICKET_ROWS * PER_ROW, job.getIssuedTickets());
+                System.out.printf("bulk order round %d: %d tickets in %.0f ms (job %d ms, %d tickets/s)%n", round,
+                        job.getIssuedTickets(), elapsed, job.getDurationMs(), job.getTicketsPerSecond());
+            }
+            assertEquals(PER_ROW, jdbcTemplate.queryForObject("SELECT available_quantity FROM tickets WHERE id = ?",
+                    Integer.class, FIRST_ID));
+        } finally {
+            SecurityContextHolder.clearContext();
+            jdbcTemplate.update("DELETE FROM user_tickets WHERE id >= ?", FIRST_ID);
+            jdbcTemplate.update("DELETE FROM order_items WHERE id >= ?", FIRST_ID);
+            jdbcTemplate.update("DELETE FROM orders WHERE id >= ?", FIRST_ID);
+            jdbcTemplate.update("DELETE FROM bulk_order_jobs");
+            jdbcTemplate.update("DELETE FROM tickets WHERE id >= ?", FIRST_ID);
+        }
+    }
+
+    /**
+     * 等到工作等待付款、完成或失敗
+     */
+    private BulkOrderJobResponse await(String jobId, String username) throws InterruptedException {
+        BulkOrderJobResponse job;
+        do {
+            Thread.sleep(5);
+            job = bulkOrderService.getJob(jobId, username).orElseThrow();
+        } while (!BulkOrderJob.AWAITING_PAYMENT.equals(job.getStatus())
+                && !BulkOrderJob.COMPLETED.equals(job.getStatus()) && !BulkOrderJob.FAILED.equals(job.getStatus()));
+        return job;
+    }
+}
@@ -0,0 +1,223 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalconcerthall.dto.request.order.BulkOrderRequest;
+import com.digitalconcerthall.dto.response.order.BulkOrderJobResponse;
+import com.digitalconcerthall.model.order.BulkOrderJob;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.order.BulkOrderService;
+import com.digitalconcerthall.service.order.OrderService;
+import com.digitalconcerthall.service.order.OrderServiceImpl;
+
+import java.util.List;
+
+/**
+ * 大量訂票測試
+ * 合併同一票券的數量後保留庫存並建立待付款訂單，付款前不發行票券、付款時不再扣減庫存，
+ * 付款後每張票券一筆使用者票券；任一票券列扣減失敗時整個保留回滾；發行到一半失敗後繼續執行不會重複發行
+ */
+@DataJpaTest(properties = { "app.orders.bulk.chunk-size=7", "app.orders.bulk.max-tickets=200" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ BulkOrderService.class, OrderServiceImpl.class, ConcertSummaryService.class, JobLeaseService.class,
+        JobRegistry.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BulkOrderTest {
+
+    /** 測試建立的訂單、明細與使用者票券從這個 ID 開始，測試結束後刪除 */
+    private static final long FIRST_ID = 300_000;
+    private static final String USERNAME = "user3";
+    private static final List<Long> TICKETS = List.of(2L, 4L, 6L);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private OrderService orderService;
+
+    private List<Integer> availableBefore;
+
+    @BeforeEach
+    public void setUp() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        // 種子資料以明確 id 寫入，先把自增起點移到後面
+        for (String table : List.of("orders", "order_items", "user_tickets")) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + FIRST_ID);
+        }
+        availableBefore = TICKETS.stream().map(this::available).toList();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_tickets WHERE id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM order_items WHERE id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM orders WHERE id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM bulk_order_jobs");
+        for (int i = 0; i < TICKETS.size(); i++) {
+            jdbcTemplate.update("UPDATE tickets SET available_quantity = ? WHERE id = ?", availableBefore.get(i),
+                    TICKETS.get(i));
+        }
+    }
+
+    @Test
+    public void reservesInventoryAndIssuesOneTicketPerSeat() throws Exception {
+        BulkOrderRequest request = request(TICKETS.get(0), 30, TICKETS.get(1), 20, TICKETS.get(0), 10);
+
+        BulkOrderJobResponse reserved = await(bulkOrderService.submit(request, USERNAME).getId());
+        assertEquals(BulkOrderJob.AWAITING_PAYMENT, reserved.getStatus(), reserved.getErrorMessage());
+        assertEquals(60, reserved.getTotalTickets());
+        assertEquals(0, reserved.getIssuedTickets());
+        assertNotNull(reserved.getOrderNumber());
+        assertEquals(availableBefore.get(0) - 40, available(TICKETS.get(0)), "待付款時即保留庫存");
+        assertEquals(availableBefore.get(1) - 20, available(TICKETS.get(1)));
+        long orderId = jdbcTemplate.queryForObject("SELECT id FROM orders WHERE order_number = ? "
+                + "AND status = 'pending' AND payment_status = 'pending' AND payment_method = 'invoice' AND user_id = 3",
+                Long.class, reserved.getOrderNumber());
+        assertEquals(0, count("SELECT COUNT(*) FROM user_tickets WHERE id >= " + FIRST_ID), "付款前不應發行票券");
+        assertThrows(IllegalStateException.class, () -> bulkOrderService.resume(reserved.getId(), USERNAME));
+
+        orderService.updateOrderStatus(reserved.getOrderNumber(), "paid");
+        BulkOrderJobResponse job = await(reserved.getId());
+        assertEquals(BulkOrderJob.COMPLETED, job.getStatus(), job.getErrorMessage());
+        assertEquals(60, job.getIssuedTickets());
+        assertEquals(availableBefore.get(0) - 40, available(TICKETS.get(0)), "付款時不應再扣減庫存");
+        assertEquals(availableBefore.get(1) - 20, available(TICKETS.get(1)));
+        assertEquals("paid", jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class,
+                orderId));
+        assertEquals(2, count("SELECT COUNT(*) FROM order_items WHERE order_id = " + orderId), "同一票券應合併為一個明細");
+        assertEquals(60, count("SELECT COUNT(DISTINCT ut.ticket_code) FROM user_tickets ut "
+                + "JOIN order_items oi ON oi.id = ut.order_item_id WHERE oi.order_id = " + orderId));
+        assertEquals(40, count("SELECT COUNT(*) FROM user_tickets ut JOIN order_items oi ON oi.id = ut.order_item_id "
+                + "WHERE oi.order_id = " + orderId + " AND oi.ticket_id = " + TICKETS.get(0)));
+        assertNull(jdbcTemplate.queryForObject("SELECT document FROM bulk_order_jobs WHERE id = ?", String.class,
+                job.getId()), "完成後應清除訂購項目");
+        assertTrue(bulkOrderService.getJob(job.getId(), "user4").isEmpty(), "不能查詢其他使用者的工作");
+    }
+
+    @Test
+    public void rejectsInvalidOrdersWithoutCreatingJob() {
+        assertThrows(IllegalArgumentException.class,
+                () -> bulkOrderService.submit(request(TICKETS.get(0), 0), USERNAME));
+        assertThrows(IllegalArgumentException.class,
+                () -> bulkOrderService.submit(request(TICKETS.get(0), 150, TICKETS.get(1), 51), USERNAME));
+        assertThrows(IllegalArgumentException.class,
+                () -> bulkOrderService.submit(request(TICKETS.get(0), availableBefore.get(0) + 1), USERNAME));
+        assertThrows(IllegalArgumentException.class, () -> bulkOrderService.submit(request(-1L, 1), USERNAME));
+        assertEquals(0, count("SELECT COUNT(*) FROM bulk_order_jobs"));
+    }
+
+    @Test
+    public void failedReservationRollsBackEveryTicketRow() throws Exception {
+        BulkOrderRequest request = request(TICKETS.get(0), 5, TICKETS.get(1), 5, TICKETS.get(2), 5);
+        // 第三個票券列扣減失敗（模擬檢查後、保留前被其他訂單買走）
+        jdbcTemplate.execute("ALTER TABLE tickets ADD CONSTRAINT chk_bulk_order_test CHECK (id <> " + TICKETS.get(2)
+                + " OR available_quantity >= " + (availableBefore.get(2) - 1) + ")");
+        BulkOrderJobResponse failed;
+        try {
+            failed = await(bulkOrderService.submit(request, USERNAME).getId());
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE tickets DROP CONSTRAINT chk_bulk_order_test");
+        }
+        assertEquals(BulkOrderJob.FAILED, failed.getStatus());
+        assertNull(failed.getOrderNumber());
+        for (int i = 0; i < TICKETS.size(); i++) {
+            assertEquals(availableBefore.get(i), available(TICKETS.get(i)), "保留失敗時所有票券列都應回滾");
+        }
+        assertEquals(0, count("SELECT COUNT(*) FROM orders WHERE id >= " + FIRST_ID));
+
+        bulkOrderService.resume(failed.getId(), USERNAME);
+        BulkOrderJobResponse reserved = await(failed.getId());
+        assertEquals(BulkOrderJob.AWAITING_PAYMENT, reserved.getStatus(), reserved.getErrorMessage());
+        assertEquals(availableBefore.get(2) - 5, available(TICKETS.get(2)));
+    }
+
+    @Test
+    public void failedIssuingResumesWithoutDuplicates() throws Exception {
+        BulkOrderRequest request = request(TICKETS.get(0), 25, TICKETS.get(1), 5);
+        BulkOrderJobResponse reserved = await(bulkOrderService.submit(request, USERNAME).getId());
+        assertEquals(BulkOrderJob.AWAITING_PAYMENT, reserved.getStatus(), reserved.getErrorMessage());
+        // chunk-size=7：前兩個分段（14 張）提交後，第三個分段違反資料庫限制
+        jdbcTemplate.execute("ALTER TABLE user_tickets ADD CONSTRAINT chk_bulk_order_test CHECK (id < "
+                + (FIRST_ID + 14) + ")");
+        BulkOrderJobResponse failed;
+        try {
+            orderService.updateOrderStatus(reserved.getOrderNumber(), "paid");
+            failed = await(reserved.getId());
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE user_tickets DROP CONSTRAINT chk_bulk_order_test");
+        }
+        assertEquals(BulkOrderJob.FAILED, failed.getStatus());
+        assertEquals(reserved.getOrderNumber(), failed.getOrderNumber(), "庫存保留與訂單應已提交");
+        assertEquals(14, failed.getIssuedTickets());
+        assertEquals(14, count("SELECT COUNT(*) FROM user_tickets WHERE id >= " + FIRST_ID));
+        assertEquals(availableBefore.get(0) - 25, available(TICKETS.get(0)));
+
+        bulkOrderService.resume(failed.getId(), USERNAME);
+        BulkOrderJobResponse completed = await(failed.getId());
+        assertEquals(BulkOrderJob.COMPLETED, completed.getStatus(), completed.getErrorMessage());
+        assertEquals(30, completed.getIssuedTickets());
+        assertEquals(30, count("SELECT COUNT(*) FROM user_tickets WHERE id >= " + FIRST_ID));
+        assertEquals(1, count("SELECT COUNT(*) FROM orders WHERE id >= " + FIRST_ID), "繼續執行不應重新保留庫存");
+        assertEquals(availableBefore.get(0) - 25, available(TICKETS.get(0)));
+        assertThrows(IllegalStateException.class, () -> bulkOrderService.resume(failed.getId(), USERNAME));
+    }
+
+    private BulkOrderJobResponse await(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            BulkOrderJobResponse job = bulkOrderService.getJob(jobId, USERNAME).orElseThrow();
+            if (BulkOrderJob.COMPLETED.equals(job.getStatus()) || BulkOrderJob.FAILED.equals(job.getStatus())
+                    || BulkOrderJob.AWAITING_PAYMENT.equals(job.getStatus())) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        fail("大量訂票逾時");
+        return null;
+    }
+
+    private int available(Long ticketId) {
+        return jdbcTemplate.queryForObject("SELECT available_quantity FROM tickets WHERE id = ?", Integer.class,
+                ticketId);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    /**
+     * 依序為票券 ID 與數量
+     */
+    static BulkOrderRequest request(Object... ticketsAndQuantities) {
+        BulkOrderRequest request = new BulkOrderRequest();
+        for (int i = 0; i < ticketsAndQuantities.length; i += 2) {
+            BulkOrderRequest.Item item = new BulkOrderRequest.Item();
+            item.setTicketId(((Number) ticketsAndQuantities[i]).longValue());
+            item.setQuantity((Integer) ticketsAndQuantities[i + 1]);
+            request.getItems().add(item);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,177 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.digitalconcerthall.datasource.BulkheadDataSource;
+import com.digitalconcerthall.datasource.BulkheadFullException;
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+/**
+ * 連線隔離負載測試
+ * 以大量瀏覽請求占滿連線：瀏覽只會耗盡自己的名額，超出的請求被拒絕，下單仍可取得連線。
+ * 下單延遲的比較（沒有分區時下單要排在瀏覽後面，有分區時 p99 維持在基準附近）與時鐘有關，
+ * 只在 -Dbenchmark=true 時執行：mvn test -Dtest=BulkheadLoadTest -Dbenchmark=true
+ */
+public class BulkheadLoadTest {
+
+    private static final int POOL_SIZE = 6;
+    private static final int BROWSE_THREADS = 16;
+    private static final long BROWSE_HOLD_MS = 30;
+    private static final int CHECKOUT_SAMPLES = 200;
+
+    private HikariDataSource pool;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:bulkhead;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setPassword("");
+        pool.setMaximumPoolSize(POOL_SIZE);
+        pool.setMinimumIdle(POOL_SIZE);
+        pool.setConnectionTimeout(5000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void browseFloodIsConfinedToItsPartition() throws Exception {
+        BulkheadDataSource bulkhead = bulkhead();
+
+        FloodResult guarded = underBrowseFlood(bulkhead, () -> checkoutP99(bulkhead));
+
+        assertTrue(guarded.browseRejected > 0, "瀏覽流量應占滿自己的分區");
+        assertEquals(POOL_SIZE - 2, guarded.browsePeakActive, "瀏覽分區同時持有的連線不應超過名額");
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void checkoutLatencyStaysFlatWhileBrowsePartitionIsSaturated() throws Exception {
+        BulkheadDataSource bulkhead = bulkhead();
+
+        long baselineP99 = checkoutP99(bulkhead);
+        FloodResult guarded = underBrowseFlood(bulkhead, () -> checkoutP99(bulkhead));
+        FloodResult unguarded = underBrowseFlood(pool, () -> checkoutP99(pool));
+
+        long guardedP99 = guarded.checkoutP99Nanos;
+        long unguardedP99 = unguarded.checkoutP99Nanos;
+        System.out.printf("checkout p99 - baseline %.2f ms, bulkhead %.2f ms, no bulkhead %.2f ms, "
+                + "browse rejected %d%n", baselineP99 / 1e6, guardedP99 / 1e6, unguardedP99 / 1e6,
+                guarded.browseRejected);
+
+        assertTrue(guardedP99 < TimeUnit.MILLISECONDS.toNanos(BROWSE_HOLD_MS / 2),
+                "有分區時下單不應等待瀏覽釋放連線");
+        assertTrue(unguardedP99 > guardedP99, "沒有分區時下單延遲應明顯升高");
+    }
+
+    private BulkheadDataSource bulkhead() {
+        return new BulkheadDataSource(pool, Workload.BROWSE)
+                .partition(Workload.CHECKOUT, 2, 5000)
+                .partition(Workload.BROWSE, POOL_SIZE - 2, 50);
+    }
+
+    /**
+     * 依序取得 CHECKOUT_SAMPLES 次下單連線並回傳取得連線的 p99（奈秒）
+     */
+    private long checkoutP99(DataSource dataSource) throws SQLException {
+        List<Long> samples = new ArrayList<>(CHECKOUT_SAMPLES);
+        Workload previous = WorkloadContext.enter(Workload.CHECKOUT);
+        try {
+            for (int i = 0; i < CHECKOUT_SAMPLES; i++) {
+                long start = System.nanoTime();
+                try (Connection connection = dataSource.getConnection()) {
+                    samples.add(System.nanoTime() - start);
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("SELECT 1");
+                    }
+                }
+            }
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+        Collections.sort(samples);
+        return samples.get((int) Math.ceil(samples.size() * 0.99) - 1);
+    }
+
+    private FloodResult underBrowseFlood(DataSource dataSource, CheckoutProbe probe) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(BROWSE_THREADS);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peakActive = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(BROWSE_THREADS);
+        try {
+            for (int i = 0; i < BROWSE_THREADS; i++) {
+                executor.submit(() -> {
+                    WorkloadContext.enter(Workload.BROWSE);
+                    started.countDown();
+                    while (running.get()) {
+                        try (Connection connection = dataSource.getConnection()) {
+                            peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                            Thread.sleep(BROWSE_HOLD_MS);
+                            active.decrementAndGet();
+                        } catch (BulkheadFullException e) {
+                            rejected.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (SQLException e) {
+                            // 沒有分區時連接池逾時，繼續施壓
+                        }
+                    }
+                });
+            }
+            started.await();
+            // 等待瀏覽流量占滿連線
+            Thread.sleep(BROWSE_HOLD_MS * 2);
+            long checkoutP99 = probe.measure();
+            return new FloodResult(checkoutP99, rejected.get(), peakActive.get());
+        } finally {
+            running.set(false);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @FunctionalInterface
+    private interface CheckoutProbe {
+        long measure() throws SQLException;
+    }
+
+    private static final class FloodResult {
+        private final long checkoutP99Nanos;
+        private final int browseRejected;
+        private final int browsePeakActive;
+
+        private FloodResult(long checkoutP99Nanos, int browseRejected, int browsePeakActive) {
+            this.checkoutP99Nanos = checkoutP99Nanos;
+            this.browseRejected = browseRejected;
+            this.browsePeakActive = browsePeakActive;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.digitalconcerthall.service.catalog.CatalogSnapshotService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 目錄 API 負載比較
+ * 同時送出 10,000 個請求，比較 ConcertController（每個請求占用一條 servlet 線程直到 JDBC 查詢完成）
+ * 與 CatalogController（讀取記憶體快照）的吞吐、p99、堆記憶體增量與峰值線程數。
+ * ConcertController 的查詢受 BROWSE 連線分區限制，等待逾時的請求被拒絕，吞吐只計成功的請求，
+ * 另列出失敗筆數與原因（HTTP 狀態碼或用戶端例外，例如被拒絕或超過用戶端逾時）。
+ * 用戶端與伺服器在同一個 JVM 內，兩端各約需 10,000 個檔案描述元，上限不足時用戶端的例外也計入失敗；
+ * 快照路徑只要求沒有 HTTP 錯誤回應。
+ * 執行時間較長，只在 -Dbenchmark=true 時執行：mvn test -Dtest=CatalogLoadBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.max-connections=20000",
+        "server.tomcat.accept-count=10000"
+})
+@ActiveProfiles("h2")
+public class CatalogLoadBenchmark {
+
+    private static final int CONNECTIONS = 10_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        catalogSnapshotService.refresh().get(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void compareCatalogWithConcertController() throws Exception {
+        // 先各跑一輪暖機，讓 JIT 與連接池就緒
+        run("warmup", "/api/concerts", 500);
+        run("warmup", "/api/catalog/concerts", 500);
+
+        Result blocking = run("mvc", "/api/concerts", CONNECTIONS);
+        Result catalog = run("catalog", "/api/catalog/concerts", CONNECTIONS);
+
+        System.out.println(blocking);
+        System.out.println(catalog);
+
+        assertEquals(CONNECTIONS, blocking.succeeded + blocking.failed);
+        assertEquals(CONNECTIONS, catalog.succeeded + catalog.failed);
+        assertEquals(0, catalog.httpFailures(), "快照路徑不使用資料庫連線，不應被拒絕");
+        assertTrue(catalog.throughput() > blocking.throughput(), "快照路徑的吞吐應較高");
+        assertTrue(catalog.p99Ms < blocking.p99Ms, "快照路徑的 p99 應較低");
+    }
+
+    private Result run(String name, String path, int connections) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        threads.resetPeakThreadCount();
+
+        // HTTP/1.1 下每個進行中的請求各占一條連線，同時進行的請求數即為連線數
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofMinutes(2))
+                .GET()
+                .build();
+
+        AtomicInteger succeeded = new AtomicInteger();
+        Map<String, Integer> failures = new ConcurrentHashMap<>();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(connections));
+        List<CompletableFuture<?>> futures = new ArrayList<>(connections);
+        long begin = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            long sent = System.nanoTime();
+            // 逾時的請求也算失敗，不中斷整輪測試
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        latencies.add(System.nanoTime() - sent);
+                        if (error == null && response.statusCode() == 200) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failures.merge(reason(response, error), 1, Integer::sum);
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.MINUTES);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+        long heapDelta = memory.getHeapMemoryUsage().getUsed() - heapBefore;
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return new Result(name, succeeded.get(), new TreeMap<>(failures), elapsedMs, percentileMs(sorted, 0.99),
+                heapDelta, threads.getPeakThreadCount());
+    }
+
+    private static String reason(HttpResponse<?> response, Throwable error) {
+        if (error == null) {
+            return "HTTP " + response.statusCode();
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getClass().getSimpleName();
+    }
+
+    private static double percentileMs(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(sorted.size() * percentile) - 1;
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+
+    private static final class Result {
+        private final String name;
+        private final int succeeded;
+        private final int failed;
+        private final Map<String, Integer> failures;
+        private final long elapsedMs;
+        private final double p99Ms;
+        private final long heapDeltaBytes;
+        private final int peakThreads;
+
+        private Result(String name, int succeeded, Map<String, Integer> failures, long elapsedMs, double p99Ms, long heapDeltaBytes,
+                int peakThreads) {
+            this.name = name;
+            this.succeeded = succeeded;
+            this.failed = failures.values().stream().mapToInt(Integer::intValue).sum();
+            this.failures = failures;
+            this.elapsedMs = elapsedMs;
+            this.p99Ms = p99Ms;
+            this.heapDeltaBytes = heapDeltaBytes;
+            this.peakThreads = peakThreads;
+        }
+
+        private int httpFailures() {
+            return failures.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith("HTTP "))
+                    .mapToInt(Map.Entry::getValue)
+                    .sum();
+        }
+
+        private double throughput() {
+            return succeeded * 1000.0 / Math.max(1, elapsedMs);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s 成功 %d 筆, 失敗 %d 筆 %s, 總耗時 %d ms, 吞吐 %.0f/s, p99 %.1f ms, 堆增量 %.1f MB, "
+                    + "峰值線程 %d", name, succeeded, failed, failures, elapsedMs, throughput(), p99Ms, heapDeltaBytes / 1048576.0, peakThreads);
+        }
+    }
+}
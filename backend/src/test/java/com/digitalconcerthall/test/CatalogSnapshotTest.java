@@ -0,0 +1,115 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalconcerthall.controller.ConcertController;
+import com.digitalconcerthall.dto.response.ConcertResponse;
+import com.digitalconcerthall.dto.response.ticket.TicketTypeClientResponse;
+import com.digitalconcerthall.service.catalog.CatalogSnapshot;
+import com.digitalconcerthall.service.catalog.CatalogSnapshotService;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 目錄快照測試
+ * 快照內容必須與 ConcertController 逐筆查詢的結果一致，且資料沒有變動時 ETag 不變
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ CatalogSnapshotService.class, ConcertSummaryService.class, ConcertController.class, JobLeaseService.class,
+        JobRegistry.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CatalogSnapshotTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private ConcertController concertController;
+
+    @BeforeEach
+    public void setUp() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        concertSummaryService.checkConsistency(true);
+    }
+
+    @Test
+    public void snapshotMatchesConcertController() throws Exception {
+        CatalogSnapshot snapshot = catalogSnapshotService.refresh().get(30, TimeUnit.SECONDS);
+
+        List<ConcertResponse> active = snapshot.getConcerts("active");
+        assertFalse(active.isEmpty());
+        assertEquals(tree(concertController.getAllConcerts().getBody()), tree(active));
+        assertEquals(tree(concertController.getUpcomingConcerts().getBody()), tree(snapshot.getConcerts("upcoming")));
+        assertEquals(tree(concertController.getPastConcerts().getBody()), tree(snapshot.getConcerts("past")));
+        assertNotNull(active.get(0).getMinPrice());
+
+        Long concertId = active.get(0).getId();
+        assertEquals(tree(concertController.getConcertById(concertId).getBody()),
+                tree(snapshot.getConcertDetail(concertId)));
+        assertNull(snapshot.getConcerts("DRAFT"));
+    }
+
+    @Test
+    public void servesCachedSnapshotAndKeepsETagUntilDataChanges() throws Exception {
+        CatalogSnapshot first = catalogSnapshotService.refresh().get(30, TimeUnit.SECONDS);
+
+        CompletableFuture<CatalogSnapshot> cached = catalogSnapshotService.getSnapshot();
+        assertTrue(cached.isDone(), "已有快照時不應等待");
+        assertSame(first, cached.get());
+
+        CatalogSnapshot rebuilt = catalogSnapshotService.refresh().get(30, TimeUnit.SECONDS);
+        assertNotSame(first, rebuilt);
+        assertEquals(first.getETag(), rebuilt.getETag(), "資料沒有變動時 ETag 應相同");
+
+        Long performanceId = first.getConcertDetail(first.getConcerts("active").get(0).getId())
+                .getPerformances().get(0).getId();
+        TicketTypeClientResponse ticket = first.getTickets(performanceId).get(0);
+        jdbcTemplate.update("UPDATE tickets SET available_quantity = available_quantity - 1 WHERE id = ?",
+                ticket.getId());
+        try {
+            CatalogSnapshot changed = catalogSnapshotService.refresh().get(30, TimeUnit.SECONDS);
+            assertNotEquals(first.getETag(), changed.getETag());
+            assertEquals(ticket.getAvailableQuantity() - 1,
+                    changed.getTickets(performanceId).get(0).getAvailableQuantity());
+        } finally {
+            jdbcTemplate.update("UPDATE tickets SET available_quantity = available_quantity + 1 WHERE id = ?",
+                    ticket.getId());
+        }
+    }
+
+    private JsonNode tree(Object value) {
+        return objectMapper.valueToTree(value);
+    }
+}
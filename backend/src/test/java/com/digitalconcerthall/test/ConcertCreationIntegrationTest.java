@@ -23,6 +23,7 @@ import com.digitalconcerthall.logging.LogExecutionTime;
 import com.digitalconcerthall.logging.TestMethod;
 import com.digitalconcerthall.logging.TestLoggingService;
 import com.digitalconcerthall.model.concert.Concert;
+import com.digitalconcerthall.monitoring.query.QueryBudgetMonitor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.LocalDateTime;
@@ -46,6 +47,9 @@ public class ConcertCreationIntegrationTest {
     
     @Autowired
     private ObjectMapper objectMapper;
+
+    @Autowired
+    private QueryBudgetMonitor queryBudgetMonitor;
     
     private String testId;
     private String authToken;
@@ -54,6 +58,7 @@ public class ConcertCreationIntegrationTest {
     @BeforeEach
     public void setUp() {
         baseUrl = String.format("http://localhost:%d", port);
+        queryBudgetMonitor.clearViolations();
         // 開始測試記錄
         testId = testLogger.startTest(
             "音樂會創建測試", 
@@ -163,6 +168,9 @@ public class ConcertCreationIntegrationTest {
                         getResponse.getBody().getId().equals(createdConcert.getId()));
             }
             
+            // 驗證所有請求都在 SQL 預算內（app.db.query-budget.*）
+            assertWithinQueryBudget();
+
             // 測試成功完成
             testLogger.endTest(testId, true, "音樂會創建測試成功完成");
             
@@ -174,6 +182,20 @@ public class ConcertCreationIntegrationTest {
         }
     }
     
+    /**
+     * 檢查測試期間沒有任何請求超過 SQL 預算
+     */
+    private void assertWithinQueryBudget() {
+        for (QueryBudgetMonitor.Violation violation : queryBudgetMonitor.getViolations()) {
+            testLogger.logAssertion(testId, "驗證 SQL 預算: " + violation.getRequest(),
+                    violation.getQueryCount() + " 次查詢 / " + violation.getDbTimeMs() + " ms", "在預算內", false);
+        }
+        assertTrue(queryBudgetMonitor.getViolations().isEmpty(),
+                "請求超過 SQL 預算: " + queryBudgetMonitor.getViolations().stream()
+                        .map(v -> v.getRequest() + " (" + v.getQueryCount() + " 次查詢, " + v.getDbTimeMs() + " ms)")
+                        .toList());
+    }
+
     /**
      * 登入為管理員並獲取令牌
      */
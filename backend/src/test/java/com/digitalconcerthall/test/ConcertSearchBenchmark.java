@@ -0,0 +1,128 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.digitalconcerthall.service.search.ConcertDocument;
+import com.digitalconcerthall.service.search.ConcertSearchIndex;
+import com.digitalconcerthall.service.search.ConcertSearchQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * 搜尋索引的建立速度與查詢延遲
+ * 以 100,000 個隨機組合的中文音樂會（標題、介紹、曲目、1 到 3 個場次）建立索引，
+ * 再對常見查詢（作曲家、單字、英文曲目、篩選與排序）各執行 2,000 次並記錄 p50 / p99。
+ * 執行時間較長，只在 -Dbenchmark=true 時執行：mvn test -Dtest=ConcertSearchBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ConcertSearchBenchmark {
+
+    private static final int CONCERTS = 100_000;
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 2_000;
+
+    private static final String[] COMPOSERS = { "貝多芬", "莫札特", "蕭邦", "布拉姆斯", "柴可夫斯基", "馬勒", "巴哈", "德布西", "拉赫曼尼諾夫", "舒伯特" };
+    private static final String[] LATIN_COMPOSERS = { "Beethoven", "Mozart", "Chopin", "Brahms", "Tchaikovsky", "Mahler", "Bach", "Debussy", "Rachmaninoff", "Schubert" };
+    private static final String[] WORKS = { "交響曲", "鋼琴協奏曲", "小提琴奏鳴曲", "弦樂四重奏", "夜曲", "安魂曲", "前奏曲", "室內樂" };
+    private static final String[] VENUES = { "國家音樂廳", "國家戲劇院", "衛武營音樂廳", "臺中國家歌劇院", "臺北表演藝術中心", "臺南文化中心" };
+    private static final String[] STATUSES = { "active", "upcoming", "past" };
+    private static final String[] PHRASES = { "年度壓軸", "青年演奏家", "經典重現", "首度來臺", "全本演出", "跨界合作", "親子場次", "名家獨奏" };
+
+    @Test
+    public void indexAndQuery100kConcerts() {
+        Random random = new Random(42);
+        List<ConcertDocument> documents = new ArrayList<>(CONCERTS);
+        for (int i = 1; i <= CONCERTS; i++) {
+            documents.add(randomConcert(i, random));
+        }
+        ConcertSearchIndex index = new ConcertSearchIndex(
+                List.of(new BigDecimal("1000"), new BigDecimal("2000"), new BigDecimal("3000")));
+
+        long start = System.nanoTime();
+        index.replaceAll(documents);
+        double fullBuildMs = (System.nanoTime() - start) / 1e6;
+        System.out.printf("full build: %d docs in %.0f ms (%.0f docs/s)%n",
+                CONCERTS, fullBuildMs, CONCERTS / (fullBuildMs / 1000));
+
+        // 後台逐筆更新：取代既有文件
+        start = System.nanoTime();
+        for (int i = 1; i <= 10_000; i++) {
+            index.upsert(randomConcert(i, random));
+        }
+        double upsertMs = (System.nanoTime() - start) / 1e6;
+        System.out.printf("incremental upsert: 10000 docs in %.0f ms (%.0f docs/s)%n",
+                upsertMs, 10_000 / (upsertMs / 1000));
+        assertEquals(CONCERTS, index.size());
+
+        measure(index, "composer 貝多芬", q -> q.setText("貝多芬"));
+        measure(index, "composer + work 蕭邦 夜曲", q -> q.setText("蕭邦 夜曲"));
+        measure(index, "single character 琴", q -> q.setText("琴"));
+        measure(index, "latin Rachmaninoff", q -> q.setText("Rachmaninoff"));
+        measure(index, "no text, all facets", q -> { });
+        measure(index, "text + venue + date", q -> {
+            q.setText("交響曲");
+            q.setVenue("國家音樂廳");
+            q.setFrom(LocalDate.of(2027, 3, 1));
+            q.setTo(LocalDate.of(2027, 5, 31));
+        });
+        measure(index, "price band sorted by date", q -> {
+            q.setPriceBand("1000-2000");
+            q.setSort(ConcertSearchQuery.Sort.DATE);
+        });
+        measure(index, "no match", q -> q.setText("不存在的曲目"));
+    }
+
+    private static void measure(ConcertSearchIndex index, String name, Consumer<ConcertSearchQuery> configure) {
+        ConcertSearchQuery query = new ConcertSearchQuery();
+        configure.accept(query);
+        int total = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            total = index.search(query, 0, 20).getTotal();
+        }
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            index.search(query, 0, 20);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-28s hits %6d  p50 %7.3f ms  p99 %7.3f ms%n", name, total,
+                latencies[ITERATIONS / 2] / 1e6, latencies[(int) Math.ceil(ITERATIONS * 0.99) - 1] / 1e6);
+    }
+
+    private static ConcertDocument randomConcert(long id, Random random) {
+        int composer = random.nextInt(COMPOSERS.length);
+        String work = WORKS[random.nextInt(WORKS.length)];
+        String title = COMPOSERS[composer] + work + "之夜";
+        String description = PHRASES[random.nextInt(PHRASES.length)] + "，" + COMPOSERS[random.nextInt(COMPOSERS.length)]
+                + "與" + COMPOSERS[composer] + "的" + WORKS[random.nextInt(WORKS.length)] + "，由"
+                + VENUES[random.nextInt(VENUES.length)] + "駐團樂手" + PHRASES[random.nextInt(PHRASES.length)] + "。";
+        String program = LATIN_COMPOSERS[composer] + " " + work + " No. " + (1 + random.nextInt(9))
+                + "; " + LATIN_COMPOSERS[random.nextInt(LATIN_COMPOSERS.length)] + " Op. " + (1 + random.nextInt(120));
+
+        int performances = 1 + random.nextInt(3);
+        List<String> venues = new ArrayList<>();
+        List<LocalDateTime> startTimes = new ArrayList<>();
+        LocalDateTime first = LocalDateTime.of(2026, 1, 1, 19, 30).plusDays(random.nextInt(730));
+        for (int p = 0; p < performances; p++) {
+            String venue = VENUES[random.nextInt(VENUES.length)];
+            if (!venues.contains(venue)) {
+                venues.add(venue);
+            }
+            startTimes.add(first.plusDays(p * 7L));
+        }
+        BigDecimal minPrice = random.nextInt(10) == 0 ? null : BigDecimal.valueOf(300 + 100L * random.nextInt(40));
+        return new ConcertDocument(id, STATUSES[random.nextInt(STATUSES.length)], title, description, program,
+                venues, startTimes, minPrice, null);
+    }
+}
@@ -0,0 +1,142 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.digitalconcerthall.service.search.ConcertDocument;
+import com.digitalconcerthall.service.search.ConcertSearchIndex;
+import com.digitalconcerthall.service.search.ConcertSearchQuery;
+import com.digitalconcerthall.service.search.ConcertSearchResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 音樂會搜尋索引測試
+ * 中文以 bigram 比對、單字查詢只命中標題與地點、英文不分大小寫、全形字正規化，
+ * 以及篩選、drill-sideways facet、排序與分頁
+ */
+public class ConcertSearchIndexTest {
+
+    private ConcertSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ConcertSearchIndex(List.of(new BigDecimal("1000"), new BigDecimal("2000"), new BigDecimal("3000")));
+        index.upsert(document(1, "active", "貝多芬第九號交響曲", "合唱與管弦樂的經典", "Beethoven Symphony No. 9",
+                "國家音樂廳", LocalDateTime.of(2026, 12, 31, 19, 30), "1500"));
+        index.upsert(document(2, "upcoming", "莫札特鋼琴協奏曲之夜", "鋼琴家與室內樂團", "Mozart Piano Concerto K.488",
+                "衛武營音樂廳", LocalDateTime.of(2027, 1, 15, 19, 30), "800"));
+        index.upsert(document(3, "active", "蕭邦夜曲與圓舞曲", "鋼琴獨奏會", "Chopin Nocturnes",
+                "國家音樂廳", LocalDateTime.of(2027, 1, 20, 14, 30), "2500"));
+        index.upsert(document(4, "past", "交響樂團年度音樂會", "貝多芬與布拉姆斯", "Brahms Symphony No. 1",
+                "臺中國家歌劇院", LocalDateTime.of(2026, 6, 1, 19, 30), null));
+    }
+
+    @Test
+    public void chineseTextMatchesByBigrams() {
+        assertEquals(List.of(1L), ids(search("第九號")));
+        // 「鋼琴」出現在標題與介紹，標題的權重較高
+        assertEquals(List.of(2L, 3L), ids(search("鋼琴")));
+        // 所有詞都要出現
+        assertEquals(List.of(), ids(search("鋼琴 貝多芬")));
+        // 標題中的「貝多芬」排在只出現在介紹中的前面
+        assertEquals(List.of(1L, 4L), ids(search("貝多芬")));
+    }
+
+    @Test
+    public void singleCharacterMatchesTitleAndVenue() {
+        assertEquals(List.of(3L), ids(search("蕭")));
+        // 介紹中的單字不索引
+        assertEquals(List.of(), ids(search("獨")));
+        assertEquals(List.of(4L), ids(search("臺")));
+    }
+
+    @Test
+    public void latinTextIsCaseInsensitiveAndFullWidthIsNormalized() {
+        assertEquals(List.of(1L, 4L), sorted(ids(search("SYMPHONY"))));
+        assertEquals(List.of(2L), ids(search("ｍｏｚａｒｔ")));
+        assertEquals(List.of(2L), ids(search("k.488")));
+    }
+
+    @Test
+    public void upsertReplacesAndRemoveDeletes() {
+        index.upsert(document(1, "active", "韋瓦第四季", "巴洛克", "Vivaldi", "國家音樂廳",
+                LocalDateTime.of(2026, 12, 31, 19, 30), "1500"));
+        assertEquals(List.of(), ids(search("第九號")));
+        assertEquals(List.of(1L), ids(search("四季")));
+        assertEquals(4, index.size());
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertEquals(List.of(), ids(search("四季")));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void filtersAndDrillSidewaysFacets() {
+        ConcertSearchQuery query = new ConcertSearchQuery();
+        query.setVenue("國家音樂廳");
+        ConcertSearchResult result = index.search(query, 0, 10);
+        assertEquals(List.of(1L, 3L), sorted(ids(result)));
+
+        Map<String, Map<String, Integer>> facets = result.getFacets();
+        // 地點 facet 不套用地點篩選，其他地點仍有數量
+        assertEquals(Map.of("國家音樂廳", 2, "衛武營音樂廳", 1, "臺中國家歌劇院", 1), facets.get(ConcertSearchIndex.FACET_VENUE));
+        assertEquals(Map.of("active", 2), facets.get(ConcertSearchIndex.FACET_STATUS));
+        assertEquals(List.of("2026-12", "2027-01"), List.copyOf(facets.get(ConcertSearchIndex.FACET_MONTH).keySet()));
+        assertEquals(List.of("1000-2000", "2000-3000"), List.copyOf(facets.get(ConcertSearchIndex.FACET_PRICE_BAND).keySet()));
+
+        query.setVenue(null);
+        query.setPriceBand("0-1000");
+        assertEquals(List.of(2L), ids(index.search(query, 0, 10)));
+
+        query.setPriceBand(null);
+        query.setFrom(LocalDate.of(2027, 1, 1));
+        query.setTo(LocalDate.of(2027, 1, 15));
+        result = index.search(query, 0, 10);
+        assertEquals(List.of(2L), ids(result));
+        assertEquals(Map.of("0-1000", 1), result.getFacets().get(ConcertSearchIndex.FACET_PRICE_BAND));
+    }
+
+    @Test
+    public void sortAndPagination() {
+        ConcertSearchQuery query = new ConcertSearchQuery();
+        query.setSort(ConcertSearchQuery.Sort.DATE);
+        assertEquals(List.of(4L, 1L, 2L, 3L), ids(index.search(query, 0, 10)));
+
+        query.setSort(ConcertSearchQuery.Sort.PRICE);
+        assertEquals(List.of(2L, 1L, 3L, 4L), ids(index.search(query, 0, 10)));
+
+        ConcertSearchResult page = index.search(query, 2, 2);
+        assertEquals(4, page.getTotal());
+        assertEquals(List.of(3L, 4L), ids(page));
+        assertEquals(List.of(), ids(index.search(query, 4, 2)));
+    }
+
+    private ConcertSearchResult search(String text) {
+        ConcertSearchQuery query = new ConcertSearchQuery();
+        query.setText(text);
+        return index.search(query, 0, 10);
+    }
+
+    private static List<Long> ids(ConcertSearchResult result) {
+        return result.getHits().stream().map(hit -> hit.getDocument().getConcertId()).collect(Collectors.toList());
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().collect(Collectors.toList());
+    }
+
+    static ConcertDocument document(long id, String status, String title, String description, String program,
+            String venue, LocalDateTime start, String minPrice) {
+        return new ConcertDocument(id, status, title, description, program, List.of(venue), List.of(start),
+                minPrice != null ? new BigDecimal(minPrice) : null, null);
+    }
+}
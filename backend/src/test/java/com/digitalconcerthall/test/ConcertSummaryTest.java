@@ -0,0 +1,161 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.config.QueryMeteringConfig;
+import com.digitalconcerthall.controller.ConcertController;
+import com.digitalconcerthall.dto.response.ConcertResponse;
+import com.digitalconcerthall.dto.response.concert.ConcertSummaryConsistencyResponse;
+import com.digitalconcerthall.model.concert.ConcertSummary;
+import com.digitalconcerthall.monitoring.query.QueryStatisticsHolder;
+import com.digitalconcerthall.repository.concert.ConcertSummaryRepository;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 音樂會摘要測試
+ * 摘要與直接以 SQL 彙總的結果一致、下單的增量更新只在提交後套用、一致性檢查能找出並修正偏差，
+ * 且音樂會列表的查詢次數不隨音樂會數量增加
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ QueryMeteringConfig.class, ConcertSummaryService.class, ConcertController.class, JobLeaseService.class,
+        JobRegistry.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ConcertSummaryTest {
+
+    private static final long CONCERT_ID = 1L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    @Autowired
+    private ConcertSummaryRepository concertSummaryRepository;
+
+    @Autowired
+    private ConcertController concertController;
+
+    @BeforeEach
+    public void setUp() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        concertSummaryService.checkConsistency(true);
+    }
+
+    @Test
+    public void summaryMatchesSqlAggregates() {
+        ConcertSummaryConsistencyResponse report = concertSummaryService.checkConsistency(false);
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM concerts", Integer.class), report.getChecked());
+        assertEquals(0, report.getMissing());
+        assertEquals(0, report.getDrifted());
+
+        Map<String, Object> expected = jdbcTemplate.queryForMap(
+                "SELECT MIN(tt.price) AS min_price, MAX(tt.price) AS max_price, "
+                        + "SUM(t.total_quantity) AS total_capacity, SUM(t.available_quantity) AS remaining_capacity "
+                        + "FROM tickets t JOIN performances p ON p.id = t.performance_id "
+                        + "JOIN ticket_types tt ON tt.id = t.ticket_type_id WHERE p.concert_id = ?", CONCERT_ID);
+        ConcertSummary summary = concertSummaryRepository.findById(CONCERT_ID).orElseThrow();
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM performances WHERE concert_id = ?",
+                Integer.class, CONCERT_ID), summary.getPerformanceCount());
+        assertEquals(0, ((BigDecimal) expected.get("min_price")).compareTo(summary.getMinPrice()));
+        assertEquals(0, ((BigDecimal) expected.get("max_price")).compareTo(summary.getMaxPrice()));
+        assertEquals(((Number) expected.get("total_capacity")).intValue(), summary.getTotalCapacity());
+        assertEquals(((Number) expected.get("remaining_capacity")).intValue(), summary.getRemainingCapacity());
+        assertEquals(List.of("Main Hall"), summary.getVenueList());
+        assertNotNull(summary.getNextStartTime());
+    }
+
+    @Test
+    public void inventoryChangeIsAppliedOnlyAfterCommit() {
+        int before = remainingCapacity();
+        Long ticketId = firstTicketId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE tickets SET available_quantity = available_quantity - 3 WHERE id = ?", ticketId);
+                concertSummaryService.recordInventoryChange(CONCERT_ID, -2);
+                concertSummaryService.recordInventoryChange(CONCERT_ID, -1);
+                assertEquals(before, remainingCapacity(), "提交前不應更新摘要");
+            });
+            assertEquals(before - 3, remainingCapacity());
+            assertEquals(0, concertSummaryService.checkConsistency(false).getDrifted());
+
+            transaction.executeWithoutResult(status -> {
+                concertSummaryService.recordInventoryChange(CONCERT_ID, -5);
+                status.setRollbackOnly();
+            });
+            assertEquals(before - 3, remainingCapacity(), "回滾的交易不應更新摘要");
+        } finally {
+            jdbcTemplate.update("UPDATE tickets SET available_quantity = available_quantity + 3 WHERE id = ?", ticketId);
+            concertSummaryService.recordInventoryChange(CONCERT_ID, 3);
+        }
+        assertEquals(before, remainingCapacity());
+    }
+
+    @Test
+    public void driftIsReportedAndRepaired() {
+        Long ticketId = firstTicketId();
+        // 直接改資料庫、繞過增量更新
+        jdbcTemplate.update("UPDATE tickets SET available_quantity = available_quantity - 7 WHERE id = ?", ticketId);
+        try {
+            ConcertSummaryConsistencyResponse report = concertSummaryService.checkConsistency(false);
+            assertEquals(1, report.getDrifted());
+            assertEquals(Map.of("remainingCapacity", 1), report.getDriftByField());
+            assertEquals(List.of(CONCERT_ID), report.getSampleConcertIds());
+            assertEquals(0, report.getRepaired());
+
+            assertEquals(1, concertSummaryService.checkConsistency(true).getRepaired());
+            assertEquals(0, concertSummaryService.checkConsistency(false).getDrifted());
+        } finally {
+            jdbcTemplate.update("UPDATE tickets SET available_quantity = available_quantity + 7 WHERE id = ?", ticketId);
+            concertSummaryService.checkConsistency(true);
+        }
+    }
+
+    @Test
+    public void concertListQueriesDoNotGrowWithConcerts() {
+        QueryStatisticsHolder.Measured<ResponseEntity<List<ConcertResponse>>> measured =
+                QueryStatisticsHolder.measure(() -> concertController.getAllConcerts());
+
+        List<ConcertResponse> concerts = measured.getResult().getBody();
+        assertTrue(concerts.size() > 1);
+        assertNotNull(concerts.get(0).getMinPrice());
+        assertNotNull(concerts.get(0).getRemainingCapacity());
+        // 音樂會列表一條、摘要一條
+        assertEquals(2, measured.getStatistics().getQueryCount());
+    }
+
+    private int remainingCapacity() {
+        return concertSummaryRepository.findById(CONCERT_ID).orElseThrow().getRemainingCapacity();
+    }
+
+    private Long firstTicketId() {
+        return jdbcTemplate.queryForObject("SELECT MIN(t.id) FROM tickets t JOIN performances p ON p.id = t.performance_id "
+                + "WHERE p.concert_id = ?", Long.class, CONCERT_ID);
+    }
+}
@@ -0,0 +1,202 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.dto.response.dashboard.DashboardMetricsResponse;
+import com.digitalconcerthall.dto.response.dashboard.DashboardReconciliationResponse;
+import com.digitalconcerthall.model.concert.Concert;
+import com.digitalconcerthall.model.order.Order;
+import com.digitalconcerthall.repository.concert.ConcertRepository;
+import com.digitalconcerthall.repository.order.OrderRepository;
+import com.digitalconcerthall.service.dashboard.DashboardEventListener;
+import com.digitalconcerthall.service.dashboard.DashboardMetricsService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.LongSupplier;
+
+/**
+ * 儀表板統計測試
+ * 計數只在提交後更新、訂單狀態變更會移動營收與售出張數、對帳能找出並修正繞過 JPA 的異動，
+ * 且快照只寫入有變動的計數
+ */
+@DataJpaTest(properties = "app.dashboard.refresh-ms=0")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ DashboardMetricsService.class, DashboardEventListener.class, JobLeaseService.class, JobRegistry.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DashboardMetricsTest {
+
+    private static final long ORDER_ID = 1L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Autowired
+    private ConcertRepository concertRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    public void setUp() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        dashboardMetricsService.reconcile(true);
+    }
+
+    @Test
+    public void countersMatchBaseTables() {
+        assertTrue(dashboardMetricsService.isReady());
+        assertEquals(0, dashboardMetricsService.reconcile(false).getDrifted());
+
+        DashboardMetricsResponse metrics = dashboardMetricsService.getMetrics();
+        assertEquals(count("SELECT COUNT(*) FROM concerts"), metrics.getTotalConcerts());
+        assertEquals(count("SELECT COUNT(*) FROM users"), metrics.getTotalUsers());
+        assertEquals(count("SELECT COUNT(*) FROM orders WHERE status = 'paid'"), metrics.getOrdersByStatus().get("paid"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT SUM(total_amount) FROM orders WHERE status = 'paid'",
+                BigDecimal.class).compareTo(metrics.getTotalRevenue()));
+        assertEquals(count("SELECT SUM(oi.quantity) FROM order_items oi JOIN orders o ON o.id = oi.order_id "
+                + "WHERE o.status = 'paid'"), metrics.getTotalTicketsSold());
+        assertFalse(metrics.getTopConcertsByRevenue().isEmpty());
+    }
+
+    @Test
+    public void entityChangesAreCountedOnlyAfterCommit() {
+        // 測試資料以明確 id 寫入，先把自增起點移到後面
+        jdbcTemplate.execute("ALTER TABLE concerts ALTER COLUMN id RESTART WITH 100000");
+        long before = dashboardMetricsService.get(DashboardMetricsService.CONCERTS);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            concertRepository.save(newConcert());
+            status.setRollbackOnly();
+        });
+        assertEquals(before, dashboardMetricsService.get(DashboardMetricsService.CONCERTS), "回滾的新增不應計入");
+
+        Concert saved = transaction.execute(status -> {
+            Concert concert = concertRepository.save(newConcert());
+            concertRepository.flush();
+            assertEquals(before, dashboardMetricsService.get(DashboardMetricsService.CONCERTS), "提交前不應計入");
+            return concert;
+        });
+        assertEquals(before + 1, dashboardMetricsService.get(DashboardMetricsService.CONCERTS));
+
+        transaction.executeWithoutResult(status -> concertRepository.deleteById(saved.getId()));
+        assertEquals(before, dashboardMetricsService.get(DashboardMetricsService.CONCERTS));
+        assertEquals(0, dashboardMetricsService.reconcile(false).getDrifted());
+    }
+
+    @Test
+    public void orderStatusChangeMovesRevenueAndSales() throws InterruptedException {
+        long paid = dashboardMetricsService.get(DashboardMetricsService.ORDER_STATUS_PREFIX + "paid");
+        long revenue = totalRevenueCents();
+        long sold = dashboardMetricsService.getMetrics().getTotalTicketsSold();
+        BigDecimal amount = jdbcTemplate.queryForObject("SELECT total_amount FROM orders WHERE id = ?",
+                BigDecimal.class, ORDER_ID);
+        long quantity = count("SELECT SUM(quantity) FROM order_items WHERE order_id = " + ORDER_ID);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            // 明細已載入：提交時直接使用
+            transaction.executeWithoutResult(status -> {
+                Order order = orderRepository.findById(ORDER_ID).orElseThrow();
+                order.getOrderItems().size();
+                order.setStatus("cancelled");
+            });
+            assertEquals(paid - 1, dashboardMetricsService.get(DashboardMetricsService.ORDER_STATUS_PREFIX + "paid"));
+            assertEquals(revenue - amount.movePointRight(2).longValueExact(), totalRevenueCents());
+            assertEquals(sold - quantity, soldNow());
+            assertEquals(0, dashboardMetricsService.reconcile(false).getDrifted());
+        } finally {
+            // 明細未載入：提交後在背景查詢
+            transaction.executeWithoutResult(status ->
+                    orderRepository.findById(ORDER_ID).orElseThrow().setStatus("paid"));
+        }
+        assertEquals(paid, dashboardMetricsService.get(DashboardMetricsService.ORDER_STATUS_PREFIX + "paid"));
+        assertEquals(revenue, totalRevenueCents());
+        awaitValue(sold, this::soldNow);
+        assertEquals(0, dashboardMetricsService.reconcile(false).getDrifted());
+    }
+
+    @Test
+    public void driftIsReportedAndRepaired() {
+        // 直接改資料庫、繞過 JPA 事件
+        jdbcTemplate.update("UPDATE orders SET status = 'cancelled' WHERE id = ?", ORDER_ID + 1);
+        try {
+            DashboardReconciliationResponse report = dashboardMetricsService.reconcile(false);
+            assertTrue(report.getDrifted() > 0);
+            assertEquals(2, report.getDriftByCategory().get("orders.status"));
+            assertEquals(1, report.getDriftByCategory().get("revenue.day"));
+            assertTrue(report.getDriftByCategory().containsKey("sold.performance"));
+
+            dashboardMetricsService.reconcile(true);
+            assertEquals(0, dashboardMetricsService.reconcile(false).getDrifted());
+        } finally {
+            jdbcTemplate.update("UPDATE orders SET status = 'paid' WHERE id = ?", ORDER_ID + 1);
+            dashboardMetricsService.reconcile(true);
+        }
+    }
+
+    @Test
+    public void snapshotWritesOnlyChangedCounters() {
+        dashboardMetricsService.snapshot();
+        assertEquals(dashboardMetricsService.get(DashboardMetricsService.CONCERTS), jdbcTemplate.queryForObject(
+                "SELECT stat_value FROM dashboard_stat_snapshot WHERE stat_key = ?", Long.class,
+                DashboardMetricsService.CONCERTS));
+        assertEquals(0, dashboardMetricsService.snapshot(), "沒有異動時不應寫入");
+
+        long revenueDayRows = count("SELECT COUNT(*) FROM dashboard_stat_snapshot WHERE stat_key LIKE 'revenue.day:%'");
+        assertEquals(count("SELECT COUNT(DISTINCT CAST(order_date AS DATE)) FROM orders WHERE status = 'paid'"),
+                revenueDayRows);
+    }
+
+    private long totalRevenueCents() {
+        return dashboardMetricsService.getMetrics().getTotalRevenue().movePointRight(2).longValueExact();
+    }
+
+    private long soldNow() {
+        return dashboardMetricsService.getMetrics().getTotalTicketsSold();
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static void awaitValue(long expected, LongSupplier actual) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (actual.getAsLong() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, actual.getAsLong());
+    }
+
+    private static Concert newConcert() {
+        Concert concert = new Concert();
+        concert.setTitle("儀表板測試音樂會");
+        concert.setStatus("upcoming");
+        concert.setStartDateTime(LocalDateTime.now().plusDays(30));
+        concert.setEndDateTime(LocalDateTime.now().plusDays(30).plusHours(2));
+        return concert;
+    }
+}
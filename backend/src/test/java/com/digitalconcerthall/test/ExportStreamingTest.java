@@ -0,0 +1,207 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalconcerthall.service.export.ExportFormat;
+import com.digitalconcerthall.service.export.ExportQuery;
+import com.digitalconcerthall.service.export.ExportService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 資料匯出測試
+ * 匯出列數與資料庫一致、XLSX 是可解析的活頁簿、gzip 不改變內容，
+ * 以及在 32 MB heap 的子行程中匯出 1,000,000 列，確認記憶體用量與列數無關
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ExportService.class)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ExportStreamingTest {
+
+    private static final int SYNTHETIC_ROWS = 1_000_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ExportService exportService;
+
+    @BeforeEach
+    public void setUp() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    public void ordersCsvMatchesDatabase() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(exportService.ordersQuery(null, null, "paid"), ExportFormat.CSV, out, false);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("﻿訂單編號,下單時間,帳號"), "CSV 應以 BOM 與中文標題開頭");
+        String[] lines = csv.split("\r\n");
+        assertEquals(count("SELECT COUNT(*) FROM orders WHERE status = 'paid'"), rows);
+        assertEquals(rows + 1, lines.length);
+        assertTrue(lines[1].matches("[^,]+,\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2},.*"), lines[1]);
+    }
+
+    @Test
+    public void gzipDoesNotChangeContent() throws IOException {
+        ExportQuery query = exportService.orderItemsQuery(null, null);
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        exportService.export(query, ExportFormat.CSV, plain, false);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        exportService.export(query, ExportFormat.CSV, compressed, true);
+
+        assertTrue(compressed.size() < plain.size());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertArrayEquals(plain.toByteArray(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void attendeesXlsxIsValidWorkbook() throws IOException {
+        long performanceId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM performances", Long.class);
+        long attendees = count("SELECT COUNT(*) FROM user_tickets ut JOIN order_items oi ON oi.id = ut.order_item_id "
+                + "JOIN tickets t ON t.id = oi.ticket_id JOIN orders o ON o.id = oi.order_id "
+                + "WHERE o.status = 'paid' AND t.performance_id = " + performanceId);
+        assertTrue(attendees > 0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(exportService.attendeesQuery(performanceId), ExportFormat.XLSX, out, false);
+        assertEquals(attendees, rows);
+
+        Map<String, String> parts = unzip(out.toByteArray());
+        assertTrue(parts.keySet().containsAll(List.of("[Content_Types].xml", "_rels/.rels", "xl/workbook.xml",
+                "xl/_rels/workbook.xml.rels", "xl/worksheets/sheet1.xml")), parts.keySet().toString());
+        String sheet = parts.get("xl/worksheets/sheet1.xml");
+        assertEquals(rows + 1, countMatches(sheet, "<row "));
+        assertTrue(sheet.contains("<t xml:space=\"preserve\">票券代碼</t>"));
+        assertTrue(sheet.contains(" t=\"b\"><v>"), "是否已使用應寫成布林值");
+    }
+
+    /**
+     * 子行程以 -Xmx32m 執行，若結果被整批讀入記憶體會因 OutOfMemoryError 失敗
+     */
+    @Test
+    public void exportsMillionRowsInSmallHeap() throws Exception {
+        for (ExportFormat format : ExportFormat.values()) {
+            Process process = new ProcessBuilder(
+                    System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                    "-Xmx32m", "-cp", System.getProperty("java.class.path"),
+                    SyntheticExport.class.getName(), format.name())
+                    .redirectErrorStream(true)
+                    .start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(process.waitFor(5, TimeUnit.MINUTES), "匯出逾時");
+            assertEquals(0, process.exitValue(), output);
+            assertTrue(output.contains("rows=" + SYNTHETIC_ROWS), output);
+        }
+    }
+
+    /**
+     * 在獨立的 H2 資料庫上以 SYSTEM_RANGE 產生合成訂單，經 ExportService 寫到只計算位元組數的串流
+     */
+    public static class SyntheticExport {
+
+        public static void main(String[] args) throws Exception {
+            SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                    "jdbc:h2:mem:export;LAZY_QUERY_EXECUTION=1", true);
+            ExportService service = new ExportService();
+            ReflectionTestUtils.setField(service, "dataSource", dataSource);
+            ReflectionTestUtils.setField(service, "transactionManager", new DataSourceTransactionManager(dataSource));
+            ReflectionTestUtils.setField(service, "meterRegistry",
+                    new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+            ReflectionTestUtils.setField(service, "fetchSize", 1000);
+            ReflectionTestUtils.setField(service, "maxConcurrent", 1);
+            ReflectionTestUtils.setField(service, "datasourceUrl", "jdbc:h2:mem:export");
+            service.init();
+
+            ExportQuery query = new ExportQuery("synthetic",
+                    List.of("訂單編號", "下單時間", "帳號", "Email", "總金額", "訂單狀態", "付款方式", "付款狀態"),
+                    "SELECT 'ORD-' || X, DATEADD(SECOND, X, TIMESTAMP '2026-01-01 00:00:00'), 'user' || MOD(X, 5000), "
+                            + "'user' || MOD(X, 5000) || '@example.com', CAST(MOD(X, 9000) + 500.5 AS DECIMAL(10,2)), "
+                            + "'paid', '信用卡', 'completed' FROM SYSTEM_RANGE(1, " + SYNTHETIC_ROWS + ")");
+            CountingOutputStream out = new CountingOutputStream();
+            long rows = service.export(query, ExportFormat.valueOf(args[0]), out, false);
+            Runtime runtime = Runtime.getRuntime();
+            System.out.printf("rows=%d bytes=%d heapUsedMb=%d%n", rows, out.bytes,
+                    (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+            dataSource.destroy();
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static Map<String, String> unzip(byte[] bytes) throws IOException {
+        Map<String, String> parts = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                parts.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return parts;
+    }
+
+    private static int countMatches(String text, String token) {
+        Matcher matcher = Pattern.compile(Pattern.quote(token)).matcher(text);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,268 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.dto.response.monitoring.JobStatusResponse;
+import com.digitalconcerthall.service.job.JobLease;
+import com.digitalconcerthall.service.job.JobLeaseLostException;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+/**
+ * 多節點排程
+ * 每個節點是一個獨立的 Spring context（各自的 JobLeaseService 與 JobRegistry），共用同一個資料庫：
+ * 同一個間隔只有一個節點執行、租約換手時權杖遞增且舊持有者無法寫入、執行中續約讓其他節點無法接手，
+ * 以及執行結果寫回租約列
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class JobRegistryTest {
+
+    private static final String JOB = "registry-test";
+    private static final int NODES = 3;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<AnnotationConfigApplicationContext> nodes = new ArrayList<>();
+
+    @BeforeEach
+    public void startNodes() {
+        for (int i = 0; i < NODES; i++) {
+            AnnotationConfigApplicationContext node = new AnnotationConfigApplicationContext();
+            node.registerBean(JdbcTemplate.class, () -> new JdbcTemplate(dataSource));
+            node.registerBean(PlatformTransactionManager.class, () -> new DataSourceTransactionManager(dataSource));
+            node.register(JobLeaseService.class, JobRegistry.class);
+            node.refresh();
+            nodes.add(node);
+        }
+    }
+
+    @AfterEach
+    public void stopNodes() {
+        nodes.forEach(AnnotationConfigApplicationContext::close);
+        nodes.clear();
+        jdbcTemplate.update("DELETE FROM job_leases WHERE job_name LIKE ?", JOB + "%");
+    }
+
+    @Test
+    public void onlyOneNodeRunsPerInterval() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        for (AnnotationConfigApplicationContext node : nodes) {
+            registry(node).register(JOB, true, Duration.ofHours(1), Duration.ofMinutes(1), lease -> {
+                runs.incrementAndGet();
+                return 3;
+            });
+        }
+
+        assertEquals(1, runOnAllNodes(), "所有節點同時到期時只有一個執行");
+        assertEquals(1, runs.get());
+        assertEquals(0, runOnAllNodes(), "同一個間隔內不再執行");
+        assertEquals(1, runs.get());
+
+        JobStatusResponse status = status(registry(nodes.get(0)));
+        assertEquals(1L, status.getFencingToken());
+        assertEquals("SUCCEEDED", status.getLastStatus());
+        assertEquals(3, status.getLastItems());
+        assertEquals(1L, status.getRunCount());
+        assertEquals(0L, status.getFailureCount());
+        assertNotNull(status.getLastDurationMs());
+        assertTrue(status.getNextRunAt().isAfter(LocalDateTime.now().plusMinutes(59)));
+        assertTrue(status.isEnabled());
+        assertEquals(Duration.ofHours(1).toMillis(), status.getIntervalMs());
+
+        // 下一個間隔到期
+        jdbcTemplate.update("UPDATE job_leases SET next_run_at = ? WHERE job_name = ?",
+                LocalDateTime.now().minusSeconds(1), JOB);
+        assertEquals(1, runOnAllNodes());
+        assertEquals(2, runs.get());
+        status = status(registry(nodes.get(0)));
+        assertEquals(2L, status.getRunCount());
+        assertEquals(2L, status.getFencingToken(), "每次取得租約權杖都遞增");
+    }
+
+    @Test
+    public void takeoverFencesStaleHolder() {
+        JobLeaseService first = leases(nodes.get(0));
+        JobLeaseService second = leases(nodes.get(1));
+        JobLease stale = first.acquireIfDue(JOB, Duration.ofMinutes(1), Duration.ofMillis(1)).orElseThrow();
+        fencedWrite(nodes.get(0), stale, "first");
+        assertTrue(second.acquireIfDue(JOB, Duration.ofMinutes(1), Duration.ofMillis(1)).isEmpty(),
+                "租約未到期不能接手");
+
+        // 持有者暫停超過租約長度，由第二個節點接手
+        jdbcTemplate.update("UPDATE job_leases SET lease_until = ? WHERE job_name = ?",
+                LocalDateTime.now().minusSeconds(1), JOB);
+        JobLease current = second.acquireIfDue(JOB, Duration.ofMinutes(1), Duration.ofMillis(1)).orElseThrow();
+        assertEquals(stale.getFencingToken() + 1, current.getFencingToken());
+
+        assertThrows(JobLeaseLostException.class, () -> fencedWrite(nodes.get(0), stale, "stale"));
+        assertTrue(stale.isLost());
+        assertEquals("first", marker(), "舊持有者的寫入應回滾");
+        assertFalse(first.renew(stale, Duration.ofMinutes(1)), "舊持有者不能續約");
+        first.complete(stale, LocalDateTime.now(), 1, 1, "stale");
+        assertEquals(second.getOwner(), jdbcTemplate.queryForObject("SELECT owner FROM job_leases WHERE job_name = ?",
+                String.class, JOB));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT run_count FROM job_leases WHERE job_name = ?",
+                Long.class, JOB), "舊持有者不能覆寫執行結果");
+
+        fencedWrite(nodes.get(1), current, "second");
+        assertEquals("second", marker());
+        assertFalse(current.isLost());
+    }
+
+    @Test
+    public void renewalKeepsLongRunOwned() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        for (AnnotationConfigApplicationContext node : nodes) {
+            // 租約 300 ms，每 100 ms 續約；執行 1.2 秒
+            registry(node).register(JOB, true, Duration.ofMillis(1), Duration.ofMillis(300), lease -> {
+                runs.incrementAndGet();
+                started.countDown();
+                sleep(1_200);
+                return lease.isLost() ? 0 : 1;
+            });
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> first = executor.submit(() -> registry(nodes.get(0)).runIfDue(JOB));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // 超過原本的租約長度後，其他節點仍無法取得
+            sleep(600);
+            assertFalse(registry(nodes.get(1)).runIfDue(JOB));
+            assertTrue(first.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, runs.get());
+        JobStatusResponse status = status(registry(nodes.get(0)));
+        assertEquals(1, status.getLastItems(), "續約期間租約不應遺失");
+        assertEquals(leases(nodes.get(0)).getOwner(), status.getOwner());
+        assertTrue(status.getLastDurationMs() >= 1_200);
+    }
+
+    @Test
+    public void failedRunIsRecordedAndNotRetriedWithinInterval() {
+        AtomicInteger runs = new AtomicInteger();
+        for (AnnotationConfigApplicationContext node : nodes) {
+            registry(node).register(JOB, true, Duration.ofHours(1), Duration.ofMinutes(1), lease -> {
+                runs.incrementAndGet();
+                throw new IllegalStateException("boom");
+            });
+        }
+        assertTrue(registry(nodes.get(0)).runIfDue(JOB));
+        assertFalse(registry(nodes.get(1)).runIfDue(JOB), "失敗後等下一個間隔再執行");
+        assertEquals(1, runs.get());
+
+        JobStatusResponse status = status(registry(nodes.get(1)));
+        assertEquals("FAILED", status.getLastStatus());
+        assertEquals("boom", status.getLastError());
+        assertEquals(1L, status.getFailureCount());
+        assertTrue(status.getLeaseUntil().isBefore(LocalDateTime.now().plusSeconds(1)), "完成後應釋放租約");
+
+        assertThrows(IllegalStateException.class, () -> registry(nodes.get(0)).register(JOB, true,
+                Duration.ofHours(1), Duration.ofMinutes(1), lease -> 0), "同名排程不能重複登記");
+        assertThrows(IllegalArgumentException.class, () -> registry(nodes.get(0)).runIfDue(JOB + "-unknown"));
+    }
+
+    /**
+     * 所有節點同時執行一次
+     * @return 實際執行的節點數
+     */
+    private int runOnAllNodes() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NODES);
+        try {
+            CountDownLatch ready = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (AnnotationConfigApplicationContext node : nodes) {
+                results.add(executor.submit(() -> {
+                    ready.await();
+                    return registry(node).runIfDue(JOB);
+                }));
+            }
+            ready.countDown();
+            int ran = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    ran++;
+                }
+            }
+            return ran;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 在節點的交易中確認權杖後寫入標記列；權杖不符時整個交易回滾
+     */
+    private void fencedWrite(AnnotationConfigApplicationContext node, JobLease lease, String value) {
+        JdbcTemplate nodeJdbc = node.getBean(JdbcTemplate.class);
+        new TransactionTemplate(node.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+            nodeJdbc.update("DELETE FROM job_leases WHERE job_name = ?", JOB + "-marker");
+            nodeJdbc.update("INSERT INTO job_leases (job_name, owner, lease_until, acquired_at) VALUES (?, ?, ?, ?)",
+                    JOB + "-marker", value, LocalDateTime.now(), LocalDateTime.now());
+            leases(node).checkFence(lease);
+        });
+    }
+
+    private String marker() {
+        return jdbcTemplate.queryForObject("SELECT owner FROM job_leases WHERE job_name = ?", String.class,
+                JOB + "-marker");
+    }
+
+    private static JobStatusResponse status(JobRegistry registry) {
+        return registry.getStatuses().stream().filter(status -> JOB.equals(status.getName())).findFirst()
+                .orElseThrow();
+    }
+
+    private static JobRegistry registry(AnnotationConfigApplicationContext node) {
+        return node.getBean(JobRegistry.class);
+    }
+
+    private static JobLeaseService leases(AnnotationConfigApplicationContext node) {
+        return node.getBean(JobLeaseService.class);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
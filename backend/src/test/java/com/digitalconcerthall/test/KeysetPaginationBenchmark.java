@@ -0,0 +1,200 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalconcerthall.dto.response.order.OrderSummaryResponse;
+import com.digitalconcerthall.dto.response.ticket.UserTicketSummaryResponse;
+import com.digitalconcerthall.repository.UserRepository;
+import com.digitalconcerthall.security.services.UserDetailsImpl;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.order.OrderService;
+import com.digitalconcerthall.service.order.OrderServiceImpl;
+import com.digitalconcerthall.service.ticket.UserTicketService;
+import com.digitalconcerthall.service.ticket.UserTicketServiceImpl;
+import com.digitalconcerthall.util.SeekCursor;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 偏移分頁與鍵集分頁在深頁的延遲
+ * 為一位使用者寫入 100,000 筆訂單（每筆 1 張票），訂單與票券列表各量測第 1 頁與第 5,000 頁，
+ * 偏移（PageRequest）與游標各 200 次，印出 p50 / p99；深頁的游標直接由該頁前一筆的 (時間, id) 編碼。
+ * H2 會重用未變動資料表的查詢結果，每次量測前先寫入一筆，量到的是實際執行查詢的時間。
+ * 執行時間較長，只在 -Dbenchmark=true 時執行：mvn test -Dtest=KeysetPaginationBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ OrderServiceImpl.class, UserTicketServiceImpl.class, ConcertSummaryService.class, JobLeaseService.class,
+        JobRegistry.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class KeysetPaginationBenchmark {
+
+    private static final long FIRST_ID = 30_000_000L;
+    private static final long USER_ID = 7L;
+    private static final long TICKET_ID = 1L;
+    private static final int ORDERS = 100_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = 5_000;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserTicketService userTicketService;
+
+    @Test
+    public void offsetVersusKeysetAtDepth() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        UserDetailsImpl principal = UserDetailsImpl.build(userRepository.findById(USER_ID).orElseThrow());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        try {
+            long start = System.nanoTime();
+            load();
+            System.out.printf("loaded %d orders in %.0f ms%n", ORDERS, (System.nanoTime() - start) / 1e6);
+
+            int skipped = (DEEP_PAGE - 1) * PAGE_SIZE;
+            String orderCursor = cursorAt("SELECT order_date, id FROM orders WHERE user_id = ? "
+                    + "ORDER BY order_date DESC, id DESC LIMIT 1 OFFSET ?", skipped - 1);
+            String ticketCursor = cursorAt("SELECT created_at, id FROM user_tickets WHERE user_id = ? "
+                    + "ORDER BY created_at DESC, id DESC LIMIT 1 OFFSET ?", skipped - 1);
+
+            // 兩種分頁在深頁回傳相同的資料
+            assertEquals(orderNumbers(orderService.getCurrentUserOrders(PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE))
+                    .getContent()), orderNumbers(orderService.getCurrentUserOrders(orderCursor, PAGE_SIZE).getContent()));
+            assertEquals(ticketCodes(userTicketService.getCurrentUserTickets(PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE))
+                    .getContent()), ticketCodes(userTicketService.getCurrentUserTickets(ticketCursor, PAGE_SIZE)
+                            .getContent()));
+
+            measure("orders, offset page 1",
+                    () -> orderService.getCurrentUserOrders(PageRequest.of(0, PAGE_SIZE)).getContent());
+            measure("orders, cursor page 1", () -> orderService.getCurrentUserOrders(null, PAGE_SIZE).getContent());
+            measure("orders, offset page " + DEEP_PAGE,
+                    () -> orderService.getCurrentUserOrders(PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE)).getContent());
+            measure("orders, cursor page " + DEEP_PAGE,
+                    () -> orderService.getCurrentUserOrders(orderCursor, PAGE_SIZE).getContent());
+            measure("tickets, offset page 1",
+                    () -> userTicketService.getCurrentUserTickets(PageRequest.of(0, PAGE_SIZE)).getContent());
+            measure("tickets, cursor page 1",
+                    () -> userTicketService.getCurrentUserTickets(null, PAGE_SIZE).getContent());
+            measure("tickets, offset page " + DEEP_PAGE,
+                    () -> userTicketService.getCurrentUserTickets(PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE)).getContent());
+            measure("tickets, cursor page " + DEEP_PAGE,
+                    () -> userTicketService.getCurrentUserTickets(ticketCursor, PAGE_SIZE).getContent());
+        } finally {
+            SecurityContextHolder.clearContext();
+            jdbcTemplate.update("DELETE FROM user_tickets WHERE id >= ?", FIRST_ID);
+            jdbcTemplate.update("DELETE FROM order_items WHERE id >= ?", FIRST_ID);
+            jdbcTemplate.update("DELETE FROM orders WHERE id >= ?", FIRST_ID);
+        }
+    }
+
+    private void load() {
+        // 訂單、明細與票券的 id 各自從 FIRST_ID 起算，不與種子資料重疊
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> tickets = new ArrayList<>();
+        for (int o = 0; o < ORDERS; o++) {
+            long id = FIRST_ID + o;
+            LocalDateTime orderDate = now.minusMinutes(o + 1L);
+            orders.add(new Object[] { id, "ORDPAGE" + id, USER_ID, orderDate, new BigDecimal("1000.00"), "paid",
+                    "completed" });
+            items.add(new Object[] { id, id, TICKET_ID, 1, new BigDecimal("1000.00"), new BigDecimal("1000.00") });
+            tickets.add(new Object[] { id, "UTP-" + id, USER_ID, id, false, orderDate, orderDate });
+            if (orders.size() == 5_000) {
+                flush(orders, items, tickets);
+            }
+        }
+        flush(orders, items, tickets);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void flush(List<Object[]> orders, List<Object[]> items, List<Object[]> tickets) {
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, order_number, user_id, order_date, total_amount, status, "
+                + "payment_status) VALUES (?, ?, ?, ?, ?, ?, ?)", orders);
+        jdbcTemplate.batchUpdate("INSERT INTO order_items (id, order_id, ticket_id, quantity, unit_price, subtotal) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", items);
+        jdbcTemplate.batchUpdate("INSERT INTO user_tickets (id, ticket_code, user_id, order_item_id, is_used, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", tickets);
+        orders.clear();
+        items.clear();
+        tickets.clear();
+    }
+
+    /**
+     * 依排序位置取得該筆的 (時間, id)，作為下一頁的游標
+     */
+    private String cursorAt(String sql, int offset) {
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> SeekCursor.of(
+                rs.getObject(1, Timestamp.class).toLocalDateTime(), rs.getLong(2)).encode(), USER_ID, offset);
+    }
+
+    /**
+     * H2 在資料表沒有變動時直接重用同一查詢與參數的上次結果，每次量測前寫入一筆讓快取失效
+     */
+    private void touch() {
+        jdbcTemplate.update("UPDATE orders SET status = status WHERE id = ?", FIRST_ID);
+        jdbcTemplate.update("UPDATE user_tickets SET is_used = is_used WHERE id = ?", FIRST_ID);
+    }
+
+    private static List<String> orderNumbers(List<OrderSummaryResponse> orders) {
+        return orders.stream().map(OrderSummaryResponse::getOrderNumber).toList();
+    }
+
+    private static List<String> ticketCodes(List<UserTicketSummaryResponse> tickets) {
+        return tickets.stream().map(UserTicketSummaryResponse::getTicketCode).toList();
+    }
+
+    private void measure(String name, Supplier<List<?>> query) {
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            touch();
+            assertEquals(PAGE_SIZE, query.get().size());
+        }
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            touch();
+            long begin = System.nanoTime();
+            query.get();
+            latencies[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-28s p50 %8.3f ms  p99 %8.3f ms%n", name,
+                latencies[ITERATIONS / 2] / 1e6, latencies[(int) Math.ceil(ITERATIONS * 0.99) - 1] / 1e6);
+    }
+}
@@ -0,0 +1,222 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalconcerthall.dto.response.CursorPage;
+import com.digitalconcerthall.repository.UserRepository;
+import com.digitalconcerthall.security.services.UserDetailsImpl;
+import com.digitalconcerthall.service.archive.ArchivePartitions;
+import com.digitalconcerthall.service.archive.ArchivedHistoryService;
+import com.digitalconcerthall.service.archive.OrderArchiveService;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.order.OrderService;
+import com.digitalconcerthall.service.order.OrderServiceImpl;
+import com.digitalconcerthall.service.ticket.UserTicketService;
+import com.digitalconcerthall.service.ticket.UserTicketServiceImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 封存前後的熱資料表大小與歷史紀錄查詢延遲
+ * 為種子資料的 50 位使用者寫入四年份、共 200,000 筆訂單（每筆 2 張票），場次都已結束；
+ * 先量測訂單與票券列表（第一頁、游標第 5 頁、偏移第 5 頁）各 200 次的 p50 / p99，
+ * 封存 400 天前的訂單後再量測一次，並印出三個熱資料表的筆數與封存耗時。
+ * 執行時間較長，只在 -Dbenchmark=true 時執行：mvn test -Dtest=OrderArchiveBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest(properties = { "app.archive.batch-size=1000", "app.archive.partition-cache-ms=0" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ OrderArchiveService.class, ArchivePartitions.class, ArchivedHistoryService.class, JobLeaseService.class,
+        JobRegistry.class, OrderServiceImpl.class, UserTicketServiceImpl.class, ConcertSummaryService.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderArchiveBenchmark {
+
+    private static final long FIRST_ID = 10_000_000L;
+    private static final int ORDERS = 200_000;
+    private static final int DAYS = 4 * 365;
+    private static final int ITEMS_PER_ORDER = 2;
+    private static final int PAGE_SIZE = 20;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserTicketService userTicketService;
+
+    @Test
+    public void historyBeforeAndAfterArchiving() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        UserDetailsImpl principal = UserDetailsImpl.build(userRepository.findById(7L).orElseThrow());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        try {
+            long start = System.nanoTime();
+            load();
+            System.out.printf("loaded %d orders in %.0f ms%n", ORDERS, (System.nanoTime() - start) / 1e6);
+
+            printTableSizes("before");
+            measureHistory("before");
+
+            start = System.nanoTime();
+            int archived = orderArchiveService.archive(LocalDateTime.now().minusDays(400));
+            System.out.printf("archived %d orders in %.0f ms%n", archived, (System.nanoTime() - start) / 1e6);
+            assertTrue(archived > ORDERS / 2);
+            jdbcTemplate.execute("ANALYZE");
+
+            printTableSizes("after");
+            measureHistory("after");
+        } finally {
+            SecurityContextHolder.clearContext();
+            cleanUp();
+        }
+    }
+
+    private void load() {
+        LocalDateTime longAgo = LocalDateTime.now().minusYears(5);
+        jdbcTemplate.update("INSERT INTO concerts (id, title, status, start_date_time, end_date_time, created_at, "
+                + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", FIRST_ID, "Archive benchmark", "past", longAgo,
+                longAgo.plusHours(2), longAgo, longAgo);
+        jdbcTemplate.update("INSERT INTO performances (id, concert_id, start_time, end_time, venue, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", FIRST_ID, FIRST_ID, longAgo, longAgo.plusHours(2), "Main Hall", "COMPLETED");
+        jdbcTemplate.update("INSERT INTO tickets (id, performance_id, ticket_type_id, total_quantity, "
+                + "available_quantity, status, username, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                FIRST_ID, FIRST_ID, 1L, ORDERS * ITEMS_PER_ORDER, 0, "SOLD_OUT", "user1", longAgo);
+
+        // 訂單、明細與票券的 id 各自從 FIRST_ID 起算，不與種子資料重疊
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> tickets = new ArrayList<>();
+        for (int o = 0; o < ORDERS; o++) {
+            long orderId = FIRST_ID + o;
+            long userId = o % SampleDataSeeder.USERS + 1;
+            LocalDateTime orderDate = now.minusMinutes((long) o * DAYS * 24 * 60 / ORDERS + 60);
+            orders.add(new Object[] { orderId, "ORDBENCH" + orderId, userId, orderDate,
+                    new BigDecimal("2000.00"), "paid", "completed" });
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                long itemId = FIRST_ID + (long) o * ITEMS_PER_ORDER + i;
+                items.add(new Object[] { itemId, orderId, FIRST_ID, 1, new BigDecimal("1000.00"),
+                        new BigDecimal("1000.00") });
+                tickets.add(new Object[] { itemId, "UTB-" + itemId, userId, itemId, true, orderDate, orderDate });
+            }
+            if (orders.size() == 5_000) {
+                flush(orders, items, tickets);
+            }
+        }
+        flush(orders, items, tickets);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void flush(List<Object[]> orders, List<Object[]> items, List<Object[]> tickets) {
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, order_number, user_id, order_date, total_amount, status, "
+                + "payment_status) VALUES (?, ?, ?, ?, ?, ?, ?)", orders);
+        jdbcTemplate.batchUpdate("INSERT INTO order_items (id, order_id, ticket_id, quantity, unit_price, subtotal) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", items);
+        jdbcTemplate.batchUpdate("INSERT INTO user_tickets (id, ticket_code, user_id, order_item_id, is_used, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", tickets);
+        orders.clear();
+        items.clear();
+        tickets.clear();
+    }
+
+    private void printTableSizes(String phase) {
+        System.out.printf("%-6s hot rows: orders %d, order_items %d, user_tickets %d%n", phase,
+                count("orders"), count("order_items"), count("user_tickets"));
+    }
+
+    private void measureHistory(String phase) {
+        measure(phase + " orders, first page", () -> orderService.getCurrentUserOrders(null, PAGE_SIZE).getContent());
+        String orderCursor = cursorAfterPages(4, cursor -> orderService.getCurrentUserOrders(cursor, PAGE_SIZE));
+        measure(phase + " orders, cursor page 5",
+                () -> orderService.getCurrentUserOrders(orderCursor, PAGE_SIZE).getContent());
+        measure(phase + " orders, offset page 5",
+                () -> orderService.getCurrentUserOrders(PageRequest.of(4, PAGE_SIZE)).getContent());
+        measure(phase + " tickets, first page",
+                () -> userTicketService.getCurrentUserTickets(null, PAGE_SIZE).getContent());
+        String ticketCursor = cursorAfterPages(4, cursor -> userTicketService.getCurrentUserTickets(cursor, PAGE_SIZE));
+        measure(phase + " tickets, cursor page 5",
+                () -> userTicketService.getCurrentUserTickets(ticketCursor, PAGE_SIZE).getContent());
+    }
+
+    private static String cursorAfterPages(int pages, Function<String, CursorPage<?>> fetch) {
+        String cursor = null;
+        for (int i = 0; i < pages; i++) {
+            cursor = fetch.apply(cursor).getNextCursor();
+        }
+        return cursor;
+    }
+
+    private static void measure(String name, Supplier<List<?>> query) {
+        int rows = 0;
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            rows = query.get().size();
+        }
+        assertEquals(PAGE_SIZE, rows);
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long begin = System.nanoTime();
+            query.get();
+            latencies[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-32s p50 %7.3f ms  p99 %7.3f ms%n", name,
+                latencies[ITERATIONS / 2] / 1e6, latencies[(int) Math.ceil(ITERATIONS * 0.99) - 1] / 1e6);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private void cleanUp() {
+        for (Integer year : jdbcTemplate.queryForList("SELECT partition_year FROM archive_partitions", Integer.class)) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + ArchivePartitions.userTicketsTable(year));
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + ArchivePartitions.orderItemsTable(year));
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + ArchivePartitions.ordersTable(year));
+        }
+        jdbcTemplate.update("DELETE FROM archive_partitions");
+        jdbcTemplate.update("DELETE FROM dashboard_archived_stats");
+        jdbcTemplate.update("DELETE FROM user_tickets WHERE id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM order_items WHERE id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM orders WHERE id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM tickets WHERE id = ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM performances WHERE id = ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM concerts WHERE id = ?", FIRST_ID);
+    }
+}
@@ -0,0 +1,287 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalconcerthall.dto.response.CursorPage;
+import com.digitalconcerthall.dto.response.order.OrderSummaryResponse;
+import com.digitalconcerthall.dto.response.ticket.UserTicketSummaryResponse;
+import com.digitalconcerthall.repository.UserRepository;
+import com.digitalconcerthall.security.services.UserDetailsImpl;
+import com.digitalconcerthall.service.analytics.SalesRollupService;
+import com.digitalconcerthall.service.archive.ArchivePartitions;
+import com.digitalconcerthall.service.archive.ArchivedHistoryService;
+import com.digitalconcerthall.service.archive.OrderArchiveService;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.dashboard.DashboardMetricsService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.order.OrderService;
+import com.digitalconcerthall.service.order.OrderServiceImpl;
+import com.digitalconcerthall.service.ticket.UserTicketService;
+import com.digitalconcerthall.service.ticket.UserTicketServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 訂單封存
+ * 只搬移場次都已結束且不是待付款的舊訂單、明細與票券一併搬移，使用者的訂單與票券列表（游標與偏移分頁）、
+ * 訂單與票券詳情在封存前後完全相同，儀表板對帳沒有差異，重算封存期間的銷售彙總結果也不變
+ */
+@DataJpaTest(properties = { "app.archive.batch-size=7", "app.archive.partition-cache-ms=0",
+        "app.dashboard.refresh-ms=0" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ OrderArchiveService.class, ArchivePartitions.class, ArchivedHistoryService.class, JobLeaseService.class,
+        JobRegistry.class, OrderServiceImpl.class, UserTicketServiceImpl.class, ConcertSummaryService.class,
+        DashboardMetricsService.class, SalesRollupService.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderArchiveTest {
+
+    /** 測試音樂會、場次與票種也使用訂單的 id 區段起點 */
+    private static final long FIRST_ID = TestOrderFixture.ORDER_ARCHIVE_TEST;
+    private static final long USER_ID = 50L;
+    private static final long PAST_TICKET = FIRST_ID;
+    private static final long UPCOMING_TICKET = FIRST_ID + 1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserTicketService userTicketService;
+
+    @Autowired
+    private DashboardMetricsService dashboardMetricsService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private TestOrderFixture orders;
+
+    @BeforeEach
+    public void setUp() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        orders = new TestOrderFixture(jdbcTemplate, FIRST_ID, "ORDARCHIVE");
+        LocalDateTime longAgo = LocalDateTime.now().minusYears(4);
+        jdbcTemplate.update("INSERT INTO concerts (id, title, status, start_date_time, end_date_time, created_at, "
+                + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", FIRST_ID, "封存測試音樂會", "past", longAgo,
+                LocalDateTime.now().plusDays(1), longAgo, longAgo);
+        jdbcTemplate.update("INSERT INTO performances (id, concert_id, start_time, end_time, venue, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", FIRST_ID, FIRST_ID, longAgo, longAgo.plusHours(2), "舊廳", "COMPLETED");
+        jdbcTemplate.update("INSERT INTO performances (id, concert_id, start_time, end_time, venue, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", FIRST_ID + 1, FIRST_ID, LocalDateTime.now().minusDays(1).minusHours(2),
+                LocalDateTime.now().minusDays(1), "新廳", "COMPLETED");
+        jdbcTemplate.update("INSERT INTO tickets (id, performance_id, ticket_type_id, total_quantity, "
+                + "available_quantity, status, username, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                PAST_TICKET, FIRST_ID, 1L, 100, 0, "SOLD_OUT", "user1", longAgo);
+        jdbcTemplate.update("INSERT INTO tickets (id, performance_id, ticket_type_id, total_quantity, "
+                + "available_quantity, status, username, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                UPCOMING_TICKET, FIRST_ID + 1, 1L, 100, 0, "SOLD_OUT", "user1", longAgo);
+
+        UserDetailsImpl principal = UserDetailsImpl.build(userRepository.findById(USER_ID).orElseThrow());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        SecurityContextHolder.clearContext();
+        for (Integer year : jdbcTemplate.queryForList("SELECT partition_year FROM archive_partitions", Integer.class)) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + ArchivePartitions.userTicketsTable(year));
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + ArchivePartitions.orderItemsTable(year));
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + ArchivePartitions.ordersTable(year));
+        }
+        jdbcTemplate.update("DELETE FROM archive_partitions");
+        jdbcTemplate.update("DELETE FROM dashboard_archived_stats");
+        // 種子訂單都在最近幾十天內，封存期間的彙總只來自本測試
+        LocalDateTime archivedBefore = LocalDateTime.now().minusDays(400);
+        for (String table : new String[] { "sales_rollup_hourly", "order_rollup_hourly" }) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE bucket_start < ?", archivedBefore);
+        }
+        for (String table : new String[] { "sales_rollup_daily", "order_rollup_daily" }) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE bucket_date < ?", archivedBefore.toLocalDate());
+        }
+        jdbcTemplate.update("DELETE FROM job_leases");
+        orders.deleteOrders();
+        jdbcTemplate.update("DELETE FROM tickets WHERE id BETWEEN ? AND ?", orders.firstId(), orders.lastId());
+        jdbcTemplate.update("DELETE FROM performances WHERE id BETWEEN ? AND ?", orders.firstId(), orders.lastId());
+        jdbcTemplate.update("DELETE FROM concerts WHERE id BETWEEN ? AND ?", orders.firstId(), orders.lastId());
+    }
+
+    @Test
+    public void archivesOnlyOrdersForLongFinishedPerformances() {
+        LocalDateTime now = LocalDateTime.now();
+        long archivable = insertOrder("paid", now.minusDays(800), PAST_TICKET);
+        long cancelled = insertOrder("cancelled", now.minusDays(900), PAST_TICKET);
+        long pending = insertOrder("pending", now.minusDays(800), PAST_TICKET);
+        long recentOrder = insertOrder("paid", now.minusDays(30), PAST_TICKET);
+        long recentPerformance = insertOrder("paid", now.minusDays(800), PAST_TICKET, UPCOMING_TICKET);
+
+        assertEquals(2, orderArchiveService.archive(now.minusDays(400)));
+        assertEquals(0L, count("SELECT COUNT(*) FROM orders WHERE id IN (?, ?)", archivable, cancelled));
+        assertEquals(0L, count("SELECT COUNT(*) FROM order_items WHERE order_id IN (?, ?)", archivable, cancelled));
+        // 明細與票券的 id 緊接在訂單之後
+        assertEquals(0L, count("SELECT COUNT(*) FROM user_tickets WHERE id = ?", archivable + 1));
+        for (long kept : new long[] { pending, recentOrder, recentPerformance }) {
+            assertEquals(1L, count("SELECT COUNT(*) FROM orders WHERE id = ?", kept));
+        }
+
+        int year = now.minusDays(800).getYear();
+        assertEquals("封存測試音樂會", jdbcTemplate.queryForObject("SELECT concert_title FROM "
+                + ArchivePartitions.orderItemsTable(year) + " WHERE order_id = ?", String.class, archivable));
+        assertEquals(1L, count("SELECT COUNT(*) FROM " + ArchivePartitions.userTicketsTable(year)
+                + " WHERE order_id = ?", archivable));
+        assertEquals(0, orderArchiveService.archive(now.minusDays(400)), "重複執行不應再搬移");
+    }
+
+    @Test
+    public void historyIsUnchangedByArchiving() {
+        LocalDateTime now = LocalDateTime.now();
+        // 跨兩到三個年份、每兩筆同一時間下單，確認合併與鍵集在時間相同時以 id 接續
+        for (int i = 0; i < 24; i++) {
+            insertOrder("paid", now.minusDays(420 + (i / 2) * 60L), PAST_TICKET);
+        }
+        insertOrder("paid", now.minusDays(800), PAST_TICKET, UPCOMING_TICKET);
+        dashboardMetricsService.reconcile(true);
+
+        List<String> ordersBefore = orderNumbersByCursor();
+        List<String> ticketsBefore = ticketCodesByCursor();
+        Page<OrderSummaryResponse> orderPageBefore = orderService.getCurrentUserOrders(PageRequest.of(4, 7));
+        Page<UserTicketSummaryResponse> ticketPageBefore = userTicketService.getCurrentUserTickets(PageRequest.of(10, 9));
+        // 列表項目是「訂單編號/明細數」，查詢單筆訂單只用編號
+        String oldest = ordersBefore.get(ordersBefore.size() - 1);
+        OrderSummaryResponse oldestBefore = orderService.getOrderByOrderNumber(oldest.substring(0, oldest.indexOf('/')));
+        // 使用者 50 的種子票券有 90 張，第 11 頁跨越種子票券與測試票券
+        long archivedTicket = ticketPageBefore.getContent().get(ticketPageBefore.getContent().size() - 1).getId();
+        assertTrue(archivedTicket >= FIRST_ID);
+
+        assertEquals(24, orderArchiveService.archive(now.minusDays(400)));
+        assertTrue(count("SELECT COUNT(*) FROM archive_partitions") >= 2);
+
+        assertEquals(ordersBefore, orderNumbersByCursor());
+        assertEquals(ticketsBefore, ticketCodesByCursor());
+        Page<OrderSummaryResponse> orderPageAfter = orderService.getCurrentUserOrders(PageRequest.of(4, 7));
+        assertEquals(orderPageBefore.getTotalElements(), orderPageAfter.getTotalElements());
+        assertEquals(tree(orderPageBefore.getContent()), tree(orderPageAfter.getContent()));
+        Page<UserTicketSummaryResponse> ticketPageAfter = userTicketService.getCurrentUserTickets(PageRequest.of(10, 9));
+        assertEquals(ticketPageBefore.getTotalElements(), ticketPageAfter.getTotalElements());
+        assertEquals(tree(ticketPageBefore.getContent()), tree(ticketPageAfter.getContent()));
+        assertEquals(0L, count("SELECT COUNT(*) FROM orders WHERE order_number = ?", oldestBefore.getOrderNumber()),
+                "最舊的訂單應已封存，由封存表查詢");
+        assertEquals(tree(oldestBefore), tree(orderService.getOrderByOrderNumber(oldestBefore.getOrderNumber())));
+        assertEquals("封存測試音樂會", userTicketService.getUserTicketDetail(archivedTicket).getConcertTitle());
+
+        assertEquals(0, dashboardMetricsService.reconcile(false).getDrifted(), "封存不應改變儀表板統計");
+    }
+
+    @Test
+    public void rollupRebuildKeepsArchivedOrders() {
+        LocalDateTime day = LocalDateTime.now().minusDays(800).toLocalDate().atStartOfDay();
+        insertOrder("paid", day.plusHours(9), PAST_TICKET);
+        insertOrder("paid", day.plusHours(9).plusMinutes(30), PAST_TICKET);
+        insertOrder("cancelled", day.plusHours(15), PAST_TICKET);
+        // 同一天還有場次未結束而留在基礎資料表的訂單，重算時兩邊合併
+        insertOrder("paid", day.plusHours(15), PAST_TICKET, UPCOMING_TICKET);
+        salesRollupService.rebuild(day, day.plusDays(1));
+        List<String> before = rollups(day);
+        assertEquals(9, before.size(), "四列場次明細、三列小時訂單、兩列當日訂單彙總");
+
+        assertEquals(3, orderArchiveService.archive(LocalDateTime.now().minusDays(400)));
+        salesRollupService.rebuild(day, day.plusDays(1));
+        assertEquals(before, rollups(day), "重算封存期間不應改變彙總");
+    }
+
+    /**
+     * 當天所有彙總列，轉成字串比較
+     */
+    private List<String> rollups(LocalDateTime day) {
+        List<String> rows = new ArrayList<>();
+        Object[] hours = { day, day.plusDays(1) };
+        rows.addAll(jdbcTemplate.query("SELECT bucket_start, concert_id, performance_id, order_status, order_count, "
+                + "ticket_count, amount FROM sales_rollup_hourly WHERE bucket_start >= ? AND bucket_start < ? "
+                + "ORDER BY bucket_start, performance_id, order_status",
+                (rs, rowNum) -> rs.getTimestamp(1) + "/" + rs.getLong(2) + "/" + rs.getLong(3) + "/" + rs.getString(4)
+                        + "/" + rs.getInt(5) + "/" + rs.getInt(6) + "/" + rs.getBigDecimal(7), hours));
+        rows.addAll(jdbcTemplate.query("SELECT bucket_start, order_status, order_count, ticket_count, amount "
+                + "FROM order_rollup_hourly WHERE bucket_start >= ? AND bucket_start < ? "
+                + "ORDER BY bucket_start, order_status",
+                (rs, rowNum) -> rs.getTimestamp(1) + "/" + rs.getString(2) + "/" + rs.getInt(3) + "/" + rs.getInt(4)
+                        + "/" + rs.getBigDecimal(5), hours));
+        rows.addAll(jdbcTemplate.query("SELECT order_status, order_count, ticket_count, amount FROM order_rollup_daily "
+                + "WHERE bucket_date = ? ORDER BY order_status",
+                (rs, rowNum) -> rs.getString(1) + "/" + rs.getInt(2) + "/" + rs.getInt(3) + "/" + rs.getBigDecimal(4),
+                day.toLocalDate()));
+        return rows;
+    }
+
+    /**
+     * 回應物件沒有 equals，以 JSON 結構比較所有欄位
+     */
+    private JsonNode tree(Object value) {
+        return objectMapper.valueToTree(value);
+    }
+
+    private List<String> orderNumbersByCursor() {
+        List<String> numbers = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<OrderSummaryResponse> page = orderService.getCurrentUserOrders(cursor, 7);
+            page.getContent().forEach(order -> numbers.add(order.getOrderNumber() + "/" + order.getItems().size()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return numbers;
+    }
+
+    private List<String> ticketCodesByCursor() {
+        List<String> codes = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<UserTicketSummaryResponse> page = userTicketService.getCurrentUserTickets(cursor, 9);
+            page.getContent().forEach(ticket -> codes.add(ticket.getTicketCode()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return codes;
+    }
+
+    private long insertOrder(String status, LocalDateTime orderDate, long... ticketIds) {
+        return orders.insertIssuedOrder(USER_ID, status, orderDate, ticketIds);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
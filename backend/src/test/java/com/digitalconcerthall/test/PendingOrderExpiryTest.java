@@ -0,0 +1,176 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalconcerthall.model.order.BulkOrderJob;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.order.BulkOrderService;
+import com.digitalconcerthall.service.order.PendingOrderExpiryService;
+
+import java.time.LocalDateTime;
+
+/**
+ * 逾期未付款訂單清理
+ * 只處理逾期且仍為 pending 的訂單、分批處理超過一批的資料、逾期的大量訂單釋放保留的庫存、刪除時連同明細，
+ * 以及其他節點持有租約時不執行
+ */
+@DataJpaTest(properties = "app.orders.expiry.batch-size=50")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ PendingOrderExpiryService.class, JobLeaseService.class, JobRegistry.class, BulkOrderService.class,
+        ConcertSummaryService.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PendingOrderExpiryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PendingOrderExpiryService pendingOrderExpiryService;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private ConcertSummaryService concertSummaryService;
+
+    private TestOrderFixture orders;
+
+    @BeforeEach
+    public void setUp() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        orders = new TestOrderFixture(jdbcTemplate, TestOrderFixture.PENDING_ORDER_EXPIRY_TEST, "ORDEXPIRY");
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bulk_order_jobs WHERE order_id BETWEEN ? AND ?", orders.firstId(),
+                orders.lastId());
+        orders.deleteOrders();
+        jdbcTemplate.update("DELETE FROM job_leases");
+    }
+
+    @Test
+    public void expiresOnlyStalePendingOrders() {
+        LocalDateTime now = LocalDateTime.now();
+        long stale = insertOrder("pending", now.minusHours(2));
+        long fresh = insertOrder("pending", now.minusMinutes(5));
+        long paid = insertOrder("paid", now.minusHours(3));
+
+        assertEquals(1, pendingOrderExpiryService.expire(now.minusHours(1)));
+        assertEquals(PendingOrderExpiryService.STATUS_EXPIRED, status(stale));
+        assertEquals(PendingOrderExpiryService.STATUS_EXPIRED, jdbcTemplate.queryForObject(
+                "SELECT payment_status FROM orders WHERE id = ?", String.class, stale));
+        assertEquals("pending", status(fresh));
+        assertEquals("paid", status(paid));
+
+        assertEquals(0, pendingOrderExpiryService.expire(now.minusHours(1)), "重複執行不應再改變");
+    }
+
+    @Test
+    public void processesMoreThanOneBatch() {
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < 130; i++) {
+            // 每三筆同一個下單時間，確認鍵集在時間相同時以 id 接續
+            insertOrder("pending", base.plusSeconds(i / 3));
+        }
+
+        assertEquals(130, pendingOrderExpiryService.expire(LocalDateTime.now().minusHours(1)));
+        assertEquals(130L, count("SELECT COUNT(*) FROM orders WHERE id BETWEEN ? AND ? AND status = ?",
+                orders.firstId(), orders.lastId(), PendingOrderExpiryService.STATUS_EXPIRED));
+    }
+
+    @Test
+    public void expiryReleasesStockHeldByBulkOrders() {
+        LocalDateTime now = LocalDateTime.now();
+        long ticketId = 1L;
+        int availableBefore = available(ticketId);
+        // 大量訂票建立待付款訂單時即扣減庫存
+        jdbcTemplate.update("UPDATE tickets SET available_quantity = available_quantity - 5 WHERE id = ?", ticketId);
+        concertSummaryService.recordInventoryChange(jdbcTemplate.queryForObject("SELECT p.concert_id FROM tickets t "
+                + "JOIN performances p ON p.id = t.performance_id WHERE t.id = ?", Long.class, ticketId), -5);
+        long bulk = orders.insertOrder(1L, "pending", now.minusHours(2), 5, ticketId);
+        jdbcTemplate.update("INSERT INTO bulk_order_jobs (id, user_id, order_id, order_number, status, total_tickets, "
+                + "issued_tickets, duration_ms, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                "expiry-test", 1L, bulk, "ORDEXPIRY" + bulk, BulkOrderJob.AWAITING_PAYMENT, 5, 0, 0L, now, now);
+        // 一般待付款訂單沒有保留庫存
+        insertOrder("pending", now.minusHours(2));
+
+        assertEquals(2, pendingOrderExpiryService.expire(now.minusHours(1)));
+        assertEquals(availableBefore, available(ticketId), "只釋放大量訂單保留的庫存");
+        assertEquals(BulkOrderJob.EXPIRED, jdbcTemplate.queryForObject(
+                "SELECT status FROM bulk_order_jobs WHERE order_id = ?", String.class, bulk));
+
+        jdbcTemplate.update("UPDATE orders SET status = 'pending' WHERE id = ?", bulk);
+        assertEquals(1, pendingOrderExpiryService.expire(now.minusHours(1)));
+        assertEquals(availableBefore, available(ticketId), "已釋放的庫存不應重複釋放");
+    }
+
+    @Test
+    public void purgeDeletesOldExpiredOrdersWithItems() {
+        LocalDateTime now = LocalDateTime.now();
+        long old = insertOrder("expired", now.minusDays(45));
+        long recent = insertOrder("expired", now.minusDays(2));
+        long oldPaid = insertOrder("paid", now.minusDays(45));
+
+        assertEquals(1, pendingOrderExpiryService.purge(now.minusDays(30)));
+        assertEquals(0L, count("SELECT COUNT(*) FROM orders WHERE id = ?", old));
+        assertEquals(0L, count("SELECT COUNT(*) FROM order_items WHERE order_id = ?", old));
+        assertEquals(1L, count("SELECT COUNT(*) FROM orders WHERE id = ?", recent));
+        assertEquals(1L, count("SELECT COUNT(*) FROM order_items WHERE order_id = ?", oldPaid));
+    }
+
+    @Test
+    public void leaseHeldByAnotherNodeSkipsRun() {
+        long stale = insertOrder("pending", LocalDateTime.now().minusDays(1));
+        jdbcTemplate.update("INSERT INTO job_leases (job_name, owner, lease_until, acquired_at) VALUES (?, ?, ?, ?)",
+                "pending-order-expiry", "other-node", LocalDateTime.now().plusMinutes(5), LocalDateTime.now());
+
+        assertFalse(pendingOrderExpiryService.runWithLease());
+        assertEquals("pending", status(stale));
+
+        // 其他節點的租約到期後接手
+        jdbcTemplate.update("UPDATE job_leases SET lease_until = ? WHERE job_name = ?",
+                LocalDateTime.now().minusSeconds(1), "pending-order-expiry");
+        assertTrue(pendingOrderExpiryService.runWithLease());
+        assertEquals(PendingOrderExpiryService.STATUS_EXPIRED, status(stale));
+        assertEquals(jobLeaseService.getOwner(), jdbcTemplate.queryForObject(
+                "SELECT owner FROM job_leases WHERE job_name = ?", String.class, "pending-order-expiry"));
+        assertFalse(pendingOrderExpiryService.runWithLease(), "同一個間隔內不再執行");
+    }
+
+    private long insertOrder(String status, LocalDateTime orderDate) {
+        return orders.insertOrder(1L, status, orderDate, 2, 1L);
+    }
+
+    private int available(long ticketId) {
+        return jdbcTemplate.queryForObject("SELECT available_quantity FROM tickets WHERE id = ?", Integer.class,
+                ticketId);
+    }
+
+    private String status(long orderId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, orderId);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
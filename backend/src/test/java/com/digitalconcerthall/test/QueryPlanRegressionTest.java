@@ -0,0 +1,200 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.digitalconcerthall.config.QueryMeteringConfig;
+import com.digitalconcerthall.model.User;
+import com.digitalconcerthall.monitoring.query.QueryStatistics;
+import com.digitalconcerthall.monitoring.query.QueryStatisticsHolder;
+import com.digitalconcerthall.repository.TicketRepository;
+import com.digitalconcerthall.repository.UserRepository;
+import com.digitalconcerthall.repository.UserTicketRepository;
+import com.digitalconcerthall.repository.concert.ConcertRepository;
+import com.digitalconcerthall.repository.concert.ConcertSummaryRepository;
+import com.digitalconcerthall.repository.concert.PerformanceRepository;
+import com.digitalconcerthall.repository.order.OrderItemRepository;
+import com.digitalconcerthall.repository.order.OrderRepository;
+
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 查詢計畫回歸測試
+ * 在 MySQL 相容模式的 H2 上執行 Flyway 遷移，對每個熱門 Repository 查詢實際產生的 SQL 執行 EXPLAIN，
+ * 只要任何一張表出現全表掃描就失敗，避免新增查詢或修改索引時悄悄退化
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryMeteringConfig.class)
+@ActiveProfiles("h2")
+public class QueryPlanRegressionTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ConcertRepository concertRepository;
+
+    @Autowired
+    private PerformanceRepository performanceRepository;
+
+    @Autowired
+    private ConcertSummaryRepository concertSummaryRepository;
+
+    @Autowired
+    private UserTicketRepository userTicketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        user = userRepository.findById(1L).orElseThrow();
+    }
+
+    @Test
+    public void ticketQueriesUseIndexes() {
+        assertNoFullScan("TicketRepository.findByPerformance_Id",
+                () -> ticketRepository.findByPerformance_Id(7L));
+        assertNoFullScan("TicketRepository.findByPerformance_IdAndStatus",
+                () -> ticketRepository.findByPerformance_IdAndStatus(7L, "ACTIVE"));
+        assertNoFullScan("TicketRepository.findByTicketType_Id",
+                () -> ticketRepository.findByTicketType_Id(2L));
+        assertNoFullScan("TicketRepository.findByPerformance_IdAndTicketType_Id",
+                () -> ticketRepository.findByPerformance_IdAndTicketType_Id(7L, 2L));
+        assertNoFullScan("TicketRepository.findByUsername",
+                () -> ticketRepository.findByUsername("user1", PageRequest.of(0, 10)));
+        assertNoFullScan("TicketRepository.existsByIdAndUsername",
+                () -> ticketRepository.existsByIdAndUsername(1L, "user1"));
+    }
+
+    @Test
+    public void orderQueriesUseIndexes() {
+        assertNoFullScan("OrderRepository.findByUser",
+                () -> orderRepository.findByUser(user));
+        assertNoFullScan("OrderRepository.findByUserOrderByOrderDateDesc",
+                () -> orderRepository.findByUserOrderByOrderDateDesc(user, PageRequest.of(0, 5)));
+        assertNoFullScan("OrderRepository.findByOrderNumber",
+                () -> orderRepository.findByOrderNumber("ORD-1-1"));
+        assertNoFullScan("OrderRepository.existsByOrderNumber",
+                () -> orderRepository.existsByOrderNumber("ORD-1-1"));
+        assertNoFullScan("OrderRepository.findHeadersByUser",
+                () -> orderRepository.findHeadersByUser(user, PageRequest.of(0, 5)));
+        assertNoFullScan("OrderRepository.findHeaderByOrderNumber",
+                () -> orderRepository.findHeaderByOrderNumber("ORD-1-1"));
+        assertNoFullScan("OrderItemRepository.findViewsByOrderIds",
+                () -> orderItemRepository.findViewsByOrderIds(List.of(1L, 2L, 3L)));
+        assertNoFullScan("OrderRepository.findFirstPageByUser",
+                () -> orderRepository.findFirstPageByUser(user, Limit.of(6)));
+        assertNoFullScan("OrderRepository.findPageByUserBefore",
+                () -> orderRepository.findPageByUserBefore(user, LocalDateTime.now().minusHours(3), 3L, Limit.of(6)));
+    }
+
+    @Test
+    public void concertQueriesUseIndexes() {
+        assertNoFullScan("ConcertRepository.findByStatus",
+                () -> concertRepository.findByStatus("DRAFT"));
+        assertNoFullScan("PerformanceRepository.findByConcertId",
+                () -> performanceRepository.findByConcertId(3L));
+        assertNoFullScan("ConcertSummaryRepository.aggregatePerformances",
+                () -> concertSummaryRepository.aggregatePerformances(List.of(3L, 4L), LocalDateTime.now()));
+        assertNoFullScan("ConcertSummaryRepository.aggregateTickets",
+                () -> concertSummaryRepository.aggregateTickets(List.of(3L, 4L)));
+        assertNoFullScan("ConcertSummaryRepository.findVenues",
+                () -> concertSummaryRepository.findVenues(List.of(3L, 4L)));
+        assertNoFullScan("ConcertSummaryRepository.findConcertIdsByTicketType",
+                () -> concertSummaryRepository.findConcertIdsByTicketType(2L));
+    }
+
+    @Test
+    public void userTicketQueriesUseIndexes() {
+        assertNoFullScan("UserTicketRepository.findByUserOrderByCreatedAtDesc",
+                () -> userTicketRepository.findByUserOrderByCreatedAtDesc(user, PageRequest.of(0, 5)));
+        assertNoFullScan("UserTicketRepository.findByUser",
+                () -> userTicketRepository.findByUser(user, PageRequest.of(0, 5)));
+        assertNoFullScan("UserTicketRepository.findByTicketCode",
+                () -> userTicketRepository.findByTicketCode("UT-1"));
+        assertNoFullScan("UserTicketRepository.findByIdAndUser",
+                () -> userTicketRepository.findByIdAndUser(1L, user));
+        assertNoFullScan("UserTicketRepository.findSummariesByUser",
+                () -> userTicketRepository.findSummariesByUser(user, PageRequest.of(0, 5)));
+        assertNoFullScan("UserTicketRepository.findSummaryFirstPageByUser",
+                () -> userTicketRepository.findSummaryFirstPageByUser(user, Limit.of(6)));
+        assertNoFullScan("UserTicketRepository.findSummaryPageByUserBefore",
+                () -> userTicketRepository.findSummaryPageByUserBefore(user, LocalDateTime.now().minusHours(3), 3L,
+                        Limit.of(6)));
+        assertNoFullScan("UserTicketRepository.findDetailByIdAndUser",
+                () -> userTicketRepository.findDetailByIdAndUser(1L, user));
+    }
+
+    /**
+     * 執行查詢並收集實際送出的 SQL，逐一 EXPLAIN 檢查
+     */
+    private void assertNoFullScan(String name, Runnable query) {
+        QueryStatisticsHolder.start(100);
+        QueryStatistics statistics;
+        try {
+            query.run();
+        } finally {
+            statistics = QueryStatisticsHolder.stop();
+        }
+        assertTrue(statistics.getQueryCount() > 0, name + " 未執行任何 SQL");
+
+        for (QueryStatistics.StatementTiming timing : statistics.getSlowest()) {
+            String plan = explain(timing.getSql());
+            assertFalse(plan.toLowerCase(Locale.ROOT).contains(".tablescan"),
+                    name + " 出現全表掃描\nSQL: " + timing.getSql() + "\nPLAN: " + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                // 計畫只取決於條件結構，參數值以 NULL 代入即可
+                ParameterMetaData metaData = statement.getParameterMetaData();
+                for (int i = 1; i <= metaData.getParameterCount(); i++) {
+                    statement.setNull(i, metaData.getParameterType(i));
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
@@ -0,0 +1,156 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.digitalconcerthall.config.QueryMeteringConfig;
+import com.digitalconcerthall.dto.response.CursorPage;
+import com.digitalconcerthall.dto.response.order.OrderSummaryResponse;
+import com.digitalconcerthall.dto.response.ticket.UserTicketDetailResponse;
+import com.digitalconcerthall.dto.response.ticket.UserTicketSummaryResponse;
+import com.digitalconcerthall.model.User;
+import com.digitalconcerthall.monitoring.query.QueryStatisticsHolder;
+import com.digitalconcerthall.repository.UserRepository;
+import com.digitalconcerthall.repository.UserTicketRepository;
+import com.digitalconcerthall.security.services.UserDetailsImpl;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.order.OrderService;
+import com.digitalconcerthall.service.order.OrderServiceImpl;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 讀取模型查詢次數測試
+ * 以 QueryMeteringDataSource 計算實際送出的 SQL 次數，確認列表查詢的次數不隨每頁筆數增加
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ QueryMeteringConfig.class, OrderServiceImpl.class, ConcertSummaryService.class, JobLeaseService.class,
+        JobRegistry.class })
+@ActiveProfiles("h2")
+public class ReadModelQueryCountTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTicketRepository userTicketRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        user = userRepository.findById(1L).orElseThrow();
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void userTicketCursorPageIsSingleQuery() {
+        for (int size : new int[] { 5, 50 }) {
+            QueryStatisticsHolder.Measured<List<UserTicketSummaryResponse>> measured = QueryStatisticsHolder.measure(
+                    () -> userTicketRepository.findSummaryFirstPageByUser(user, Limit.of(size + 1)));
+
+            assertEquals(size + 1, measured.getResult().size());
+            assertNotNull(measured.getResult().get(0).getConcertTitle());
+            assertNotNull(measured.getResult().get(0).getOrderNumber());
+            assertEquals(1, measured.getStatistics().getQueryCount(), "每頁筆數 " + size + " 的查詢次數");
+        }
+    }
+
+    @Test
+    public void userTicketOffsetPageDoesNotGrowWithPageSize() {
+        for (int size : new int[] { 5, 50 }) {
+            QueryStatisticsHolder.Measured<Page<UserTicketSummaryResponse>> measured = QueryStatisticsHolder.measure(
+                    () -> userTicketRepository.findSummariesByUser(user, PageRequest.of(0, size)));
+
+            assertEquals(size, measured.getResult().getNumberOfElements());
+            // 資料查詢 + COUNT 查詢
+            assertEquals(2, measured.getStatistics().getQueryCount(), "每頁筆數 " + size + " 的查詢次數");
+        }
+    }
+
+    @Test
+    public void userTicketDetailIsSingleQuery() {
+        QueryStatisticsHolder.Measured<Optional<UserTicketDetailResponse>> measured = QueryStatisticsHolder.measure(
+                () -> userTicketRepository.findDetailByIdAndUser(1L, user));
+
+        assertTrue(measured.getResult().isPresent());
+        assertNotNull(measured.getResult().get().getPerformanceVenue());
+        assertEquals(1, measured.getStatistics().getQueryCount());
+    }
+
+    @Test
+    public void orderCursorPageIsBoundedByTwoQueries() {
+        for (int size : new int[] { 5, 20 }) {
+            QueryStatisticsHolder.Measured<CursorPage<OrderSummaryResponse>> measured = QueryStatisticsHolder.measure(
+                    () -> orderService.getCurrentUserOrders(null, size));
+
+            assertEquals(size, measured.getResult().getContent().size());
+            OrderSummaryResponse first = measured.getResult().getContent().get(0);
+            assertEquals(SampleDataSeeder.ITEMS_PER_ORDER, first.getItems().size());
+            assertNotNull(first.getItems().get(0).getConcertTitle());
+            // 訂單投影 + 訂單項目 IN 查詢
+            assertEquals(2, measured.getStatistics().getQueryCount(), "每頁筆數 " + size + " 的查詢次數");
+        }
+    }
+
+    @Test
+    public void orderOffsetPageDoesNotGrowWithPageSize() {
+        for (int size : new int[] { 5, 20 }) {
+            QueryStatisticsHolder.Measured<Page<OrderSummaryResponse>> measured =
+                    QueryStatisticsHolder.measure(() -> orderService.getCurrentUserOrders(PageRequest.of(0, size)));
+
+            assertEquals(size, measured.getResult().getNumberOfElements());
+            // 訂單投影 + COUNT + 訂單項目 IN 查詢
+            assertEquals(3, measured.getStatistics().getQueryCount(), "每頁筆數 " + size + " 的查詢次數");
+        }
+    }
+
+    @Test
+    public void orderDetailAndRecentOrdersAreBounded() {
+        QueryStatisticsHolder.Measured<OrderSummaryResponse> detail = QueryStatisticsHolder.measure(
+                () -> orderService.getOrderByOrderNumber("ORD-1-1"));
+        assertEquals(SampleDataSeeder.ITEMS_PER_ORDER, detail.getResult().getItems().size());
+        assertEquals(2, detail.getStatistics().getQueryCount());
+
+        QueryStatisticsHolder.Measured<List<OrderSummaryResponse>> recent = QueryStatisticsHolder.measure(
+                () -> orderService.getRecentOrders(10));
+        assertEquals(10, recent.getResult().size());
+        assertEquals(2, recent.getStatistics().getQueryCount());
+    }
+}
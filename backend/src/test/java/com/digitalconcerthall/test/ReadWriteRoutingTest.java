@@ -0,0 +1,213 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.config.ReadReplicaConfig;
+import com.digitalconcerthall.datasource.DataSourceRoutingContext;
+import com.digitalconcerthall.dto.response.order.OrderSummaryResponse;
+import com.digitalconcerthall.model.User;
+import com.digitalconcerthall.repository.UserRepository;
+import com.digitalconcerthall.security.services.UserDetailsImpl;
+import com.digitalconcerthall.service.concert.ConcertSummaryService;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+import com.digitalconcerthall.service.order.OrderService;
+import com.digitalconcerthall.service.order.OrderServiceImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 讀寫分離路由測試
+ * 主庫與從庫是兩個獨立的 H2 資料庫，各自只寫入一筆標記使用者，藉由讀到哪一筆判斷實際路由
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ ReadReplicaConfig.class, OrderServiceImpl.class, ConcertSummaryService.class, JobLeaseService.class,
+        JobRegistry.class })
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+        "spring.datasource.url=" + ReadWriteRoutingTest.PRIMARY_URL,
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "app.datasource.replica.sticky-window-ms=60000"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReadWriteRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:dch_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:dch_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String PRIMARY_MARKER = "primary-only";
+    private static final String REPLICA_MARKER = "replica-only";
+    private static final long HISTORY_USER_ID = 990_001L;
+    private static final String HISTORY_USER = "history-user";
+    private static final String PRIMARY_ORDER = "ORDPRIMARY990001";
+    private static final String REPLICA_ORDER = "ORDREPLICA990001";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    public void setUp() {
+        // 正式環境的從庫結構由複寫而來，測試中直接對從庫執行遷移
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+        insertMarker(PRIMARY_URL, PRIMARY_MARKER);
+        insertMarker(REPLICA_URL, REPLICA_MARKER);
+        insertHistory(PRIMARY_URL, PRIMARY_ORDER);
+        insertHistory(REPLICA_URL, REPLICA_ORDER);
+
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void readOnlyTransactionUsesReplica() {
+        assertEquals(REPLICA_MARKER, readMarker(readOnly));
+    }
+
+    @Test
+    public void readWriteTransactionUsesPrimary() {
+        assertEquals(PRIMARY_MARKER, readMarker(readWrite));
+    }
+
+    @Test
+    public void accessOutsideTransactionUsesPrimary() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, PRIMARY_MARKER);
+        assertEquals(1, count);
+    }
+
+    @Test
+    public void inheritedRepositoryReadUsesReplica() {
+        // SimpleJpaRepository 的讀取方法自帶唯讀交易
+        List<String> usernames = userRepository.findAll().stream().map(User::getUsername).toList();
+        assertTrue(usernames.contains(REPLICA_MARKER));
+        assertFalse(usernames.contains(PRIMARY_MARKER));
+    }
+
+    @Test
+    public void declaredQueryOutsideTransactionUsesPrimary() {
+        // 宣告的查詢方法沒有預設交易
+        assertTrue(userRepository.existsByUsername(PRIMARY_MARKER));
+        assertFalse(userRepository.existsByUsername(REPLICA_MARKER));
+    }
+
+    @Test
+    public void forcedPrimaryOverridesReadOnly() {
+        assertEquals(PRIMARY_MARKER, DataSourceRoutingContext.onPrimary(() -> readMarker(readOnly)));
+        assertEquals(REPLICA_MARKER, readMarker(readOnly));
+    }
+
+    @Test
+    public void readsStickToPrimaryAfterUserWrite() {
+        authenticate("sticky-user");
+        assertEquals(REPLICA_MARKER, readMarker(readOnly));
+
+        readWrite.executeWithoutResult(status -> userRepository.count());
+
+        assertEquals(PRIMARY_MARKER, readMarker(readOnly));
+
+        authenticate("other-user");
+        assertEquals(REPLICA_MARKER, readMarker(readOnly));
+    }
+
+    @Test
+    public void historyReadUsesReplicaUntilUserWrites() {
+        // 同一位使用者在兩個資料庫各有一筆不同編號的訂單
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new UserDetailsImpl(HISTORY_USER_ID, HISTORY_USER, HISTORY_USER + "@example.com", "x",
+                        List.of(new SimpleGrantedAuthority("ROLE_USER"))),
+                null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        assertEquals(List.of(REPLICA_ORDER), historyOrderNumbers());
+        assertEquals(REPLICA_ORDER, orderService.getOrderByOrderNumber(REPLICA_ORDER).getOrderNumber());
+
+        readWrite.executeWithoutResult(status -> userRepository.count());
+
+        assertEquals(List.of(PRIMARY_ORDER), historyOrderNumbers(), "寫入後的黏著期間歷史讀取走主庫");
+        assertEquals(PRIMARY_ORDER, orderService.getOrderByOrderNumber(PRIMARY_ORDER).getOrderNumber());
+    }
+
+    private List<String> historyOrderNumbers() {
+        return orderService.getCurrentUserOrders(PageRequest.of(0, 20)).getContent().stream()
+                .map(OrderSummaryResponse::getOrderNumber).toList();
+    }
+
+    /**
+     * 回傳目前連線所在資料庫中的標記使用者
+     */
+    private String readMarker(TransactionTemplate template) {
+        return template.execute(status -> {
+            if (userRepository.existsByUsername(PRIMARY_MARKER)) {
+                return PRIMARY_MARKER;
+            }
+            return userRepository.existsByUsername(REPLICA_MARKER) ? REPLICA_MARKER : null;
+        });
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    private static void insertHistory(String url, String orderNumber) {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbc.update("DELETE FROM orders WHERE user_id = ?", HISTORY_USER_ID);
+        jdbc.update("DELETE FROM users WHERE id = ?", HISTORY_USER_ID);
+        LocalDateTime now = LocalDateTime.now();
+        jdbc.update("INSERT INTO users (id, username, email, password, enabled, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", HISTORY_USER_ID, HISTORY_USER, HISTORY_USER + "@example.com", "x",
+                true, now, now);
+        jdbc.update("INSERT INTO orders (id, order_number, user_id, order_date, total_amount, status, payment_status) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", HISTORY_USER_ID, orderNumber, HISTORY_USER_ID, now,
+                new BigDecimal("1000.00"), "paid", "completed");
+    }
+
+    private static void insertMarker(String url, String username) {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbc.update("DELETE FROM users WHERE username IN (?, ?)", PRIMARY_MARKER, REPLICA_MARKER);
+        LocalDateTime now = LocalDateTime.now();
+        jdbc.update("INSERT INTO users (username, email, password, enabled, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", username, username + "@example.com", "x", true, now, now);
+    }
+}
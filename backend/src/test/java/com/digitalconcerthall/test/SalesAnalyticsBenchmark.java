@@ -0,0 +1,145 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.digitalconcerthall.service.analytics.SalesAnalyticsQuery;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsQuery.Dimension;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsQuery.Granularity;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsService;
+import com.digitalconcerthall.service.analytics.SalesRollupService;
+import com.digitalconcerthall.service.archive.ArchivePartitions;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * 一年份彙總資料上的查詢延遲
+ * 在 2001 年寫入 365 天、每天約 400 組（場次 × 票種 × 狀態）的每日彙總，約 146,000 列，
+ * 再對常見查詢（全年每日營收、依音樂會每月、單一音樂會每日、依票種每週）各執行 200 次並記錄 p50 / p99。
+ * 只在 -Dbenchmark=true 時執行：mvn test -Dtest=SalesAnalyticsBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ SalesRollupService.class, ArchivePartitions.class, SalesAnalyticsService.class, JobLeaseService.class,
+        JobRegistry.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SalesAnalyticsBenchmark {
+
+    private static final LocalDate YEAR_START = LocalDate.of(2001, 1, 1);
+    private static final int DAYS = 365;
+    private static final int CONCERTS = 100;
+    private static final int PERFORMANCES_PER_CONCERT = 3;
+    private static final int TICKET_TYPES = 4;
+    private static final int GROUPS_PER_DAY = 400;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void queryAYearOfRollups() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        Random random = new Random(42);
+        List<Object[]> sales = new ArrayList<>();
+        List<Object[]> orders = new ArrayList<>();
+        for (int d = 0; d < DAYS; d++) {
+            LocalDate day = YEAR_START.plusDays(d);
+            long paid = 0;
+            long paidTickets = 0;
+            for (int g = 0; g < GROUPS_PER_DAY; g++) {
+                // 每天的組合不重複：依序取場次與票種
+                int combination = (d * 7 + g) % (CONCERTS * PERFORMANCES_PER_CONCERT * TICKET_TYPES);
+                long performance = combination / TICKET_TYPES + 1;
+                long concert = (performance - 1) / PERFORMANCES_PER_CONCERT + 1;
+                int orderCount = 1 + random.nextInt(5);
+                int tickets = orderCount * (1 + random.nextInt(3));
+                sales.add(new Object[] { day, concert, performance, combination % TICKET_TYPES + 1, "paid", "completed",
+                        orderCount, tickets, BigDecimal.valueOf(tickets * 1000L) });
+                paid += orderCount;
+                paidTickets += tickets;
+            }
+            orders.add(new Object[] { day, "paid", "completed", paid, paidTickets, BigDecimal.valueOf(paidTickets * 1000L) });
+            orders.add(new Object[] { day, "pending", "pending", paid / 5, paidTickets / 5, BigDecimal.valueOf(paidTickets * 200L) });
+        }
+        long start = System.nanoTime();
+        for (int from = 0; from < sales.size(); from += 1000) {
+            jdbcTemplate.batchUpdate("INSERT INTO sales_rollup_daily (bucket_date, concert_id, performance_id, ticket_type_id, "
+                    + "order_status, payment_status, order_count, ticket_count, amount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    sales.subList(from, Math.min(from + 1000, sales.size())));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO order_rollup_daily (bucket_date, order_status, payment_status, order_count, "
+                + "ticket_count, amount) VALUES (?, ?, ?, ?, ?, ?)", orders);
+        jdbcTemplate.execute("ANALYZE");
+        System.out.printf("loaded %d daily rollup rows in %.0f ms%n", sales.size() + orders.size(),
+                (System.nanoTime() - start) / 1e6);
+
+        try {
+            measure("year, daily totals", q -> { });
+            measure("year, monthly by concert", q -> {
+                q.setGranularity(Granularity.MONTH);
+                q.setGroupBy(EnumSet.of(Dimension.CONCERT));
+            });
+            measure("year, one concert daily", q -> q.setConcertId(42L));
+            measure("year, weekly by ticket type", q -> {
+                q.setGranularity(Granularity.WEEK);
+                q.setGroupBy(EnumSet.of(Dimension.TICKET_TYPE));
+            });
+            measure("year, one performance monthly", q -> {
+                q.setGranularity(Granularity.MONTH);
+                q.setPerformanceId(125L);
+            });
+        } finally {
+            jdbcTemplate.update("DELETE FROM sales_rollup_daily WHERE bucket_date < ?", YEAR_START.plusYears(1));
+            jdbcTemplate.update("DELETE FROM order_rollup_daily WHERE bucket_date < ?", YEAR_START.plusYears(1));
+        }
+    }
+
+    private void measure(String name, Consumer<SalesAnalyticsQuery> configure) {
+        SalesAnalyticsQuery query = new SalesAnalyticsQuery();
+        query.setFrom(YEAR_START);
+        query.setTo(YEAR_START.plusDays(DAYS - 1));
+        configure.accept(query);
+        int points = 0;
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            points = salesAnalyticsService.query(query).getPoints().size();
+        }
+        assertTrue(points > 0);
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long begin = System.nanoTime();
+            salesAnalyticsService.query(query);
+            latencies[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-32s points %6d  p50 %7.3f ms  p99 %7.3f ms%n", name, points,
+                latencies[ITERATIONS / 2] / 1e6, latencies[(int) Math.ceil(ITERATIONS * 0.99) - 1] / 1e6);
+    }
+}
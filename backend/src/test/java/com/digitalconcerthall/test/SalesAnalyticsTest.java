@@ -0,0 +1,201 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.digitalconcerthall.dto.response.analytics.ConversionResponse;
+import com.digitalconcerthall.dto.response.analytics.SalesSeriesResponse;
+import com.digitalconcerthall.dto.response.analytics.SellThroughResponse;
+import com.digitalconcerthall.repository.order.OrderRepository;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsQuery;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsQuery.Dimension;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsQuery.Granularity;
+import com.digitalconcerthall.service.analytics.SalesAnalyticsService;
+import com.digitalconcerthall.service.analytics.SalesRollupEventListener;
+import com.digitalconcerthall.service.analytics.SalesRollupService;
+import com.digitalconcerthall.service.archive.ArchivePartitions;
+import com.digitalconcerthall.service.job.JobLeaseService;
+import com.digitalconcerthall.service.job.JobRegistry;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * 銷售分析測試
+ * 彙總結果與直接加總 orders / order_items 相同，小時、日、月粒度互相一致，
+ * 訂單狀態變更在提交後標記並於重算後反映，以及場次售票曲線
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ SalesRollupService.class, ArchivePartitions.class, SalesRollupEventListener.class,
+        SalesAnalyticsService.class, JobLeaseService.class, JobRegistry.class })
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SalesAnalyticsTest {
+
+    private static final long ORDER_ID = 1L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private LocalDate from;
+    private LocalDate to;
+
+    @BeforeEach
+    public void setUp() {
+        SampleDataSeeder.seedOnce(jdbcTemplate, transactionManager);
+        // 範例訂單從現在起每小時往前一張，約 63 天
+        to = LocalDate.now();
+        from = to.minusDays(70);
+        salesRollupService.rebuild(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    public void rollupsMatchBaseTables() {
+        SalesSeriesResponse byConcert = salesAnalyticsService.query(query(Granularity.DAY, Dimension.CONCERT));
+        assertEquals("sales_rollup_daily", byConcert.getSource());
+        assertEquals(count("SELECT SUM(oi.quantity) FROM order_items oi JOIN orders o ON o.id = oi.order_id "
+                + "WHERE o.order_date >= ?", since()), byConcert.getTotalTickets());
+        assertEquals(0, amount("SELECT SUM(oi.subtotal) FROM order_items oi JOIN orders o ON o.id = oi.order_id "
+                + "WHERE o.order_date >= ?").compareTo(byConcert.getTotalAmount()));
+        long concertId = byConcert.getPoints().get(0).getConcertId();
+        assertEquals("Concert " + concertId, byConcert.getPoints().get(0).getConcertTitle());
+        long concertTickets = byConcert.getPoints().stream().filter(point -> point.getConcertId() == concertId)
+                .mapToLong(SalesSeriesResponse.Point::getTickets).sum();
+        assertEquals(count("SELECT SUM(oi.quantity) FROM order_items oi JOIN orders o ON o.id = oi.order_id "
+                + "JOIN tickets t ON t.id = oi.ticket_id JOIN performances p ON p.id = t.performance_id "
+                + "WHERE o.order_date >= ? AND p.concert_id = ?", since(), concertId), concertTickets);
+
+        // 只依狀態分組時改讀訂單層級的彙總，訂單數不重複
+        SalesSeriesResponse byStatus = salesAnalyticsService.query(query(Granularity.DAY, Dimension.ORDER_STATUS));
+        assertEquals("order_rollup_daily", byStatus.getSource());
+        assertEquals(count("SELECT COUNT(*) FROM orders WHERE order_date >= ?", since()), byStatus.getTotalOrders());
+        assertEquals(0, amount("SELECT SUM(total_amount) FROM orders WHERE order_date >= ?")
+                .compareTo(byStatus.getTotalAmount()));
+        assertEquals(byConcert.getTotalTickets(), byStatus.getTotalTickets());
+    }
+
+    @Test
+    public void granularitiesAgree() {
+        SalesAnalyticsQuery daily = query(Granularity.DAY);
+        daily.setFrom(to.minusDays(2));
+        SalesAnalyticsQuery hourly = query(Granularity.HOUR);
+        hourly.setFrom(to.minusDays(2));
+        SalesSeriesResponse days = salesAnalyticsService.query(daily);
+        SalesSeriesResponse hours = salesAnalyticsService.query(hourly);
+        assertEquals("order_rollup_hourly", hours.getSource());
+        assertTrue(hours.getPoints().size() > days.getPoints().size());
+        assertEquals(days.getTotalOrders(), hours.getTotalOrders());
+        assertEquals(days.getTotalTickets(), hours.getTotalTickets());
+
+        SalesSeriesResponse months = salesAnalyticsService.query(query(Granularity.MONTH, Dimension.TICKET_TYPE));
+        SalesSeriesResponse allDays = salesAnalyticsService.query(query(Granularity.DAY, Dimension.TICKET_TYPE));
+        assertEquals(allDays.getTotalTickets(), months.getTotalTickets());
+        assertTrue(months.getPoints().stream().allMatch(point -> point.getBucketStart().getDayOfMonth() == 1));
+        assertTrue(months.getPoints().stream().allMatch(point -> point.getTicketTypeName().startsWith("Type ")));
+
+        SalesAnalyticsQuery tooLong = query(Granularity.HOUR);
+        assertThrows(IllegalArgumentException.class, () -> salesAnalyticsService.query(tooLong));
+    }
+
+    @Test
+    public void orderStatusChangeIsRolledUpAfterFlush() {
+        LocalDateTime orderDate = jdbcTemplate.queryForObject("SELECT order_date FROM orders WHERE id = ?",
+                LocalDateTime.class, ORDER_ID);
+        long quantity = count("SELECT SUM(quantity) FROM order_items WHERE order_id = ?", ORDER_ID);
+        SalesAnalyticsQuery day = query(Granularity.DAY);
+        day.setFrom(orderDate.toLocalDate());
+        day.setTo(orderDate.toLocalDate());
+        ConversionResponse before = salesAnalyticsService.conversion(day);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> orderRepository.findById(ORDER_ID).orElseThrow()
+                    .setStatus("cancelled"));
+            assertEquals(before.getPaidOrders(), salesAnalyticsService.conversion(day).getPaidOrders(),
+                    "重算前讀到的仍是舊的彙總");
+            assertTrue(salesRollupService.getPendingHours() > 0);
+            salesRollupService.flush();
+            assertEquals(0, salesRollupService.getPendingHours());
+
+            ConversionResponse after = salesAnalyticsService.conversion(day);
+            assertEquals(before.getOrders(), after.getOrders());
+            assertEquals(before.getPaidOrders() - 1, after.getPaidOrders());
+            SalesAnalyticsQuery cancelled = query(Granularity.DAY, Dimension.PERFORMANCE);
+            cancelled.setOrderStatus("cancelled");
+            assertEquals(quantity, salesAnalyticsService.query(cancelled).getTotalTickets());
+        } finally {
+            transaction.executeWithoutResult(status -> orderRepository.findById(ORDER_ID).orElseThrow()
+                    .setStatus("paid"));
+            salesRollupService.flush();
+        }
+        assertEquals(before.getPaidOrders(), salesAnalyticsService.conversion(day).getPaidOrders());
+    }
+
+    @Test
+    public void sellThroughAccumulatesPaidTickets() {
+        long performanceId = 1;
+        SellThroughResponse response = salesAnalyticsService.sellThrough(performanceId).orElseThrow();
+        assertEquals(1L, response.getConcertId());
+        assertEquals(count("SELECT SUM(total_quantity) FROM tickets WHERE performance_id = ?", performanceId),
+                response.getCapacity());
+        long sold = count("SELECT COALESCE(SUM(oi.quantity), 0) FROM order_items oi JOIN orders o ON o.id = oi.order_id "
+                + "JOIN tickets t ON t.id = oi.ticket_id WHERE t.performance_id = ? AND o.status = 'paid'", performanceId);
+        assertEquals(sold, response.getTicketsSold());
+        if (!response.getPoints().isEmpty()) {
+            SellThroughResponse.Point last = response.getPoints().get(response.getPoints().size() - 1);
+            assertEquals(sold, last.getCumulativeTickets());
+            assertEquals((double) sold / response.getCapacity(), last.getSellThrough(), 0.0001);
+        }
+        assertTrue(salesAnalyticsService.sellThrough(9_999_999L).isEmpty());
+    }
+
+    private SalesAnalyticsQuery query(Granularity granularity, Dimension... groupBy) {
+        SalesAnalyticsQuery query = new SalesAnalyticsQuery();
+        query.setFrom(from);
+        query.setTo(to);
+        query.setGranularity(granularity);
+        query.setGroupBy(groupBy.length == 0 ? EnumSet.noneOf(Dimension.class) : EnumSet.copyOf(List.of(groupBy)));
+        return query;
+    }
+
+    private LocalDateTime since() {
+        return from.atStartOfDay();
+    }
+
+    private long count(String sql, Object... args) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return value != null ? value : 0;
+    }
+
+    private BigDecimal amount(String sql) {
+        return jdbcTemplate.queryForObject(sql, BigDecimal.class, since());
+    }
+}
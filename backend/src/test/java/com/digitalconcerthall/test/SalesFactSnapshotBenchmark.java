@@ -0,0 +1,120 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.digitalconcerthall.service.analytics.SalesFactPartition;
+import com.digitalconcerthall.service.analytics.SalesFactQuery;
+import com.digitalconcerthall.service.analytics.SalesFactQuery.Dimension;
+import com.digitalconcerthall.service.analytics.SalesFactTable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * 銷售明細快照在 10,000,000 列時的彙總延遲
+ * 以兩年、每天約 13,700 列的隨機明細建立快照，比較單線程與全部核心平行掃描的 p50 / p99，
+ * 並量測整天替換分區的耗時。需要約 1 GB heap，只在 -Dbenchmark=true 時執行：
+ * mvn test -Dtest=SalesFactSnapshotBenchmark -Dbenchmark=true -DargLine=-Xmx2g
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class SalesFactSnapshotBenchmark {
+
+    private static final int ROWS = 10_000_000;
+    private static final int DAYS = 730;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final String[] STATUSES = { "paid", "paid", "paid", "pending", "cancelled" };
+    private static final String[] PAYMENT_STATUSES = { "completed", "pending", "failed" };
+
+    @Test
+    public void aggregate10mRows() {
+        SalesFactTable table = new SalesFactTable();
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        List<SalesFactPartition> partitions = new ArrayList<>(DAYS);
+        for (int day = 0; day < DAYS; day++) {
+            partitions.add(randomDay(table, FIRST_DAY.plusDays(day), ROWS / DAYS, random));
+        }
+        table.replaceAll(partitions);
+        System.out.printf("load: %d rows in %d partitions, %.0f ms%n", table.size(), table.partitionCount(),
+                (System.nanoTime() - start) / 1e6);
+        assertTrue(table.size() >= ROWS - DAYS);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(cores);
+        try {
+            for (ForkJoinPool pool : List.of(single, parallel)) {
+                System.out.printf("-- %d thread(s)%n", pool.getParallelism());
+                measure(table, pool, "total by month (partition totals)", q -> q.setGroupBy(List.of(Dimension.MONTH)));
+                measure(table, pool, "paid by day", q -> {
+                    q.setGroupBy(List.of(Dimension.DAY));
+                    q.setStatus("paid");
+                });
+                measure(table, pool, "by performance", q -> q.setGroupBy(List.of(Dimension.PERFORMANCE)));
+                measure(table, pool, "ticket type x status", q -> q.setGroupBy(List.of(Dimension.TICKET_TYPE,
+                        Dimension.STATUS)));
+                measure(table, pool, "weekday x hour, one concert", q -> {
+                    q.setGroupBy(List.of(Dimension.WEEKDAY, Dimension.HOUR));
+                    q.setConcertId(17L);
+                });
+                measure(table, pool, "last 30 days by concert", q -> {
+                    q.setFrom(FIRST_DAY.plusDays(DAYS - 30));
+                    q.setGroupBy(List.of(Dimension.CONCERT));
+                });
+            }
+        } finally {
+            single.shutdownNow();
+            parallel.shutdownNow();
+        }
+
+        // 提交後重新載入一天
+        long[] replace = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long begin = System.nanoTime();
+            table.put(randomDay(table, FIRST_DAY.plusDays(DAYS - 1), ROWS / DAYS, random));
+            replace[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(replace);
+        System.out.printf("replace one day (%d rows): p50 %.3f ms%n", ROWS / DAYS, replace[ITERATIONS / 2] / 1e6);
+    }
+
+    private static void measure(SalesFactTable table, ForkJoinPool pool, String name,
+            Consumer<SalesFactQuery> configure) {
+        SalesFactQuery query = new SalesFactQuery();
+        configure.accept(query);
+        int groups = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            groups = table.aggregate(query, pool, 1_000_000).getGroups().size();
+        }
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long begin = System.nanoTime();
+            table.aggregate(query, pool, 1_000_000);
+            latencies[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-36s groups %6d  p50 %8.3f ms  p99 %8.3f ms%n", name, groups,
+                latencies[ITERATIONS / 2] / 1e6, latencies[(int) Math.ceil(ITERATIONS * 0.99) - 1] / 1e6);
+    }
+
+    private static SalesFactPartition randomDay(SalesFactTable table, LocalDate day, int rows, Random random) {
+        SalesFactPartition.Builder builder = table.newPartition(day);
+        for (int i = 0; i < rows; i++) {
+            int performanceId = 1 + random.nextInt(3_000);
+            builder.add(random.nextInt(86_400), 50_000 + 10_000L * random.nextInt(40), 1 + random.nextInt(4),
+                    (performanceId + 2) / 3, performanceId, 1 + random.nextInt(4),
+                    STATUSES[random.nextInt(STATUSES.length)], PAYMENT_STATUSES[random.nextInt(PAYMENT_STATUSES.length)]);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,261 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.digitalconcerthall.service.analytics.SalesFactAggregation;
+import com.digitalconcerthall.service.analytics.SalesFactPartition;
+import com.digitalconcerthall.service.analytics.SalesFactQuery;
+import com.digitalconcerthall.service.analytics.SalesFactQuery.Dimension;
+import com.digitalconcerthall.service.analytics.SalesFactTable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 記憶體銷售明細表的彙總
+ * 以隨機明細比對逐列計算的結果，涵蓋篩選、兩個分組、日期範圍與整天替換分區
+ */
+public class SalesFactTableTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 1);
+    private static final int DAYS = 60;
+    private static final String[] STATUSES = { "paid", "pending", "cancelled" };
+    private static final String[] PAYMENT_STATUSES = { "completed", "pending", "failed" };
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    public static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    public static void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void aggregatesMatchRowByRowComputation() {
+        List<Fact> facts = randomFacts(new Random(7), 20_000);
+        SalesFactTable table = load(facts);
+        assertEquals(facts.size(), table.size());
+
+        assertMatches(table, facts, query(null, null));
+        assertMatches(table, facts, query(FIRST_DAY.plusDays(10), FIRST_DAY.plusDays(20), Dimension.DAY));
+        assertMatches(table, facts, query(null, null, Dimension.MONTH, Dimension.STATUS));
+        assertMatches(table, facts, query(null, null, Dimension.WEEK, Dimension.TICKET_TYPE));
+        assertMatches(table, facts, query(null, null, Dimension.HOUR, Dimension.WEEKDAY));
+        assertMatches(table, facts, query(FIRST_DAY.plusDays(5), null, Dimension.PERFORMANCE, Dimension.PAYMENT_STATUS));
+
+        SalesFactQuery filtered = query(null, FIRST_DAY.plusDays(40), Dimension.CONCERT);
+        filtered.setStatus("paid");
+        filtered.setPaymentStatus("completed");
+        filtered.setTicketTypeId(2L);
+        assertMatches(table, facts, filtered);
+
+        SalesFactQuery byPerformance = query(null, null, Dimension.DAY);
+        byPerformance.setPerformanceId(5L);
+        assertMatches(table, facts, byPerformance);
+    }
+
+    @Test
+    public void unknownFilterValuesMatchNothing() {
+        SalesFactTable table = load(randomFacts(new Random(11), 1_000));
+        SalesFactQuery query = query(null, null, Dimension.DAY);
+        query.setStatus("refunded");
+        assertEquals(0, table.aggregate(query, pool, 100).getRows());
+
+        query = query(null, null);
+        query.setConcertId(Long.MAX_VALUE);
+        assertEquals(0, table.aggregate(query, pool, 100).getRows());
+    }
+
+    @Test
+    public void replacingDayReplacesOnlyThatPartition() {
+        List<Fact> facts = randomFacts(new Random(3), 5_000);
+        SalesFactTable table = load(facts);
+        LocalDate day = FIRST_DAY.plusDays(15);
+
+        SalesFactPartition.Builder builder = table.newPartition(day);
+        builder.add(3600 * 20, 123_456, 4, 1, 1, 1, "paid", "completed");
+        table.put(builder.build());
+        List<Fact> expected = new ArrayList<>();
+        facts.stream().filter(fact -> !fact.day.equals(day)).forEach(expected::add);
+        expected.add(new Fact(day, 3600 * 20, 123_456, 4, 1, 1, 1, "paid", "completed"));
+        assertMatches(table, expected, query(null, null, Dimension.DAY, Dimension.STATUS));
+
+        // 當天沒有明細時移除分區
+        table.put(table.newPartition(day).build());
+        expected.removeIf(fact -> fact.day.equals(day));
+        assertMatches(table, expected, query(null, null, Dimension.DAY));
+        assertEquals(DAYS - 1, table.partitionCount());
+
+        assertEquals(10, table.removeBefore(FIRST_DAY.plusDays(10)));
+        expected.removeIf(fact -> fact.day.isBefore(FIRST_DAY.plusDays(10)));
+        assertMatches(table, expected, query(null, null, Dimension.CONCERT));
+    }
+
+    @Test
+    public void wholeDaysUsePartitionTotals() {
+        SalesFactTable table = load(randomFacts(new Random(5), 2_000));
+        SalesFactAggregation byMonth = table.aggregate(query(null, null, Dimension.MONTH), pool, 100);
+        assertEquals(0, byMonth.getRowsScanned(), "只以日期分組時不需要逐列掃描");
+        assertEquals(DAYS, byMonth.getPartitionsScanned());
+
+        SalesFactQuery filtered = query(null, null, Dimension.MONTH);
+        filtered.setStatus("paid");
+        assertEquals(2_000, table.aggregate(filtered, pool, 100).getRowsScanned());
+    }
+
+    @Test
+    public void rejectsInvalidQueries() {
+        SalesFactTable table = load(randomFacts(new Random(9), 2_000));
+        assertThrows(IllegalArgumentException.class,
+                () -> table.aggregate(query(null, null, Dimension.DAY, Dimension.HOUR, Dimension.STATUS), pool, 100));
+        assertThrows(IllegalArgumentException.class,
+                () -> table.aggregate(query(null, null, Dimension.DAY, Dimension.DAY), pool, 100));
+        assertThrows(IllegalArgumentException.class,
+                () -> table.aggregate(query(FIRST_DAY.plusDays(2), FIRST_DAY), pool, 100));
+        assertThrows(IllegalArgumentException.class,
+                () -> table.aggregate(query(null, null, Dimension.DAY, Dimension.HOUR), pool, 100), "超過分組數上限");
+        assertEquals(Dimension.TICKET_TYPE, Dimension.parse("ticketType"));
+        assertEquals(Dimension.PAYMENT_STATUS, Dimension.parse("payment_status"));
+        assertThrows(IllegalArgumentException.class, () -> Dimension.parse("venue"));
+    }
+
+    private static void assertMatches(SalesFactTable table, List<Fact> facts, SalesFactQuery query) {
+        Map<List<Object>, long[]> expected = new HashMap<>();
+        for (Fact fact : facts) {
+            if (!fact.matches(query)) {
+                continue;
+            }
+            List<Object> key = new ArrayList<>();
+            for (Dimension dimension : query.getGroupBy()) {
+                key.add(fact.value(dimension));
+            }
+            long[] totals = expected.computeIfAbsent(key, k -> new long[3]);
+            totals[0]++;
+            totals[1] += fact.quantity;
+            totals[2] += fact.amountCents;
+        }
+
+        SalesFactAggregation result = table.aggregate(query, pool, 100_000);
+        assertEquals(expected.size(), result.getGroups().size());
+        long rows = 0;
+        for (SalesFactAggregation.Group group : result.getGroups()) {
+            long[] totals = expected.get(new ArrayList<>(group.getKey().values()));
+            assertNotNull(totals, "不應出現的分組: " + group.getKey());
+            assertEquals(totals[0], group.getRows(), group.getKey().toString());
+            assertEquals(totals[1], group.getTickets(), group.getKey().toString());
+            assertEquals(BigDecimal.valueOf(totals[2], 2), group.getAmount(), group.getKey().toString());
+            rows += group.getRows();
+        }
+        assertEquals(rows, result.getRows());
+    }
+
+    private static SalesFactQuery query(LocalDate from, LocalDate to, Dimension... groupBy) {
+        SalesFactQuery query = new SalesFactQuery();
+        query.setFrom(from);
+        query.setTo(to);
+        query.setGroupBy(List.of(groupBy));
+        return query;
+    }
+
+    private static SalesFactTable load(List<Fact> facts) {
+        SalesFactTable table = new SalesFactTable();
+        Map<LocalDate, SalesFactPartition.Builder> builders = new HashMap<>();
+        for (Fact fact : facts) {
+            builders.computeIfAbsent(fact.day, table::newPartition).add(fact.secondOfDay, fact.amountCents,
+                    fact.quantity, fact.concertId, fact.performanceId, fact.ticketTypeId, fact.status,
+                    fact.paymentStatus);
+        }
+        List<SalesFactPartition> partitions = new ArrayList<>();
+        builders.values().forEach(builder -> partitions.add(builder.build()));
+        table.replaceAll(partitions);
+        return table;
+    }
+
+    private static List<Fact> randomFacts(Random random, int count) {
+        List<Fact> facts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // 前 DAYS 筆確保每天至少一筆
+            LocalDate day = FIRST_DAY.plusDays(i < DAYS ? i : random.nextInt(DAYS));
+            long performanceId = 1 + random.nextInt(30);
+            facts.add(new Fact(day, random.nextInt(86_400), 50_000 + 10_000L * random.nextInt(20), 1 + random.nextInt(4),
+                    (performanceId + 2) / 3, performanceId, 1 + random.nextInt(4),
+                    STATUSES[random.nextInt(STATUSES.length)], PAYMENT_STATUSES[random.nextInt(PAYMENT_STATUSES.length)]));
+        }
+        return facts;
+    }
+
+    private static final class Fact {
+
+        final LocalDate day;
+        final int secondOfDay;
+        final long amountCents;
+        final int quantity;
+        final long concertId;
+        final long performanceId;
+        final long ticketTypeId;
+        final String status;
+        final String paymentStatus;
+
+        Fact(LocalDate day, int secondOfDay, long amountCents, int quantity, long concertId, long performanceId,
+                long ticketTypeId, String status, String paymentStatus) {
+            this.day = day;
+            this.secondOfDay = secondOfDay;
+            this.amountCents = amountCents;
+            this.quantity = quantity;
+            this.concertId = concertId;
+            this.performanceId = performanceId;
+            this.ticketTypeId = ticketTypeId;
+            this.status = status;
+            this.paymentStatus = paymentStatus;
+        }
+
+        boolean matches(SalesFactQuery query) {
+            return (query.getFrom() == null || !day.isBefore(query.getFrom()))
+                    && (query.getTo() == null || !day.isAfter(query.getTo()))
+                    && (query.getConcertId() == null || query.getConcertId() == concertId)
+                    && (query.getPerformanceId() == null || query.getPerformanceId() == performanceId)
+                    && (query.getTicketTypeId() == null || query.getTicketTypeId() == ticketTypeId)
+                    && (query.getStatus() == null || query.getStatus().equals(status))
+                    && (query.getPaymentStatus() == null || query.getPaymentStatus().equals(paymentStatus));
+        }
+
+        Object value(Dimension dimension) {
+            switch (dimension) {
+                case DAY:
+                    return day.toString();
+                case WEEK:
+                    return day.minusDays(day.getDayOfWeek().getValue() - 1).toString();
+                case MONTH:
+                    return day.toString().substring(0, 7);
+                case WEEKDAY:
+                    return day.getDayOfWeek().getValue();
+                case HOUR:
+                    return secondOfDay / 3600;
+                case CONCERT:
+                    return concertId;
+                case PERFORMANCE:
+                    return performanceId;
+                case TICKET_TYPE:
+                    return ticketTypeId;
+                case STATUS:
+                    return status;
+                default:
+                    return paymentStatus;
+            }
+        }
+    }
+}
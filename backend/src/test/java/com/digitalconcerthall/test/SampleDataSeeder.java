@@ -0,0 +1,120 @@
+package com.digitalconcerthall.test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 以批次 JDBC 寫入測試資料，供 H2 上的查詢計畫與查詢次數測試共用
+ * id 從 1 開始連續編號；使用者 N 的帳號為 userN，訂單編號為 ORD-N-序號，票券代碼為 UT-訂單項目 id。
+ * 資料在獨立交易中提交，同一個記憶體資料庫只寫入一次，不受測試交易回滾影響
+ */
+final class SampleDataSeeder {
+
+    static final int USERS = 50;
+    static final int CONCERTS = 60;
+    static final int PERFORMANCES_PER_CONCERT = 3;
+    static final int TICKET_TYPES = 4;
+    static final int ORDERS_PER_USER = 30;
+    static final int ITEMS_PER_ORDER = 3;
+
+    private SampleDataSeeder() {
+    }
+
+    static void seedOnce(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        boolean seeded = Boolean.TRUE.equals(transaction.execute(status -> {
+            Integer users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+            if (users != null && users > 0) {
+                return false;
+            }
+            insert(jdbcTemplate);
+            return true;
+        }));
+        if (seeded) {
+            // 更新統計資訊，讓優化器依實際選擇性挑選索引
+            jdbcTemplate.execute("ANALYZE");
+        }
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> users = new ArrayList<>();
+        for (int u = 1; u <= USERS; u++) {
+            users.add(new Object[] { u, "user" + u, "user" + u + "@example.com", "x", true, now, now });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, password, enabled, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", users);
+
+        String[] statuses = { "active", "upcoming", "past", "DRAFT" };
+        List<Object[]> concerts = new ArrayList<>();
+        List<Object[]> performances = new ArrayList<>();
+        int performanceId = 0;
+        for (int c = 1; c <= CONCERTS; c++) {
+            LocalDateTime start = now.plusDays(c);
+            concerts.add(new Object[] { c, "Concert " + c, statuses[c % statuses.length], start, start.plusHours(2), now, now });
+            for (int p = 0; p < PERFORMANCES_PER_CONCERT; p++) {
+                performanceId++;
+                performances.add(new Object[] { performanceId, c, start.plusHours(p * 3L), start.plusHours(p * 3L + 2),
+                        "Main Hall", "SCHEDULED" });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO concerts (id, title, status, start_date_time, end_date_time, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", concerts);
+        jdbcTemplate.batchUpdate("INSERT INTO performances (id, concert_id, start_time, end_time, venue, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", performances);
+
+        List<Object[]> ticketTypes = new ArrayList<>();
+        for (int t = 1; t <= TICKET_TYPES; t++) {
+            ticketTypes.add(new Object[] { t, "Type " + t, new BigDecimal(500 * t), now });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO ticket_types (id, name, price, created_at) VALUES (?, ?, ?, ?)", ticketTypes);
+
+        List<Object[]> tickets = new ArrayList<>();
+        int ticketId = 0;
+        for (int p = 1; p <= performanceId; p++) {
+            for (int t = 1; t <= TICKET_TYPES; t++) {
+                ticketId++;
+                tickets.add(new Object[] { ticketId, p, t, 100, 80, t % 2 == 0 ? "ACTIVE" : "SOLD_OUT",
+                        "user" + (ticketId % USERS + 1), now });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tickets (id, performance_id, ticket_type_id, total_quantity, available_quantity, "
+                + "status, username, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", tickets);
+
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> orderItems = new ArrayList<>();
+        List<Object[]> userTickets = new ArrayList<>();
+        int orderId = 0;
+        int orderItemId = 0;
+        for (int u = 1; u <= USERS; u++) {
+            for (int o = 1; o <= ORDERS_PER_USER; o++) {
+                orderId++;
+                LocalDateTime orderDate = now.minusHours(orderId);
+                BigDecimal total = new BigDecimal("1000.00").multiply(BigDecimal.valueOf(ITEMS_PER_ORDER));
+                orders.add(new Object[] { orderId, "ORD-" + u + "-" + o, u, orderDate, total, "paid", "completed" });
+                for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                    orderItemId++;
+                    orderItems.add(new Object[] { orderItemId, orderId, orderItemId % ticketId + 1, 1,
+                            new BigDecimal("1000.00"), new BigDecimal("1000.00") });
+                    userTickets.add(new Object[] { orderItemId, "UT-" + orderItemId, u, orderItemId, false,
+                            orderDate, orderDate });
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, order_number, user_id, order_date, total_amount, status, payment_status) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", orders);
+        jdbcTemplate.batchUpdate("INSERT INTO order_items (id, order_id, ticket_id, quantity, unit_price, subtotal) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", orderItems);
+        jdbcTemplate.batchUpdate("INSERT INTO user_tickets (id, ticket_code, user_id, order_item_id, is_used, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", userTickets);
+    }
+}
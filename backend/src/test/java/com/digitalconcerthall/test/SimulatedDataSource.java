@@ -0,0 +1,82 @@
+package com.digitalconcerthall.test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * 模擬固定大小連接池與 JDBC 往返延遲的 DataSource
+ * 只用號誌與 sleep，不使用 monitor，供負載與虛擬線程測試排除驅動本身的影響
+ */
+final class SimulatedDataSource extends AbstractDataSource {
+
+    private final Semaphore connections;
+    private final long statementLatencyMs;
+
+    SimulatedDataSource(int poolSize, long statementLatencyMs) {
+        this.connections = new Semaphore(poolSize, true);
+        this.statementLatencyMs = statementLatencyMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        try {
+            if (!connections.tryAcquire(30, TimeUnit.SECONDS)) {
+                throw new SQLTransientConnectionException("模擬連接池逾時");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e);
+        }
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "prepareStatement":
+                            return statement();
+                        case "close":
+                            if (closed.compareAndSet(false, true)) {
+                                connections.release();
+                            }
+                            return null;
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    private PreparedStatement statement() {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        Thread.sleep(statementLatencyMs);
+                    }
+                    return defaultValue(method.getReturnType());
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,190 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.digitalconcerthall.DigitalConcertHallApplication;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 就緒時間
+ * 以 h2 profile 在同一個 JVM 內反覆啟動完整應用程式，比較管理後台控制器延遲建立與否的就緒時間
+ * （ApplicationReadyEvent.getTimeTaken()），並由 "dch.deferred-init" 啟動步驟取得就緒後才執行的各任務耗時；
+ * 延後之前就緒報告在就緒前同步執行，就緒時間約為控制器立即建立的就緒時間加上其耗時；
+ * 超級使用者在就緒前建立，包含在就緒時間內。
+ * 另比較有無 diagnostics profile 的就緒時間與請求過濾器鏈長度（Servlet 過濾器、Spring Security 過濾器）
+ * 及處理方法數量。第一次啟動只用來暖機並建立結構。
+ * 執行時間較長，只在 -Dbenchmark=true 時執行：mvn test -Dtest=StartupTimeBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class StartupTimeBenchmark {
+
+    private static final int ROUNDS = 10;
+    private static final String DEFERRED_INIT_STEP = "dch.deferred-init";
+    private static final String DEFERRED_INIT_THREAD = "startup-init";
+    private static final String SUPERUSER_STEP = "dch.init.superuser";
+
+    private static final String BASE_PROFILES = "h2";
+    private static final String DIAGNOSTICS_PROFILES = "h2,diagnostics";
+
+    @Test
+    public void timeToReady() throws Exception {
+        // 第一次啟動的資料庫沒有超級使用者，包含密碼雜湊
+        Boot first = boot(BASE_PROFILES, true);
+
+        long[] lazy = new long[ROUNDS];
+        long[] eager = new long[ROUNDS];
+        long[] superuser = new long[ROUNDS];
+        Map<String, long[]> tasks = new LinkedHashMap<>();
+        for (int i = 0; i < ROUNDS; i++) {
+            // 交錯兩種設定，避免 JIT 與快取只偏向其中一種
+            Boot eagerBoot = boot(BASE_PROFILES, false);
+            eager[i] = eagerBoot.readyMs;
+            Boot lazyBoot = boot(BASE_PROFILES, true);
+            lazy[i] = lazyBoot.readyMs;
+            superuser[i] = lazyBoot.superuserMs;
+            for (Map.Entry<String, Long> task : lazyBoot.deferredMs.entrySet()) {
+                tasks.computeIfAbsent(task.getKey(), name -> new long[ROUNDS])[i] = task.getValue();
+            }
+        }
+
+        System.out.printf("%-36s median %6d ms  min %6d ms%n", "ready, admin controllers eager", median(eager),
+                Arrays.stream(eager).min().orElse(0));
+        System.out.printf("%-36s median %6d ms  min %6d ms%n", "ready, admin controllers lazy", median(lazy),
+                Arrays.stream(lazy).min().orElse(0));
+        System.out.printf("%-36s first boot %6d ms  median %6d ms%n", "superuser before ready",
+                first.superuserMs, median(superuser));
+        long deferredTotal = 0;
+        for (Map.Entry<String, long[]> task : tasks.entrySet()) {
+            long taskMedian = median(task.getValue());
+            deferredTotal += taskMedian;
+            System.out.printf("%-36s median %6d ms%n", "deferred " + task.getKey(), taskMedian);
+        }
+        System.out.printf("%-36s median %6d ms%n", "deferred total", deferredTotal);
+        assertFalse(tasks.isEmpty(), "應記錄延後初始化任務");
+    }
+
+    @Test
+    public void diagnosticsProfile() throws Exception {
+        boot(BASE_PROFILES, true);
+
+        long[] without = new long[ROUNDS];
+        long[] with = new long[ROUNDS];
+        Boot withoutBoot = null;
+        Boot withBoot = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            withBoot = boot(DIAGNOSTICS_PROFILES, true);
+            with[i] = withBoot.readyMs;
+            withoutBoot = boot(BASE_PROFILES, true);
+            without[i] = withoutBoot.readyMs;
+        }
+
+        for (Object[] row : new Object[][] { { "without diagnostics", without, withoutBoot },
+                { "with diagnostics", with, withBoot } }) {
+            long[] ready = (long[]) row[1];
+            Boot sample = (Boot) row[2];
+            System.out.printf("%-22s ready median %6d ms  min %6d ms  servlet filters %d  security filters %d  "
+                    + "handler methods %d%n", row[0], median(ready), Arrays.stream(ready).min().orElse(0),
+                    sample.servletFilters, sample.securityFilters, sample.handlerMethods);
+        }
+        assertTrue(withBoot.handlerMethods > withoutBoot.handlerMethods, "diagnostics profile 應額外載入除錯端點");
+    }
+
+    private Boot boot(String profiles, boolean lazyAdminControllers) throws Exception {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(8192);
+        AtomicReference<Duration> ready = new AtomicReference<>();
+        SpringApplication application = new SpringApplication(DigitalConcertHallApplication.class);
+        application.setApplicationStartup(startup);
+        application.addListeners(event -> {
+            if (event instanceof ApplicationReadyEvent readyEvent) {
+                ready.set(readyEvent.getTimeTaken());
+            }
+        });
+        try (ConfigurableApplicationContext context = application.run("--spring.profiles.active=" + profiles, "--server.port=0",
+                "--app.startup.lazy-admin-controllers=" + lazyAdminControllers)) {
+            assertEquals(1, context.getBean(JdbcTemplate.class).queryForObject(
+                    "SELECT COUNT(*) FROM admin_users WHERE username = 'superuser'", Integer.class),
+                    "就緒時應已建立超級使用者");
+            awaitDeferredInit();
+            Boot result = new Boot(ready.get().toMillis());
+            chainLength(context, result);
+            StartupTimeline timeline = startup.getBufferedTimeline();
+            for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+                if (SUPERUSER_STEP.equals(event.getStartupStep().getName())) {
+                    result.superuserMs = event.getDuration().toMillis();
+                }
+                if (DEFERRED_INIT_STEP.equals(event.getStartupStep().getName())) {
+                    for (var tag : event.getStartupStep().getTags()) {
+                        if ("task".equals(tag.getKey())) {
+                            result.deferredMs.put(tag.getValue(), event.getDuration().toMillis());
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 請求經過的過濾器數量與已註冊的處理方法數量
+     */
+    private static void chainLength(ConfigurableApplicationContext context, Boot result) {
+        if (context instanceof WebApplicationContext web && web.getServletContext() != null) {
+            result.servletFilters = web.getServletContext().getFilterRegistrations().size();
+        }
+        for (FilterChainProxy proxy : context.getBeansOfType(FilterChainProxy.class).values()) {
+            for (SecurityFilterChain chain : proxy.getFilterChains()) {
+                result.securityFilters += chain.getFilters().size();
+            }
+        }
+        result.handlerMethods = context.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class)
+                .getHandlerMethods().size();
+    }
+
+    /**
+     * 等待就緒後的背景初始化線程完成，關閉 context 前量到完整的任務時間
+     */
+    private static void awaitDeferredInit() throws InterruptedException {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (DEFERRED_INIT_THREAD.equals(thread.getName())) {
+                thread.join(Duration.ofMinutes(2).toMillis());
+            }
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static final class Boot {
+        private final long readyMs;
+        private final Map<String, Long> deferredMs = new LinkedHashMap<>();
+        private long superuserMs;
+        private int servletFilters;
+        private int securityFilters;
+        private int handlerMethods;
+
+        private Boot(long readyMs) {
+            this.readyMs = readyMs;
+        }
+    }
+}
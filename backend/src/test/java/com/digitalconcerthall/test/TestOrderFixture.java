@@ -0,0 +1,98 @@
+package com.digitalconcerthall.test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 測試自行寫入的訂單、明細與使用者票券
+ * 每個測試類別使用自己的 id 區段（下方常數），訂單與明細（及同 id 的使用者票券）從區段起點連續編號，
+ * 不與 SampleDataSeeder 的資料或其他測試重疊；清除時只刪除該區段
+ */
+final class TestOrderFixture {
+
+    /** 每個測試類別可用的 id 數量 */
+    static final long RANGE_SIZE = 10_000L;
+
+    static final long PENDING_ORDER_EXPIRY_TEST = 900_000L;
+    static final long ORDER_ARCHIVE_TEST = 910_000L;
+
+    private static final BigDecimal UNIT_PRICE = new BigDecimal("1000.00");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long firstId;
+    private final String numberPrefix;
+    private long nextId;
+
+    /**
+     * @param numberPrefix 訂單編號前綴，編號為前綴加訂單 id
+     */
+    TestOrderFixture(JdbcTemplate jdbcTemplate, long firstId, String numberPrefix) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.firstId = firstId;
+        this.numberPrefix = numberPrefix;
+        this.nextId = firstId;
+    }
+
+    long firstId() {
+        return firstId;
+    }
+
+    long lastId() {
+        return firstId + RANGE_SIZE - 1;
+    }
+
+    /**
+     * 寫入一筆訂單，每個票種一筆數量為 quantity 的明細；付款狀態與訂單狀態相同
+     * @return 訂單 id，明細 id 緊接在後
+     */
+    long insertOrder(long userId, String status, LocalDateTime orderDate, int quantity, long... ticketIds) {
+        return insert(userId, status, orderDate, quantity, false, ticketIds);
+    }
+
+    /**
+     * 寫入一筆已出票的訂單：每個票種一張票，使用者票券與明細同 id
+     * @return 訂單 id，明細與票券 id 緊接在後
+     */
+    long insertIssuedOrder(long userId, String status, LocalDateTime orderDate, long... ticketIds) {
+        return insert(userId, status, orderDate, 1, true, ticketIds);
+    }
+
+    /**
+     * 刪除本區段的使用者票券、明細與訂單
+     */
+    void deleteOrders() {
+        jdbcTemplate.update("DELETE FROM user_tickets WHERE id BETWEEN ? AND ?", firstId, lastId());
+        jdbcTemplate.update("DELETE FROM order_items WHERE id BETWEEN ? AND ?", firstId, lastId());
+        jdbcTemplate.update("DELETE FROM orders WHERE id BETWEEN ? AND ?", firstId, lastId());
+    }
+
+    private long insert(long userId, String status, LocalDateTime orderDate, int quantity, boolean issue,
+            long... ticketIds) {
+        long id = nextId();
+        BigDecimal subtotal = UNIT_PRICE.multiply(BigDecimal.valueOf(quantity));
+        jdbcTemplate.update("INSERT INTO orders (id, order_number, user_id, order_date, total_amount, status, "
+                + "payment_status) VALUES (?, ?, ?, ?, ?, ?, ?)", id, numberPrefix + id, userId, orderDate,
+                subtotal.multiply(BigDecimal.valueOf(ticketIds.length)), status, status);
+        for (long ticketId : ticketIds) {
+            // 明細以明確 id 寫入：自增起點不會因種子資料的明確 id 而後移
+            long itemId = nextId();
+            jdbcTemplate.update("INSERT INTO order_items (id, order_id, ticket_id, quantity, unit_price, subtotal) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", itemId, id, ticketId, quantity, UNIT_PRICE, subtotal);
+            if (issue) {
+                jdbcTemplate.update("INSERT INTO user_tickets (id, ticket_code, user_id, order_item_id, is_used, "
+                        + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", itemId, "UT-" + itemId, userId,
+                        itemId, true, orderDate, orderDate);
+            }
+        }
+        return id;
+    }
+
+    private long nextId() {
+        if (nextId > lastId()) {
+            throw new IllegalStateException("測試資料超出 id 區段: " + firstId + "-" + lastId());
+        }
+        return nextId++;
+    }
+}
@@ -0,0 +1,134 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.digitalconcerthall.datasource.BulkheadDataSource;
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 平台線程與虛擬線程的下單負載比較
+ * 5,000 個同時送出的下單請求，每筆在連線內執行 3 條 SQL，另有不占連線的等待（外部服務呼叫、回應傳輸）。
+ * 平台線程以 Tomcat 預設的 200 條工作線程模擬，虛擬線程則每個請求一條；兩者共用同一個 20 連線的連接池與 bulkhead。
+ * 執行時間較長，只在 -Dbenchmark=true 時執行：mvn -Pjava21 test -Dtest=VirtualThreadCheckoutBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class VirtualThreadCheckoutBenchmark {
+
+    private static final int CLIENTS = 5_000;
+    private static final int POOL_SIZE = 20;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long STATEMENT_MS = 2;
+    private static final int STATEMENTS_PER_CHECKOUT = 3;
+    private static final long NETWORK_WAIT_MS = 200;
+
+    @Test
+    public void compareCheckoutThroughput() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "虛擬線程需要 Java 21");
+
+        Result platform = run("platform", Executors.newFixedThreadPool(TOMCAT_MAX_THREADS));
+        Result virtual = run("virtual", (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+
+        System.out.println(platform);
+        System.out.println(virtual);
+
+        assertEquals(CLIENTS, platform.completed);
+        assertEquals(CLIENTS, virtual.completed);
+        // 平台線程時大部分請求在等工作線程，虛擬線程時只剩連接池這一個瓶頸
+        assertTrue(virtual.elapsedMs < platform.elapsedMs, "虛擬線程的總耗時應較短");
+        assertTrue(virtual.p99Ms < platform.p99Ms, "虛擬線程的 p99 應較低");
+    }
+
+    private Result run(String name, ExecutorService executor) throws Exception {
+        BulkheadDataSource dataSource = new BulkheadDataSource(
+                new SimulatedDataSource(POOL_SIZE, STATEMENT_MS), Workload.CHECKOUT)
+                .partition(Workload.CHECKOUT, POOL_SIZE, 30_000);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>(CLIENTS);
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    checkout(dataSource);
+                    return System.nanoTime();
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+
+            // 延遲從所有請求同時送出起算，包含平台線程時排隊等工作線程的時間
+            List<Long> latencies = new ArrayList<>(CLIENTS);
+            for (Future<Long> future : futures) {
+                latencies.add(future.get(5, TimeUnit.MINUTES) - begin);
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+            Collections.sort(latencies);
+            return new Result(name, latencies.size(), elapsedMs,
+                    percentileMs(latencies, 0.50), percentileMs(latencies, 0.99));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 一筆下單：交易內執行 SQL，交易外等待網路
+     */
+    private static void checkout(BulkheadDataSource dataSource) throws Exception {
+        Workload previous = WorkloadContext.enter(Workload.CHECKOUT);
+        try {
+            try (Connection connection = dataSource.getConnection()) {
+                for (int i = 0; i < STATEMENTS_PER_CHECKOUT; i++) {
+                    try (PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                        statement.execute();
+                    }
+                }
+            }
+            Thread.sleep(NETWORK_WAIT_MS);
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private static double percentileMs(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(sorted.size() * percentile) - 1;
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+
+    private static final class Result {
+        private final String name;
+        private final int completed;
+        private final long elapsedMs;
+        private final double p50Ms;
+        private final double p99Ms;
+
+        private Result(String name, int completed, long elapsedMs, double p50Ms, double p99Ms) {
+            this.name = name;
+            this.completed = completed;
+            this.elapsedMs = elapsedMs;
+            this.p50Ms = p50Ms;
+            this.p99Ms = p99Ms;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s 完成 %d 筆, 總耗時 %d ms, 吞吐 %.0f/s, 延遲 p50 %.1f ms / p99 %.1f ms",
+                    name, completed, elapsedMs, completed * 1000.0 / elapsedMs, p50Ms, p99Ms);
+        }
+    }
+}
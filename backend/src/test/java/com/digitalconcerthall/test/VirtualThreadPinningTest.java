@@ -0,0 +1,167 @@
+package com.digitalconcerthall.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.digitalconcerthall.datasource.BulkheadDataSource;
+import com.digitalconcerthall.datasource.ReadYourWritesTracker;
+import com.digitalconcerthall.datasource.Workload;
+import com.digitalconcerthall.datasource.WorkloadContext;
+import com.digitalconcerthall.monitoring.TelemetryRingBuffer;
+import com.digitalconcerthall.monitoring.query.QueryMeteringDataSource;
+import com.digitalconcerthall.monitoring.query.QueryStatisticsHolder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * 虛擬線程釘住（pinning）檢查
+ * 在虛擬線程上大量並行執行連線分區、SQL 計量與監控緩衝區等會被每個請求經過的程式碼，
+ * 以 JFR 的 jdk.VirtualThreadPinned 事件確認沒有任何一段本專案的程式碼在持有 monitor 時阻塞。
+ * 只在 Java 21 以上執行（mvn -Pjava21 test），Java 17 會略過
+ */
+public class VirtualThreadPinningTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.digitalconcerthall.";
+    private static final String TEST_PACKAGE = "com.digitalconcerthall.test.";
+
+    private final Object monitor = new Object();
+
+    @BeforeEach
+    public void requireVirtualThreads() {
+        assumeTrue(Runtime.version().feature() >= 21, "虛擬線程需要 Java 21");
+    }
+
+    @Test
+    public void detectorReportsSynchronizedBlocking() throws Exception {
+        // JDK 24 起 synchronized 不再釘住虛擬線程（JEP 491），此時沒有可驗證的對照組
+        assumeTrue(Runtime.version().feature() < 24, "JDK 24 以上 synchronized 不會釘住虛擬線程");
+        List<RecordedEvent> events = recordPinning(() -> {
+            synchronized (monitor) {
+                sleep(30);
+            }
+        }, 1);
+        assertFalse(events.isEmpty(), "對照組應產生 " + PINNED_EVENT + " 事件，否則此檢查沒有意義");
+    }
+
+    @Test
+    public void requestPathDoesNotPinCarrierThreads() throws Exception {
+        BulkheadDataSource bulkhead = new BulkheadDataSource(new SimulatedDataSource(8, 5), Workload.BROWSE)
+                .partition(Workload.CHECKOUT, 4, 10_000)
+                .partition(Workload.BROWSE, 4, 10_000);
+        DataSource dataSource = new QueryMeteringDataSource(bulkhead, 1, (sql, durationMs) -> { });
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(5000);
+        TelemetryRingBuffer<Long> buffer = new TelemetryRingBuffer<>(64, Long::longValue);
+
+        List<RecordedEvent> events = recordPinning(() -> {
+            Workload previous = WorkloadContext.enter(Workload.CHECKOUT);
+            QueryStatisticsHolder.start(3);
+            try (Connection connection = dataSource.getConnection();
+                    PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                statement.execute();
+                String user = Thread.currentThread().toString();
+                tracker.recordWrite(user);
+                tracker.isSticky(user);
+                buffer.add(System.currentTimeMillis());
+                buffer.since(0);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                QueryStatisticsHolder.stop();
+                WorkloadContext.restore(previous);
+            }
+        }, 200);
+
+        List<String> appPinning = events.stream()
+                .filter(VirtualThreadPinningTest::pinnedInApplicationCode)
+                .map(VirtualThreadPinningTest::describe)
+                .collect(Collectors.toList());
+        assertTrue(appPinning.isEmpty(), "虛擬線程在本專案程式碼中被釘住:\n" + String.join("\n---\n", appPinning));
+    }
+
+    /**
+     * 以虛擬線程並行執行 task，回傳期間的釘住事件
+     */
+    private List<RecordedEvent> recordPinning(Runnable task, int tasks) throws Exception {
+        List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            stream.onEvent(PINNED_EVENT, events::add);
+            stream.startAsync();
+
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            try {
+                List<Future<?>> futures = new CopyOnWriteArrayList<>();
+                for (int i = 0; i < tasks; i++) {
+                    futures.add(executor.submit(task));
+                }
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdown();
+            }
+            // 讓串流送出最後一批事件
+            sleep(1500);
+        }
+        return events;
+    }
+
+    /**
+     * 專案以 Java 17 編譯，透過反射取得 Java 21 的虛擬線程執行器
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws Exception {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+
+    /**
+     * 堆疊中出現本專案（測試程式除外）的框架才算數；JDBC 驅動等第三方的釘住不在此檢查範圍
+     */
+    private static boolean pinnedInApplicationCode(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return false;
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APP_PACKAGE) && !type.startsWith(TEST_PACKAGE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(RecordedEvent event) {
+        return event.getStackTrace().getFrames().stream()
+                .limit(15)
+                .map(frame -> "  at " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}